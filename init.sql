@@ -78,6 +78,9 @@ CREATE TABLE IF NOT EXISTS user_preferences (
     genre_preferences JSONB,
     mood_preferences JSONB,
     rating_patterns JSONB,
+    total_reviews INTEGER NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    total_favorites INTEGER NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     UNIQUE(user_id)
@@ -106,6 +109,28 @@ CREATE TABLE IF NOT EXISTS co_review_participants (
     UNIQUE(co_review_id, user_id)
 );
 
+-- Precomputed per-user recommendation lists (배치 사전 계산, 영화 UUID 16바이트씩 연결)
+CREATE TABLE IF NOT EXISTS user_recommendations (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    social_movie_ids BYTEA,
+    personalized_movie_ids BYTEA,
+    content_movie_ids BYTEA,
+    computed_at TIMESTAMP NOT NULL
+);
+
+-- Recommendation batch runs (재시작 시 last_user_id 이후부터 이어서 실행)
+CREATE TABLE IF NOT EXISTS recommendation_batch_runs (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    status VARCHAR(20) NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    last_user_id UUID,
+    total_users BIGINT,
+    processed_users BIGINT DEFAULT 0,
+    failed_users BIGINT DEFAULT 0,
+    failed_user_ids BYTEA
+);
+
 -- Create indexes for performance
 CREATE INDEX IF NOT EXISTS idx_movies_tmdb_id ON movies(tmdb_id);
 CREATE INDEX IF NOT EXISTS idx_movies_title ON movies(title);
@@ -118,6 +143,7 @@ CREATE INDEX IF NOT EXISTS idx_reviews_movie_id ON reviews(movie_id);
 CREATE INDEX IF NOT EXISTS idx_reviews_rating ON reviews(rating);
 CREATE INDEX IF NOT EXISTS idx_trends_keyword ON trends(keyword);
 CREATE INDEX IF NOT EXISTS idx_trends_created_at ON trends(created_at);
+CREATE INDEX IF NOT EXISTS idx_recommendation_batch_runs_started_at ON recommendation_batch_runs(started_at);
 
 -- Insert sample data
 INSERT INTO users (email, password, username, role) VALUES 
@@ -1,14 +1,18 @@
 package com.moviehub.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -21,20 +25,34 @@ public class CacheConfig {
     
     @Bean
     @Profile("!local")
-    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                          StringRedisTemplate redisTemplate,
+                                          @Value("${cache.default-ttl:3600}") long ttlSeconds,
+                                          @Value("${cache.coalescing.early-refresh-beta:1.0}") double beta,
+                                          @Value("${cache.coalescing.distributed-lock:true}") boolean distributedLock,
+                                          @Value("${cache.coalescing.lock-timeout-ms:5000}") long lockTimeoutMillis) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofHours(1))
+                .entryTtl(ttl)
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
         
-        return RedisCacheManager.builder(connectionFactory)
+        // 사용자별 키 패턴 삭제(CoalescingCache.evictByPrefix)가 KEYS 로 Redis 를 막지 않도록 SCAN 으로 지운다
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(
+                        RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000)))
                 .cacheDefaults(config)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+        
+        // 같은 키의 동시 미스는 노드당(락을 쓰면 클러스터당) 한 번만 로드하고, 만료 전에 확률적으로 미리 갱신한다
+        return new CoalescingCacheManager(redisCacheManager, ttl, beta,
+                distributedLock ? redisTemplate : null, Duration.ofMillis(lockTimeoutMillis));
     }
     
     @Bean
     @Profile("local")
     public CacheManager localCacheManager() {
-        return new ConcurrentMapCacheManager();
+        // 로컬 캐시는 만료가 없으므로 노드 안 합치기만 한다
+        return new CoalescingCacheManager(new ConcurrentMapCacheManager(), null, 0.0, null, Duration.ZERO);
     }
 }
@@ -0,0 +1,279 @@
+package com.moviehub.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 캐시 미스 시 같은 키의 로더를 노드당 하나만 실행하는 Cache 데코레이터.
+ * <p>
+ * {@code @Cacheable(sync = true)} 경로({@link #get(Object, Callable)})에서 동작한다. 처음 미스한 요청이
+ * 로더를 실행하고 나머지는 같은 future 를 기다린다. Redis 락을 주면 SET NX 로 노드 간에도 한 곳만
+ * 로드하고, 나머지 노드는 값이 채워질 때까지 캐시를 다시 읽는다.
+ * 값은 계산 시간과 만료 시각을 담은 {@link Entry} 로 감싸 저장한다. 조회할 때는 확률적 조기 갱신
+ * (XFetch: now − Δ·β·ln(rand) ≥ 만료)을 적용해, 자주 읽히는 키는 만료 전에 요청 하나가 미리 다시 계산한다.
+ */
+@Slf4j
+public class CoalescingCache implements Cache {
+
+    private static final DefaultRedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+    private static final long LOCK_POLL_MILLIS = 50;
+
+    private final Cache target;
+    private final Duration ttl;
+    private final double beta;
+    private final StringRedisTemplate lockTemplate;
+    private final Duration lockTimeout;
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttl          대상 캐시의 만료 시간. null 이면 만료가 없다고 보고 조기 갱신하지 않는다.
+     * @param lockTemplate null 이면 노드 간 락 없이 노드 안에서만 합친다.
+     */
+    public CoalescingCache(Cache target, Duration ttl, double beta, StringRedisTemplate lockTemplate, Duration lockTimeout) {
+        this.target = target;
+        this.ttl = ttl;
+        this.beta = beta;
+        this.lockTemplate = lockTemplate;
+        this.lockTimeout = lockTimeout;
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper stored = target.get(key);
+        return stored == null ? null : new SimpleValueWrapper(unwrap(stored.get()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper stored = get(key);
+        Object value = stored == null ? null : stored.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper stored = target.get(key);
+        if (stored != null) {
+            Object value = stored.get();
+            if (!(value instanceof Entry entry) || !shouldRefreshEarly(entry)) {
+                return (T) unwrap(value);
+            }
+            log.debug("Refreshing cache entry early: {}::{}", getName(), key);
+        }
+        return (T) load(key, valueLoader, stored != null);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        target.put(key, wrap(value, 0L));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = target.putIfAbsent(key, wrap(value, 0L));
+        return existing == null ? null : new SimpleValueWrapper(unwrap(existing.get()));
+    }
+
+    @Override
+    public void evict(Object key) {
+        target.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return target.evictIfPresent(key);
+    }
+
+    /**
+     * 문자열 키가 prefix 로 시작하는 항목을 모두 지운다. Redis 에서는 패턴 삭제(SCAN/KEYS)로,
+     * 로컬 맵에서는 키를 훑어서 지운다. 둘 다 아니면 캐시 전체를 비운다.
+     */
+    public void evictByPrefix(String prefix) {
+        if (target instanceof RedisCache redisCache) {
+            redisCache.clear(prefix + "*");
+        } else if (target.getNativeCache() instanceof ConcurrentMap<?, ?> map) {
+            map.keySet().removeIf(key -> key.toString().startsWith(prefix));
+        } else {
+            target.clear();
+        }
+    }
+
+    @Override
+    public void clear() {
+        target.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return target.invalidate();
+    }
+
+    private Object load(Object key, Callable<?> valueLoader, boolean refreshing) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(key, valueLoader, running);
+        }
+
+        try {
+            Object value = loadOnce(key, valueLoader, refreshing);
+            mine.complete(value);
+            return value;
+        } catch (Throwable e) {
+            mine.completeExceptionally(e);
+            throw e instanceof ValueRetrievalException retrieval ? retrieval
+                    : new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Object loadOnce(Object key, Callable<?> valueLoader, boolean refreshing) throws Exception {
+        // 기다리던 다른 로더가 방금 채웠을 수 있다
+        if (!refreshing) {
+            ValueWrapper stored = target.get(key);
+            if (stored != null) {
+                return unwrap(stored.get());
+            }
+        }
+
+        String lockKey = null;
+        String token = null;
+        if (lockTemplate != null) {
+            lockKey = "lock:" + getName() + "::" + key;
+            token = UUID.randomUUID().toString();
+            if (!tryLock(lockKey, token)) {
+                // 다른 노드가 이미 로드/갱신 중이다. 갱신이면 기존 값을 그대로 쓴다
+                ValueWrapper loadedElsewhere = refreshing ? target.get(key) : null;
+                if (loadedElsewhere == null) {
+                    loadedElsewhere = awaitOtherNode(key);
+                }
+                if (loadedElsewhere != null) {
+                    return unwrap(loadedElsewhere.get());
+                }
+                log.warn("Cache lock wait timed out, loading locally: {}", lockKey);
+                lockKey = null;
+            }
+        }
+
+        try {
+            long start = System.nanoTime();
+            Object value = valueLoader.call();
+            target.put(key, wrap(value, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            return value;
+        } finally {
+            if (lockKey != null) {
+                releaseLock(lockKey, token);
+            }
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw cause instanceof ValueRetrievalException retrieval ? retrieval
+                    : new ValueRetrievalException(key, valueLoader, cause);
+        }
+    }
+
+    private boolean tryLock(String lockKey, String token) {
+        try {
+            return Boolean.TRUE.equals(lockTemplate.opsForValue().setIfAbsent(lockKey, token, lockTimeout));
+        } catch (Exception e) {
+            log.warn("Cache lock unavailable, loading without it: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void releaseLock(String lockKey, String token) {
+        try {
+            lockTemplate.execute(RELEASE_LOCK, List.of(lockKey), token);
+        } catch (Exception e) {
+            log.warn("Failed to release cache lock {}: {}", lockKey, e.getMessage());
+        }
+    }
+
+    private ValueWrapper awaitOtherNode(Object key) {
+        long deadline = System.nanoTime() + lockTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            ValueWrapper stored = target.get(key);
+            if (stored != null) {
+                return stored;
+            }
+        }
+        return null;
+    }
+
+    private boolean shouldRefreshEarly(Entry entry) {
+        if (ttl == null || entry.getExpiresAt() <= 0 || entry.getComputeMillis() <= 0) {
+            return false;
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+        double gap = -entry.getComputeMillis() * beta * Math.log(random);
+        return System.currentTimeMillis() + gap >= entry.getExpiresAt();
+    }
+
+    private Entry wrap(Object value, long computeMillis) {
+        long expiresAt = ttl == null ? 0L : System.currentTimeMillis() + ttl.toMillis();
+        return new Entry(value, computeMillis, expiresAt);
+    }
+
+    private static Object unwrap(Object stored) {
+        return stored instanceof Entry entry ? entry.getValue() : stored;
+    }
+
+    /**
+     * 캐시에 실제로 저장되는 값. Redis JSON 직렬화를 위해 기본 생성자를 둔다.
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private Object value;
+        private long computeMillis;
+        private long expiresAt;
+    }
+}
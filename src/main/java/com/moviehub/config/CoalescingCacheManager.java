@@ -0,0 +1,50 @@
+package com.moviehub.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 대상 CacheManager 의 캐시를 모두 {@link CoalescingCache} 로 감싼다.
+ */
+public class CoalescingCacheManager implements CacheManager {
+
+    private final CacheManager target;
+    private final Duration ttl;
+    private final double beta;
+    private final StringRedisTemplate lockTemplate;
+    private final Duration lockTimeout;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public CoalescingCacheManager(CacheManager target, Duration ttl, double beta,
+                                  StringRedisTemplate lockTemplate, Duration lockTimeout) {
+        this.target = target;
+        this.ttl = ttl;
+        this.beta = beta;
+        this.lockTemplate = lockTemplate;
+        this.lockTimeout = lockTimeout;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache targetCache = target.getCache(name);
+        if (targetCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new CoalescingCache(targetCache, ttl, beta, lockTemplate, lockTimeout));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return target.getCacheNames();
+    }
+}
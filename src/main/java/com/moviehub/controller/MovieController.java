@@ -61,15 +61,30 @@ public class MovieController {
     }
     
     @GetMapping("/search")
-    @Operation(summary = "영화 검색", description = "제목으로 영화를 검색합니다.")
+    @Operation(summary = "영화 검색", description = "제목으로 영화를 검색합니다. 초성(ㅇㅂㅈㅅ)과 입력 중인 글자(자모)로도, 오타가 있어도(fuzzy) 찾을 수 있습니다.")
     public ResponseEntity<Page<MovieDto>> searchMovies(
             @Parameter(description = "검색어") @RequestParam String query,
+            @Parameter(description = "검색 모드 (text, chosung, jamo, fuzzy)") @RequestParam(defaultValue = "text") String mode,
             @Parameter(description = "페이지 번호") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "페이지 크기") @RequestParam(defaultValue = "20") int size) {
         
-        Pageable pageable = PageRequest.of(page, size);
-        Page<MovieDto> movies = movieService.searchMovies(query, pageable);
-        return ResponseEntity.ok(movies);
+        try {
+            Pageable pageable = PageRequest.of(page, size);
+            Page<MovieDto> movies = movieService.searchMovies(query, mode, pageable);
+            return ResponseEntity.ok(movies);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/autocomplete")
+    @Operation(summary = "영화 제목 자동완성", description = "제목 또는 원제가 접두어로 시작하는 영화를 인기도 순으로 조회합니다.")
+    public ResponseEntity<List<MovieDto.Suggestion>> autocomplete(
+            @Parameter(description = "접두어") @RequestParam String prefix,
+            @Parameter(description = "최대 개수") @RequestParam(defaultValue = "10") int limit) {
+        
+        List<MovieDto.Suggestion> suggestions = movieService.autocomplete(prefix, limit);
+        return ResponseEntity.ok(suggestions);
     }
     
     @GetMapping("/trending")
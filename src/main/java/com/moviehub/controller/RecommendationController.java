@@ -1,6 +1,8 @@
 package com.moviehub.controller;
 
 import com.moviehub.dto.RecommendationDto;
+import com.moviehub.service.RecommendationBatchService;
+import com.moviehub.service.RecommendationModelService;
 import com.moviehub.service.RecommendationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -8,6 +10,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,6 +25,8 @@ import java.util.UUID;
 public class RecommendationController {
     
     private final RecommendationService recommendationService;
+    private final RecommendationBatchService recommendationBatchService;
+    private final RecommendationModelService recommendationModelService;
     
     @GetMapping("/content-based")
     @Operation(summary = "콘텐츠 기반 추천", description = "특정 영화와 유사한 영화를 추천합니다.")
@@ -37,6 +42,20 @@ public class RecommendationController {
         }
     }
     
+    @GetMapping("/also-liked")
+    @Operation(summary = "함께 좋아한 영화 추천", description = "특정 영화를 높게 평가한 사용자들이 함께 높게 평가한 영화를 추천합니다.")
+    public ResponseEntity<List<RecommendationDto>> getAlsoLikedRecommendations(
+            @Parameter(description = "기준 영화 ID") @RequestParam UUID movieId,
+            @Parameter(description = "추천 개수") @RequestParam(defaultValue = "10") Integer limit) {
+        
+        try {
+            List<RecommendationDto> recommendations = recommendationService.getAlsoLikedRecommendations(movieId, limit);
+            return ResponseEntity.ok(recommendations);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/social-based")
     @Operation(summary = "소셜 기반 추천", description = "비슷한 취향의 사용자들이 좋아한 영화를 추천합니다.")
     public ResponseEntity<List<RecommendationDto>> getSocialBasedRecommendations(
@@ -51,6 +70,20 @@ public class RecommendationController {
         }
     }
     
+    @GetMapping("/personalized")
+    @Operation(summary = "맞춤 추천", description = "평점과 즐겨찾기로 학습한 행렬 분해 모델로 영화를 추천합니다.")
+    public ResponseEntity<List<RecommendationDto>> getPersonalizedRecommendations(
+            @Parameter(description = "사용자 ID") @RequestParam UUID userId,
+            @Parameter(description = "추천 개수") @RequestParam(defaultValue = "10") Integer limit) {
+        
+        try {
+            List<RecommendationDto> recommendations = recommendationService.getPersonalizedRecommendations(userId, limit);
+            return ResponseEntity.ok(recommendations);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/trending")
     @Operation(summary = "트렌딩 추천", description = "현재 인기 있는 영화를 추천합니다.")
     public ResponseEntity<List<RecommendationDto>> getTrendingRecommendations(
@@ -69,10 +102,11 @@ public class RecommendationController {
     @Operation(summary = "감정 기반 추천", description = "사용자의 기분에 맞는 영화를 추천합니다.")
     public ResponseEntity<List<RecommendationDto>> getMoodBasedRecommendations(
             @Parameter(description = "기분 (happy, sad, excited, relaxed, romantic, scared, adventurous, thoughtful)") @RequestParam String mood,
-            @Parameter(description = "추천 개수") @RequestParam(defaultValue = "10") Integer limit) {
+            @Parameter(description = "추천 개수") @RequestParam(defaultValue = "10") Integer limit,
+            @Parameter(description = "페이지 번호 (0부터)") @RequestParam(defaultValue = "0") Integer page) {
         
         try {
-            List<RecommendationDto> recommendations = recommendationService.getMoodBasedRecommendations(mood, limit);
+            List<RecommendationDto> recommendations = recommendationService.getMoodBasedRecommendations(mood, limit, page);
             return ResponseEntity.ok(recommendations);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -119,18 +153,140 @@ public class RecommendationController {
         }
     }
     
+    @GetMapping("/my/personalized")
+    @Operation(summary = "내 맞춤 추천", description = "현재 사용자에게 행렬 분해 모델 기반 추천을 제공합니다.")
+    public ResponseEntity<List<RecommendationDto>> getMyPersonalizedRecommendations(
+            @Parameter(description = "추천 개수") @RequestParam(defaultValue = "10") Integer limit,
+            Authentication authentication) {
+        
+        try {
+            UUID userId = UUID.fromString(authentication.getName());
+            List<RecommendationDto> recommendations = recommendationService.getPersonalizedRecommendations(userId, limit);
+            return ResponseEntity.ok(recommendations);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/my/content-based")
+    @Operation(summary = "내 콘텐츠 기반 추천", description = "현재 사용자가 높게 평가한 영화와 비슷한 영화를 추천합니다.")
+    public ResponseEntity<List<RecommendationDto>> getMyContentBasedRecommendations(
+            @Parameter(description = "추천 개수") @RequestParam(defaultValue = "10") Integer limit,
+            Authentication authentication) {
+        
+        try {
+            UUID userId = UUID.fromString(authentication.getName());
+            List<RecommendationDto> recommendations = recommendationService.getUserContentBasedRecommendations(userId, limit);
+            return ResponseEntity.ok(recommendations);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/my/hybrid")
+    @Operation(summary = "내 하이브리드 추천", description = "콘텐츠, 소셜, 트렌딩, 감정 기반 추천을 동시에 계산해 가중치로 섞은 목록을 제공합니다.")
+    public ResponseEntity<List<RecommendationDto>> getMyHybridRecommendations(
+            @Parameter(description = "기분 (선택)") @RequestParam(required = false) String mood,
+            @Parameter(description = "추천 개수") @RequestParam(defaultValue = "10") Integer limit,
+            Authentication authentication) {
+        
+        try {
+            UUID userId = UUID.fromString(authentication.getName());
+            List<RecommendationDto> recommendations = recommendationService.getHybridRecommendations(userId, mood, limit)
+                    .getRecommendations();
+            return ResponseEntity.ok(recommendations);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/my/mood")
     @Operation(summary = "내 감정 기반 추천", description = "현재 사용자의 기분에 맞는 영화를 추천합니다.")
     public ResponseEntity<List<RecommendationDto>> getMyMoodBasedRecommendations(
             @Parameter(description = "기분") @RequestParam String mood,
             @Parameter(description = "추천 개수") @RequestParam(defaultValue = "10") Integer limit,
+            @Parameter(description = "페이지 번호 (0부터)") @RequestParam(defaultValue = "0") Integer page,
+            Authentication authentication) {
+        
+        try {
+            UUID userId = UUID.fromString(authentication.getName());
+            List<RecommendationDto> recommendations =
+                    recommendationService.getUserMoodBasedRecommendations(userId, mood, limit, page);
+            return ResponseEntity.ok(recommendations);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/my/trending")
+    @Operation(summary = "내 트렌딩 추천", description = "현재 인기 있는 영화 중 사용자가 아직 보지 않은 영화를 추천합니다.")
+    public ResponseEntity<List<RecommendationDto>> getMyTrendingRecommendations(
+            @Parameter(description = "시간 범위 (day, week, month)") @RequestParam(defaultValue = "day") String timeRange,
+            @Parameter(description = "추천 개수") @RequestParam(defaultValue = "10") Integer limit,
             Authentication authentication) {
         
         try {
-            List<RecommendationDto> recommendations = recommendationService.getMoodBasedRecommendations(mood, limit);
+            UUID userId = UUID.fromString(authentication.getName());
+            List<RecommendationDto> recommendations =
+                    recommendationService.getUserTrendingRecommendations(userId, timeRange, limit);
             return ResponseEntity.ok(recommendations);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
+    
+    @GetMapping("/pipeline/stats")
+    @Operation(summary = "추천 파이프라인 통계", description = "파이프라인 단계별 지연 시간 분포와 후보 수를 조회합니다.")
+    public ResponseEntity<List<RecommendationDto.PipelineStageStats>> getPipelineStats() {
+        return ResponseEntity.ok(recommendationService.getPipelineStats());
+    }
+    
+    @GetMapping("/batch/status")
+    @Operation(summary = "추천 배치 상태", description = "사용자별 추천 사전 계산 배치의 진행 상황과 처리량을 조회합니다.")
+    public ResponseEntity<RecommendationDto.BatchStatusResponse> getBatchStatus() {
+        return recommendationBatchService.getStatus()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping("/batch/run")
+    @Operation(summary = "추천 배치 실행", description = "사용자별 추천 사전 계산 배치를 시작합니다. 중단된 실행이 있으면 이어서 진행합니다.")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> runBatch() {
+        recommendationBatchService.trigger();
+        return ResponseEntity.accepted().build();
+    }
+    
+    @GetMapping("/models")
+    @Operation(summary = "추천 모델 상태", description = "추천 모델별 활성 버전, 생성 시간, 메모리 사용량을 조회합니다.")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RecommendationDto.ModelStatus>> getModels() {
+        return ResponseEntity.ok(recommendationModelService.getModels());
+    }
+    
+    @PostMapping("/models/{name}/rebuild")
+    @Operation(summary = "추천 모델 재구축", description = "모델을 백그라운드에서 다시 만들어 교체합니다. 만드는 동안에는 기존 모델로 응답합니다.")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildModel(
+            @Parameter(description = "모델 이름 (als, mood, rating-matrix, item-similarity)") @PathVariable String name) {
+        
+        if (!recommendationModelService.exists(name)) {
+            return ResponseEntity.notFound().build();
+        }
+        recommendationModelService.rebuild(name);
+        return ResponseEntity.accepted().build();
+    }
+    
+    @PostMapping("/models/{name}/rollback")
+    @Operation(summary = "추천 모델 롤백", description = "직전 버전의 모델로 되돌립니다.")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RecommendationDto.ModelStatus> rollbackModel(
+            @Parameter(description = "모델 이름 (als, mood, rating-matrix, item-similarity)") @PathVariable String name) {
+        
+        try {
+            return ResponseEntity.ok(recommendationModelService.rollback(name));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
@@ -98,4 +98,14 @@ public class MovieDto {
         private String sortBy; // popularity, vote_average, release_date
         private String sortOrder; // asc, desc
     }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Suggestion {
+        private UUID id;
+        private String title;
+        private String originalTitle;
+    }
 }
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,7 +29,7 @@ public class RecommendationDto {
     private Integer runtime;
     private String recommendationReason;
     private Double confidenceScore;
-    private String recommendationType; // content_based, social_based, trending, mood_based
+    private String recommendationType; // content_based, item_based, social_based, matrix_factorization, trending, mood_based, hybrid
     
     @Data
     @Builder
@@ -122,4 +123,60 @@ public class RecommendationDto {
         private Integer count;
         private Double percentage;
     }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchStatusResponse {
+        private UUID runId;
+        private String status; // RUNNING, COMPLETED, FAILED
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private Long totalUsers;
+        private Long processedUsers;
+        private Long failedUsers;
+        private Double progressPercent;
+        private Double usersPerSecond;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PipelineStageStats {
+        private String pipeline;
+        private String stage;
+        private String kind; // generator, filter, scorer, rank, reranker, total
+        private Long calls;
+        private Double averageMicros;
+        private Long p50Micros;
+        private Long p95Micros;
+        private Long p99Micros;
+        private Double maxMicros;
+        private Double averageCandidatesIn;
+        private Double averageCandidatesOut;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HybridRecommendations {
+        private List<RecommendationDto> recommendations;
+        private boolean degraded; // 마감을 넘기거나 실패한 전략을 빼고 섞었으면 true (캐시하지 않음)
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ModelStatus {
+        private String name; // als, mood, rating-matrix, item-similarity
+        private Long version;
+        private LocalDateTime builtAt;
+        private Long buildMillis;
+        private Long footprintBytes;
+        private Long previousVersion; // 롤백하면 돌아갈 버전, 없으면 null
+    }
 }
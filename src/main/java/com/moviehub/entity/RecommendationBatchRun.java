@@ -0,0 +1,58 @@
+package com.moviehub.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 사용자별 추천 사전 계산 배치의 실행 기록. lastUserId 는 마지막으로 커밋된 청크의 체크포인트이고,
+ * failedUserIds 는 계산에 실패한 사용자 UUID 를 16바이트씩 이어 붙인 값이다.
+ */
+@Entity
+@Table(name = "recommendation_batch_runs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationBatchRun {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BatchStatus status;
+    
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    @Column(name = "last_user_id")
+    private UUID lastUserId;
+    
+    @Column(name = "total_users")
+    private Long totalUsers;
+    
+    @Column(name = "processed_users")
+    @Builder.Default
+    private Long processedUsers = 0L;
+    
+    @Column(name = "failed_users")
+    @Builder.Default
+    private Long failedUsers = 0L;
+    
+    @Column(name = "failed_user_ids")
+    private byte[] failedUserIds;
+    
+    public enum BatchStatus {
+        RUNNING, COMPLETED, FAILED
+    }
+}
@@ -31,13 +31,25 @@ public class UserPreferences {
     private User user;
     
     @Column(name = "genre_preferences", columnDefinition = "TEXT")
-    private String genrePreferences; // JSON string for genre preferences
+    private String genrePreferences; // JSON string for genre preferences: {"Action": {"count": 3, "ratingSum": 24}}
     
     @Column(name = "mood_preferences", columnDefinition = "TEXT")
     private String moodPreferences; // JSON string for mood preferences
     
     @Column(name = "rating_patterns", columnDefinition = "TEXT")
-    private String ratingPatterns; // JSON string for rating patterns
+    private String ratingPatterns; // JSON string for rating patterns: {"distribution": [평점 1~10 별 개수]}
+    
+    @Column(name = "total_reviews", nullable = false)
+    @Builder.Default
+    private Integer totalReviews = 0;
+    
+    @Column(name = "rating_sum", nullable = false)
+    @Builder.Default
+    private Long ratingSum = 0L;
+    
+    @Column(name = "total_favorites", nullable = false)
+    @Builder.Default
+    private Integer totalFavorites = 0;
     
     @CreatedDate
     @Column(name = "created_at", updatable = false)
@@ -0,0 +1,38 @@
+package com.moviehub.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 배치로 미리 계산한 사용자별 추천 목록. 각 목록은 영화 UUID 를 16바이트씩 이어 붙인 값이다.
+ */
+@Entity
+@Table(name = "user_recommendations")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRecommendation {
+    
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+    
+    @Column(name = "social_movie_ids")
+    private byte[] socialMovieIds;
+    
+    @Column(name = "personalized_movie_ids")
+    private byte[] personalizedMovieIds;
+    
+    @Column(name = "content_movie_ids")
+    private byte[] contentMovieIds;
+    
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,27 @@
+package com.moviehub.event;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * 즐겨찾기가 추가/삭제되었을 때 발행되는 이벤트.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class FavoriteChangedEvent {
+    
+    private final UUID userId;
+    private final UUID movieId;
+    private final boolean added;
+    
+    public static FavoriteChangedEvent added(UUID userId, UUID movieId) {
+        return new FavoriteChangedEvent(userId, movieId, true);
+    }
+    
+    public static FavoriteChangedEvent removed(UUID userId, UUID movieId) {
+        return new FavoriteChangedEvent(userId, movieId, false);
+    }
+}
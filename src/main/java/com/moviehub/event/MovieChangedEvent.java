@@ -0,0 +1,50 @@
+package com.moviehub.event;
+
+import com.moviehub.entity.Movie;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 영화가 생성/수정/삭제되거나 TMDb에서 동기화되었을 때 발행되는 이벤트.
+ * 인메모리 인덱스들은 커밋 이후 이 이벤트를 받아 자신의 상태를 갱신한다.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class MovieChangedEvent {
+    
+    public enum ChangeType {
+        SAVED, DELETED
+    }
+    
+    private final UUID movieId;
+    private final ChangeType type;
+    private final Movie movie; // DELETED 인 경우 null
+    private final boolean genresChanged; // 기존 영화의 장르가 바뀌었는지
+    
+    /**
+     * 새로 저장된 영화. 아직 리뷰가 없으므로 장르 변경으로 보지 않는다.
+     */
+    public static MovieChangedEvent saved(Movie movie) {
+        return new MovieChangedEvent(movie.getId(), ChangeType.SAVED, movie, false);
+    }
+    
+    /**
+     * 수정된 영화. previousGenres 는 수정 전 장르 문자열이다.
+     */
+    public static MovieChangedEvent saved(Movie movie, String previousGenres) {
+        return new MovieChangedEvent(movie.getId(), ChangeType.SAVED, movie,
+                !Objects.equals(previousGenres, movie.getGenres()));
+    }
+    
+    public static MovieChangedEvent deleted(UUID movieId) {
+        return new MovieChangedEvent(movieId, ChangeType.DELETED, null, false);
+    }
+    
+    public boolean isDeleted() {
+        return type == ChangeType.DELETED;
+    }
+}
@@ -0,0 +1,46 @@
+package com.moviehub.event;
+
+import com.moviehub.entity.Review;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * 리뷰가 작성/수정/삭제되었을 때 발행되는 이벤트.
+ * 평점 증분 반영을 위해 이전 평점과 새 평점을 함께 담는다.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class ReviewChangedEvent {
+    
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+    
+    private final UUID userId;
+    private final UUID movieId;
+    private final ChangeType type;
+    private final Integer previousRating; // CREATED 인 경우 null
+    private final Integer rating; // DELETED 인 경우 null
+    
+    public static ReviewChangedEvent created(Review review) {
+        return new ReviewChangedEvent(review.getUser().getId(), review.getMovie().getId(),
+                ChangeType.CREATED, null, review.getRating());
+    }
+    
+    public static ReviewChangedEvent updated(Review review, Integer previousRating) {
+        return new ReviewChangedEvent(review.getUser().getId(), review.getMovie().getId(),
+                ChangeType.UPDATED, previousRating, review.getRating());
+    }
+    
+    public static ReviewChangedEvent deleted(Review review) {
+        return new ReviewChangedEvent(review.getUser().getId(), review.getMovie().getId(),
+                ChangeType.DELETED, review.getRating(), null);
+    }
+    
+    public boolean isDeleted() {
+        return type == ChangeType.DELETED;
+    }
+}
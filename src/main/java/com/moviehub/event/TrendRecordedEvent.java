@@ -0,0 +1,15 @@
+package com.moviehub.event;
+
+import com.moviehub.entity.Trend;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * trends 테이블에 새 트렌드가 저장되었을 때 발행되는 이벤트.
+ */
+@Getter
+@RequiredArgsConstructor
+public class TrendRecordedEvent {
+    
+    private final Trend trend;
+}
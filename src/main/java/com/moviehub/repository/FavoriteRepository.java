@@ -1,14 +1,20 @@
 package com.moviehub.repository;
 
 import com.moviehub.entity.Favorite;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface FavoriteRepository extends JpaRepository<Favorite, UUID> {
@@ -19,6 +25,8 @@ public interface FavoriteRepository extends JpaRepository<Favorite, UUID> {
     
     List<Favorite> findByMovieId(UUID movieId);
     
+    long countByUserId(UUID userId);
+    
     boolean existsByUserIdAndMovieId(UUID userId, UUID movieId);
     
     @Query("SELECT f FROM Favorite f WHERE f.user.id = :userId ORDER BY f.createdAt DESC")
@@ -29,4 +37,20 @@ public interface FavoriteRepository extends JpaRepository<Favorite, UUID> {
     
     @Query("SELECT f FROM Favorite f WHERE f.user.id = :userId AND f.movie.id = :movieId")
     Optional<Favorite> findUserFavoriteForMovie(@Param("userId") UUID userId, @Param("movieId") UUID movieId);
+    
+    @Query("SELECT f.movie.id FROM Favorite f WHERE f.user.id = :userId")
+    List<UUID> findMovieIdsByUserId(@Param("userId") UUID userId);
+    
+    @Query("SELECT f.movie.id, f.createdAt FROM Favorite f WHERE f.createdAt >= :since")
+    List<Object[]> findMovieActivitySince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT DISTINCT f.user.id FROM Favorite f WHERE f.createdAt >= :since")
+    List<UUID> findUserIdsActiveSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT f.user.id, f.movie.id FROM Favorite f WHERE f.user.id IN :userIds")
+    List<Object[]> findPairsByUserIds(@Param("userIds") Collection<UUID> userIds);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT f.user.id, f.movie.id FROM Favorite f")
+    Stream<Object[]> streamAllFavoritePairs();
 }
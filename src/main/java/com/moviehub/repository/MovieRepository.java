@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -47,4 +48,16 @@ public interface MovieRepository extends JpaRepository<Movie, UUID> {
     Page<Movie> findByRuntimeRange(@Param("minRuntime") Integer minRuntime, 
                                    @Param("maxRuntime") Integer maxRuntime, 
                                    Pageable pageable);
+    
+    @Query("SELECT m.id, m.genres, m.popularity, m.adult FROM Movie m")
+    List<Object[]> findGenreIndexRows();
+    
+    @Query("SELECT m.id, m.overview FROM Movie m")
+    List<Object[]> findOverviewIndexRows();
+    
+    @Query("SELECT m.id, m.title, m.originalTitle, m.popularity FROM Movie m")
+    List<Object[]> findTitleIndexRows();
+    
+    @Query("SELECT m.tmdbId, m.id FROM Movie m WHERE m.tmdbId IN :tmdbIds")
+    List<Object[]> findIdsByTmdbIds(@Param("tmdbIds") Collection<Integer> tmdbIds);
 }
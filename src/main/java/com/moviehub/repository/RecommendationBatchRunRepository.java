@@ -0,0 +1,14 @@
+package com.moviehub.repository;
+
+import com.moviehub.entity.RecommendationBatchRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RecommendationBatchRunRepository extends JpaRepository<RecommendationBatchRun, UUID> {
+    
+    Optional<RecommendationBatchRun> findTopByOrderByStartedAtDesc();
+}
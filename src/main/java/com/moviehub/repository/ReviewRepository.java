@@ -1,17 +1,23 @@
 package com.moviehub.repository;
 
 import com.moviehub.entity.Review;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
@@ -22,6 +28,12 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
     
     List<Review> findByUserId(UUID userId);
     
+    @Query("SELECT r.user.id FROM Review r WHERE r.movie.id = :movieId")
+    List<UUID> findUserIdsByMovieId(@Param("movieId") UUID movieId);
+    
+    @Query("SELECT r.movie.genres, r.rating FROM Review r WHERE r.user.id = :userId")
+    List<Object[]> findGenreRatingsByUserId(@Param("userId") UUID userId);
+    
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.movie.id = :movieId")
     Optional<BigDecimal> findAverageRatingByMovieId(@Param("movieId") UUID movieId);
     
@@ -54,4 +66,21 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
     Long countByMovieIdAndSentiment(@Param("movieId") UUID movieId, @Param("sentiment") Review.SentimentType sentiment);
     
     boolean existsByUserIdAndMovieId(UUID userId, UUID movieId);
+    
+    @Query("SELECT r.movie.id, r.createdAt FROM Review r WHERE r.createdAt >= :since")
+    List<Object[]> findMovieActivitySince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT DISTINCT r.user.id FROM Review r WHERE r.createdAt >= :since OR r.updatedAt >= :since")
+    List<UUID> findUserIdsActiveSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT r.user.id, r.movie.id, r.rating FROM Review r WHERE r.user.id IN :userIds")
+    List<Object[]> findRatingTriplesByUserIds(@Param("userIds") Collection<UUID> userIds);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT r.user.id, r.movie.id, r.rating FROM Review r")
+    Stream<Object[]> streamAllRatingTriples();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT r.user.id, r.movie.id FROM Review r WHERE r.rating >= :minRating")
+    Stream<Object[]> streamLikedPairs(@Param("minRating") Integer minRating);
 }
\ No newline at end of file
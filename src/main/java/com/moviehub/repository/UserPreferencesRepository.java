@@ -0,0 +1,42 @@
+package com.moviehub.repository;
+
+import com.moviehub.entity.UserPreferences;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserPreferencesRepository extends JpaRepository<UserPreferences, UUID> {
+    
+    @Query("SELECT p FROM UserPreferences p JOIN FETCH p.user WHERE p.user.id = :userId")
+    Optional<UserPreferences> findWithUserByUserId(@Param("userId") UUID userId);
+    
+    @Query("SELECT p.user.id FROM UserPreferences p ORDER BY p.user.id")
+    List<UUID> findUserIdsOrderByUserId(Pageable pageable);
+    
+    @Query("SELECT p.user.id FROM UserPreferences p WHERE p.user.id > :after ORDER BY p.user.id")
+    List<UUID> findUserIdsAfter(@Param("after") UUID after, Pageable pageable);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM UserPreferences p WHERE p.user.id = :userId")
+    Optional<UserPreferences> findByUserIdForUpdate(@Param("userId") UUID userId);
+    
+    /**
+     * 사용자의 빈 프로필 행을 없을 때만 만든다. 동시에 만들어도 UNIQUE(user_id) 위반 없이 한쪽만 들어가고,
+     * 다른 쪽은 먼저 만든 트랜잭션이 끝날 때까지 기다린다. 만든 행 수(0 또는 1)를 반환한다.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_preferences (id, user_id, total_reviews, rating_sum, total_favorites, " +
+            "created_at, updated_at) VALUES (:id, :userId, 0, 0, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id, @Param("userId") UUID userId);
+}
@@ -0,0 +1,11 @@
+package com.moviehub.repository;
+
+import com.moviehub.entity.UserRecommendation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface UserRecommendationRepository extends JpaRepository<UserRecommendation, UUID> {
+}
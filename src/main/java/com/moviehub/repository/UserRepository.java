@@ -1,6 +1,7 @@
 package com.moviehub.repository;
 
 import com.moviehub.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -29,4 +30,10 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     
     @Query("SELECT u FROM User u JOIN u.favorites f WHERE f.movie.id = :movieId")
     List<User> findUsersWhoFavoritedMovie(@Param("movieId") UUID movieId);
+    
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<UUID> findIdsOrderById(Pageable pageable);
+    
+    @Query("SELECT u.id FROM User u WHERE u.id > :after ORDER BY u.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Pageable pageable);
 }
@@ -4,11 +4,13 @@ import com.moviehub.dto.FavoriteDto;
 import com.moviehub.entity.Favorite;
 import com.moviehub.entity.User;
 import com.moviehub.entity.Movie;
+import com.moviehub.event.FavoriteChangedEvent;
 import com.moviehub.repository.FavoriteRepository;
 import com.moviehub.repository.UserRepository;
 import com.moviehub.repository.MovieRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -28,6 +30,7 @@ public class FavoriteService {
     private final FavoriteRepository favoriteRepository;
     private final UserRepository userRepository;
     private final MovieRepository movieRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<FavoriteDto> getFavoritesByUserId(UUID userId) {
         return favoriteRepository.findByUserId(userId)
@@ -82,6 +85,7 @@ public class FavoriteService {
                 .build();
         
         Favorite savedFavorite = favoriteRepository.save(favorite);
+        eventPublisher.publishEvent(FavoriteChangedEvent.added(userId, movieId));
         return convertToDto(savedFavorite);
     }
     
@@ -91,6 +95,7 @@ public class FavoriteService {
         
         if (favorite.isPresent()) {
             favoriteRepository.delete(favorite.get());
+            eventPublisher.publishEvent(FavoriteChangedEvent.removed(userId, movieId));
             return true;
         }
         
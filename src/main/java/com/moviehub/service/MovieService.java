@@ -2,19 +2,31 @@ package com.moviehub.service;
 
 import com.moviehub.dto.MovieDto;
 import com.moviehub.entity.Movie;
+import com.moviehub.event.MovieChangedEvent;
 import com.moviehub.repository.MovieRepository;
+import com.moviehub.service.search.FuzzyTitleIndex;
+import com.moviehub.service.search.HangulSearchIndex;
+import com.moviehub.service.search.MovieSearchIndex;
+import com.moviehub.service.search.SearchMode;
+import com.moviehub.service.search.TitleAutocompleteIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +36,11 @@ import java.util.stream.Collectors;
 public class MovieService {
     
     private final MovieRepository movieRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MovieSearchIndex movieSearchIndex;
+    private final TitleAutocompleteIndex titleAutocompleteIndex;
+    private final HangulSearchIndex hangulSearchIndex;
+    private final FuzzyTitleIndex fuzzyTitleIndex;
     
     public Page<MovieDto> getAllMovies(Pageable pageable) {
         return movieRepository.findAll(pageable)
@@ -40,14 +57,35 @@ public class MovieService {
                 .map(this::convertToDto);
     }
     
-    @Cacheable(value = "movies", key = "#query + '_' + #pageable.pageNumber + '_' + #pageable.pageSize")
-    public Page<MovieDto> searchMovies(String query, Pageable pageable) {
-        log.info("Searching movies with query: {}", query);
-        return movieRepository.findByTitleContainingIgnoreCase(query, pageable)
-                .map(this::convertToDto);
+    @Cacheable(value = "movies", key = "#query + '_' + #mode + '_' + #pageable.pageNumber + '_' + #pageable.pageSize", sync = true)
+    public Page<MovieDto> searchMovies(String query, String mode, Pageable pageable) {
+        SearchMode searchMode = SearchMode.from(mode).resolve(query);
+        log.info("Searching movies with query: {} (mode: {})", query, searchMode);
+        int offset = (int) pageable.getOffset();
+        
+        MovieSearchIndex.Hits hits = switch (searchMode) {
+            case TEXT -> movieSearchIndex.search(query, offset, pageable.getPageSize());
+            case CHOSUNG -> hangulSearchIndex.searchChosung(query, offset, pageable.getPageSize());
+            case JAMO -> hangulSearchIndex.searchJamo(query, offset, pageable.getPageSize());
+            case FUZZY -> fuzzyTitleIndex.search(query, offset, pageable.getPageSize());
+        };
+        if (hits.isEmpty() && searchMode == SearchMode.TEXT) {
+            // 색인어 단위로 맞지 않는 부분 문자열(예: 단어 일부) 검색은 DB LIKE 로 찾는다
+            return movieRepository.findByTitleContainingIgnoreCase(query, pageable)
+                    .map(this::convertToDto);
+        }
+        return new PageImpl<>(loadInOrder(hits.getMovieIds()), pageable, hits.getTotal());
+    }
+    
+    /**
+     * 키 입력마다 호출되므로 캐시와 트랜잭션(커넥션)을 거치지 않고 메모리 트라이만 읽는다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<MovieDto.Suggestion> autocomplete(String prefix, int limit) {
+        return titleAutocompleteIndex.suggest(prefix, limit);
     }
     
-    @Cacheable(value = "trending", key = "#pageable.pageNumber + '_' + #pageable.pageSize")
+    @Cacheable(value = "trending", key = "#pageable.pageNumber + '_' + #pageable.pageSize", sync = true)
     public List<MovieDto> getTrendingMovies(Pageable pageable) {
         LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
         LocalDate now = LocalDate.now();
@@ -58,13 +96,13 @@ public class MovieService {
                 .collect(Collectors.toList());
     }
     
-    @Cacheable(value = "topRated", key = "#minRating + '_' + #pageable.pageNumber + '_' + #pageable.pageSize")
+    @Cacheable(value = "topRated", key = "#minRating + '_' + #pageable.pageNumber + '_' + #pageable.pageSize", sync = true)
     public Page<MovieDto> getTopRatedMovies(Double minRating, Pageable pageable) {
         return movieRepository.findTopRatedMovies(minRating, pageable)
                 .map(this::convertToDto);
     }
     
-    @Cacheable(value = "moviesByGenre", key = "#genre + '_' + #pageable.pageNumber + '_' + #pageable.pageSize")
+    @Cacheable(value = "moviesByGenre", key = "#genre + '_' + #pageable.pageNumber + '_' + #pageable.pageSize", sync = true)
     public Page<MovieDto> getMoviesByGenre(String genre, Pageable pageable) {
         return movieRepository.findByGenre(genre, pageable)
                 .map(this::convertToDto);
@@ -89,7 +127,7 @@ public class MovieService {
                 .collect(Collectors.toList());
     }
     
-    @Cacheable(value = "familyFriendly", key = "#pageable.pageNumber + '_' + #pageable.pageSize")
+    @Cacheable(value = "familyFriendly", key = "#pageable.pageNumber + '_' + #pageable.pageSize", sync = true)
     public Page<MovieDto> getFamilyFriendlyMovies(Pageable pageable) {
         return movieRepository.findPopularFamilyFriendlyMovies(pageable)
                 .map(this::convertToDto);
@@ -119,6 +157,7 @@ public class MovieService {
                 .build();
         
         Movie savedMovie = movieRepository.save(movie);
+        eventPublisher.publishEvent(MovieChangedEvent.saved(savedMovie));
         return convertToDto(savedMovie);
     }
     
@@ -126,6 +165,7 @@ public class MovieService {
     public Optional<MovieDto> updateMovie(UUID id, MovieDto.UpdateRequest request) {
         return movieRepository.findById(id)
                 .map(movie -> {
+                    String previousGenres = movie.getGenres();
                     movie.setTitle(request.getTitle());
                     movie.setOriginalTitle(request.getOriginalTitle());
                     movie.setOverview(request.getOverview());
@@ -139,7 +179,9 @@ public class MovieService {
                     movie.setRuntime(request.getRuntime());
                     movie.setAdult(request.getAdult());
                     
-                    return convertToDto(movieRepository.save(movie));
+                    Movie savedMovie = movieRepository.save(movie);
+                    eventPublisher.publishEvent(MovieChangedEvent.saved(savedMovie, previousGenres));
+                    return convertToDto(savedMovie);
                 });
     }
     
@@ -147,11 +189,25 @@ public class MovieService {
     public boolean deleteMovie(UUID id) {
         if (movieRepository.existsById(id)) {
             movieRepository.deleteById(id);
+            eventPublisher.publishEvent(MovieChangedEvent.deleted(id));
             return true;
         }
         return false;
     }
     
+    /**
+     * 검색 색인이 정한 순서대로 영화를 읽는다. 그 사이 삭제된 영화는 빠진다.
+     */
+    private List<MovieDto> loadInOrder(List<UUID> movieIds) {
+        Map<UUID, Movie> movies = movieRepository.findAllById(movieIds).stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+        return movieIds.stream()
+                .map(movies::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+    
     private MovieDto convertToDto(Movie movie) {
         return MovieDto.builder()
                 .id(movie.getId())
@@ -0,0 +1,319 @@
+package com.moviehub.service;
+
+import com.moviehub.dto.RecommendationDto;
+import com.moviehub.entity.RecommendationBatchRun;
+import com.moviehub.entity.UserRecommendation;
+import com.moviehub.repository.RecommendationBatchRunRepository;
+import com.moviehub.repository.UserRecommendationRepository;
+import com.moviehub.repository.UserRepository;
+import com.moviehub.service.recommendation.MovieIdLists;
+import com.moviehub.service.recommendation.UuidLists;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 모든 사용자의 소셜/맞춤/콘텐츠 추천 목록을 미리 계산해 user_recommendations 에 저장하는 야간 배치.
+ * <p>
+ * 사용자를 ID 순으로 chunkSize 명씩 읽어 고정 크기 워커 풀에서 계산하고, 청크마다 결과와
+ * 체크포인트(마지막 사용자 ID, 실패한 사용자 ID)를 한 트랜잭션으로 커밋한다. 계산에 실패한 사용자는
+ * 모든 청크가 끝난 뒤 한 번 더 시도하고, 그래도 실패하면 실행 기록에 남긴다.
+ * 프로세스가 도중에 죽으면 다음 기동 시 RUNNING 상태로 남은 실행을, 오류로 멈춰 FAILED 가 된 실행은
+ * 다음 정기/수동 실행에서 체크포인트 다음 사용자부터 이어서 진행한다. 시작한 지 maxResumeHours 가 지난
+ * 실행은 이어 가지 않고 FAILED 로 닫은 뒤 처음부터 새로 시작한다. 계속 실패하는 실행을 매일 붙잡고 있거나
+ * 오래된 체크포인트로 하루 이상 지난 목록을 섞지 않기 위해서다.
+ * 감정 기반 추천은 사용자와 무관하므로 이 배치에서 계산하지 않는다.
+ */
+@Service
+@Slf4j
+public class RecommendationBatchService {
+    
+    private final UserRepository userRepository;
+    private final UserRecommendationRepository userRecommendationRepository;
+    private final RecommendationBatchRunRepository batchRunRepository;
+    private final RecommendationService recommendationService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int workers;
+    private final int listSize;
+    private final int maxResumeHours;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile long runStartedNanos;
+    private volatile long processedThisSession;
+    
+    public RecommendationBatchService(UserRepository userRepository,
+                                      UserRecommendationRepository userRecommendationRepository,
+                                      RecommendationBatchRunRepository batchRunRepository,
+                                      RecommendationService recommendationService,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${recommendation.batch.chunk-size:500}") int chunkSize,
+                                      @Value("${recommendation.batch.workers:4}") int workers,
+                                      @Value("${recommendation.batch.list-size:50}") int listSize,
+                                      @Value("${recommendation.batch.max-resume-hours:20}") int maxResumeHours) {
+        this.userRepository = userRepository;
+        this.userRecommendationRepository = userRecommendationRepository;
+        this.batchRunRepository = batchRunRepository;
+        this.recommendationService = recommendationService;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.listSize = listSize;
+        this.maxResumeHours = maxResumeHours;
+    }
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        batchRunRepository.findTopByOrderByStartedAtDesc()
+                .filter(run -> run.getStatus() == RecommendationBatchRun.BatchStatus.RUNNING)
+                .filter(this::isResumable)
+                .ifPresent(run -> {
+                    log.info("Resuming recommendation batch {} after user {}", run.getId(), run.getLastUserId());
+                    execute(run);
+                });
+    }
+    
+    @Scheduled(cron = "${recommendation.batch.cron:0 0 6 * * *}")
+    public void run() {
+        if (running.get()) {
+            log.info("Recommendation batch already running, skipping");
+            return;
+        }
+        
+        Optional<RecommendationBatchRun> unfinished = batchRunRepository.findTopByOrderByStartedAtDesc()
+                .filter(r -> r.getStatus() != RecommendationBatchRun.BatchStatus.COMPLETED);
+        RecommendationBatchRun run = unfinished
+                .filter(this::isResumable)
+                .orElseGet(() -> {
+                    unfinished.ifPresent(this::abandon);
+                    return batchRunRepository.save(RecommendationBatchRun.builder()
+                            .status(RecommendationBatchRun.BatchStatus.RUNNING)
+                            .startedAt(LocalDateTime.now())
+                            .build());
+                });
+        execute(run);
+    }
+    
+    /**
+     * 관리용 수동 실행. 배치가 끝날 때까지 기다리지 않는다.
+     */
+    @Async
+    public void trigger() {
+        run();
+    }
+    
+    /**
+     * 현재 또는 마지막 배치 실행의 진행 상황.
+     */
+    public Optional<RecommendationDto.BatchStatusResponse> getStatus() {
+        return batchRunRepository.findTopByOrderByStartedAtDesc().map(run -> {
+            long total = run.getTotalUsers() != null ? run.getTotalUsers() : 0L;
+            double elapsedSeconds = running.get()
+                    ? (System.nanoTime() - runStartedNanos) / 1e9
+                    : Duration.between(run.getStartedAt(),
+                            run.getFinishedAt() != null ? run.getFinishedAt() : LocalDateTime.now()).toMillis() / 1000.0;
+            long processed = running.get() ? processedThisSession : run.getProcessedUsers();
+            
+            return RecommendationDto.BatchStatusResponse.builder()
+                    .runId(run.getId())
+                    .status(run.getStatus().name())
+                    .startedAt(run.getStartedAt())
+                    .finishedAt(run.getFinishedAt())
+                    .totalUsers(total)
+                    .processedUsers(run.getProcessedUsers())
+                    .failedUsers(run.getFailedUsers())
+                    .progressPercent(total > 0 ? Math.min(100.0, run.getProcessedUsers() * 100.0 / total) : 0.0)
+                    .usersPerSecond(elapsedSeconds > 0 ? processed / elapsedSeconds : 0.0)
+                    .build();
+        });
+    }
+    
+    private void execute(RecommendationBatchRun run) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Recommendation batch already running, skipping");
+            return;
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "recommendation-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        runStartedNanos = System.nanoTime();
+        processedThisSession = 0;
+        
+        try {
+            // 이어서 실행할 때도 그동안 가입하거나 탈퇴한 사용자를 진행률에 반영한다
+            run.setTotalUsers(userRepository.count());
+            if (run.getStatus() == RecommendationBatchRun.BatchStatus.FAILED) {
+                log.info("Resuming failed recommendation batch {} after user {}", run.getId(), run.getLastUserId());
+                run.setStatus(RecommendationBatchRun.BatchStatus.RUNNING);
+                run.setFinishedAt(null);
+            }
+            
+            UUID after = run.getLastUserId();
+            while (true) {
+                PageRequest page = PageRequest.of(0, chunkSize);
+                List<UUID> userIds = after == null
+                        ? userRepository.findIdsOrderById(page)
+                        : userRepository.findIdsAfter(after, page);
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                
+                ChunkResult chunk = processChunk(executor, userIds);
+                after = userIds.get(userIds.size() - 1);
+                List<UUID> failedUserIds = new ArrayList<>(UuidLists.unpack(run.getFailedUserIds()));
+                failedUserIds.addAll(chunk.failedUserIds);
+                run.setLastUserId(after);
+                run.setProcessedUsers(run.getProcessedUsers() + userIds.size());
+                run.setFailedUsers((long) failedUserIds.size());
+                run.setFailedUserIds(UuidLists.pack(failedUserIds));
+                run = commit(run, chunk.results);
+                processedThisSession += userIds.size();
+                
+                double seconds = (System.nanoTime() - runStartedNanos) / 1e9;
+                log.info("Recommendation batch progress: {}/{} users ({} failed), {} users/s",
+                        run.getProcessedUsers(), run.getTotalUsers(), run.getFailedUsers(),
+                        String.format("%.1f", processedThisSession / Math.max(seconds, 1e-3)));
+            }
+            
+            run = retryFailedUsers(executor, run);
+            run.setStatus(RecommendationBatchRun.BatchStatus.COMPLETED);
+            run.setFinishedAt(LocalDateTime.now());
+            batchRunRepository.save(run);
+            log.info("Recommendation batch {} completed: {} users ({} failed) in {} s", run.getId(),
+                    run.getProcessedUsers(), run.getFailedUsers(), (System.nanoTime() - runStartedNanos) / 1_000_000_000L);
+        } catch (Exception e) {
+            // 체크포인트는 그대로 두어 다음 실행에서 이어서 처리한다
+            log.error("Recommendation batch {} failed after user {}", run.getId(), run.getLastUserId(), e);
+            markFailed(run);
+        } finally {
+            executor.shutdownNow();
+            running.set(false);
+        }
+    }
+    
+    /**
+     * 실패한 사용자를 청크 단위로 한 번 더 계산한다. 그래도 실패한 사용자만 실행 기록에 남긴다.
+     */
+    private RecommendationBatchRun retryFailedUsers(ExecutorService executor, RecommendationBatchRun run)
+            throws InterruptedException {
+        List<UUID> pending = UuidLists.unpack(run.getFailedUserIds());
+        if (pending.isEmpty()) {
+            return run;
+        }
+        log.info("Retrying recommendation batch for {} failed users", pending.size());
+        
+        List<UUID> stillFailed = new ArrayList<>();
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, pending.size());
+            ChunkResult chunk = processChunk(executor, pending.subList(from, to));
+            stillFailed.addAll(chunk.failedUserIds);
+            
+            List<UUID> failedUserIds = new ArrayList<>(stillFailed);
+            failedUserIds.addAll(pending.subList(to, pending.size()));
+            run.setFailedUsers((long) failedUserIds.size());
+            run.setFailedUserIds(UuidLists.pack(failedUserIds));
+            run = commit(run, chunk.results);
+        }
+        if (!stillFailed.isEmpty()) {
+            log.warn("Recommendation batch {} could not compute {} users after retry", run.getId(), stillFailed.size());
+        }
+        return run;
+    }
+    
+    /**
+     * 청크의 결과와 체크포인트를 한 트랜잭션으로 저장한다.
+     */
+    private RecommendationBatchRun commit(RecommendationBatchRun run, List<UserRecommendation> results) {
+        return transactionTemplate.execute(status -> {
+            userRecommendationRepository.saveAll(results);
+            return batchRunRepository.save(run);
+        });
+    }
+    
+    private boolean isResumable(RecommendationBatchRun run) {
+        return run.getStartedAt().isAfter(LocalDateTime.now().minusHours(maxResumeHours));
+    }
+    
+    /**
+     * 너무 오래된 미완료 실행을 닫는다. 체크포인트는 남겨 두지만 다시 이어 가지 않는다.
+     */
+    private void abandon(RecommendationBatchRun run) {
+        log.warn("Abandoning recommendation batch {} started at {} after user {}, starting a new run",
+                run.getId(), run.getStartedAt(), run.getLastUserId());
+        run.setStatus(RecommendationBatchRun.BatchStatus.FAILED);
+        if (run.getFinishedAt() == null) {
+            run.setFinishedAt(LocalDateTime.now());
+        }
+        batchRunRepository.save(run);
+    }
+    
+    private void markFailed(RecommendationBatchRun run) {
+        try {
+            run.setStatus(RecommendationBatchRun.BatchStatus.FAILED);
+            run.setFinishedAt(LocalDateTime.now());
+            batchRunRepository.save(run);
+        } catch (Exception e) {
+            log.error("Failed to mark recommendation batch {} as failed", run.getId(), e);
+        }
+    }
+    
+    /**
+     * 청크의 사용자별 목록을 워커 풀에서 계산한다. 저장은 호출하는 쪽에서 체크포인트와 함께 한다.
+     */
+    private ChunkResult processChunk(ExecutorService executor, List<UUID> userIds) throws InterruptedException {
+        List<Future<UserRecommendation>> futures = new ArrayList<>(userIds.size());
+        for (UUID userId : userIds) {
+            futures.add(executor.submit(() -> compute(userId)));
+        }
+        
+        ChunkResult chunk = new ChunkResult(userIds.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                chunk.results.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                chunk.failedUserIds.add(userIds.get(i));
+                log.warn("Failed to precompute recommendations for user {}", userIds.get(i), e.getCause());
+            }
+        }
+        return chunk;
+    }
+    
+    private UserRecommendation compute(UUID userId) {
+        return UserRecommendation.builder()
+                .userId(userId)
+                .socialMovieIds(MovieIdLists.pack(recommendationService.scoreSocial(userId, listSize)))
+                .personalizedMovieIds(MovieIdLists.pack(recommendationService.scorePersonalized(userId, listSize)))
+                .contentMovieIds(MovieIdLists.pack(recommendationService.scoreContentForUser(userId, listSize)))
+                .computedAt(LocalDateTime.now())
+                .build();
+    }
+    
+    private static final class ChunkResult {
+        
+        final List<UserRecommendation> results;
+        final List<UUID> failedUserIds = new ArrayList<>();
+        
+        ChunkResult(int size) {
+            this.results = new ArrayList<>(size);
+        }
+    }
+}
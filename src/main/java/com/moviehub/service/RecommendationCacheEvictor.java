@@ -0,0 +1,72 @@
+package com.moviehub.service;
+
+import com.moviehub.config.CoalescingCache;
+import com.moviehub.event.FavoriteChangedEvent;
+import com.moviehub.event.ReviewChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 사용자가 영화를 리뷰/즐겨찾기하면 그 사용자의 추천 캐시를 지운다.
+ * 캐시된 목록은 본 영화 필터를 다시 거치지 않으므로, 지우지 않으면 방금 본 영화가 TTL 동안 계속 추천된다.
+ * 인덱스 리스너(기본 순서 0)가 먼저 반영한 뒤 지워야 바로 다음 요청이 새 상태로 계산하므로 가장 늦게 실행한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationCacheEvictor {
+
+    // 키가 모두 "#userId + '_' + ..." 로 시작하는 사용자별 추천 캐시
+    private static final List<String> USER_CACHES = List.of(
+            "userContentRecommendations",
+            "socialBasedRecommendations",
+            "personalizedRecommendations",
+            "hybridRecommendations",
+            "userTrendingRecommendations",
+            "userMoodRecommendations");
+
+    private final CacheManager cacheManager;
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (event.getType() != ReviewChangedEvent.ChangeType.UPDATED) {
+            evictUser(event.getUserId());
+        }
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        evictUser(event.getUserId());
+    }
+
+    void evictUser(UUID userId) {
+        String prefix = userId + "_";
+        for (String name : USER_CACHES) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache == null) {
+                continue;
+            }
+            try {
+                if (cache instanceof CoalescingCache coalescing) {
+                    coalescing.evictByPrefix(prefix);
+                } else {
+                    cache.clear();
+                }
+            } catch (Exception e) {
+                // 캐시 장애로 리뷰/즐겨찾기 요청이 실패하지 않게 한다. 항목은 TTL 이 지나면 사라진다
+                log.warn("Failed to evict {} entries for user {}: {}", name, userId, e.getMessage());
+            }
+        }
+    }
+}
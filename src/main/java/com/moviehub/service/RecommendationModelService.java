@@ -0,0 +1,71 @@
+package com.moviehub.service;
+
+import com.moviehub.dto.RecommendationDto;
+import com.moviehub.service.recommendation.ManagedModel;
+import com.moviehub.service.recommendation.ModelSlot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 추천 모델의 활성 버전 조회와 수동 재구축, 롤백.
+ * 재구축과 롤백 모두 모델 참조 교체 한 번으로 끝나므로 처리 중인 요청을 멈추지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationModelService {
+
+    private final List<ManagedModel> models;
+
+    public List<RecommendationDto.ModelStatus> getModels() {
+        return models.stream()
+                .map(RecommendationModelService::toStatus)
+                .collect(Collectors.toList());
+    }
+
+    public boolean exists(String name) {
+        return models.stream().anyMatch(model -> model.getModelName().equals(name));
+    }
+
+    /**
+     * 관리용 수동 재구축. 새 모델이 만들어질 때까지 기다리지 않는다.
+     */
+    @Async
+    public void rebuild(String name) {
+        ManagedModel model = find(name);
+        log.info("Manual rebuild of recommendation model {} requested", name);
+        model.rebuild();
+    }
+
+    public RecommendationDto.ModelStatus rollback(String name) {
+        ManagedModel model = find(name);
+        ModelSlot.Version<?> restored = model.getModelSlot().rollback();
+        log.info("Recommendation model {} rolled back to version {}", name, restored.getNumber());
+        return toStatus(model);
+    }
+
+    private ManagedModel find(String name) {
+        return models.stream()
+                .filter(model -> model.getModelName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("추천 모델을 찾을 수 없습니다: " + name));
+    }
+
+    private static RecommendationDto.ModelStatus toStatus(ManagedModel model) {
+        ModelSlot<?> slot = model.getModelSlot();
+        RecommendationDto.ModelStatus.ModelStatusBuilder status = RecommendationDto.ModelStatus.builder()
+                .name(model.getModelName());
+        slot.getActive().ifPresent(active -> status
+                .version(active.getNumber())
+                .builtAt(active.getBuiltAt())
+                .buildMillis(active.getBuildMillis())
+                .footprintBytes(active.getFootprintBytes()));
+        slot.getPrevious().ifPresent(previous -> status.previousVersion(previous.getNumber()));
+        return status.build();
+    }
+}
@@ -3,12 +3,18 @@ package com.moviehub.service;
 import com.moviehub.dto.MovieDto;
 import com.moviehub.dto.RecommendationDto;
 import com.moviehub.entity.Movie;
-import com.moviehub.entity.Review;
-import com.moviehub.entity.User;
-import com.moviehub.entity.Favorite;
+import com.moviehub.entity.UserRecommendation;
 import com.moviehub.repository.MovieRepository;
-import com.moviehub.repository.ReviewRepository;
-import com.moviehub.repository.UserRepository;
+import com.moviehub.repository.UserRecommendationRepository;
+import com.moviehub.service.recommendation.HybridRecommender;
+import com.moviehub.service.recommendation.MoodIndex;
+import com.moviehub.service.recommendation.MovieIdLists;
+import com.moviehub.service.recommendation.RecommendationPipelines;
+import com.moviehub.service.recommendation.ScoredMovie;
+import com.moviehub.service.recommendation.TrendingIndex;
+import com.moviehub.service.recommendation.pipeline.PipelineMetrics;
+import com.moviehub.service.recommendation.pipeline.PipelineRequest;
+import com.moviehub.service.recommendation.pipeline.RecommendationPipeline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -17,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,12 +32,19 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class RecommendationService {
     
+    private static final int CANDIDATE_OVERFETCH = 2;
+    
     private final MovieRepository movieRepository;
-    private final ReviewRepository reviewRepository;
-    private final UserRepository userRepository;
     private final MovieService movieService;
+    private final RecommendationPipelines pipelines;
+    private final PipelineMetrics pipelineMetrics;
+    private final HybridRecommender hybridRecommender;
+    private final MoodIndex moodIndex;
+    private final TrendingIndex trendingIndex;
+    private final TasteProfileService tasteProfileService;
+    private final UserRecommendationRepository userRecommendationRepository;
     
-    @Cacheable(value = "contentBasedRecommendations", key = "#movieId + '_' + #limit")
+    @Cacheable(value = "contentBasedRecommendations", key = "#movieId + '_' + #limit", sync = true)
     public List<RecommendationDto> getContentBasedRecommendations(UUID movieId, Integer limit) {
         Optional<Movie> targetMovie = movieRepository.findById(movieId);
         if (targetMovie.isEmpty()) {
@@ -44,92 +58,152 @@ public class RecommendationService {
             return List.of();
         }
         
-        // Find movies with similar genres
-        List<Movie> similarMovies = movieRepository.findAll().stream()
-                .filter(m -> !m.getId().equals(movieId))
-                .filter(m -> {
-                    List<String> genres = convertStringToGenres(m.getGenres());
-                    return genres.stream().anyMatch(targetGenres::contains);
-                })
-                .sorted((m1, m2) -> {
-                    // Sort by genre similarity and popularity
-                    double similarity1 = calculateGenreSimilarity(targetGenres, convertStringToGenres(m1.getGenres()));
-                    double similarity2 = calculateGenreSimilarity(targetGenres, convertStringToGenres(m2.getGenres()));
-                    
-                    if (Double.compare(similarity1, similarity2) != 0) {
-                        return Double.compare(similarity2, similarity1);
-                    }
-                    
-                    // If similarity is equal, sort by popularity
-                    return m2.getPopularity().compareTo(m1.getPopularity());
-                })
-                .limit(limit)
+        List<ScoredMovie> similarMovies = run(pipelines.getContentBased(), null, movieId, null, limit);
+        String reason = "장르 유사성: " + String.join(", ", targetGenres);
+        
+        return findMoviesInOrder(similarMovies).stream()
+                .map(m -> createRecommendationDto(m, "content_based", reason))
+                .collect(Collectors.toList());
+    }
+    
+    @Cacheable(value = "userContentRecommendations", key = "#userId + '_' + #limit", sync = true)
+    public List<RecommendationDto> getUserContentBasedRecommendations(UUID userId, Integer limit) {
+        List<UUID> precomputed = findPrecomputed(userId, UserRecommendation::getContentMovieIds, limit);
+        List<Movie> movies = precomputed != null
+                ? findMoviesInOrderByIds(precomputed)
+                : findMoviesInOrder(scoreContentForUser(userId, limit));
+        
+        if (movies.isEmpty()) {
+            return getPopularMoviesRecommendations(limit);
+        }
+        
+        return movies.stream()
+                .map(movie -> createRecommendationDto(movie, "content_based", "좋아한 영화와 비슷한 영화"))
                 .collect(Collectors.toList());
+    }
+    
+    @Cacheable(value = "alsoLikedRecommendations", key = "#movieId + '_' + #limit", sync = true)
+    public List<RecommendationDto> getAlsoLikedRecommendations(UUID movieId, Integer limit) {
+        // 미리 계산된 item-item 이웃 목록 조회
+        List<ScoredMovie> neighbours = run(pipelines.getAlsoLiked(), null, movieId, null, limit);
         
-        return similarMovies.stream()
-                .map(m -> createRecommendationDto(m, "content_based", 
-                        "장르 유사성: " + String.join(", ", targetGenres)))
+        return findMoviesInOrder(neighbours).stream()
+                .map(movie -> createRecommendationDto(movie, "item_based", 
+                        "이 영화를 높게 평가한 사용자들이 함께 높게 평가한 영화"))
                 .collect(Collectors.toList());
     }
     
-    @Cacheable(value = "socialBasedRecommendations", key = "#userId + '_' + #limit")
+    @Cacheable(value = "socialBasedRecommendations", key = "#userId + '_' + #limit", sync = true)
     public List<RecommendationDto> getSocialBasedRecommendations(UUID userId, Integer limit) {
-        // Get user's high-rated movies
-        List<Review> userReviews = reviewRepository.findUserHighRatedReviews(userId, 7);
+        // 배치로 미리 계산한 목록이 있으면 사용하고, 없으면 희소 평점 행렬 파이프라인으로 계산
+        List<UUID> precomputed = findPrecomputed(userId, UserRecommendation::getSocialMovieIds, limit);
+        List<Movie> movies = precomputed != null
+                ? findMoviesInOrderByIds(precomputed)
+                : findMoviesInOrder(scoreSocial(userId, limit));
         
-        if (userReviews.isEmpty()) {
+        if (movies.isEmpty()) {
             return getPopularMoviesRecommendations(limit);
         }
         
-        // Get users who liked similar movies
-        Set<UUID> similarUserIds = new HashSet<>();
-        for (Review review : userReviews) {
-            List<User> usersWhoLiked = userRepository.findUsersWhoReviewedMovie(review.getMovie().getId());
-            similarUserIds.addAll(usersWhoLiked.stream()
-                    .map(User::getId)
-                    .filter(id -> !id.equals(userId))
-                    .collect(Collectors.toSet()));
+        return movies.stream()
+                .map(movie -> createRecommendationDto(movie, "social_based", 
+                        "비슷한 취향 사용자들이 좋아한 영화"))
+                .collect(Collectors.toList());
+    }
+    
+    @Cacheable(value = "personalizedRecommendations", key = "#userId + '_' + #limit", sync = true)
+    public List<RecommendationDto> getPersonalizedRecommendations(UUID userId, Integer limit) {
+        // 배치로 미리 계산한 목록이 있으면 사용하고, 없으면 행렬 분해 모델 파이프라인으로 계산
+        List<UUID> precomputed = findPrecomputed(userId, UserRecommendation::getPersonalizedMovieIds, limit);
+        List<Movie> movies = precomputed != null
+                ? findMoviesInOrderByIds(precomputed)
+                : findMoviesInOrder(scorePersonalized(userId, limit));
+        
+        if (movies.isEmpty()) {
+            return getPopularMoviesRecommendations(limit);
         }
         
-        // Get movies liked by similar users that current user hasn't reviewed
-        Set<UUID> userReviewedMovieIds = userReviews.stream()
-                .map(review -> review.getMovie().getId())
-                .collect(Collectors.toSet());
+        return movies.stream()
+                .map(movie -> createRecommendationDto(movie, "matrix_factorization", 
+                        "평점과 즐겨찾기 패턴으로 학습한 맞춤 추천"))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * 전략이 하나라도 빠진 결과는 캐시하지 않는다. 부하로 잠깐 빠진 전략이 TTL 동안 계속 빠져 보이지 않게 하려는 것이다.
+     * {@code sync} 는 {@code unless} 와 함께 쓸 수 없어 두지 않는다. 키가 사용자별이라 같은 키로 몰리는 일은 드물다.
+     */
+    @Cacheable(value = "hybridRecommendations", key = "#userId + '_' + #mood + '_' + #limit", unless = "#result.degraded")
+    public RecommendationDto.HybridRecommendations getHybridRecommendations(UUID userId, String mood, Integer limit) {
+        String knownMood = moodIndex.isKnown(mood) ? mood.toLowerCase() : null;
         
-        Map<UUID, Integer> movieScores = new HashMap<>();
-        for (UUID similarUserId : similarUserIds) {
-            List<Review> similarUserReviews = reviewRepository.findUserHighRatedReviews(similarUserId, 7);
-            for (Review review : similarUserReviews) {
-                if (!userReviewedMovieIds.contains(review.getMovie().getId())) {
-                    movieScores.merge(review.getMovie().getId(), 1, Integer::sum);
-                }
-            }
+        // 콘텐츠/소셜/트렌딩/감정 전략을 병렬 실행해 섞는다 (마감 시간을 넘긴 전략은 제외)
+        HybridRecommender.Blend blend = hybridRecommender.recommend(userId, knownMood, limit);
+        List<HybridRecommender.BlendedMovie> blended = blend.getMovies();
+        if (blended.isEmpty()) {
+            return new RecommendationDto.HybridRecommendations(getPopularMoviesRecommendations(limit), blend.isDegraded());
         }
         
-        // Sort by score and return top recommendations
-        return movieScores.entrySet().stream()
-                .sorted(Map.Entry.<UUID, Integer>comparingByValue().reversed())
-                .limit(limit)
-                .map(entry -> {
-                    Movie movie = movieRepository.findById(entry.getKey()).orElse(null);
-                    if (movie != null) {
-                        return createRecommendationDto(movie, "social_based", 
-                                "비슷한 취향 사용자들이 좋아한 영화");
-                    }
-                    return null;
-                })
-                .filter(Objects::nonNull)
+        Map<UUID, HybridRecommender.Strategy> strategies = new HashMap<>();
+        blended.forEach(b -> strategies.put(b.getMovieId(), b.getDominantStrategy()));
+        
+        List<RecommendationDto> recommendations = findMoviesInOrderByIds(blended.stream()
+                        .map(HybridRecommender.BlendedMovie::getMovieId)
+                        .collect(Collectors.toList())).stream()
+                .map(movie -> createRecommendationDto(movie, "hybrid",
+                        getHybridReason(strategies.get(movie.getId()), mood)))
                 .collect(Collectors.toList());
+        return new RecommendationDto.HybridRecommendations(recommendations, blend.isDegraded());
     }
     
-    @Cacheable(value = "trendingRecommendations", key = "#timeRange + '_' + #limit")
+    public List<ScoredMovie> scoreSocial(UUID userId, int limit) {
+        return run(pipelines.getSocial(), userId, null, null, limit);
+    }
+    
+    public List<ScoredMovie> scorePersonalized(UUID userId, int limit) {
+        return run(pipelines.getPersonalized(), userId, null, null, limit);
+    }
+    
+    public List<ScoredMovie> scoreContentForUser(UUID userId, int limit) {
+        return run(pipelines.getUserContent(), userId, null, null, limit);
+    }
+    
+    @Cacheable(value = "trendingRecommendations", key = "#timeRange + '_' + #limit", sync = true)
     public List<RecommendationDto> getTrendingRecommendations(String timeRange, Integer limit) {
-        // This would typically integrate with external trend data
-        // For now, we'll use popular movies as trending
-        List<Movie> trendingMovies = movieRepository.findAll().stream()
-                .sorted((m1, m2) -> m2.getPopularity().compareTo(m1.getPopularity()))
+        return trending(null, timeRange, limit);
+    }
+    
+    @Cacheable(value = "userTrendingRecommendations", key = "#userId + '_' + #timeRange + '_' + #limit", sync = true)
+    public List<RecommendationDto> getUserTrendingRecommendations(UUID userId, String timeRange, Integer limit) {
+        return trending(userId, timeRange, limit);
+    }
+    
+    @Cacheable(value = "moodRecommendations", key = "#mood.toLowerCase() + '_' + #limit + '_' + #page", sync = true)
+    public List<RecommendationDto> getMoodBasedRecommendations(String mood, Integer limit, Integer page) {
+        return moodBased(null, mood, limit, page);
+    }
+    
+    @Cacheable(value = "userMoodRecommendations",
+            key = "#userId + '_' + #mood.toLowerCase() + '_' + #limit + '_' + #page", sync = true)
+    public List<RecommendationDto> getUserMoodBasedRecommendations(UUID userId, String mood, Integer limit, Integer page) {
+        return moodBased(userId, mood, limit, page);
+    }
+    
+    private List<RecommendationDto> trending(UUID userId, String timeRange, int limit) {
+        if (!trendingIndex.supports(timeRange)) {
+            throw new IllegalArgumentException("지원하지 않는 시간 범위입니다: " + timeRange);
+        }
+        
+        // 리뷰/즐겨찾기/TMDb 트렌드의 시간 감쇠 카운터로 유지되는 상위 목록 (활동이 없으면 인기 영화)
+        List<Movie> trendingMovies = findMoviesInOrder(pipelines.getTrending().run(PipelineRequest.builder()
+                .userId(userId)
+                .timeRange(timeRange.toLowerCase())
                 .limit(limit)
-                .collect(Collectors.toList());
+                .candidateLimit(limit * CANDIDATE_OVERFETCH)
+                .build()));
+        if (trendingMovies.isEmpty()) {
+            return getPopularMoviesRecommendations(limit);
+        }
         
         return trendingMovies.stream()
                 .map(movie -> createRecommendationDto(movie, "trending", 
@@ -137,32 +211,18 @@ public class RecommendationService {
                 .collect(Collectors.toList());
     }
     
-    public List<RecommendationDto> getMoodBasedRecommendations(String mood, Integer limit) {
-        Map<String, List<String>> moodToGenres = getMoodToGenresMapping();
-        List<String> targetGenres = moodToGenres.getOrDefault(mood.toLowerCase(), List.of());
-        
-        if (targetGenres.isEmpty()) {
+    private List<RecommendationDto> moodBased(UUID userId, String mood, int limit, int page) {
+        if (!moodIndex.isKnown(mood)) {
             return getPopularMoviesRecommendations(limit);
         }
+        if (page < 0) {
+            throw new IllegalArgumentException("페이지 번호는 0 이상이어야 합니다: " + page);
+        }
         
-        List<Movie> moodMovies = movieRepository.findAll().stream()
-                .filter(movie -> {
-                    List<String> genres = convertStringToGenres(movie.getGenres());
-                    return genres.stream().anyMatch(targetGenres::contains);
-                })
-                .sorted((m1, m2) -> {
-                    // Sort by mood relevance and popularity
-                    double relevance1 = calculateMoodRelevance(targetGenres, convertStringToGenres(m1.getGenres()));
-                    double relevance2 = calculateMoodRelevance(targetGenres, convertStringToGenres(m2.getGenres()));
-                    
-                    if (Double.compare(relevance1, relevance2) != 0) {
-                        return Double.compare(relevance2, relevance1);
-                    }
-                    
-                    return m2.getPopularity().compareTo(m1.getPopularity());
-                })
-                .limit(limit)
-                .collect(Collectors.toList());
+        // 미리 정렬해 둔 기분별 순위(장르 일치 비율, 인기도)를 본 영화/성인물 필터에 통과시킨 뒤 해당 페이지만 자른다
+        int offset = page * limit;
+        List<ScoredMovie> ranked = run(pipelines.getMood(), userId, null, mood.toLowerCase(), offset + limit);
+        List<Movie> moodMovies = findMoviesInOrder(ranked.subList(Math.min(offset, ranked.size()), ranked.size()));
         
         return moodMovies.stream()
                 .map(movie -> createRecommendationDto(movie, "mood_based", 
@@ -170,93 +230,81 @@ public class RecommendationService {
                 .collect(Collectors.toList());
     }
     
-    public RecommendationDto.UserProfileResponse getUserProfile(UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
-        
-        List<Review> userReviews = reviewRepository.findByUserId(userId);
-        List<Favorite> userFavorites = user.getFavorites();
-        
-        // Calculate genre preferences
-        Map<String, Integer> genreCounts = new HashMap<>();
-        Map<String, Double> genreRatings = new HashMap<>();
-        
-        for (Review review : userReviews) {
-            List<String> genres = convertStringToGenres(review.getMovie().getGenres());
-            for (String genre : genres) {
-                genreCounts.merge(genre, 1, Integer::sum);
-                genreRatings.merge(genre, review.getRating().doubleValue(), Double::sum);
-            }
-        }
-        
-        List<RecommendationDto.GenrePreference> genrePreferences = genreCounts.entrySet().stream()
-                .map(entry -> {
-                    String genre = entry.getKey();
-                    int count = entry.getValue();
-                    double totalRating = genreRatings.get(genre);
-                    double avgRating = totalRating / count;
-                    
-                    return RecommendationDto.GenrePreference.builder()
-                            .genre(genre)
-                            .preferenceScore(avgRating / 10.0) // Normalize to 0-1
-                            .movieCount(count)
-                            .build();
-                })
-                .sorted((g1, g2) -> Double.compare(g2.getPreferenceScore(), g1.getPreferenceScore()))
-                .collect(Collectors.toList());
-        
-        // Calculate rating pattern
-        double averageRating = userReviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
-        
-        Map<Integer, Long> ratingDistribution = userReviews.stream()
-                .collect(Collectors.groupingBy(Review::getRating, Collectors.counting()));
-        
-        List<RecommendationDto.RatingDistribution> distribution = ratingDistribution.entrySet().stream()
-                .map(entry -> {
-                    int rating = entry.getKey();
-                    long count = entry.getValue();
-                    double percentage = (double) count / userReviews.size() * 100;
-                    
-                    return RecommendationDto.RatingDistribution.builder()
-                            .rating(rating)
-                            .count((int) count)
-                            .percentage(percentage)
-                            .build();
-                })
-                .sorted(Comparator.comparing(RecommendationDto.RatingDistribution::getRating))
+    /**
+     * 파이프라인 단계별 지연 시간(2의 거듭제곱 버킷 상한으로 근사한 백분위)과 후보 수.
+     */
+    public List<RecommendationDto.PipelineStageStats> getPipelineStats() {
+        return pipelineMetrics.snapshot().stream()
+                .map(stats -> RecommendationDto.PipelineStageStats.builder()
+                        .pipeline(stats.getPipeline())
+                        .stage(stats.getStage())
+                        .kind(stats.getKind())
+                        .calls(stats.getCalls())
+                        .averageMicros(stats.getAverageMicros())
+                        .p50Micros(stats.percentileMicros(0.50))
+                        .p95Micros(stats.percentileMicros(0.95))
+                        .p99Micros(stats.percentileMicros(0.99))
+                        .maxMicros(stats.getMaxMicros())
+                        .averageCandidatesIn(stats.getAverageCandidatesIn())
+                        .averageCandidatesOut(stats.getAverageCandidatesOut())
+                        .build())
                 .collect(Collectors.toList());
-        
-        RecommendationDto.RatingPattern ratingPattern = RecommendationDto.RatingPattern.builder()
-                .averageRating(averageRating)
-                .totalRatings(userReviews.size())
-                .distribution(distribution)
-                .build();
-        
-        return RecommendationDto.UserProfileResponse.builder()
-                .userId(userId)
-                .username(user.getUsername())
-                .genrePreferences(genrePreferences)
-                .ratingPattern(ratingPattern)
-                .averageRating(averageRating)
-                .totalReviews(userReviews.size())
-                .totalFavorites(userFavorites.size())
-                .build();
+    }
+    
+    public RecommendationDto.UserProfileResponse getUserProfile(UUID userId) {
+        // user_preferences 에 증분 유지되는 취향 프로필 한 행만 읽는다
+        return tasteProfileService.getUserProfile(userId);
     }
     
     private List<RecommendationDto> getPopularMoviesRecommendations(Integer limit) {
-        List<Movie> popularMovies = movieRepository.findAll().stream()
-                .sorted((m1, m2) -> m2.getPopularity().compareTo(m1.getPopularity()))
-                .limit(limit)
-                .collect(Collectors.toList());
+        List<Movie> popularMovies = findMoviesInOrder(run(pipelines.getPopular(), null, null, null, limit));
         
         return popularMovies.stream()
                 .map(movie -> createRecommendationDto(movie, "popular", "인기 영화"))
                 .collect(Collectors.toList());
     }
     
+    private List<ScoredMovie> run(RecommendationPipeline pipeline, UUID userId, UUID movieId,
+                                  String mood, int limit) {
+        return pipeline.run(PipelineRequest.builder()
+                .userId(userId)
+                .movieId(movieId)
+                .mood(mood)
+                .limit(limit)
+                .candidateLimit(limit * CANDIDATE_OVERFETCH)
+                .build());
+    }
+    
+    /**
+     * 배치가 저장해 둔 목록에서 배치 이후 본 영화와 성인물을 빼고 앞의 limit 개를 반환한다.
+     * 저장된 목록이 없거나 남은 영화가 limit 보다 적으면 null 이다.
+     */
+    private List<UUID> findPrecomputed(UUID userId, Function<UserRecommendation, byte[]> list, int limit) {
+        return userRecommendationRepository.findById(userId)
+                .map(list)
+                .map(MovieIdLists::unpack)
+                .map(movieIds -> movieIds.stream()
+                        .filter(pipelines.servableTo(userId))
+                        .limit(limit)
+                        .collect(Collectors.toList()))
+                .filter(movieIds -> movieIds.size() >= limit)
+                .orElse(null);
+    }
+    
+    private List<Movie> findMoviesInOrder(List<ScoredMovie> scoredMovies) {
+        return findMoviesInOrderByIds(scoredMovies.stream().map(ScoredMovie::getMovieId).collect(Collectors.toList()));
+    }
+    
+    private List<Movie> findMoviesInOrderByIds(List<UUID> movieIds) {
+        Map<UUID, Movie> moviesById = movieRepository.findAllById(movieIds).stream()
+                .collect(Collectors.toMap(Movie::getId, m -> m));
+        
+        return movieIds.stream()
+                .map(moviesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
     private RecommendationDto createRecommendationDto(Movie movie, String type, String reason) {
         return RecommendationDto.builder()
                 .movieId(movie.getId())
@@ -275,48 +323,17 @@ public class RecommendationService {
                 .build();
     }
     
-    private double calculateGenreSimilarity(List<String> genres1, List<String> genres2) {
-        if (genres1.isEmpty() || genres2.isEmpty()) {
-            return 0.0;
+    private String getHybridReason(HybridRecommender.Strategy strategy, String mood) {
+        switch (strategy) {
+            case CONTENT:
+                return "좋아한 영화와 비슷한 영화";
+            case SOCIAL:
+                return "비슷한 취향 사용자들이 좋아한 영화";
+            case MOOD:
+                return mood + " 기분에 맞는 영화";
+            default:
+                return "현재 인기 있는 영화";
         }
-        
-        Set<String> set1 = new HashSet<>(genres1);
-        Set<String> set2 = new HashSet<>(genres2);
-        
-        Set<String> intersection = new HashSet<>(set1);
-        intersection.retainAll(set2);
-        
-        Set<String> union = new HashSet<>(set1);
-        union.addAll(set2);
-        
-        return (double) intersection.size() / union.size();
-    }
-    
-    private double calculateMoodRelevance(List<String> targetGenres, List<String> movieGenres) {
-        if (targetGenres.isEmpty() || movieGenres.isEmpty()) {
-            return 0.0;
-        }
-        
-        Set<String> targetSet = new HashSet<>(targetGenres);
-        Set<String> movieSet = new HashSet<>(movieGenres);
-        
-        Set<String> intersection = new HashSet<>(targetSet);
-        intersection.retainAll(movieSet);
-        
-        return (double) intersection.size() / targetGenres.size();
-    }
-    
-    private Map<String, List<String>> getMoodToGenresMapping() {
-        Map<String, List<String>> mapping = new HashMap<>();
-        mapping.put("happy", List.of("Comedy", "Animation", "Family", "Music"));
-        mapping.put("sad", List.of("Drama", "Romance", "Music"));
-        mapping.put("excited", List.of("Action", "Adventure", "Thriller", "Science Fiction"));
-        mapping.put("relaxed", List.of("Drama", "Romance", "Documentary", "Music"));
-        mapping.put("romantic", List.of("Romance", "Drama", "Comedy"));
-        mapping.put("scared", List.of("Horror", "Thriller", "Mystery"));
-        mapping.put("adventurous", List.of("Adventure", "Action", "Fantasy", "Science Fiction"));
-        mapping.put("thoughtful", List.of("Drama", "Documentary", "History", "Biography"));
-        return mapping;
     }
     
     private List<String> convertStringToGenres(String genresJson) {
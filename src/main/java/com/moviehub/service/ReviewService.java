@@ -4,11 +4,13 @@ import com.moviehub.dto.ReviewDto;
 import com.moviehub.entity.Review;
 import com.moviehub.entity.User;
 import com.moviehub.entity.Movie;
+import com.moviehub.event.ReviewChangedEvent;
 import com.moviehub.repository.ReviewRepository;
 import com.moviehub.repository.UserRepository;
 import com.moviehub.repository.MovieRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -30,6 +32,7 @@ public class ReviewService {
     private final UserRepository userRepository;
     private final MovieRepository movieRepository;
     private final SentimentAnalysisService sentimentAnalysisService;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<ReviewDto> getReviewsByMovieId(UUID movieId) {
         return reviewRepository.findByMovieId(movieId)
@@ -134,6 +137,7 @@ public class ReviewService {
                 .build();
         
         Review savedReview = reviewRepository.save(review);
+        eventPublisher.publishEvent(ReviewChangedEvent.created(savedReview));
         return convertToDto(savedReview);
     }
     
@@ -142,6 +146,7 @@ public class ReviewService {
         return reviewRepository.findById(reviewId)
                 .filter(review -> review.getUser().getId().equals(userId))
                 .map(review -> {
+                    Integer previousRating = review.getRating();
                     review.setRating(request.getRating());
                     review.setComment(request.getComment());
                     
@@ -155,7 +160,9 @@ public class ReviewService {
                         }
                     }
                     
-                    return convertToDto(reviewRepository.save(review));
+                    Review savedReview = reviewRepository.save(review);
+                    eventPublisher.publishEvent(ReviewChangedEvent.updated(savedReview, previousRating));
+                    return convertToDto(savedReview);
                 });
     }
     
@@ -165,6 +172,7 @@ public class ReviewService {
                 .filter(review -> review.getUser().getId().equals(userId))
                 .map(review -> {
                     reviewRepository.delete(review);
+                    eventPublisher.publishEvent(ReviewChangedEvent.deleted(review));
                     return true;
                 })
                 .orElse(false);
@@ -0,0 +1,366 @@
+package com.moviehub.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviehub.dto.RecommendationDto;
+import com.moviehub.entity.User;
+import com.moviehub.entity.UserPreferences;
+import com.moviehub.event.FavoriteChangedEvent;
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.event.ReviewChangedEvent;
+import com.moviehub.repository.FavoriteRepository;
+import com.moviehub.repository.MovieRepository;
+import com.moviehub.repository.ReviewRepository;
+import com.moviehub.repository.UserPreferencesRepository;
+import com.moviehub.repository.UserRepository;
+import com.moviehub.service.recommendation.GenreIndex;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 사용자 취향 프로필(장르별 평점 합/개수, 평점 분포, 리뷰/즐겨찾기 수)을 user_preferences 에 유지한다.
+ * <p>
+ * 리뷰와 즐겨찾기 이벤트를 같은 트랜잭션 안에서 받아 행 잠금 후 증분 반영하므로 프로필 조회는
+ * 한 행만 읽는다. 아직 행이 없는 사용자는 처음 쓰거나 읽을 때 기존 리뷰로부터 한 번 계산해 만든다.
+ * 행은 INSERT ... ON CONFLICT DO NOTHING 으로 만들므로 첫 쓰기가 동시에 일어나도 제약 위반으로
+ * 리뷰/즐겨찾기 트랜잭션이 롤백되지 않는다.
+ * <p>
+ * 증분은 반영 시점의 영화 장르로 계산하므로, 영화 장르가 바뀌면 그 영화를 리뷰한 사용자의 프로필을
+ * 다시 계산한다. 영화 삭제로 cascade 된 리뷰/즐겨찾기는 이벤트가 없어 빼지 못하므로
+ * 주기적으로 모든 프로필을 처음부터 다시 계산해 어긋난 값을 바로잡는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TasteProfileService {
+    
+    private static final int MAX_RATING = 10;
+    private static final int REBUILD_PAGE_SIZE = 500;
+    
+    private final UserPreferencesRepository userPreferencesRepository;
+    private final UserRepository userRepository;
+    private final ReviewRepository reviewRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final MovieRepository movieRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    
+    @EventListener
+    public void onReviewChanged(ReviewChangedEvent event) {
+        Optional<UserPreferences> existing = lockForIncrement(event.getUserId());
+        if (existing.isEmpty()) {
+            return; // 새로 만들면서 방금 쓴 리뷰까지 포함해 계산했다
+        }
+        
+        UserPreferences preferences = existing.get();
+        List<String> genres = movieRepository.findById(event.getMovieId())
+                .map(movie -> GenreIndex.parseGenres(movie.getGenres()))
+                .orElse(List.of());
+        
+        TasteProfile profile = read(preferences);
+        if (event.getPreviousRating() != null) {
+            profile.remove(genres, event.getPreviousRating());
+        }
+        if (event.getRating() != null) {
+            profile.add(genres, event.getRating());
+        }
+        write(profile, preferences);
+        preferences.setTotalReviews(profile.reviewCount());
+        preferences.setRatingSum(profile.ratingSum());
+        userPreferencesRepository.save(preferences);
+    }
+    
+    @EventListener
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        Optional<UserPreferences> existing = lockForIncrement(event.getUserId());
+        if (existing.isEmpty()) {
+            return;
+        }
+        
+        UserPreferences preferences = existing.get();
+        preferences.setTotalFavorites(Math.max(0, preferences.getTotalFavorites() + (event.isAdded() ? 1 : -1)));
+        userPreferencesRepository.save(preferences);
+    }
+    
+    /**
+     * 장르가 바뀐 영화를 리뷰한 사용자의 프로필을 사용자마다 별도 트랜잭션에서 다시 계산한다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (!event.isGenresChanged()) {
+            return;
+        }
+        List<UUID> userIds = reviewRepository.findUserIdsByMovieId(event.getMovieId());
+        log.debug("Genres of movie {} changed, rebuilding {} taste profiles", event.getMovieId(), userIds.size());
+        userIds.forEach(this::rebuildInNewTransaction);
+    }
+    
+    /**
+     * 프로필이 있는 모든 사용자를 사용자 ID 순으로 나눠 읽으며 다시 계산한다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Scheduled(cron = "${recommendation.taste-profile.rebuild-cron:0 30 5 * * *}")
+    public void rebuildAll() {
+        long start = System.currentTimeMillis();
+        int rebuilt = 0;
+        UUID after = null;
+        while (true) {
+            PageRequest page = PageRequest.of(0, REBUILD_PAGE_SIZE);
+            List<UUID> userIds = after == null
+                    ? userPreferencesRepository.findUserIdsOrderByUserId(page)
+                    : userPreferencesRepository.findUserIdsAfter(after, page);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            for (UUID userId : userIds) {
+                if (rebuildInNewTransaction(userId)) {
+                    rebuilt++;
+                }
+            }
+            after = userIds.get(userIds.size() - 1);
+        }
+        log.info("Rebuilt {} taste profiles in {} ms", rebuilt, System.currentTimeMillis() - start);
+    }
+    
+    /**
+     * 사용자의 취향 프로필 행. 없으면 별도 트랜잭션에서 만든다 (읽기 전용 트랜잭션에서 호출될 수 있음).
+     */
+    public UserPreferences getPreferences(UUID userId) {
+        return userPreferencesRepository.findWithUserByUserId(userId)
+                .orElseGet(() -> {
+                    TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+                    requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                    return requiresNew.execute(status -> rebuild(userId));
+                });
+    }
+    
+    public RecommendationDto.UserProfileResponse getUserProfile(UUID userId) {
+        UserPreferences preferences = getPreferences(userId);
+        TasteProfile profile = read(preferences);
+        
+        List<RecommendationDto.GenrePreference> genrePreferences = profile.getGenres().entrySet().stream()
+                .map(entry -> RecommendationDto.GenrePreference.builder()
+                        .genre(entry.getKey())
+                        .preferenceScore(entry.getValue().average() / 10.0) // Normalize to 0-1
+                        .movieCount(entry.getValue().getCount())
+                        .build())
+                .sorted((g1, g2) -> Double.compare(g2.getPreferenceScore(), g1.getPreferenceScore()))
+                .collect(Collectors.toList());
+        
+        int totalRatings = profile.reviewCount();
+        double averageRating = totalRatings > 0 ? (double) profile.ratingSum() / totalRatings : 0.0;
+        
+        List<RecommendationDto.RatingDistribution> distribution = new ArrayList<>();
+        int[] counts = profile.getDistribution();
+        for (int rating = 1; rating <= MAX_RATING; rating++) {
+            if (counts[rating] > 0) {
+                distribution.add(RecommendationDto.RatingDistribution.builder()
+                        .rating(rating)
+                        .count(counts[rating])
+                        .percentage((double) counts[rating] / totalRatings * 100)
+                        .build());
+            }
+        }
+        
+        RecommendationDto.RatingPattern ratingPattern = RecommendationDto.RatingPattern.builder()
+                .averageRating(averageRating)
+                .totalRatings(totalRatings)
+                .distribution(distribution)
+                .build();
+        
+        return RecommendationDto.UserProfileResponse.builder()
+                .userId(userId)
+                .username(preferences.getUser().getUsername())
+                .genrePreferences(genrePreferences)
+                .ratingPattern(ratingPattern)
+                .averageRating(averageRating)
+                .totalReviews(preferences.getTotalReviews())
+                .totalFavorites(preferences.getTotalFavorites())
+                .build();
+    }
+    
+    /**
+     * 증분 반영할 프로필 행을 잠가 반환한다. 행이 없어 이 트랜잭션이 만들었다면 현재 리뷰/즐겨찾기로
+     * 이미 계산했으므로 empty 다. 다른 트랜잭션이 먼저 만들었다면 그 계산에는 이 트랜잭션의 변경이
+     * 빠져 있으므로 그 행을 돌려줘 증분 반영하게 한다.
+     */
+    private Optional<UserPreferences> lockForIncrement(UUID userId) {
+        Optional<UserPreferences> existing = userPreferencesRepository.findByUserIdForUpdate(userId);
+        if (existing.isPresent()) {
+            return existing;
+        }
+        User user = findUser(userId);
+        if (userPreferencesRepository.insertIfAbsent(UUID.randomUUID(), userId) > 0) {
+            rebuild(user);
+            return Optional.empty();
+        }
+        return userPreferencesRepository.findByUserIdForUpdate(userId);
+    }
+    
+    /**
+     * 한 사용자의 프로필을 새 트랜잭션에서 다시 계산한다. 실패해도 다른 사용자는 계속 처리한다.
+     */
+    private boolean rebuildInNewTransaction(UUID userId) {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            requiresNew.executeWithoutResult(status -> rebuild(userId));
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild taste profile for user {}: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+    
+    private UserPreferences rebuild(UUID userId) {
+        User user = findUser(userId);
+        userPreferencesRepository.insertIfAbsent(UUID.randomUUID(), userId);
+        return rebuild(user);
+    }
+    
+    /**
+     * 기존 리뷰와 즐겨찾기로부터 프로필을 처음부터 계산해 이미 있는 행에 저장한다.
+     */
+    private UserPreferences rebuild(User user) {
+        UUID userId = user.getId();
+        TasteProfile profile = new TasteProfile();
+        for (Object[] row : reviewRepository.findGenreRatingsByUserId(userId)) {
+            if (row[1] != null) {
+                profile.add(GenreIndex.parseGenres((String) row[0]), (Integer) row[1]);
+            }
+        }
+        
+        UserPreferences preferences = userPreferencesRepository.findByUserIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("취향 프로필 행을 만들지 못했습니다: " + userId));
+        preferences.setUser(user); // 호출한 트랜잭션 밖에서도 사용자 이름을 읽을 수 있게
+        write(profile, preferences);
+        preferences.setTotalReviews(profile.reviewCount());
+        preferences.setRatingSum(profile.ratingSum());
+        preferences.setTotalFavorites((int) favoriteRepository.countByUserId(userId));
+        log.debug("Rebuilt taste profile for user {} from {} reviews", userId, profile.reviewCount());
+        return userPreferencesRepository.save(preferences);
+    }
+    
+    private User findUser(UUID userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
+    }
+    
+    private TasteProfile read(UserPreferences preferences) {
+        TasteProfile profile = new TasteProfile();
+        try {
+            if (preferences.getGenrePreferences() != null) {
+                profile.setGenres(objectMapper.readValue(preferences.getGenrePreferences(),
+                        new TypeReference<TreeMap<String, GenreStat>>() { }));
+            }
+            if (preferences.getRatingPatterns() != null) {
+                RatingPattern pattern = objectMapper.readValue(preferences.getRatingPatterns(), RatingPattern.class);
+                if (pattern.getDistribution() != null && pattern.getDistribution().length == MAX_RATING + 1) {
+                    profile.setDistribution(pattern.getDistribution());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("취향 프로필을 읽을 수 없습니다: " + preferences.getId(), e);
+        }
+        return profile;
+    }
+    
+    private void write(TasteProfile profile, UserPreferences preferences) {
+        try {
+            preferences.setGenrePreferences(objectMapper.writeValueAsString(profile.getGenres()));
+            RatingPattern pattern = new RatingPattern();
+            pattern.setDistribution(profile.getDistribution());
+            preferences.setRatingPatterns(objectMapper.writeValueAsString(pattern));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("취향 프로필을 저장할 수 없습니다.", e);
+        }
+    }
+    
+    @Data
+    @NoArgsConstructor
+    static class GenreStat {
+        private int count;
+        private long ratingSum;
+        
+        double average() {
+            return count > 0 ? (double) ratingSum / count : 0.0;
+        }
+    }
+    
+    @Data
+    @NoArgsConstructor
+    static class RatingPattern {
+        private int[] distribution;
+    }
+    
+    /**
+     * 장르별 통계와 평점 분포(인덱스 = 평점). 리뷰 수와 평점 합은 분포에서 계산한다.
+     */
+    @Data
+    static class TasteProfile {
+        private TreeMap<String, GenreStat> genres = new TreeMap<>();
+        private int[] distribution = new int[MAX_RATING + 1];
+        
+        void add(List<String> movieGenres, int rating) {
+            for (String genre : new LinkedHashSet<>(movieGenres)) {
+                GenreStat stat = genres.computeIfAbsent(genre, g -> new GenreStat());
+                stat.setCount(stat.getCount() + 1);
+                stat.setRatingSum(stat.getRatingSum() + rating);
+            }
+            distribution[clamp(rating)]++;
+        }
+        
+        void remove(List<String> movieGenres, int rating) {
+            for (String genre : new LinkedHashSet<>(movieGenres)) {
+                GenreStat stat = genres.get(genre);
+                if (stat == null) {
+                    continue;
+                }
+                stat.setCount(stat.getCount() - 1);
+                stat.setRatingSum(stat.getRatingSum() - rating);
+                if (stat.getCount() <= 0) {
+                    genres.remove(genre);
+                }
+            }
+            distribution[clamp(rating)] = Math.max(0, distribution[clamp(rating)] - 1);
+        }
+        
+        int reviewCount() {
+            int total = 0;
+            for (int count : distribution) {
+                total += count;
+            }
+            return total;
+        }
+        
+        long ratingSum() {
+            long sum = 0;
+            for (int rating = 1; rating <= MAX_RATING; rating++) {
+                sum += (long) rating * distribution[rating];
+            }
+            return sum;
+        }
+        
+        private static int clamp(int rating) {
+            return Math.max(1, Math.min(MAX_RATING, rating));
+        }
+    }
+}
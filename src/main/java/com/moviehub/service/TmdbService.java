@@ -3,12 +3,14 @@ package com.moviehub.service;
 import com.moviehub.dto.MovieDto;
 import com.moviehub.dto.TmdbDto;
 import com.moviehub.entity.Movie;
+import com.moviehub.event.MovieChangedEvent;
 import com.moviehub.repository.MovieRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
@@ -26,6 +28,7 @@ public class TmdbService {
     
     private final WebClient webClient;
     private final MovieRepository movieRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Value("${external.tmdb.api-key}")
     private String apiKey;
@@ -37,12 +40,14 @@ public class TmdbService {
     private String imageBaseUrl;
     
     @Autowired
-    public TmdbService(WebClient webClient, MovieRepository movieRepository) {
+    public TmdbService(WebClient webClient, MovieRepository movieRepository,
+                       ApplicationEventPublisher eventPublisher) {
         this.webClient = webClient;
         this.movieRepository = movieRepository;
+        this.eventPublisher = eventPublisher;
     }
     
-    @Cacheable(value = "tmdbSearch", key = "#query + '_' + #page")
+    @Cacheable(value = "tmdbSearch", key = "#query + '_' + #page", sync = true)
     public TmdbDto.SearchResponse searchMovies(String query, Integer page) {
         try {
             return webClient.get()
@@ -62,7 +67,7 @@ public class TmdbService {
         }
     }
     
-    @Cacheable(value = "tmdbTrending", key = "#timeWindow + '_' + #page")
+    @Cacheable(value = "tmdbTrending", key = "#timeWindow + '_' + #page", sync = true)
     public TmdbDto.TrendingResponse getTrendingMovies(String timeWindow, Integer page) {
         try {
             return webClient.get()
@@ -81,7 +86,7 @@ public class TmdbService {
         }
     }
     
-    @Cacheable(value = "tmdbPopular", key = "#page")
+    @Cacheable(value = "tmdbPopular", key = "#page", sync = true)
     public TmdbDto.PopularResponse getPopularMovies(Integer page) {
         try {
             return webClient.get()
@@ -100,7 +105,7 @@ public class TmdbService {
         }
     }
     
-    @Cacheable(value = "tmdbTopRated", key = "#page")
+    @Cacheable(value = "tmdbTopRated", key = "#page", sync = true)
     public TmdbDto.TopRatedResponse getTopRatedMovies(Integer page) {
         try {
             return webClient.get()
@@ -119,7 +124,7 @@ public class TmdbService {
         }
     }
     
-    @Cacheable(value = "tmdbMovie", key = "#movieId")
+    @Cacheable(value = "tmdbMovie", key = "#movieId", sync = true)
     public Optional<TmdbDto.MovieResponse> getMovieDetails(Integer movieId) {
         try {
             TmdbDto.MovieResponse response = webClient.get()
@@ -139,7 +144,7 @@ public class TmdbService {
         }
     }
     
-    @Cacheable(value = "tmdbGenres")
+    @Cacheable(value = "tmdbGenres", sync = true)
     public List<TmdbDto.Genre> getGenres() {
         try {
             TmdbDto.GenreListResponse response = webClient.get()
@@ -200,6 +205,7 @@ public class TmdbService {
             // Convert and save new movie
             Movie movie = convertTmdbToEntity(tmdbMovie);
             Movie savedMovie = movieRepository.save(movie);
+            eventPublisher.publishEvent(MovieChangedEvent.saved(savedMovie));
             return Optional.of(convertToDto(savedMovie));
         } catch (Exception e) {
             log.error("Error converting and saving movie: {}", e.getMessage());
@@ -2,10 +2,12 @@ package com.moviehub.service;
 
 import com.moviehub.dto.TrendDto;
 import com.moviehub.entity.Trend;
+import com.moviehub.event.TrendRecordedEvent;
 import com.moviehub.repository.TrendRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -25,8 +27,9 @@ public class TrendService {
     
     private final TrendRepository trendRepository;
     private final TmdbService tmdbService;
+    private final ApplicationEventPublisher eventPublisher;
     
-    @Cacheable(value = "recentTrends", key = "#hours")
+    @Cacheable(value = "recentTrends", key = "#hours", sync = true)
     public List<TrendDto> getRecentTrends(int hours) {
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
         return trendRepository.findRecentTrends(since)
@@ -35,7 +38,7 @@ public class TrendService {
                 .collect(Collectors.toList());
     }
     
-    @Cacheable(value = "trendsBySource", key = "#source + '_' + #hours")
+    @Cacheable(value = "trendsBySource", key = "#source + '_' + #hours", sync = true)
     public List<TrendDto> getTrendsBySource(String source, int hours) {
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
         return trendRepository.findRecentTrendsBySource(source, since)
@@ -44,7 +47,7 @@ public class TrendService {
                 .collect(Collectors.toList());
     }
     
-    @Cacheable(value = "topTrendingKeywords", key = "#hours")
+    @Cacheable(value = "topTrendingKeywords", key = "#hours", sync = true)
     public List<TrendDto.TrendingKeyword> getTopTrendingKeywords(int hours) {
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
         List<Object[]> results = trendRepository.findTopTrendingKeywords(since);
@@ -91,7 +94,7 @@ public class TrendService {
                                     .metadata("{\"movie_id\":" + movie.getId() + ",\"poster_path\":\"" + movie.getPosterPath() + "\"}")
                                     .build();
                             
-                            trendRepository.save(trend);
+                            eventPublisher.publishEvent(new TrendRecordedEvent(trendRepository.save(trend)));
                         });
                 
                 log.info("Updated trending movies from TMDb");
@@ -153,6 +156,7 @@ public class TrendService {
                 .build();
         
         Trend savedTrend = trendRepository.save(trend);
+        eventPublisher.publishEvent(new TrendRecordedEvent(savedTrend));
         return convertToDto(savedTrend);
     }
     
@@ -2,6 +2,7 @@ package com.moviehub.service;
 
 import com.moviehub.dto.UserDto;
 import com.moviehub.entity.User;
+import com.moviehub.entity.UserPreferences;
 import com.moviehub.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +23,7 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TasteProfileService tasteProfileService;
     
     public List<UserDto> getAllUsers() {
         return userRepository.findAll()
@@ -120,28 +122,22 @@ public class UserService {
     }
     
     public UserDto.ProfileResponse getUserProfile(UUID id) {
-        return userRepository.findById(id)
-                .map(user -> {
-                    // Calculate user statistics
-                    long totalReviews = user.getReviews().size();
-                    long totalFavorites = user.getFavorites().size();
-                    double averageRating = user.getReviews().stream()
-                            .mapToInt(review -> review.getRating())
-                            .average()
-                            .orElse(0.0);
-                    
-                    return UserDto.ProfileResponse.builder()
-                            .id(user.getId())
-                            .email(user.getEmail())
-                            .username(user.getUsername())
-                            .role(user.getRole())
-                            .createdAt(user.getCreatedAt())
-                            .totalReviews(totalReviews)
-                            .totalFavorites(totalFavorites)
-                            .averageRating(averageRating)
-                            .build();
-                })
-                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
+        // 리뷰/즐겨찾기 컬렉션 대신 증분 유지되는 취향 프로필의 집계값을 사용
+        UserPreferences preferences = tasteProfileService.getPreferences(id);
+        User user = preferences.getUser();
+        long totalReviews = preferences.getTotalReviews();
+        double averageRating = totalReviews > 0 ? (double) preferences.getRatingSum() / totalReviews : 0.0;
+        
+        return UserDto.ProfileResponse.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .username(user.getUsername())
+                .role(user.getRole())
+                .createdAt(user.getCreatedAt())
+                .totalReviews(totalReviews)
+                .totalFavorites((long) preferences.getTotalFavorites())
+                .averageRating(averageRating)
+                .build();
     }
     
     public List<UserDto> getUsersWhoReviewedMovie(UUID movieId) {
@@ -0,0 +1,178 @@
+package com.moviehub.service.importer;
+
+import lombok.Value;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * MovieLens 파일 형식과 이 스키마로의 변환 규칙.
+ * <p>
+ * ml-latest, ml-25m 처럼 헤더가 있는 CSV 와 ml-1m, ml-10m 처럼 "::" 로 구분한 .dat 를 지원한다.
+ * 영화/사용자 UUID 는 MovieLens id 에서 결정적으로 만들어 다시 읽어도 같은 행을 가리킨다.
+ */
+public final class MovieLensFormat {
+
+    public static final String EMAIL_DOMAIN = "movielens.local";
+
+    private static final Pattern TITLE_YEAR = Pattern.compile("^(.*?)\\s*\\((\\d{4})\\)\\s*$");
+    private static final Map<String, String> GENRE_NAMES = Map.of(
+            "Sci-Fi", "Science Fiction",
+            "Children", "Family",
+            "Children's", "Family",
+            "Musical", "Music",
+            "Film-Noir", "Crime");
+    private static final Set<String> IGNORED_GENRES = Set.of("(no genres listed)", "IMAX");
+
+    private MovieLensFormat() {
+    }
+
+    public enum Layout {
+        CSV(".csv", ",", StandardCharsets.UTF_8, true),
+        DAT(".dat", "::", StandardCharsets.ISO_8859_1, false);
+
+        private final String extension;
+        private final String separator;
+        private final Charset charset;
+        private final boolean header;
+
+        Layout(String extension, String separator, Charset charset, boolean header) {
+            this.extension = extension;
+            this.separator = separator;
+            this.charset = charset;
+            this.header = header;
+        }
+
+        public Path movies(Path directory) {
+            return directory.resolve("movies" + extension);
+        }
+
+        public Path ratings(Path directory) {
+            return directory.resolve("ratings" + extension);
+        }
+
+        public String getSeparator() {
+            return separator;
+        }
+
+        public Charset getCharset() {
+            return charset;
+        }
+
+        public boolean hasHeader() {
+            return header;
+        }
+
+        /**
+         * 따옴표로 감싼 쉼표가 있을 수 있는 영화 행.
+         */
+        public List<String> split(String line) {
+            return this == CSV ? splitCsv(line) : Arrays.asList(line.split(separator, -1));
+        }
+
+        /**
+         * 숫자만 있는 평점 행. 따옴표를 처리하지 않는 만큼 빠르다.
+         */
+        public String[] splitPlain(String line) {
+            return line.split(separator, -1);
+        }
+    }
+
+    public static Layout detect(Path directory) {
+        for (Layout layout : Layout.values()) {
+            if (Files.exists(layout.movies(directory)) && Files.exists(layout.ratings(directory))) {
+                return layout;
+            }
+        }
+        throw new IllegalArgumentException("MovieLens movies/ratings 파일을 찾을 수 없습니다: " + directory);
+    }
+
+    public static UUID movieId(int movieLensId) {
+        return UUID.nameUUIDFromBytes(("movielens-movie-" + movieLensId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UUID userId(int movieLensId) {
+        return UUID.nameUUIDFromBytes(("movielens-user-" + movieLensId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String username(int movieLensId) {
+        return "ml" + movieLensId;
+    }
+
+    public static String email(int movieLensId) {
+        return username(movieLensId) + "@" + EMAIL_DOMAIN;
+    }
+
+    /**
+     * 0.5-5 별점을 1-10 리뷰 평점으로.
+     */
+    public static int toRating(double stars) {
+        return (int) Math.max(1, Math.min(10, Math.round(stars * 2)));
+    }
+
+    /**
+     * "Heat (1995)" 를 제목과 개봉일(그 해 1월 1일)로 나눈다. 연도가 없으면 개봉일은 null.
+     */
+    public static Title parseTitle(String raw) {
+        String title = raw.trim();
+        Matcher matcher = TITLE_YEAR.matcher(title);
+        if (matcher.matches()) {
+            return new Title(matcher.group(1), LocalDate.of(Integer.parseInt(matcher.group(2)), 1, 1));
+        }
+        return new Title(title, null);
+    }
+
+    /**
+     * "Adventure|Children|Sci-Fi" 를 Movie.genres 형식인 TMDb 장르 이름 JSON 배열로.
+     */
+    public static String toGenresJson(String raw) {
+        StringJoiner genres = new StringJoiner(",", "[", "]");
+        for (String genre : raw.split("\\|")) {
+            String name = genre.trim();
+            if (!name.isEmpty() && !IGNORED_GENRES.contains(name)) {
+                genres.add('"' + GENRE_NAMES.getOrDefault(name, name) + '"');
+            }
+        }
+        return genres.toString();
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Value
+    public static class Title {
+        String name;
+        LocalDate releaseDate;
+    }
+}
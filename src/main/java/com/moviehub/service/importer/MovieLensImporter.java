@@ -0,0 +1,260 @@
+package com.moviehub.service.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * MovieLens 형식 파일을 영화/사용자/리뷰 행으로 한 번에 넣는 로컬용 적재기.
+ * <p>
+ * 평점 파일을 두 번 읽는다. 첫 번째로 사용자 집합과 영화별 평점 수/합을 모으고, 영화(평점 통계 포함)와
+ * 사용자를 쓴 뒤, 두 번째로 리뷰를 흘려 넣는다. 메모리는 MovieLens id 범위만큼의 비트셋과 카운터뿐이라
+ * 평점 수와 무관하다. PostgreSQL 이면 COPY, 그 밖에는 JDBC 배치로 쓰고 전체를 한 트랜잭션으로 커밋한다.
+ * <p>
+ * {@code movielens.import.dir} 을 주고 기동하면 ApplicationReadyEvent 전에 적재하므로 기동 시 만드는
+ * 추천 인덱스에 바로 반영된다. 리뷰 이벤트는 발행하지 않고 감정 분석도 하지 않는다.
+ * 가져온 사용자의 비밀번호는 BCrypt 해시가 아니므로 로그인할 수 없다.
+ */
+@Service
+@Slf4j
+public class MovieLensImporter implements ApplicationRunner {
+
+    private static final int PROGRESS_INTERVAL = 1_000_000;
+    private static final String NO_LOGIN_PASSWORD = "!";
+
+    private final DataSource dataSource;
+    private final Path importDirectory;
+    private final int batchSize;
+
+    public MovieLensImporter(DataSource dataSource,
+                             @Value("${movielens.import.dir:}") String importDirectory,
+                             @Value("${movielens.import.batch-size:5000}") int batchSize) {
+        this.dataSource = dataSource;
+        this.importDirectory = importDirectory.isBlank() ? null : Paths.get(importDirectory);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (importDirectory != null) {
+            importDirectory(importDirectory);
+        }
+    }
+
+    public ImportResult importDirectory(Path directory) throws IOException, SQLException {
+        MovieLensFormat.Layout layout = MovieLensFormat.detect(directory);
+        long start = System.nanoTime();
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                checkNotImported(connection);
+                RatingSummary summary = summarize(layout, directory);
+                LocalDateTime now = LocalDateTime.now();
+
+                long movies = writeMovies(connection, layout, directory, summary, now);
+                long users = writeUsers(connection, summary.users, now);
+                long reviews = writeReviews(connection, layout, directory, summary.movies, start);
+                connection.commit();
+
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                ImportResult result = new ImportResult(movies, users, reviews,
+                        summary.ratings - reviews, millis);
+                log.info("MovieLens import finished from {}: {} movies, {} users, {} reviews ({} skipped) "
+                                + "in {} ms, {} rows/s", directory, movies, users, reviews, result.getSkippedRatings(),
+                        millis, Math.round(result.getRowsPerSecond()));
+                return result;
+            } catch (IOException | SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private void checkNotImported(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT COUNT(*) FROM users WHERE email LIKE ?")) {
+            statement.setString(1, "%@" + MovieLensFormat.EMAIL_DOMAIN);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next() && resultSet.getLong(1) > 0) {
+                    throw new IllegalStateException("이미 가져온 MovieLens 데이터가 있습니다");
+                }
+            }
+        }
+    }
+
+    private RatingSummary summarize(MovieLensFormat.Layout layout, Path directory) throws IOException {
+        RatingSummary summary = new RatingSummary();
+        try (BufferedReader reader = open(layout, layout.movies(directory))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                List<String> fields = layout.split(line);
+                if (fields.size() >= 3) {
+                    summary.movies.set(Integer.parseInt(fields.get(0)));
+                }
+            }
+        }
+        try (BufferedReader reader = open(layout, layout.ratings(directory))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = layout.splitPlain(line);
+                if (fields.length >= 4) {
+                    summary.add(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]),
+                            MovieLensFormat.toRating(Double.parseDouble(fields[2])));
+                }
+            }
+        }
+        return summary;
+    }
+
+    private long writeMovies(Connection connection, MovieLensFormat.Layout layout, Path directory,
+                             RatingSummary summary, LocalDateTime now) throws IOException, SQLException {
+        try (BufferedReader reader = open(layout, layout.movies(directory));
+             TableWriter writer = TableWriter.open(connection, batchSize, "movies", "id", "title", "release_date",
+                     "genres", "vote_average", "vote_count", "popularity", "adult", "created_at", "updated_at")) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                List<String> fields = layout.split(line);
+                if (fields.size() < 3) {
+                    continue;
+                }
+                int movie = Integer.parseInt(fields.get(0));
+                MovieLensFormat.Title title = MovieLensFormat.parseTitle(fields.get(1));
+                int count = summary.countOf(movie);
+                BigDecimal average = count == 0 ? null
+                        : BigDecimal.valueOf((double) summary.sums[movie] / count).setScale(1, RoundingMode.HALF_UP);
+                String name = title.getName().length() > 500 ? title.getName().substring(0, 500) : title.getName();
+                writer.write(MovieLensFormat.movieId(movie), name, title.getReleaseDate(),
+                        MovieLensFormat.toGenresJson(fields.get(2)), average, count, BigDecimal.valueOf(count),
+                        false, now, now);
+            }
+            return writer.getRows();
+        }
+    }
+
+    private long writeUsers(Connection connection, BitSet users, LocalDateTime now) throws SQLException {
+        try (TableWriter writer = TableWriter.open(connection, batchSize, "users", "id", "email", "password",
+                "username", "role", "created_at", "updated_at")) {
+            for (int user = users.nextSetBit(0); user >= 0; user = users.nextSetBit(user + 1)) {
+                writer.write(MovieLensFormat.userId(user), MovieLensFormat.email(user), NO_LOGIN_PASSWORD,
+                        MovieLensFormat.username(user), "USER", now, now);
+            }
+            return writer.getRows();
+        }
+    }
+
+    private long writeReviews(Connection connection, MovieLensFormat.Layout layout, Path directory,
+                              BitSet movies, long start) throws IOException, SQLException {
+        ZoneId zone = ZoneId.systemDefault();
+        try (BufferedReader reader = open(layout, layout.ratings(directory));
+             TableWriter writer = TableWriter.open(connection, batchSize, "reviews", "id", "user_id", "movie_id",
+                     "rating", "created_at", "updated_at")) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = layout.splitPlain(line);
+                if (fields.length < 4) {
+                    continue;
+                }
+                int movie = Integer.parseInt(fields[1]);
+                if (!movies.get(movie)) {
+                    continue;
+                }
+                LocalDateTime at = LocalDateTime.ofInstant(Instant.ofEpochSecond(Long.parseLong(fields[3])), zone);
+                writer.write(UUID.randomUUID(), MovieLensFormat.userId(Integer.parseInt(fields[0])),
+                        MovieLensFormat.movieId(movie), MovieLensFormat.toRating(Double.parseDouble(fields[2])),
+                        at, at);
+                if (writer.getRows() % PROGRESS_INTERVAL == 0) {
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    log.info("MovieLens import: {} reviews written, {} rows/s",
+                            writer.getRows(), Math.round(writer.getRows() / seconds));
+                }
+            }
+            return writer.getRows();
+        }
+    }
+
+    /**
+     * 헤더가 있으면 건너뛴 reader.
+     */
+    private static BufferedReader open(MovieLensFormat.Layout layout, Path path) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path), layout.getCharset()), 1 << 16);
+        if (layout.hasHeader()) {
+            reader.readLine();
+        }
+        return reader;
+    }
+
+    /**
+     * 첫 번째 읽기에서 모으는 값. 배열은 MovieLens id 로 인덱싱한다.
+     */
+    private static final class RatingSummary {
+
+        final BitSet movies = new BitSet();
+        final BitSet users = new BitSet();
+        int[] counts = new int[1024];
+        long[] sums = new long[1024];
+        long ratings;
+
+        void add(int user, int movie, int rating) {
+            ratings++;
+            if (!movies.get(movie)) {
+                return;
+            }
+            users.set(user);
+            if (movie >= counts.length) {
+                int capacity = Math.max(movie + 1, counts.length * 2);
+                counts = Arrays.copyOf(counts, capacity);
+                sums = Arrays.copyOf(sums, capacity);
+            }
+            counts[movie]++;
+            sums[movie] += rating;
+        }
+
+        int countOf(int movie) {
+            return movie < counts.length ? counts[movie] : 0;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ImportResult {
+        private final long movies;
+        private final long users;
+        private final long reviews;
+        private final long skippedRatings;
+        private final long millis;
+
+        public long getRows() {
+            return movies + users + reviews;
+        }
+
+        public double getRowsPerSecond() {
+            return millis == 0 ? getRows() : getRows() * 1000.0 / millis;
+        }
+    }
+}
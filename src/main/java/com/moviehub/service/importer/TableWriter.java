@@ -0,0 +1,140 @@
+package com.moviehub.service.importer;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * 한 테이블에 행을 흘려 넣는 쓰기. PostgreSQL 이면 COPY FROM STDIN 텍스트 형식으로,
+ * 그 밖의 DB 는 JDBC 배치 INSERT 로 쓴다. 어느 쪽이든 버퍼 하나 크기만큼만 메모리에 둔다.
+ */
+abstract class TableWriter implements AutoCloseable {
+
+    private static final int COPY_BUFFER_BYTES = 1 << 16;
+
+    private long rows;
+
+    static TableWriter open(Connection connection, int batchSize, String table, String... columns)
+            throws SQLException {
+        String columnList = String.join(", ", columns);
+        if (connection.isWrapperFor(PGConnection.class)) {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY " + table + " (" + columnList + ") FROM STDIN");
+            return new Copy(copyIn);
+        }
+        String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+        return new Batch(connection.prepareStatement(
+                "INSERT INTO " + table + " (" + columnList + ") VALUES (" + placeholders + ")"), batchSize);
+    }
+
+    final void write(Object... values) throws SQLException {
+        append(values);
+        rows++;
+    }
+
+    final long getRows() {
+        return rows;
+    }
+
+    abstract void append(Object[] values) throws SQLException;
+
+    @Override
+    public abstract void close() throws SQLException;
+
+    private static final class Copy extends TableWriter {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_BYTES);
+
+        Copy(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        @Override
+        void append(Object[] values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                appendValue(values[i]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= COPY_BUFFER_BYTES) {
+                flush();
+            }
+        }
+
+        private void appendValue(Object value) {
+            if (value == null) {
+                buffer.append("\\N");
+                return;
+            }
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\' -> buffer.append("\\\\");
+                    case '\t' -> buffer.append("\\t");
+                    case '\n' -> buffer.append("\\n");
+                    case '\r' -> buffer.append("\\r");
+                    default -> buffer.append(c);
+                }
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (!copyIn.isActive()) {
+                return;
+            }
+            flush();
+            copyIn.endCopy();
+        }
+    }
+
+    private static final class Batch extends TableWriter {
+
+        private final PreparedStatement statement;
+        private final int batchSize;
+        private int pending;
+
+        Batch(PreparedStatement statement, int batchSize) {
+            this.statement = statement;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        void append(Object[] values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                statement.setObject(i + 1, values[i]);
+            }
+            statement.addBatch();
+            if (++pending == batchSize) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
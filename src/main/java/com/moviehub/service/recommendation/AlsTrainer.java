@@ -0,0 +1,294 @@
+package com.moviehub.service.recommendation;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 가중치가 있는 명시적 피드백 행렬을 ALS(Alternating Least Squares)로 분해한다.
+ * <p>
+ * 각 단계에서 한쪽 factor 를 고정하면 행마다 독립적인 k×k 정규방정식
+ * (Σ w·yyᵀ + λ·n·I) x = Σ w·r·y 가 되므로, 행 구간을 fork-join 으로 쪼개 모든 코어에서 푼다.
+ * factor 는 행 우선 float 배열 하나에 연속으로 저장한다.
+ */
+public final class AlsTrainer {
+    
+    private static final int ROWS_PER_TASK = 256;
+    
+    private final int factors;
+    private final double regularization;
+    private final int iterations;
+    private final long seed;
+    private final ForkJoinPool pool;
+    
+    public AlsTrainer(int factors, double regularization, int iterations, long seed, ForkJoinPool pool) {
+        this.factors = factors;
+        this.regularization = regularization;
+        this.iterations = iterations;
+        this.seed = seed;
+        this.pool = pool;
+    }
+    
+    /**
+     * 사용자 기준 CSR 로 주어진 관측값을 학습한다. 값은 내부에서 전체 가중 평균을 빼고 학습한다.
+     */
+    public Factors train(int userCount, int itemCount, int[] userPtr, int[] userItems,
+                         float[] values, float[] weights) {
+        Csr byUser = new Csr(userPtr, userItems, values, weights);
+        Csr byItem = byUser.transpose(itemCount);
+        
+        double weightedSum = 0;
+        double weightTotal = 0;
+        for (int i = 0; i < values.length; i++) {
+            weightedSum += (double) weights[i] * values[i];
+            weightTotal += weights[i];
+        }
+        float mean = weightTotal > 0 ? (float) (weightedSum / weightTotal) : 0f;
+        
+        float[] userFactors = new float[userCount * factors];
+        float[] itemFactors = new float[itemCount * factors];
+        Random random = new Random(seed);
+        for (int i = 0; i < itemFactors.length; i++) {
+            itemFactors[i] = (float) (random.nextGaussian() * 0.1);
+        }
+        
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            pool.invoke(new SolveTask(byUser, itemFactors, userFactors, mean, 0, userCount));
+            pool.invoke(new SolveTask(byItem, userFactors, itemFactors, mean, 0, itemCount));
+        }
+        
+        return new Factors(factors, mean, userFactors, itemFactors, rmse(byUser, userFactors, itemFactors, mean));
+    }
+    
+    /**
+     * 영화 factor 를 고정한 채 한 사용자의 관측 [from, to) 만으로 사용자 factor 를 푼다.
+     * 학습 이후 새로 활동한 사용자를 다음 학습 전까지 모델에 반영할 때 쓴다.
+     */
+    public float[] foldIn(FloatBuffer itemFactors, float mean, int[] items, float[] values, float[] weights,
+                          int from, int to) {
+        float[] result = new float[factors];
+        if (from == to) {
+            return result;
+        }
+        double[] a = new double[factors * factors];
+        double[] b = new double[factors];
+        for (int k = from; k < to; k++) {
+            int other = items[k] * factors;
+            double weight = weights[k];
+            double residual = weight * (values[k] - mean);
+            for (int i = 0; i < factors; i++) {
+                float yi = itemFactors.get(other + i);
+                b[i] += residual * yi;
+                for (int j = 0; j <= i; j++) {
+                    a[i * factors + j] += weight * yi * itemFactors.get(other + j);
+                }
+            }
+        }
+        double lambda = regularization * (to - from);
+        for (int i = 0; i < factors; i++) {
+            a[i * factors + i] += lambda;
+        }
+        choleskySolve(a, b, factors);
+        for (int i = 0; i < factors; i++) {
+            result[i] = (float) b[i];
+        }
+        return result;
+    }
+    
+    private double rmse(Csr byUser, float[] userFactors, float[] itemFactors, float mean) {
+        double squaredError = 0;
+        double weightTotal = 0;
+        for (int user = 0; user < byUser.rows(); user++) {
+            for (int k = byUser.ptr[user]; k < byUser.ptr[user + 1]; k++) {
+                double error = byUser.values[k] - mean
+                        - dot(userFactors, user, itemFactors, byUser.idx[k], factors);
+                squaredError += byUser.weights[k] * error * error;
+                weightTotal += byUser.weights[k];
+            }
+        }
+        return weightTotal > 0 ? Math.sqrt(squaredError / weightTotal) : 0.0;
+    }
+    
+    static float dot(float[] a, int rowA, float[] b, int rowB, int factors) {
+        int offsetA = rowA * factors;
+        int offsetB = rowB * factors;
+        float sum = 0f;
+        for (int f = 0; f < factors; f++) {
+            sum += a[offsetA + f] * b[offsetB + f];
+        }
+        return sum;
+    }
+    
+    /**
+     * 학습 결과. 예측값은 mean + dot(user, item) 이다.
+     */
+    public static final class Factors {
+        
+        public final int factors;
+        public final float mean;
+        public final float[] user;
+        public final float[] item;
+        public final double trainingRmse;
+        
+        Factors(int factors, float mean, float[] user, float[] item, double trainingRmse) {
+            this.factors = factors;
+            this.mean = mean;
+            this.user = user;
+            this.item = item;
+            this.trainingRmse = trainingRmse;
+        }
+    }
+    
+    /**
+     * fixed 를 고정하고 [from, to) 행의 target factor 를 푼다. 구간이 크면 반으로 나눈다.
+     */
+    private final class SolveTask extends RecursiveAction {
+        
+        private final Csr rows;
+        private final float[] fixed;
+        private final float[] target;
+        private final float mean;
+        private final int from;
+        private final int to;
+        
+        SolveTask(Csr rows, float[] fixed, float[] target, float mean, int from, int to) {
+            this.rows = rows;
+            this.fixed = fixed;
+            this.target = target;
+            this.mean = mean;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SolveTask(rows, fixed, target, mean, from, mid),
+                        new SolveTask(rows, fixed, target, mean, mid, to));
+                return;
+            }
+            
+            double[] a = new double[factors * factors];
+            double[] b = new double[factors];
+            for (int row = from; row < to; row++) {
+                solveRow(row, a, b);
+            }
+        }
+        
+        private void solveRow(int row, double[] a, double[] b) {
+            int start = rows.ptr[row];
+            int end = rows.ptr[row + 1];
+            int offset = row * factors;
+            if (start == end) {
+                Arrays.fill(target, offset, offset + factors, 0f);
+                return;
+            }
+            
+            Arrays.fill(a, 0.0);
+            Arrays.fill(b, 0.0);
+            for (int k = start; k < end; k++) {
+                int other = rows.idx[k] * factors;
+                double weight = rows.weights[k];
+                double residual = weight * (rows.values[k] - mean);
+                for (int i = 0; i < factors; i++) {
+                    double wy = weight * fixed[other + i];
+                    b[i] += residual * fixed[other + i];
+                    for (int j = 0; j <= i; j++) {
+                        a[i * factors + j] += wy * fixed[other + j];
+                    }
+                }
+            }
+            
+            // ALS-WR: 관측 수에 비례하는 정규화
+            double lambda = regularization * (end - start);
+            for (int i = 0; i < factors; i++) {
+                a[i * factors + i] += lambda;
+            }
+            
+            choleskySolve(a, b, factors);
+            for (int i = 0; i < factors; i++) {
+                target[offset + i] = (float) b[i];
+            }
+        }
+    }
+    
+    /**
+     * 아래 삼각만 채워진 대칭 양의 정부호 행렬 a 에 대해 a·x = b 를 풀어 b 에 x 를 쓴다.
+     */
+    static void choleskySolve(double[] a, double[] b, int n) {
+        for (int j = 0; j < n; j++) {
+            double diagonal = a[j * n + j];
+            for (int p = 0; p < j; p++) {
+                diagonal -= a[j * n + p] * a[j * n + p];
+            }
+            diagonal = Math.sqrt(Math.max(diagonal, 1e-12));
+            a[j * n + j] = diagonal;
+            for (int i = j + 1; i < n; i++) {
+                double value = a[i * n + j];
+                for (int p = 0; p < j; p++) {
+                    value -= a[i * n + p] * a[j * n + p];
+                }
+                a[i * n + j] = value / diagonal;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            double value = b[i];
+            for (int p = 0; p < i; p++) {
+                value -= a[i * n + p] * b[p];
+            }
+            b[i] = value / a[i * n + i];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double value = b[i];
+            for (int p = i + 1; p < n; p++) {
+                value -= a[p * n + i] * b[p];
+            }
+            b[i] = value / a[i * n + i];
+        }
+    }
+    
+    private static final class Csr {
+        
+        final int[] ptr;
+        final int[] idx;
+        final float[] values;
+        final float[] weights;
+        
+        Csr(int[] ptr, int[] idx, float[] values, float[] weights) {
+            this.ptr = ptr;
+            this.idx = idx;
+            this.values = values;
+            this.weights = weights;
+        }
+        
+        int rows() {
+            return ptr.length - 1;
+        }
+        
+        Csr transpose(int columns) {
+            int[] newPtr = new int[columns + 1];
+            for (int column : idx) {
+                newPtr[column + 1]++;
+            }
+            for (int c = 0; c < columns; c++) {
+                newPtr[c + 1] += newPtr[c];
+            }
+            int[] next = Arrays.copyOf(newPtr, columns);
+            int[] newIdx = new int[idx.length];
+            float[] newValues = new float[idx.length];
+            float[] newWeights = new float[idx.length];
+            for (int r = 0; r < rows(); r++) {
+                for (int k = ptr[r]; k < ptr[r + 1]; k++) {
+                    int pos = next[idx[k]]++;
+                    newIdx[pos] = r;
+                    newValues[pos] = values[k];
+                    newWeights[pos] = weights[k];
+                }
+            }
+            return new Csr(newPtr, newIdx, newValues, newWeights);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.moviehub.service.recommendation;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * 줄거리({@link OverviewTokenizer})와 제목 검색이 함께 쓰는 한글 bigram / 라틴 단어 분리.
+ * <p>
+ * 한글은 조사와 어미가 붙어 띄어쓰기 단위로는 같은 단어가 모이지 않으므로, 연속된 음절을 두 글자씩
+ * 겹쳐 자른다("우주비행사" → 우주, 주비, 비행, 행사). 한 음절짜리 어절은 그대로 둔다.
+ * 라틴 문자와 숫자는 소문자로 바꾼 단어 단위로 자른다. 불용어나 길이 제한은 호출하는 쪽에서 거른다.
+ */
+public final class BigramTokenizer {
+
+    private BigramTokenizer() {
+    }
+
+    /**
+     * 텍스트를 앞에서부터 잘라 {@code sink} 로 넘긴다.
+     *
+     * @param bridgeSpaces 공백만 사이에 둔 한글 어절 사이에도 bigram 을 하나 더 만들지
+     *                     ("다크 나이트" → …, 크나, …). 띄어쓰기를 다르게 입력한 검색어를 찾을 때 쓴다
+     */
+    public static void tokenize(String text, boolean bridgeSpaces, Consumer<String> sink) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+
+        int length = text.length();
+        int i = 0;
+        char previousSyllable = 0; // 공백만 사이에 두고 끝난 직전 한글 어절의 마지막 음절
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isHangul(c)) {
+                int start = i;
+                while (i < length && isHangul(text.charAt(i))) {
+                    i++;
+                }
+                if (i - start == 1) {
+                    sink.accept(text.substring(start, i));
+                }
+                if (previousSyllable != 0) {
+                    sink.accept(String.valueOf(previousSyllable) + c);
+                }
+                for (int j = start; j + 1 < i; j++) {
+                    sink.accept(text.substring(j, j + 2));
+                }
+                if (bridgeSpaces) {
+                    previousSyllable = text.charAt(i - 1);
+                }
+                continue;
+            }
+            if (!Character.isWhitespace(c)) {
+                previousSyllable = 0;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < length && Character.isLetterOrDigit(text.charAt(i)) && !isHangul(text.charAt(i))) {
+                    i++;
+                }
+                sink.accept(text.substring(start, i).toLowerCase(Locale.ROOT));
+            } else {
+                i++;
+            }
+        }
+    }
+
+    public static boolean isHangul(char c) {
+        return c >= '가' && c <= '힣';
+    }
+}
@@ -0,0 +1,244 @@
+package com.moviehub.service.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * 음이 아닌 int 집합을 담는 불변 roaring 방식 비트맵.
+ * <p>
+ * 값의 상위 16비트마다 컨테이너를 하나 두고, 원소가 4096 개 이하면 하위 16비트의 정렬된 char 배열,
+ * 그보다 많으면 65536 비트 long 배열로 저장한다. 사용자 한 명이 본 영화처럼 작은 집합은 원소당 2바이트,
+ * 큰 집합도 컨테이너당 8KB 를 넘지 않는다. 변경은 바뀐 컨테이너만 복사한 새 비트맵을 돌려주므로
+ * 읽는 쪽은 락 없이 공유할 수 있다.
+ */
+public final class CompactBitmap {
+
+    public static final CompactBitmap EMPTY = new CompactBitmap(new char[0], new Object[0], 0);
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITSET_WORDS = 1 << 10;
+
+    private final char[] keys;
+    private final Object[] containers; // char[] (정렬된 하위 16비트) 또는 long[BITSET_WORDS]
+    private final int cardinality;
+
+    private CompactBitmap(char[] keys, Object[] containers, int cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * values 의 앞 length 개로 만든다. 순서와 중복은 상관없다.
+     */
+    public static CompactBitmap of(int[] values, int length) {
+        int[] sorted = Arrays.copyOf(values, length);
+        Arrays.sort(sorted);
+        char[] keys = new char[0];
+        Object[] containers = new Object[0];
+        int cardinality = 0;
+        int i = 0;
+        while (i < sorted.length) {
+            checkValue(sorted[i]);
+            char key = (char) (sorted[i] >>> 16);
+            char[] lows = new char[Math.min(sorted.length - i, 1 << 16)];
+            int count = 0;
+            for (; i < sorted.length && (char) (sorted[i] >>> 16) == key; i++) {
+                char low = (char) sorted[i];
+                if (count == 0 || lows[count - 1] != low) {
+                    lows[count++] = low;
+                }
+            }
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            containers = Arrays.copyOf(containers, containers.length + 1);
+            keys[keys.length - 1] = key;
+            containers[containers.length - 1] = count > ARRAY_MAX ? toBitset(lows, count) : Arrays.copyOf(lows, count);
+            cardinality += count;
+        }
+        return cardinality == 0 ? EMPTY : new CompactBitmap(keys, containers, cardinality);
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, (char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        Object container = containers[index];
+        char low = (char) value;
+        if (container instanceof char[] array) {
+            return Arrays.binarySearch(array, low) >= 0;
+        }
+        return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    public CompactBitmap with(int value) {
+        checkValue(value);
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            int insert = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Object[] newContainers = new Object[containers.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insert);
+            System.arraycopy(containers, 0, newContainers, 0, insert);
+            newKeys[insert] = key;
+            newContainers[insert] = new char[]{low};
+            System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+            System.arraycopy(containers, insert, newContainers, insert + 1, containers.length - insert);
+            return new CompactBitmap(newKeys, newContainers, cardinality + 1);
+        }
+
+        Object container = containers[index];
+        Object updated;
+        if (container instanceof char[] array) {
+            int position = Arrays.binarySearch(array, low);
+            if (position >= 0) {
+                return this;
+            }
+            int insert = -position - 1;
+            char[] grown = new char[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, insert);
+            grown[insert] = low;
+            System.arraycopy(array, insert, grown, insert + 1, array.length - insert);
+            updated = grown.length > ARRAY_MAX ? toBitset(grown, grown.length) : grown;
+        } else {
+            long[] bits = (long[]) container;
+            if ((bits[low >>> 6] & (1L << low)) != 0) {
+                return this;
+            }
+            long[] copy = bits.clone();
+            copy[low >>> 6] |= 1L << low;
+            updated = copy;
+        }
+        return replace(index, updated, cardinality + 1);
+    }
+
+    public CompactBitmap without(int value) {
+        if (!contains(value)) {
+            return this;
+        }
+        int index = Arrays.binarySearch(keys, (char) (value >>> 16));
+        char low = (char) value;
+        Object container = containers[index];
+        Object updated;
+        if (container instanceof char[] array) {
+            if (array.length == 1) {
+                return remove(index);
+            }
+            int position = Arrays.binarySearch(array, low);
+            char[] shrunk = new char[array.length - 1];
+            System.arraycopy(array, 0, shrunk, 0, position);
+            System.arraycopy(array, position + 1, shrunk, position, shrunk.length - position);
+            updated = shrunk;
+        } else {
+            long[] copy = ((long[]) container).clone();
+            copy[low >>> 6] &= ~(1L << low);
+            updated = bitCount(copy) <= ARRAY_MAX ? toArray(copy) : copy;
+        }
+        return replace(index, updated, cardinality - 1);
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * 모든 값을 오름차순으로.
+     */
+    public int[] toArray() {
+        int[] values = new int[cardinality];
+        int count = 0;
+        for (int k = 0; k < keys.length; k++) {
+            int high = keys[k] << 16;
+            if (containers[k] instanceof char[] array) {
+                for (char low : array) {
+                    values[count++] = high | low;
+                }
+            } else {
+                long[] bits = (long[]) containers[k];
+                for (int word = 0; word < bits.length; word++) {
+                    long remaining = bits[word];
+                    while (remaining != 0) {
+                        values[count++] = high | (word * Long.SIZE + Long.numberOfTrailingZeros(remaining));
+                        remaining &= remaining - 1;
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 컨테이너 배열의 대략적인 바이트 수.
+     */
+    public long sizeInBytes() {
+        long bytes = (long) keys.length * Character.BYTES;
+        for (Object container : containers) {
+            bytes += container instanceof char[] array
+                    ? (long) array.length * Character.BYTES
+                    : (long) BITSET_WORDS * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private CompactBitmap replace(int index, Object container, int newCardinality) {
+        Object[] newContainers = containers.clone();
+        newContainers[index] = container;
+        return new CompactBitmap(keys, newContainers, newCardinality);
+    }
+
+    private CompactBitmap remove(int index) {
+        if (keys.length == 1) {
+            return EMPTY;
+        }
+        char[] newKeys = new char[keys.length - 1];
+        Object[] newContainers = new Object[containers.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(containers, 0, newContainers, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, newKeys.length - index);
+        System.arraycopy(containers, index + 1, newContainers, index, newContainers.length - index);
+        return new CompactBitmap(newKeys, newContainers, cardinality - 1);
+    }
+
+    private static long[] toBitset(char[] lows, int count) {
+        long[] bits = new long[BITSET_WORDS];
+        for (int i = 0; i < count; i++) {
+            bits[lows[i] >>> 6] |= 1L << lows[i];
+        }
+        return bits;
+    }
+
+    private static char[] toArray(long[] bits) {
+        char[] lows = new char[bitCount(bits)];
+        int count = 0;
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                lows[count++] = (char) (word * Long.SIZE + Long.numberOfTrailingZeros(remaining));
+                remaining &= remaining - 1;
+            }
+        }
+        return lows;
+    }
+
+    private static int bitCount(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Bitmap values must be non-negative: " + value);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.moviehub.service.recommendation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 여러 엔진이 함께 쓰는 UUID ↔ 0부터 시작하는 dense int id 사전. 한 번 받은 id 는 바뀌지 않는다.
+ * <p>
+ * UUID 는 long 두 개로 쪼개 primitive open addressing 테이블에 두므로 박싱이 없다.
+ * 파일을 주면 새 id 를 16바이트 레코드로 append 하고, 다음 기동 때 같은 순서로 다시 읽어
+ * 재시작 후에도 id 가 유지된다. id → UUID 조회는 락 없이, UUID → id 조회는 읽기 락으로 한다.
+ */
+public final class DenseIdDictionary implements Closeable {
+
+    private static final int RECORD_BYTES = 2 * Long.BYTES;
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FileChannel log;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private long[] tableHi = new long[1024];
+    private long[] tableLo = new long[1024];
+    private int[] tableIds = new int[1024]; // id + 1, 0 이면 빈 칸
+    private volatile long[][] chunks = new long[0][];
+    private volatile int size;
+
+    private DenseIdDictionary(FileChannel log) {
+        this.log = log;
+    }
+
+    public static DenseIdDictionary inMemory() {
+        return new DenseIdDictionary(null);
+    }
+
+    /**
+     * append 로그 파일을 열고 기존 레코드를 순서대로 읽는다. 마지막 레코드가 잘려 있으면 버린다.
+     */
+    public static DenseIdDictionary open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        DenseIdDictionary dictionary = new DenseIdDictionary(channel);
+
+        long complete = channel.size() - channel.size() % RECORD_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 4096);
+        long position = 0;
+        while (position < complete) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), complete - position));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of id log: " + file);
+                }
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                dictionary.append(buffer.getLong(), buffer.getLong());
+            }
+            position += buffer.limit();
+        }
+        channel.truncate(complete);
+        channel.position(complete);
+        return dictionary;
+    }
+
+    /**
+     * 등록된 id. 없으면 -1 이다.
+     */
+    public int idOf(UUID uuid) {
+        lock.readLock().lock();
+        try {
+            return find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getOrAdd(UUID uuid) {
+        long hi = uuid.getMostSignificantBits();
+        long lo = uuid.getLeastSignificantBits();
+        int existing = idOf(uuid);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        lock.writeLock().lock();
+        try {
+            existing = find(hi, lo);
+            if (existing >= 0) {
+                return existing;
+            }
+            if (log != null) {
+                record.clear();
+                record.putLong(hi).putLong(lo).flip();
+                try {
+                    while (record.hasRemaining()) {
+                        log.write(record);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to append dense id", e);
+                }
+            }
+            return append(hi, lo);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public UUID uuidOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown dense id: " + id);
+        }
+        long[] chunk = chunks[id >>> CHUNK_BITS];
+        int offset = (id & (CHUNK_SIZE - 1)) * 2;
+        return new UUID(chunk[offset], chunk[offset + 1]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    private int append(long hi, long lo) {
+        int id = size;
+        long[][] current = chunks;
+        int chunkIndex = id >>> CHUNK_BITS;
+        if (chunkIndex == current.length) {
+            current = Arrays.copyOf(current, chunkIndex + 1);
+            current[chunkIndex] = new long[CHUNK_SIZE * 2];
+            chunks = current;
+        }
+        int offset = (id & (CHUNK_SIZE - 1)) * 2;
+        current[chunkIndex][offset] = hi;
+        current[chunkIndex][offset + 1] = lo;
+
+        if ((id + 1) * 2 > tableIds.length) {
+            rehash(tableIds.length * 2);
+        }
+        insert(hi, lo, id);
+        size = id + 1; // volatile 쓰기로 위 배열 쓰기를 uuidOf 에 공개한다
+        return id;
+    }
+
+    private int find(long hi, long lo) {
+        int mask = tableIds.length - 1;
+        for (int slot = hash(hi, lo) & mask; tableIds[slot] != 0; slot = (slot + 1) & mask) {
+            if (tableHi[slot] == hi && tableLo[slot] == lo) {
+                return tableIds[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long hi, long lo, int id) {
+        int mask = tableIds.length - 1;
+        int slot = hash(hi, lo) & mask;
+        while (tableIds[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        tableHi[slot] = hi;
+        tableLo[slot] = lo;
+        tableIds[slot] = id + 1;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldHi = tableHi;
+        long[] oldLo = tableLo;
+        int[] oldIds = tableIds;
+        tableHi = new long[capacity];
+        tableLo = new long[capacity];
+        tableIds = new int[capacity];
+        for (int slot = 0; slot < oldIds.length; slot++) {
+            if (oldIds[slot] != 0) {
+                insert(oldHi[slot], oldLo[slot], oldIds[slot] - 1);
+            }
+        }
+    }
+
+    private static int hash(long hi, long lo) {
+        long h = hi * 0x9E3779B97F4A7C15L ^ lo;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
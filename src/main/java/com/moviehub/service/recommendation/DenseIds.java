@@ -0,0 +1,54 @@
+package com.moviehub.service.recommendation;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 사용자와 영화의 공용 dense id 사전. 평점 행렬, 카운터, 비트맵처럼 영화/사용자 전체를 배열 인덱스로
+ * 다루는 엔진은 여기서 id 를 받아 같은 번호 체계를 공유한다.
+ * 디렉터리를 비워 두면 파일 없이 메모리에만 둔다.
+ */
+@Component
+@Slf4j
+public class DenseIds {
+    
+    @Getter
+    private final DenseIdDictionary users;
+    @Getter
+    private final DenseIdDictionary movies;
+    
+    public DenseIds(@Value("${recommendation.dense-ids.dir:data/ids}") String directory) throws IOException {
+        if (directory == null || directory.isBlank()) {
+            users = DenseIdDictionary.inMemory();
+            movies = DenseIdDictionary.inMemory();
+            return;
+        }
+        
+        Path dir = Path.of(directory);
+        Files.createDirectories(dir);
+        users = DenseIdDictionary.open(dir.resolve("users.ids"));
+        movies = DenseIdDictionary.open(dir.resolve("movies.ids"));
+        log.info("Dense id dictionaries loaded from {}: {} users, {} movies", dir, users.size(), movies.size());
+    }
+    
+    public static DenseIds inMemory() {
+        try {
+            return new DenseIds(null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // 파일을 쓰지 않으므로 일어나지 않는다
+        }
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        users.close();
+        movies.close();
+    }
+}
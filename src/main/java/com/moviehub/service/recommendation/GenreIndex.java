@@ -0,0 +1,505 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.repository.MovieRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 영화별 장르를 long 비트마스크로 보관하는 인메모리 인덱스.
+ * <p>
+ * 장르마다 해당 장르를 가진 영화 슬롯의 posting list 를 유지하므로, 콘텐츠 기반 추천은
+ * 대상 영화와 장르를 하나라도 공유하는 영화만 훑고 Jaccard 유사도는 popcount 로 계산한다.
+ * 장르 변경/삭제로 생긴 posting list 의 오래된 항목은 조회 시 마스크로 걸러내고,
+ * 일정량 이상 쌓이면 compact 한다. 슬롯마다 posting 항목이 있는 비트를 따로 기억해 두므로
+ * 빠졌다가 다시 붙은 장르도 같은 posting list 에 두 번 들어가지 않는다.
+ * <p>
+ * DB 에서 다시 만든 뒤와 종료 시 장르 이름, 영화별 마스크/인기도/성인 여부를 {@link ModelSnapshot} 으로 저장한다.
+ * 기동 시에는 스냅샷부터 읽어 바로 서비스하고, 이어서 DB 에서 다시 만들어 그 사이 바뀐 영화를 반영한다.
+ */
+@Component
+@Slf4j
+public class GenreIndex {
+    
+    private static final int MAX_GENRES = Long.SIZE;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final String SNAPSHOT_KIND = "genre-index";
+    private static final int SNAPSHOT_VERSION = 1;
+    
+    private final MovieRepository movieRepository;
+    private final Path snapshotPath;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> genreBits = new HashMap<>();
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private UUID[] movieIds = new UUID[INITIAL_CAPACITY];
+    private long[] masks = new long[INITIAL_CAPACITY];
+    private long[] posted = new long[INITIAL_CAPACITY]; // posting list 에 항목이 있는 비트(오래된 항목 포함)
+    private double[] popularity = new double[INITIAL_CAPACITY];
+    private boolean[] adult = new boolean[INITIAL_CAPACITY];
+    private int size;
+    private int[][] postings = new int[MAX_GENRES][];
+    private int[] postingSizes = new int[MAX_GENRES];
+    private int stalePostings;
+    private volatile boolean loaded;
+    
+    public GenreIndex(MovieRepository movieRepository,
+                      @Value("${recommendation.genre-index.snapshot-path:data/genre-index.snap}") String snapshotPath) {
+        this.movieRepository = movieRepository;
+        this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+    
+    /**
+     * 스냅샷이 있으면 먼저 읽어 서비스하고, DB 조회가 끝나면 DB 기준으로 다시 만든다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            try {
+                loadSnapshot();
+            } catch (Exception e) {
+                log.warn("Genre index snapshot {} unusable, building from database: {}", snapshotPath, e.getMessage());
+            }
+        }
+        rebuild();
+    }
+    
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = movieRepository.findGenreIndexRows();
+        
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (Object[] row : rows) {
+                upsert((UUID) row[0], (String) row[1], (BigDecimal) row[2], Boolean.TRUE.equals(row[3]));
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        log.info("Genre index built: {} movies, {} genres in {} ms",
+                rows.size(), genreBits.size(), System.currentTimeMillis() - start);
+        saveSnapshot();
+    }
+    
+    @PreDestroy
+    public void saveOnShutdown() {
+        if (loaded) {
+            saveSnapshot(); // 마지막 재구성 이후 이벤트로 바뀐 영화까지 남긴다
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (!loaded) {
+            return; // 최초 빌드 시 DB 에서 함께 읽힌다
+        }
+        
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted()) {
+                remove(event.getMovieId());
+            } else {
+                upsert(event.getMovieId(), event.getMovie().getGenres(), event.getMovie().getPopularity(),
+                        Boolean.TRUE.equals(event.getMovie().getAdult()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 대상 영화와 장르 Jaccard 유사도가 높은 순(동률이면 인기도 순)으로 최대 limit 개를 반환한다.
+     */
+    public List<ScoredMovie> findSimilar(UUID movieId, int limit) {
+        ensureLoaded();
+        
+        lock.readLock().lock();
+        try {
+            Integer targetSlot = slots.get(movieId);
+            if (targetSlot == null || limit <= 0) {
+                return List.of();
+            }
+            
+            long target = masks[targetSlot];
+            if (target == 0L) {
+                return List.of();
+            }
+            
+            TopK top = new TopK(limit);
+            
+            for (long bits = target; bits != 0L; bits &= bits - 1) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                int[] posting = postings[bit];
+                for (int i = 0; i < postingSizes[bit]; i++) {
+                    int slot = posting[i];
+                    long mask = masks[slot];
+                    // 오래된 항목이거나, 공유 장르가 여러 개라 더 낮은 비트에서 이미 본 영화는 건너뛴다
+                    if (slot == targetSlot || Long.numberOfTrailingZeros(mask & target) != bit) {
+                        continue;
+                    }
+                    top.offer(slot, jaccard(target, mask), popularity[slot]);
+                }
+            }
+            
+            return top.drainToScoredMovies(slot -> movieIds[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 주어진 장르 중 몇 개를 가졌는지(비율) 순, 동률이면 인기도 순으로 최대 limit 개를 반환한다.
+     * 인덱스에 없는 장르도 분모에는 포함한다.
+     */
+    public List<ScoredMovie> findByGenres(Collection<String> genres, int limit) {
+        ensureLoaded();
+        
+        lock.readLock().lock();
+        try {
+            Set<String> distinct = new HashSet<>(genres);
+            long target = 0L;
+            for (String genre : distinct) {
+                Integer bit = genreBits.get(genre);
+                if (bit != null) {
+                    target |= 1L << bit;
+                }
+            }
+            if (target == 0L || limit <= 0) {
+                return List.of();
+            }
+            
+            double denominator = distinct.size();
+            TopK top = new TopK(limit);
+            
+            for (long bits = target; bits != 0L; bits &= bits - 1) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                int[] posting = postings[bit];
+                for (int i = 0; i < postingSizes[bit]; i++) {
+                    int slot = posting[i];
+                    long shared = masks[slot] & target;
+                    if (Long.numberOfTrailingZeros(shared) != bit) {
+                        continue;
+                    }
+                    top.offer(slot, Long.bitCount(shared) / denominator, popularity[slot]);
+                }
+            }
+            
+            return top.drainToScoredMovies(slot -> movieIds[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 인기도 순 상위 limit 개. 점수는 인기도다.
+     */
+    public List<ScoredMovie> findMostPopular(int limit) {
+        ensureLoaded();
+        
+        lock.readLock().lock();
+        try {
+            if (limit <= 0) {
+                return List.of();
+            }
+            TopK top = new TopK(limit);
+            for (int slot = 0; slot < size; slot++) {
+                if (movieIds[slot] != null) {
+                    top.offer(slot, popularity[slot]);
+                }
+            }
+            return top.drainToScoredMovies(slot -> movieIds[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 성인물로 표시된 영화인지 확인한다. 인덱스에 없는 영화는 false 다.
+     */
+    public boolean isAdult(UUID movieId) {
+        ensureLoaded();
+        
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(movieId);
+            return slot != null && adult[slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public static List<String> parseGenres(String genresJson) {
+        if (genresJson == null || genresJson.isBlank()) {
+            return List.of();
+        }
+        List<String> genres = new ArrayList<>();
+        for (String token : genresJson.replaceAll("[\\[\\]\"]", "").split(",")) {
+            String genre = token.trim();
+            if (!genre.isEmpty()) {
+                genres.add(genre);
+            }
+        }
+        return genres;
+    }
+    
+    void saveSnapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        ModelSnapshot.Writer writer;
+        int movieCount;
+        lock.readLock().lock();
+        try {
+            String[] names = new String[genreBits.size()];
+            genreBits.forEach((genre, bit) -> names[bit] = genre);
+            movieCount = slots.size();
+            long[] ids = new long[movieCount * 2];
+            long[] movieMasks = new long[movieCount];
+            double[] moviePopularity = new double[movieCount];
+            byte[] movieAdult = new byte[movieCount];
+            int i = 0;
+            for (int slot = 0; slot < size; slot++) {
+                if (movieIds[slot] == null) {
+                    continue;
+                }
+                ids[i * 2] = movieIds[slot].getMostSignificantBits();
+                ids[i * 2 + 1] = movieIds[slot].getLeastSignificantBits();
+                movieMasks[i] = masks[slot];
+                moviePopularity[i] = popularity[slot];
+                movieAdult[i] = (byte) (adult[slot] ? 1 : 0);
+                i++;
+            }
+            writer = ModelSnapshot.writer(SNAPSHOT_KIND, SNAPSHOT_VERSION)
+                    .bytes("genres", String.join("\n", names).getBytes(StandardCharsets.UTF_8))
+                    .longs("movies", ids)
+                    .longs("masks", movieMasks)
+                    .doubles("popularity", moviePopularity)
+                    .bytes("adult", movieAdult);
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        try {
+            writer.write(snapshotPath, System.currentTimeMillis());
+            log.info("Genre index snapshot written to {}: {} movies in {} ms",
+                    snapshotPath, movieCount, System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            log.warn("Failed to write genre index snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+    
+    void loadSnapshot() throws IOException {
+        long start = System.currentTimeMillis();
+        ModelSnapshot snapshot = ModelSnapshot.open(snapshotPath, SNAPSHOT_KIND, SNAPSHOT_VERSION);
+        ByteBuffer genreBytes = snapshot.bytes("genres");
+        byte[] encoded = new byte[genreBytes.remaining()];
+        genreBytes.get(encoded);
+        String joined = new String(encoded, StandardCharsets.UTF_8);
+        String[] names = joined.isEmpty() ? new String[0] : joined.split("\n", -1);
+        LongBuffer ids = snapshot.longs("movies");
+        LongBuffer movieMasks = snapshot.longs("masks");
+        DoubleBuffer moviePopularity = snapshot.doubles("popularity");
+        ByteBuffer movieAdult = snapshot.bytes("adult");
+        int movieCount = movieMasks.remaining();
+        if (names.length > MAX_GENRES || ids.remaining() != movieCount * 2
+                || moviePopularity.remaining() != movieCount || movieAdult.remaining() != movieCount) {
+            throw new IOException("Inconsistent genre index snapshot sections");
+        }
+        
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (int bit = 0; bit < names.length; bit++) {
+                genreBits.put(names[bit], bit);
+            }
+            for (int i = 0; i < movieCount; i++) {
+                put(new UUID(ids.get(i * 2), ids.get(i * 2 + 1)), movieMasks.get(i),
+                        moviePopularity.get(i), movieAdult.get(i) != 0);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Genre index snapshot {} loaded: {} movies, {} genres in {} ms",
+                snapshotPath, movieCount, names.length, System.currentTimeMillis() - start);
+    }
+    
+    private static double jaccard(long a, long b) {
+        long union = a | b;
+        return union == 0L ? 0.0 : (double) Long.bitCount(a & b) / Long.bitCount(union);
+    }
+    
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+    
+    private void clear() {
+        genreBits.clear();
+        slots.clear();
+        movieIds = new UUID[INITIAL_CAPACITY];
+        masks = new long[INITIAL_CAPACITY];
+        posted = new long[INITIAL_CAPACITY];
+        popularity = new double[INITIAL_CAPACITY];
+        adult = new boolean[INITIAL_CAPACITY];
+        size = 0;
+        postings = new int[MAX_GENRES][];
+        postingSizes = new int[MAX_GENRES];
+        stalePostings = 0;
+    }
+    
+    private void upsert(UUID movieId, String genresJson, BigDecimal moviePopularity, boolean movieAdult) {
+        put(movieId, toMask(parseGenres(genresJson)),
+                moviePopularity != null ? moviePopularity.doubleValue() : 0.0, movieAdult);
+    }
+    
+    private void put(UUID movieId, long mask, double moviePopularity, boolean movieAdult) {
+        Integer slot = slots.get(movieId);
+        
+        if (slot == null) {
+            slot = size++;
+            ensureCapacity(size);
+            movieIds[slot] = movieId;
+            slots.put(movieId, slot);
+        }
+        
+        // 오래된 항목이 남아 있는 비트는 posting 을 새로 넣지 않고 그 항목을 되살린다
+        long stale = posted[slot] & ~masks[slot];
+        stalePostings += Long.bitCount(posted[slot] & ~mask) - Long.bitCount(stale);
+        for (long added = mask & ~posted[slot]; added != 0L; added &= added - 1) {
+            addPosting(Long.numberOfTrailingZeros(added), slot);
+        }
+        posted[slot] |= mask;
+        masks[slot] = mask;
+        popularity[slot] = moviePopularity;
+        adult[slot] = movieAdult;
+        compactIfNeeded();
+    }
+    
+    private void remove(UUID movieId) {
+        Integer slot = slots.remove(movieId);
+        if (slot == null) {
+            return;
+        }
+        stalePostings += Long.bitCount(masks[slot]);
+        masks[slot] = 0L;
+        posted[slot] = 0L; // 슬롯은 다시 쓰이지 않으므로 남은 항목은 compact 때 사라진다
+        movieIds[slot] = null;
+        compactIfNeeded();
+    }
+    
+    private long toMask(List<String> genres) {
+        long mask = 0L;
+        for (String genre : genres) {
+            Integer bit = genreBits.get(genre);
+            if (bit == null) {
+                if (genreBits.size() >= MAX_GENRES) {
+                    log.warn("Genre index is full ({} genres), ignoring genre: {}", MAX_GENRES, genre);
+                    continue;
+                }
+                bit = genreBits.size();
+                genreBits.put(genre, bit);
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+    
+    private void addPosting(int bit, int slot) {
+        int[] posting = postings[bit];
+        if (posting == null) {
+            posting = postings[bit] = new int[16];
+        } else if (postingSizes[bit] == posting.length) {
+            posting = postings[bit] = Arrays.copyOf(posting, posting.length * 2);
+        }
+        posting[postingSizes[bit]++] = slot;
+    }
+    
+    private void ensureCapacity(int required) {
+        if (required > movieIds.length) {
+            int capacity = Math.max(required, movieIds.length * 2);
+            movieIds = Arrays.copyOf(movieIds, capacity);
+            masks = Arrays.copyOf(masks, capacity);
+            posted = Arrays.copyOf(posted, capacity);
+            popularity = Arrays.copyOf(popularity, capacity);
+            adult = Arrays.copyOf(adult, capacity);
+        }
+    }
+    
+    /**
+     * 삭제된 슬롯과 오래된 posting 항목이 살아있는 항목 수를 넘으면 슬롯을 다시 채워 넣는다.
+     */
+    private void compactIfNeeded() {
+        int deletedSlots = size - slots.size();
+        if (stalePostings <= size && deletedSlots <= slots.size()) {
+            return;
+        }
+        
+        UUID[] oldIds = movieIds;
+        long[] oldMasks = masks;
+        double[] oldPopularity = popularity;
+        boolean[] oldAdult = adult;
+        int oldSize = size;
+        
+        int capacity = Math.max(INITIAL_CAPACITY, slots.size() * 2);
+        movieIds = new UUID[capacity];
+        masks = new long[capacity];
+        posted = new long[capacity];
+        popularity = new double[capacity];
+        adult = new boolean[capacity];
+        postings = new int[MAX_GENRES][];
+        postingSizes = new int[MAX_GENRES];
+        stalePostings = 0;
+        size = 0;
+        
+        for (int old = 0; old < oldSize; old++) {
+            if (oldIds[old] == null) {
+                continue;
+            }
+            int slot = size++;
+            movieIds[slot] = oldIds[old];
+            masks[slot] = oldMasks[old];
+            posted[slot] = oldMasks[old];
+            popularity[slot] = oldPopularity[old];
+            adult[slot] = oldAdult[old];
+            slots.put(oldIds[old], slot);
+            for (long bits = oldMasks[old]; bits != 0L; bits &= bits - 1) {
+                addPosting(Long.numberOfTrailingZeros(bits), slot);
+            }
+        }
+    }
+}
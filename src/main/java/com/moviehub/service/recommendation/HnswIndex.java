@@ -0,0 +1,435 @@
+package com.moviehub.service.recommendation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * 코사인 유사도용 HNSW(Hierarchical Navigable Small World) 근사 최근접 이웃 그래프.
+ * <p>
+ * 벡터는 추가할 때 정규화해 저장하므로 거리는 1 - 내적이다. 노드는 추가 순서대로 0부터
+ * 번호가 붙고, 삭제는 tombstone 으로만 표시해 탐색 경로로는 계속 쓰되 결과에서는 뺀다.
+ * 스레드 안전하지 않으므로 호출하는 쪽에서 읽기/쓰기 락으로 감싼다. 탐색은 방문 표시를 호출마다 따로 두므로
+ * 읽기 락 아래에서 여러 스레드가 동시에 {@link #search} 해도 된다.
+ */
+public final class HnswIndex {
+    
+    private static final int MAGIC = 0x484E5357; // "HNSW"
+    private static final int FORMAT_VERSION = 1;
+    
+    private final int dimension;
+    private final int m;
+    private final int maxConnectionsLevel0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+    
+    private float[][] vectors = new float[1024][];
+    private int[][][] links = new int[1024][][]; // node -> level -> [count, neighbour...]
+    private final BitSet deleted = new BitSet();
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    
+    public HnswIndex(int dimension, int m, int efConstruction, long seed) {
+        this.dimension = dimension;
+        this.m = m;
+        this.maxConnectionsLevel0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.random = new Random(seed);
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int dimension() {
+        return dimension;
+    }
+    
+    public float[] vector(int node) {
+        return vectors[node];
+    }
+    
+    public boolean isDeleted(int node) {
+        return deleted.get(node);
+    }
+    
+    public void markDeleted(int node) {
+        deleted.set(node);
+    }
+    
+    public int deletedCount() {
+        return deleted.cardinality();
+    }
+    
+    /**
+     * 벡터를 추가하고 노드 번호를 반환한다.
+     */
+    public int add(float[] vector) {
+        float[] normalized = normalize(vector);
+        int node = size++;
+        ensureCapacity(size);
+        int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        vectors[node] = normalized;
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[maxConnections(l) + 1];
+        }
+        
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return node;
+        }
+        
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(normalized, current, l);
+        }
+        
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            long[] candidates = searchLayer(normalized, current, efConstruction, l);
+            int[] selected = selectNeighbours(candidates, m);
+            for (int neighbour : selected) {
+                addLink(node, neighbour, l);
+                addLink(neighbour, node, l);
+            }
+            current = node(candidates[0]);
+        }
+        
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+        return node;
+    }
+    
+    /**
+     * query 와 가까운 순으로 최대 k 개의 (삭제되지 않은) 노드를 반환한다. ef 가 클수록 정확하다.
+     */
+    public int[] search(float[] query, int k, int ef) {
+        if (entryPoint < 0 || k <= 0) {
+            return new int[0];
+        }
+        
+        float[] normalized = normalize(query);
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = greedyClosest(normalized, current, l);
+        }
+        
+        long[] candidates = searchLayer(normalized, current, Math.max(ef, k), 0);
+        int[] result = new int[Math.min(k, candidates.length)];
+        int count = 0;
+        for (int i = 0; i < candidates.length && count < result.length; i++) {
+            int node = node(candidates[i]);
+            if (!deleted.get(node)) {
+                result[count++] = node;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+    
+    public float similarity(float[] query, int node) {
+        return 1f - distance(normalize(query), vectors[node]);
+    }
+    
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(dimension);
+        out.writeInt(m);
+        out.writeInt(efConstruction);
+        out.writeInt(size);
+        out.writeInt(entryPoint);
+        out.writeInt(maxLevel);
+        for (int node = 0; node < size; node++) {
+            out.writeBoolean(deleted.get(node));
+            for (float value : vectors[node]) {
+                out.writeFloat(value);
+            }
+            out.writeInt(links[node].length);
+            for (int[] levelLinks : links[node]) {
+                out.writeInt(levelLinks[0]);
+                for (int i = 1; i <= levelLinks[0]; i++) {
+                    out.writeInt(levelLinks[i]);
+                }
+            }
+        }
+    }
+    
+    public static HnswIndex readFrom(DataInputStream in, long seed) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an HNSW index file");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported HNSW format version: " + version);
+        }
+        
+        HnswIndex index = new HnswIndex(in.readInt(), in.readInt(), in.readInt(), seed);
+        int size = in.readInt();
+        index.ensureCapacity(size);
+        index.size = size;
+        index.entryPoint = in.readInt();
+        index.maxLevel = in.readInt();
+        for (int node = 0; node < size; node++) {
+            if (in.readBoolean()) {
+                index.deleted.set(node);
+            }
+            float[] vector = new float[index.dimension];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = in.readFloat();
+            }
+            index.vectors[node] = vector;
+            int levels = in.readInt();
+            index.links[node] = new int[levels][];
+            for (int l = 0; l < levels; l++) {
+                int[] levelLinks = new int[index.maxConnections(l) + 1];
+                levelLinks[0] = in.readInt();
+                for (int i = 1; i <= levelLinks[0]; i++) {
+                    levelLinks[i] = in.readInt();
+                }
+                index.links[node][l] = levelLinks;
+            }
+        }
+        return index;
+    }
+    
+    private int maxConnections(int level) {
+        return level == 0 ? maxConnectionsLevel0 : m;
+    }
+    
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float currentDistance = distance(query, vectors[current]);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] neighbours = links[current][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                float d = distance(query, vectors[neighbours[i]]);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = neighbours[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * 한 층에서 ef 개의 가까운 후보를 찾아 거리 오름차순의 (거리, 노드) 키로 반환한다.
+     */
+    private long[] searchLayer(float[] query, int start, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        LongHeap candidates = new LongHeap(ef * 2);   // 가까운 것이 먼저
+        LongHeap results = new LongHeap(ef + 1);      // 먼 것이 먼저 (키를 음수로)
+        
+        long startKey = key(distance(query, vectors[start]), start);
+        visited.set(start);
+        candidates.push(startKey);
+        results.push(-startKey);
+        
+        while (!candidates.isEmpty()) {
+            long closest = candidates.pop();
+            if (results.size() >= ef && closest > -results.peek()) {
+                break;
+            }
+            int[] neighbours = links[node(closest)][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int neighbour = neighbours[i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                long neighbourKey = key(distance(query, vectors[neighbour]), neighbour);
+                if (results.size() < ef || neighbourKey < -results.peek()) {
+                    candidates.push(neighbourKey);
+                    results.push(-neighbourKey);
+                    if (results.size() > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+        
+        long[] sorted = new long[results.size()];
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            sorted[i] = -results.pop();
+        }
+        return sorted;
+    }
+    
+    /**
+     * 논문의 휴리스틱: 이미 고른 이웃보다 후보에 더 가까운 경우에만 고르고,
+     * 모자라면 버린 후보로 채운다. 같은 벡터가 많아도 그래프가 한쪽으로 뭉치지 않게 한다.
+     */
+    private int[] selectNeighbours(long[] sortedCandidates, int limit) {
+        int[] selected = new int[Math.min(limit, sortedCandidates.length)];
+        int count = 0;
+        int[] pruned = new int[sortedCandidates.length];
+        int prunedCount = 0;
+        
+        for (long candidate : sortedCandidates) {
+            if (count == selected.length) {
+                break;
+            }
+            int node = node(candidate);
+            float distanceToQuery = Float.intBitsToFloat((int) (candidate >>> 32));
+            boolean diverse = true;
+            for (int i = 0; i < count; i++) {
+                if (distance(vectors[node], vectors[selected[i]]) < distanceToQuery) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = node;
+            } else {
+                pruned[prunedCount++] = node;
+            }
+        }
+        for (int i = 0; i < prunedCount && count < selected.length; i++) {
+            selected[count++] = pruned[i];
+        }
+        return Arrays.copyOf(selected, count);
+    }
+    
+    private void addLink(int from, int to, int level) {
+        int[] current = links[from][level];
+        for (int i = 1; i <= current[0]; i++) {
+            if (current[i] == to) {
+                return;
+            }
+        }
+        if (current[0] < current.length - 1) {
+            current[++current[0]] = to;
+            return;
+        }
+        
+        // 가득 찼으면 기존 이웃과 새 이웃을 합쳐 다시 고른다
+        long[] candidates = new long[current[0] + 1];
+        for (int i = 1; i <= current[0]; i++) {
+            candidates[i - 1] = key(distance(vectors[from], vectors[current[i]]), current[i]);
+        }
+        candidates[current[0]] = key(distance(vectors[from], vectors[to]), to);
+        Arrays.sort(candidates);
+        int[] selected = selectNeighbours(candidates, current.length - 1);
+        current[0] = selected.length;
+        System.arraycopy(selected, 0, current, 1, selected.length);
+    }
+    
+    private void ensureCapacity(int required) {
+        if (required > vectors.length) {
+            int capacity = Math.max(required, vectors.length * 2);
+            vectors = Arrays.copyOf(vectors, capacity);
+            links = Arrays.copyOf(links, capacity);
+        }
+    }
+    
+    private float[] normalize(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but was " + vector.length);
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        float[] normalized = new float[dimension];
+        if (norm == 0) {
+            return normalized;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < dimension; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+    
+    private static float distance(float[] a, float[] b) {
+        float dot = 0f;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return Math.max(0f, 1f - dot);
+    }
+    
+    /**
+     * 음이 아닌 float 의 비트 표현은 크기 순서를 보존하므로 상위 32비트에 거리를 넣어 long 하나로 비교한다.
+     */
+    private static long key(float distance, int node) {
+        return ((long) Float.floatToIntBits(distance) << 32) | node;
+    }
+    
+    private static int node(long key) {
+        return (int) key;
+    }
+    
+    /**
+     * long 최소 힙.
+     */
+    private static final class LongHeap {
+        
+        private long[] heap;
+        private int size;
+        
+        LongHeap(int capacity) {
+            heap = new long[Math.max(capacity, 4)];
+        }
+        
+        boolean isEmpty() {
+            return size == 0;
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        long peek() {
+            return heap[0];
+        }
+        
+        void push(long value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= value) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+        
+        long pop() {
+            long top = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (last <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
+}
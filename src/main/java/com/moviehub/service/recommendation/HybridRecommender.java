@@ -0,0 +1,204 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.service.recommendation.pipeline.PipelineRequest;
+import com.moviehub.service.recommendation.pipeline.RecommendationPipeline;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 콘텐츠/소셜/트렌딩/감정 전략을 동시에 실행해 점수를 섞는 하이브리드 추천.
+ * <p>
+ * 전략마다 마감 시간이 있어 늦은 전략은 빈 결과로 취급하고 나머지만으로 응답하며, 뺀 전략을 결과에 남긴다.
+ * 늦은 전략은 인터럽트 없이 취소한다. 아직 시작하지 않은 작업은 실행되지 않고, 실행 중인 작업은 끝까지 돌되
+ * 결과만 버린다. 전략이 ensureLoaded() 에서 인덱스를 DB 로 다시 만드는 중일 수 있어 인터럽트하면 그 재구성이
+ * 깨지고 다음 요청이 처음부터 다시 만들게 된다. 그동안 묶인 워커 때문에 큐가 차면 새 전략은 거절되어 빠진다.
+ * 전략별 점수 척도가 다르므로 각 목록의 최고 점수로 나눠 0~1 로 맞춘 뒤 가중치를 곱해 더한다.
+ */
+@Component
+@Slf4j
+public class HybridRecommender {
+    
+    private static final int CANDIDATE_OVERFETCH = 2;
+    
+    private final RecommendationPipelines pipelines;
+    private final Map<Strategy, Double> weights;
+    private final Map<Strategy, Long> timeoutsMillis;
+    private final ThreadPoolExecutor executor;
+    
+    public HybridRecommender(RecommendationPipelines pipelines,
+                             @Value("${recommendation.hybrid.weights.content:1.0}") double contentWeight,
+                             @Value("${recommendation.hybrid.weights.social:1.0}") double socialWeight,
+                             @Value("${recommendation.hybrid.weights.trending:0.3}") double trendingWeight,
+                             @Value("${recommendation.hybrid.weights.mood:0.5}") double moodWeight,
+                             @Value("${recommendation.hybrid.timeout-ms.content:150}") long contentTimeout,
+                             @Value("${recommendation.hybrid.timeout-ms.social:150}") long socialTimeout,
+                             @Value("${recommendation.hybrid.timeout-ms.trending:50}") long trendingTimeout,
+                             @Value("${recommendation.hybrid.timeout-ms.mood:50}") long moodTimeout,
+                             @Value("${recommendation.hybrid.threads:8}") int threads,
+                             @Value("${recommendation.hybrid.queue-capacity:256}") int queueCapacity) {
+        this.pipelines = pipelines;
+        this.weights = new EnumMap<>(Map.of(Strategy.CONTENT, contentWeight, Strategy.SOCIAL, socialWeight,
+                Strategy.TRENDING, trendingWeight, Strategy.MOOD, moodWeight));
+        this.timeoutsMillis = new EnumMap<>(Map.of(Strategy.CONTENT, contentTimeout, Strategy.SOCIAL, socialTimeout,
+                Strategy.TRENDING, trendingTimeout, Strategy.MOOD, moodTimeout));
+        AtomicInteger threadNumber = new AtomicInteger();
+        // 큐가 가득 차면 거절하고 해당 전략을 뺀다 (요청 스레드에서 대신 실행하지 않음)
+        this.executor = new ThreadPoolExecutor(threads, threads,
+                60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "hybrid-recommendation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * mood 가 없으면 감정 전략은 실행하지 않는다.
+     */
+    public Blend recommend(UUID userId, String mood, int limit) {
+        PipelineRequest request = PipelineRequest.builder()
+                .userId(userId)
+                .mood(mood)
+                .limit(limit * CANDIDATE_OVERFETCH)
+                .candidateLimit(limit * CANDIDATE_OVERFETCH * CANDIDATE_OVERFETCH)
+                .build();
+        
+        long start = System.nanoTime();
+        Map<Strategy, Future<List<ScoredMovie>>> futures = new EnumMap<>(Strategy.class);
+        Set<Strategy> dropped = EnumSet.noneOf(Strategy.class);
+        submit(futures, dropped, Strategy.CONTENT, pipelines.getUserContent(), request);
+        submit(futures, dropped, Strategy.SOCIAL, pipelines.getSocial(), request);
+        submit(futures, dropped, Strategy.TRENDING, pipelines.getTrending(), request);
+        if (mood != null) {
+            submit(futures, dropped, Strategy.MOOD, pipelines.getMood(), request);
+        }
+        
+        // 끝난 전략부터 모으고, 마감을 넘기거나 실패한 전략은 모은 뒤 한꺼번에 취소한다
+        Map<Strategy, List<ScoredMovie>> results = new EnumMap<>(Strategy.class);
+        List<Future<?>> late = new ArrayList<>();
+        futures.forEach((strategy, future) -> {
+            List<ScoredMovie> candidates = await(strategy, future, start, late);
+            if (candidates == null) {
+                dropped.add(strategy);
+            } else {
+                results.put(strategy, candidates);
+            }
+        });
+        late.forEach(future -> future.cancel(false));
+        
+        Map<UUID, double[]> contributions = new LinkedHashMap<>();
+        Strategy[] strategies = Strategy.values();
+        results.forEach((strategy, candidates) -> {
+            double max = candidates.stream().mapToDouble(ScoredMovie::getScore).max().orElse(0.0);
+            if (max <= 0.0) {
+                return;
+            }
+            double weight = weights.getOrDefault(strategy, 0.0);
+            for (ScoredMovie candidate : candidates) {
+                contributions.computeIfAbsent(candidate.getMovieId(), id -> new double[strategies.length])
+                        [strategy.ordinal()] += weight * candidate.getScore() / max;
+            }
+        });
+        
+        // 후보 위치를 id 로 상위 limit 개만 고르므로 동점이면 먼저 나온 후보가 앞선다
+        List<UUID> movieIds = new ArrayList<>(contributions.size());
+        List<double[]> allParts = new ArrayList<>(contributions.size());
+        TopK top = new TopK(limit);
+        contributions.forEach((movieId, parts) -> {
+            double total = 0.0;
+            for (double part : parts) {
+                total += part;
+            }
+            top.offer(movieIds.size(), total);
+            movieIds.add(movieId);
+            allParts.add(parts);
+        });
+        
+        int[] positions = new int[top.size()];
+        double[] totals = new double[top.size()];
+        top.drain(positions, totals);
+        List<BlendedMovie> blended = new ArrayList<>(positions.length);
+        for (int i = 0; i < positions.length; i++) {
+            double[] parts = allParts.get(positions[i]);
+            int dominant = 0;
+            for (int s = 1; s < parts.length; s++) {
+                if (parts[s] > parts[dominant]) {
+                    dominant = s;
+                }
+            }
+            blended.add(new BlendedMovie(movieIds.get(positions[i]), totals[i], strategies[dominant]));
+        }
+        return new Blend(blended, dropped);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private void submit(Map<Strategy, Future<List<ScoredMovie>>> futures, Set<Strategy> dropped, Strategy strategy,
+                        RecommendationPipeline pipeline, PipelineRequest request) {
+        try {
+            futures.put(strategy, executor.submit(() -> pipeline.run(request)));
+        } catch (RejectedExecutionException e) {
+            log.warn("Hybrid strategy {} rejected, worker queue is full", strategy);
+            dropped.add(strategy);
+        }
+    }
+    
+    /**
+     * 요청 시작 시각부터 잰 전략의 마감까지 결과를 기다린다. 늦거나 실패하면 null 이고, 그 작업은 late 에 넣는다.
+     */
+    private List<ScoredMovie> await(Strategy strategy, Future<List<ScoredMovie>> future, long start,
+                                    List<Future<?>> late) {
+        long timeout = timeoutsMillis.getOrDefault(strategy, 0L);
+        long remaining = start + TimeUnit.MILLISECONDS.toNanos(timeout) - System.nanoTime();
+        try {
+            return future.get(Math.max(0L, remaining), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Hybrid strategy {} missed its {} ms deadline, dropping it", strategy, timeout);
+        } catch (ExecutionException e) {
+            log.warn("Hybrid strategy {} failed, dropping it", strategy, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        late.add(future);
+        return null;
+    }
+    
+    public enum Strategy {
+        CONTENT, SOCIAL, TRENDING, MOOD
+    }
+    
+    /**
+     * 섞은 목록과 마감을 넘기거나 실패, 거절되어 빠진 전략. 빠진 전략이 있으면 일시적인 결과라 캐시하지 않는다.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Blend {
+        private final List<BlendedMovie> movies;
+        private final Set<Strategy> dropped;
+        
+        public boolean isDegraded() {
+            return !dropped.isEmpty();
+        }
+    }
+    
+    /**
+     * 섞인 점수와 가장 많이 기여한 전략.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class BlendedMovie {
+        private final UUID movieId;
+        private final double score;
+        private final Strategy dominantStrategy;
+    }
+}
@@ -0,0 +1,42 @@
+package com.moviehub.service.recommendation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * UUID 와 0부터 시작하는 dense int id 사이의 양방향 사전. 스레드 안전하지 않으므로
+ * 사용하는 쪽의 락 안에서만 접근한다.
+ */
+final class IdDictionary {
+    
+    private final Map<UUID, Integer> index = new HashMap<>();
+    private UUID[] ids = new UUID[1024];
+    
+    int getOrAdd(UUID id) {
+        Integer existing = index.get(id);
+        if (existing != null) {
+            return existing;
+        }
+        int next = index.size();
+        if (next == ids.length) {
+            ids = Arrays.copyOf(ids, next * 2);
+        }
+        ids[next] = id;
+        index.put(id, next);
+        return next;
+    }
+    
+    Integer get(UUID id) {
+        return index.get(id);
+    }
+    
+    UUID get(int id) {
+        return ids[id];
+    }
+    
+    int size() {
+        return index.size();
+    }
+}
@@ -0,0 +1,124 @@
+package com.moviehub.service.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * 음이 아닌 int 키를 위한 open addressing 해시맵. 값이 0 이 되면 항목을 지워
+ * 희소 카운터로 쓸 수 있게 한다. 스레드 안전하지 않다.
+ */
+final class IntIntHashMap {
+    
+    private static final int EMPTY = -1;
+    
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    
+    IntIntHashMap() {
+        this(4);
+    }
+    
+    IntIntHashMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(4, expectedSize * 2) - 1) << 1);
+    }
+    
+    int get(int key) {
+        for (int i = slot(key); keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * key 의 값에 delta 를 더하고 결과를 반환한다. 결과가 0 이면 항목을 지운다.
+     */
+    int addTo(int key, int delta) {
+        int i = slot(key);
+        for (; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                int value = values[i] += delta;
+                if (value == 0) {
+                    removeAt(i);
+                }
+                return value;
+            }
+        }
+        if (delta == 0) {
+            return 0;
+        }
+        
+        keys[i] = key;
+        values[i] = delta;
+        if (++size > (keys.length >> 2) * 3) {
+            rehash(keys.length << 1);
+        }
+        return delta;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * 내부 테이블 크기. {@link #keyAt(int)} 로 훑을 때 상한으로 쓴다.
+     */
+    int capacity() {
+        return keys.length;
+    }
+    
+    /**
+     * 해당 슬롯의 키. 비어 있으면 -1.
+     */
+    int keyAt(int slot) {
+        return keys[slot];
+    }
+    
+    int valueAt(int slot) {
+        return values[slot];
+    }
+    
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+    
+    /**
+     * linear probing 이므로 지운 자리 뒤의 항목을 앞으로 당겨 탐색 체인을 유지한다.
+     */
+    private void removeAt(int removed) {
+        size--;
+        int gap = removed;
+        for (int j = (gap + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int ideal = slot(keys[j]);
+            if (((j - ideal) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = 0;
+    }
+    
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                addTo(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+}
@@ -0,0 +1,716 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.event.ReviewChangedEvent;
+import com.moviehub.repository.ReviewRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * "이 영화를 높게 평가한 사용자들이 함께 높게 평가한 영화" 를 위한 item-item 유사도 테이블.
+ * <p>
+ * minRating 이상으로 평가한 (사용자, 영화) 쌍에서 영화 간 공동 출현 횟수를 세고,
+ * 영화마다 cosine(또는 Jaccard) 유사도 상위 N 개의 이웃 목록을 미리 계산해 둔다.
+ * 리뷰 이벤트가 오면 해당 사용자가 좋아한 영화들의 카운터와 이웃 목록만 다시 계산한다.
+ * 다른 행에 들어 있는 이 영화와의 유사도는 그 행이 다음에 갱신될 때 반영된다.
+ * 영화가 삭제되면 공동 출현이 있던 영화들의 이웃 목록에서도 바로 빼고 다시 채운다.
+ * <p>
+ * 좋아한 영화가 maxItemsPerUser 를 넘는 사용자는 쌍의 수가 제곱으로 늘어나므로
+ * 공동 출현 카운트에는 기여하지 않고 영화별 좋아요 수에만 반영한다.
+ * <p>
+ * 카운터는 쓰기 쪽에만 두고, 읽기는 {@link ModelSlot} 에 올린 이웃 목록 스냅샷을 락 없이 읽는다.
+ * 이벤트마다 이웃 목록 배열(영화당 참조 하나)을 복사해 새 스냅샷으로 바꾸고, 재구축은 새 버전으로 올린다.
+ * 이벤트로 계속 갱신되므로 롤백은 두지 않는다.
+ * <p>
+ * 재구축 뒤와 종료 시 이웃 목록을 {@link ModelSnapshot} 으로 저장한다. 기동 시에는 스냅샷의 이웃 목록을
+ * 바로 서비스하고, 카운터가 필요한 증분 갱신은 이어지는 DB 재구축이 끝난 뒤부터 반영한다
+ * (그 사이 이벤트는 재구축 결과에 다시 적용된다).
+ */
+@Component
+@Slf4j
+public class ItemSimilarityIndex implements ManagedModel {
+    
+    private static final int[] NO_ITEMS = new int[0];
+    private static final String SNAPSHOT_KIND = "item-similarity";
+    private static final int SNAPSHOT_VERSION = 1;
+    
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DenseIds denseIds;
+    private final int minRating;
+    private final int neighbourCount;
+    private final int maxItemsPerUser;
+    private final boolean useJaccard;
+    private final Path snapshotPath;
+    
+    private final ModelSlot<Snapshot> slot = ModelSlot.withoutRollback();
+    private State state; // 쓰기 쪽 카운터. this 로 동기화해서만 접근
+    private List<Consumer<State>> changedDuringRebuild; // 재구성 중 들어온 변경. this 로 동기화해서만 접근
+    
+    public ItemSimilarityIndex(ReviewRepository reviewRepository,
+                               TransactionTemplate transactionTemplate,
+                               DenseIds denseIds,
+                               @Value("${recommendation.item-similarity.min-rating:7}") int minRating,
+                               @Value("${recommendation.item-similarity.neighbours:50}") int neighbourCount,
+                               @Value("${recommendation.item-similarity.max-items-per-user:500}") int maxItemsPerUser,
+                               @Value("${recommendation.item-similarity.metric:cosine}") String metric,
+                               @Value("${recommendation.item-similarity.snapshot-path:data/item-similarity.snap}") String snapshotPath) {
+        this.reviewRepository = reviewRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.denseIds = denseIds;
+        this.minRating = minRating;
+        this.neighbourCount = neighbourCount;
+        this.maxItemsPerUser = maxItemsPerUser;
+        this.useJaccard = "jaccard".equalsIgnoreCase(metric);
+        this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+    
+    /**
+     * 스냅샷이 있으면 이웃 목록부터 서비스하고, 이어서 DB 에서 카운터까지 다시 만들어 같은 버전을 보강한다.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        long start = System.currentTimeMillis();
+        if (!beginRebuild()) {
+            return;
+        }
+        boolean fromSnapshot = false;
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            try {
+                loadSnapshot();
+                fromSnapshot = true;
+            } catch (Exception e) {
+                log.warn("Item similarity snapshot {} unusable, building from database: {}",
+                        snapshotPath, e.getMessage());
+            }
+        }
+        build(start, fromSnapshot);
+    }
+    
+    @Override
+    @Scheduled(cron = "${recommendation.item-similarity.rebuild-cron:0 0 5 * * *}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        if (!beginRebuild()) {
+            return;
+        }
+        build(start, false);
+    }
+    
+    @PreDestroy
+    public void saveOnShutdown() {
+        Snapshot current = slot.get();
+        if (current != null) {
+            saveSnapshot(current); // 마지막 재구축 이후 이벤트로 바뀐 이웃 목록까지 남긴다
+        }
+    }
+    
+    private void build(long start, boolean catchUp) {
+        State newState = new State();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = reviewRepository.streamLikedPairs(minRating)) {
+                    rows.forEach(row -> newState.addLike((UUID) row[0], (UUID) row[1]));
+                }
+            });
+            newState.finishBuild();
+            for (int movie = 0; movie < newState.likeCounts.length; movie++) {
+                newState.recomputeNeighbours(movie);
+            }
+        } catch (RuntimeException e) {
+            abortRebuild();
+            throw e;
+        }
+        
+        Snapshot built = finishRebuild(newState, System.currentTimeMillis() - start, catchUp);
+        log.info("Item similarity index built: {} movies, {} users in {} ms",
+                newState.likedMovieCount(), newState.liked.size(),
+                System.currentTimeMillis() - start);
+        saveSnapshot(built);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        boolean wasLiked = event.getPreviousRating() != null && event.getPreviousRating() >= minRating;
+        boolean isLiked = event.getRating() != null && event.getRating() >= minRating;
+        if (wasLiked == isLiked) {
+            return;
+        }
+        
+        UUID userId = event.getUserId();
+        UUID movieId = event.getMovieId();
+        apply(state -> state.recomputeNeighbours(isLiked ? state.like(userId, movieId) : state.unlike(userId, movieId)));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.isDeleted()) {
+            UUID movieId = event.getMovieId();
+            apply(state -> state.remove(movieId));
+        }
+    }
+    
+    /**
+     * 한 영화의 미리 계산된 이웃 목록을 유사도 순으로 반환한다.
+     */
+    public List<ScoredMovie> findNeighbours(UUID movieId, int limit) {
+        Snapshot snapshot = current();
+        DenseIdDictionary movies = denseIds.getMovies();
+        Neighbours neighbours = snapshot.of(movies.idOf(movieId));
+        List<ScoredMovie> result = new ArrayList<>(Math.min(limit, neighbours.movies.length));
+        for (int i = 0; i < neighbours.movies.length && result.size() < limit; i++) {
+            result.add(new ScoredMovie(movies.uuidOf(neighbours.movies[i]), neighbours.scores[i]));
+        }
+        return result;
+    }
+    
+    /**
+     * 여러 영화의 이웃 목록을 유사도 합으로 합친다. 입력 영화 자체는 결과에서 제외한다.
+     * 영화마다 합계 칸 번호(+1)를 희소 맵에 두고 합계는 닿은 영화 수만큼의 배열에 더한다.
+     */
+    public List<ScoredMovie> mergeNeighbours(Collection<UUID> movieIds, int limit) {
+        Snapshot snapshot = current();
+        if (limit <= 0) {
+            return List.of();
+        }
+        
+        DenseIdDictionary movies = denseIds.getMovies();
+        IntIntHashMap seeds = new IntIntHashMap(movieIds.size());
+        for (UUID movieId : movieIds) {
+            int movie = movies.idOf(movieId);
+            if (movie >= 0 && seeds.get(movie) == 0) {
+                seeds.addTo(movie, 1);
+            }
+        }
+        
+        IntIntHashMap slots = new IntIntHashMap();
+        int[] merged = new int[16];
+        double[] sums = new double[16];
+        int mergedCount = 0;
+        for (int s = 0; s < seeds.capacity(); s++) {
+            int seed = seeds.keyAt(s);
+            if (seed < 0) {
+                continue;
+            }
+            Neighbours neighbours = snapshot.of(seed);
+            for (int i = 0; i < neighbours.movies.length; i++) {
+                int movie = neighbours.movies[i];
+                if (seeds.get(movie) != 0) {
+                    continue;
+                }
+                int slot = slots.get(movie) - 1;
+                if (slot < 0) {
+                    if (mergedCount == merged.length) {
+                        merged = Arrays.copyOf(merged, mergedCount * 2);
+                        sums = Arrays.copyOf(sums, mergedCount * 2);
+                    }
+                    slot = mergedCount++;
+                    merged[slot] = movie;
+                    slots.addTo(movie, slot + 1);
+                }
+                sums[slot] += neighbours.scores[i];
+            }
+        }
+        
+        TopK top = new TopK(limit);
+        for (int i = 0; i < mergedCount; i++) {
+            top.offer(merged[i], sums[i]);
+        }
+        return top.drainToScoredMovies(movies::uuidOf);
+    }
+    
+    @Override
+    public String getModelName() {
+        return "item-similarity";
+    }
+    
+    @Override
+    public ModelSlot<?> getModelSlot() {
+        return slot;
+    }
+    
+    private Snapshot current() {
+        ensureLoaded();
+        return slot.get();
+    }
+    
+    private synchronized void apply(Consumer<State> change) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(change);
+        }
+        if (state != null) {
+            change.accept(state);
+            Snapshot snapshot = state.snapshot();
+            slot.amend(snapshot, snapshot.footprintBytes());
+        }
+    }
+    
+    private synchronized boolean beginRebuild() {
+        if (changedDuringRebuild != null) {
+            return false; // 다른 재구성이 진행 중이다
+        }
+        changedDuringRebuild = new ArrayList<>();
+        return true;
+    }
+    
+    private synchronized void abortRebuild() {
+        changedDuringRebuild = null;
+        notifyAll();
+    }
+    
+    /**
+     * 스캔 중에 들어온 변경을 새 State 에 다시 적용하고 교체한다.
+     * 스캔이 이미 본 변경일 수도 있지만 좋아요 추가/취소와 영화 삭제는 멱등이라 상관없다.
+     */
+    private synchronized Snapshot finishRebuild(State newState, long buildMillis, boolean catchUp) {
+        for (Consumer<State> change : changedDuringRebuild) {
+            change.accept(newState);
+        }
+        changedDuringRebuild = null;
+        state = newState;
+        Snapshot snapshot = newState.snapshot();
+        if (catchUp) {
+            slot.amend(snapshot, snapshot.footprintBytes());
+        } else {
+            slot.publish(snapshot, buildMillis, snapshot.footprintBytes());
+        }
+        notifyAll();
+        return snapshot;
+    }
+    
+    private void ensureLoaded() {
+        if (slot.get() == null) {
+            synchronized (this) {
+                while (slot.get() == null) {
+                    if (changedDuringRebuild == null) {
+                        rebuild();
+                    } else {
+                        awaitRebuild();
+                    }
+                }
+            }
+        }
+    }
+    
+    private void awaitRebuild() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("item-item 유사도 로딩을 기다리다 중단되었습니다", e);
+        }
+    }
+    
+    /**
+     * 이웃 목록을 영화 UUID 와 CSR(ptr, 이웃 위치, 점수) 형태로 저장한다. 위치는 파일 안의 영화 순번이다.
+     */
+    void saveSnapshot(Snapshot snapshot) {
+        if (snapshotPath == null) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        DenseIdDictionary movies = denseIds.getMovies();
+        int count = Math.min(snapshot.neighbours.length, movies.size());
+        long[] ids = new long[count * 2];
+        int[] ptr = new int[count + 1];
+        for (int movie = 0; movie < count; movie++) {
+            UUID movieId = movies.uuidOf(movie);
+            ids[movie * 2] = movieId.getMostSignificantBits();
+            ids[movie * 2 + 1] = movieId.getLeastSignificantBits();
+            ptr[movie + 1] = ptr[movie] + snapshot.neighbours[movie].movies.length;
+        }
+        int[] neighbourIds = new int[ptr[count]];
+        float[] scores = new float[ptr[count]];
+        for (int movie = 0; movie < count; movie++) {
+            Neighbours neighbours = snapshot.neighbours[movie];
+            System.arraycopy(neighbours.movies, 0, neighbourIds, ptr[movie], neighbours.movies.length);
+            System.arraycopy(neighbours.scores, 0, scores, ptr[movie], neighbours.scores.length);
+        }
+        
+        try {
+            ModelSnapshot.writer(SNAPSHOT_KIND, SNAPSHOT_VERSION)
+                    .longs("movies", ids)
+                    .ints("ptr", ptr, ptr.length)
+                    .ints("neighbours", neighbourIds, neighbourIds.length)
+                    .floats("scores", scores)
+                    .write(snapshotPath, System.currentTimeMillis());
+            log.info("Item similarity snapshot written to {}: {} movies in {} ms",
+                    snapshotPath, count, System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            log.warn("Failed to write item similarity snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+    
+    /**
+     * 저장된 이웃 목록을 현재 dense id 로 옮겨 올린다. 카운터는 없으므로 이벤트 반영은 DB 재구축 뒤부터다.
+     */
+    void loadSnapshot() throws IOException {
+        long start = System.currentTimeMillis();
+        ModelSnapshot file = ModelSnapshot.open(snapshotPath, SNAPSHOT_KIND, SNAPSHOT_VERSION);
+        LongBuffer ids = file.longs("movies");
+        IntBuffer ptr = file.ints("ptr");
+        IntBuffer neighbourIds = file.ints("neighbours");
+        FloatBuffer scores = file.floats("scores");
+        int count = ptr.remaining() - 1;
+        if (count < 0 || ids.remaining() != count * 2 || ptr.get(count) != neighbourIds.remaining()
+                || neighbourIds.remaining() != scores.remaining()) {
+            throw new IOException("Inconsistent item similarity snapshot sections");
+        }
+        
+        DenseIdDictionary movies = denseIds.getMovies();
+        int[] dense = new int[count];
+        for (int i = 0; i < count; i++) {
+            dense[i] = movies.getOrAdd(new UUID(ids.get(i * 2), ids.get(i * 2 + 1)));
+        }
+        Neighbours[] neighbours = new Neighbours[movies.size()];
+        Arrays.fill(neighbours, Neighbours.EMPTY);
+        for (int i = 0; i < count; i++) {
+            int from = ptr.get(i);
+            int length = ptr.get(i + 1) - from;
+            if (length == 0) {
+                continue;
+            }
+            int[] neighbourMovies = new int[length];
+            float[] neighbourScores = new float[length];
+            for (int n = 0; n < length; n++) {
+                int neighbour = neighbourIds.get(from + n);
+                if (neighbour < 0 || neighbour >= count) {
+                    throw new IOException("Item similarity snapshot neighbour out of range: " + neighbour);
+                }
+                neighbourMovies[n] = dense[neighbour];
+                neighbourScores[n] = scores.get(from + n);
+            }
+            neighbours[dense[i]] = new Neighbours(neighbourMovies, neighbourScores);
+        }
+        
+        Snapshot snapshot = new Snapshot(neighbours);
+        slot.publish(snapshot, 0L, snapshot.footprintBytes());
+        log.info("Item similarity snapshot {} loaded: {} movies in {} ms",
+                snapshotPath, count, System.currentTimeMillis() - start);
+    }
+    
+    private double similarity(int coCount, int likesA, int likesB) {
+        if (useJaccard) {
+            return (double) coCount / (likesA + likesB - coCount);
+        }
+        return coCount / Math.sqrt((double) likesA * likesB);
+    }
+    
+    private static final class Neighbours {
+        
+        static final Neighbours EMPTY = new Neighbours(new int[0], new float[0]);
+        
+        final int[] movies;
+        final float[] scores;
+        
+        Neighbours(int[] movies, float[] scores) {
+            this.movies = movies;
+            this.scores = scores;
+        }
+    }
+    
+    /**
+     * 읽기용 이웃 목록. 배열은 만든 뒤 바꾸지 않는다. 인덱스는 {@link DenseIds} 의 영화 id 다.
+     */
+    private static final class Snapshot {
+        
+        final Neighbours[] neighbours;
+        
+        Snapshot(Neighbours[] neighbours) {
+            this.neighbours = neighbours;
+        }
+        
+        Neighbours of(int movie) {
+            return movie >= 0 && movie < neighbours.length ? neighbours[movie] : Neighbours.EMPTY;
+        }
+        
+        long footprintBytes() {
+            long bytes = (long) neighbours.length * Integer.BYTES;
+            for (Neighbours entry : neighbours) {
+                if (entry != Neighbours.EMPTY) {
+                    bytes += (long) entry.movies.length * (Integer.BYTES + Float.BYTES);
+                }
+            }
+            return bytes;
+        }
+    }
+    
+    /**
+     * 카운터와 이웃 목록 전체. 재구축은 새 State 를 만들어 통째로 교체한다.
+     */
+    private final class State {
+        
+        final IdDictionary users = new IdDictionary();
+        final DenseIdDictionary movies = denseIds.getMovies();
+        final Map<Integer, int[]> liked = new HashMap<>();
+        int[] likeCounts = new int[1024];
+        IntIntHashMap[] coCounts = new IntIntHashMap[1024];
+        Neighbours[] neighbours = new Neighbours[1024];
+        final BitSet deleted = new BitSet();
+        int[] buildUsers = new int[1024];
+        int[] buildMovies = new int[1024];
+        int buildSize;
+        
+        {
+            Arrays.fill(neighbours, Neighbours.EMPTY);
+        }
+        
+        /**
+         * 빌드 단계에서 좋아요만 모은다. 사용자별 정렬과 공동 출현 카운트는 {@link #finishBuild()} 에서 한다.
+         */
+        void addLike(UUID userId, UUID movieId) {
+            if (buildSize == buildUsers.length) {
+                buildUsers = Arrays.copyOf(buildUsers, buildSize * 2);
+                buildMovies = Arrays.copyOf(buildMovies, buildSize * 2);
+            }
+            buildUsers[buildSize] = users.getOrAdd(userId);
+            buildMovies[buildSize] = movie(movieId);
+            buildSize++;
+        }
+        
+        void finishBuild() {
+            int[] offsets = new int[users.size() + 1];
+            for (int i = 0; i < buildSize; i++) {
+                offsets[buildUsers[i] + 1]++;
+            }
+            for (int user = 0; user < users.size(); user++) {
+                offsets[user + 1] += offsets[user];
+            }
+            int[] next = Arrays.copyOf(offsets, users.size());
+            int[] grouped = new int[buildSize];
+            for (int i = 0; i < buildSize; i++) {
+                grouped[next[buildUsers[i]]++] = buildMovies[i];
+            }
+            
+            for (int user = 0; user < users.size(); user++) {
+                int[] items = Arrays.copyOfRange(grouped, offsets[user], offsets[user + 1]);
+                Arrays.sort(items);
+                liked.put(user, items);
+                for (int item : items) {
+                    likeCounts[item]++;
+                }
+                if (items.length <= maxItemsPerUser) {
+                    addAllPairs(items, 1);
+                }
+            }
+            buildUsers = NO_ITEMS;
+            buildMovies = NO_ITEMS;
+            buildSize = 0;
+        }
+        
+        Set<Integer> like(UUID userId, UUID movieId) {
+            int user = users.getOrAdd(userId);
+            int movie = movie(movieId);
+            int[] before = liked.getOrDefault(user, NO_ITEMS);
+            if (deleted.get(movie) || Arrays.binarySearch(before, movie) >= 0) {
+                return Set.of();
+            }
+            
+            int[] after = insert(before, movie);
+            liked.put(user, after);
+            likeCounts[movie]++;
+            
+            Set<Integer> dirty = new HashSet<>();
+            dirty.add(movie);
+            if (after.length <= maxItemsPerUser) {
+                addPairs(movie, before, 1, dirty);
+            } else if (before.length <= maxItemsPerUser) {
+                // 상한을 넘었으므로 지금까지 기여한 쌍을 모두 회수한다
+                addAllPairs(before, -1);
+                addTo(dirty, before);
+            }
+            return dirty;
+        }
+        
+        Set<Integer> unlike(UUID userId, UUID movieId) {
+            Integer user = users.get(userId);
+            int movie = movies.idOf(movieId);
+            if (user == null || movie < 0) {
+                return Set.of();
+            }
+            int[] before = liked.getOrDefault(user, NO_ITEMS);
+            int pos = Arrays.binarySearch(before, movie);
+            if (pos < 0) {
+                return Set.of();
+            }
+            
+            int[] after = new int[before.length - 1];
+            System.arraycopy(before, 0, after, 0, pos);
+            System.arraycopy(before, pos + 1, after, pos, after.length - pos);
+            liked.put(user, after);
+            if (deleted.get(movie)) {
+                return Set.of();
+            }
+            likeCounts[movie]--;
+            
+            Set<Integer> dirty = new HashSet<>();
+            dirty.add(movie);
+            if (before.length <= maxItemsPerUser) {
+                addPairs(movie, after, -1, dirty);
+            } else if (after.length <= maxItemsPerUser) {
+                // 상한 아래로 내려왔으므로 남은 영화끼리의 쌍을 다시 센다
+                addAllPairs(after, 1);
+                addTo(dirty, after);
+            }
+            return dirty;
+        }
+        
+        /**
+         * 삭제된 영화를 공동 출현 카운터에서 걷어내고, 그 영화가 이웃이었을 수 있는 영화들의 목록을 다시 계산한다.
+         * 리뷰는 cascade 로 지워져 이벤트가 오지 않으므로 사용자 좋아요 목록에는 남지만, 이후 쌍 계산에서 건너뛴다.
+         */
+        void remove(UUID movieId) {
+            int movie = movies.idOf(movieId);
+            if (movie < 0 || movie >= likeCounts.length || deleted.get(movie)) {
+                return;
+            }
+            deleted.set(movie);
+            likeCounts[movie] = 0;
+            neighbours[movie] = Neighbours.EMPTY;
+            IntIntHashMap counts = coCounts[movie];
+            coCounts[movie] = null;
+            if (counts == null) {
+                return;
+            }
+            Set<Integer> dirty = new HashSet<>();
+            for (int slot = 0; slot < counts.capacity(); slot++) {
+                int other = counts.keyAt(slot);
+                if (other >= 0) {
+                    counts(other).addTo(movie, -counts(other).get(movie));
+                    dirty.add(other);
+                }
+            }
+            recomputeNeighbours(dirty);
+        }
+        
+        int likedMovieCount() {
+            int count = 0;
+            for (int likes : likeCounts) {
+                if (likes > 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        
+        Snapshot snapshot() {
+            return new Snapshot(neighbours.clone());
+        }
+        
+        void recomputeNeighbours(Set<Integer> dirty) {
+            for (int movie : dirty) {
+                recomputeNeighbours(movie);
+            }
+        }
+        
+        void recomputeNeighbours(int movie) {
+            IntIntHashMap counts = coCounts[movie];
+            if (counts == null || counts.size() == 0 || likeCounts[movie] == 0) {
+                neighbours[movie] = Neighbours.EMPTY;
+                return;
+            }
+            
+            TopK top = new TopK(neighbourCount);
+            for (int slot = 0; slot < counts.capacity(); slot++) {
+                int other = counts.keyAt(slot);
+                if (other >= 0) {
+                    top.offer(other, similarity(counts.valueAt(slot), likeCounts[movie], likeCounts[other]));
+                }
+            }
+            
+            int[] topMovies = new int[top.size()];
+            double[] topScores = new double[top.size()];
+            top.drain(topMovies, topScores);
+            float[] neighbourScores = new float[topScores.length];
+            for (int i = 0; i < topScores.length; i++) {
+                neighbourScores[i] = (float) topScores[i];
+            }
+            neighbours[movie] = new Neighbours(topMovies, neighbourScores);
+        }
+        
+        private int movie(UUID movieId) {
+            int movie = movies.getOrAdd(movieId);
+            if (movie >= likeCounts.length) {
+                int capacity = Math.max(movie + 1, likeCounts.length * 2);
+                likeCounts = Arrays.copyOf(likeCounts, capacity);
+                coCounts = Arrays.copyOf(coCounts, capacity);
+                int oldLength = neighbours.length;
+                neighbours = Arrays.copyOf(neighbours, capacity);
+                Arrays.fill(neighbours, oldLength, capacity, Neighbours.EMPTY);
+            }
+            return movie;
+        }
+        
+        private void addPairs(int movie, int[] others, int delta, Set<Integer> dirty) {
+            for (int other : others) {
+                if (deleted.get(other)) {
+                    continue;
+                }
+                counts(movie).addTo(other, delta);
+                counts(other).addTo(movie, delta);
+                dirty.add(other);
+            }
+        }
+        
+        private void addAllPairs(int[] items, int delta) {
+            for (int i = 0; i < items.length; i++) {
+                if (deleted.get(items[i])) {
+                    continue;
+                }
+                for (int j = i + 1; j < items.length; j++) {
+                    if (deleted.get(items[j])) {
+                        continue;
+                    }
+                    counts(items[i]).addTo(items[j], delta);
+                    counts(items[j]).addTo(items[i], delta);
+                }
+            }
+        }
+        
+        private IntIntHashMap counts(int movie) {
+            IntIntHashMap counts = coCounts[movie];
+            if (counts == null) {
+                counts = coCounts[movie] = new IntIntHashMap();
+            }
+            return counts;
+        }
+        
+        private void addTo(Set<Integer> dirty, int[] items) {
+            for (int item : items) {
+                dirty.add(item);
+            }
+        }
+        
+        private int[] insert(int[] items, int item) {
+            int pos = Arrays.binarySearch(items, item);
+            if (pos >= 0) {
+                return items;
+            }
+            int insert = -pos - 1;
+            int[] result = new int[items.length + 1];
+            System.arraycopy(items, 0, result, 0, insert);
+            result[insert] = item;
+            System.arraycopy(items, insert, result, insert + 1, items.length - insert);
+            return result;
+        }
+    }
+}
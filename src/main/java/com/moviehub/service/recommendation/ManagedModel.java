@@ -0,0 +1,19 @@
+package com.moviehub.service.recommendation;
+
+/**
+ * 관리 API 에서 상태를 보고 다시 만들거나 되돌릴 수 있는 추천 모델.
+ */
+public interface ManagedModel {
+
+    /**
+     * 관리 API 경로에 쓰는 이름.
+     */
+    String getModelName();
+
+    ModelSlot<?> getModelSlot();
+
+    /**
+     * 모델을 새로 만들어 교체한다. 만드는 동안에도 기존 모델로 요청을 처리한다.
+     */
+    void rebuild();
+}
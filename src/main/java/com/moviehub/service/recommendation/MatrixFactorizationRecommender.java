@@ -0,0 +1,501 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.repository.FavoriteRepository;
+import com.moviehub.repository.ReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * 리뷰 평점(1-10)과 즐겨찾기로 학습한 행렬 분해 추천기.
+ * <p>
+ * 학습은 스케줄된 백그라운드 작업에서 {@link AlsTrainer} 로 수행하고, 완성된 모델을 {@link ModelSlot}
+ * 에서 참조 하나로 교체한다. 추천은 사용자 factor 와 모든 영화 factor 의 내적 top-K 이므로
+ * 요청 비용은 영화 수 × factor 수에만 비례하고 리뷰 수와는 무관하다.
+ * 리뷰 없이 즐겨찾기만 한 영화는 favoriteRating 점을 준 것으로, 둘 다 있으면 가중치를 더한다.
+ * <p>
+ * 학습이 끝나면 모델을 {@link ModelSnapshot} 으로 저장하고, 기동 시에는 스냅샷을 매핑해 바로 서비스한 뒤
+ * 스냅샷 시각 이후 활동한 사용자만 영화 factor 를 고정한 채 다시 풀어 반영한다.
+ */
+@Component
+@Slf4j
+public class MatrixFactorizationRecommender implements ManagedModel {
+    
+    private static final String SNAPSHOT_KIND = "als";
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int CATCH_UP_BATCH = 1000;
+    private static final int ID_ENTRY_BYTES = 96; // HashMap 엔트리 + UUID + 배열 칸의 대략적인 크기
+    
+    private final ReviewRepository reviewRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int factors;
+    private final double regularization;
+    private final int iterations;
+    private final float favoriteRating;
+    private final float favoriteWeight;
+    private final int parallelism;
+    private final Path snapshotPath;
+    
+    private final AtomicBoolean training = new AtomicBoolean();
+    private final ModelSlot<Model> slot = new ModelSlot<>();
+    
+    public MatrixFactorizationRecommender(ReviewRepository reviewRepository,
+                                          FavoriteRepository favoriteRepository,
+                                          TransactionTemplate transactionTemplate,
+                                          @Value("${recommendation.als.factors:32}") int factors,
+                                          @Value("${recommendation.als.regularization:0.05}") double regularization,
+                                          @Value("${recommendation.als.iterations:10}") int iterations,
+                                          @Value("${recommendation.als.favorite-rating:10}") float favoriteRating,
+                                          @Value("${recommendation.als.favorite-weight:2.0}") float favoriteWeight,
+                                          @Value("${recommendation.als.parallelism:0}") int parallelism,
+                                          @Value("${recommendation.als.snapshot-path:data/als-model.snap}") String snapshotPath) {
+        this.reviewRepository = reviewRepository;
+        this.favoriteRepository = favoriteRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.factors = factors;
+        this.regularization = regularization;
+        this.iterations = iterations;
+        this.favoriteRating = favoriteRating;
+        this.favoriteWeight = favoriteWeight;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+    
+    /**
+     * 스냅샷이 있으면 매핑해서 쓰고, 없거나 읽을 수 없으면 DB 에서 학습한다.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void trainOnStartup() {
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            try {
+                loadSnapshot();
+                return;
+            } catch (Exception e) {
+                log.warn("ALS snapshot {} unusable, training from database: {}", snapshotPath, e.getMessage());
+            }
+        }
+        train();
+    }
+    
+    @Scheduled(cron = "${recommendation.als.train-cron:0 0 3 * * *}")
+    public void train() {
+        if (!training.compareAndSet(false, true)) {
+            log.info("ALS training already in progress, skipping");
+            return;
+        }
+        
+        try {
+            long start = System.currentTimeMillis();
+            IdDictionary users = new IdDictionary();
+            IdDictionary movies = new IdDictionary();
+            Interactions interactions = new Interactions();
+            
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = reviewRepository.streamAllRatingTriples()) {
+                    rows.forEach(row -> interactions.add(users.getOrAdd((UUID) row[0]),
+                            movies.getOrAdd((UUID) row[1]), ((Number) row[2]).floatValue(), 1f, false));
+                }
+                try (Stream<Object[]> rows = favoriteRepository.streamAllFavoritePairs()) {
+                    rows.forEach(row -> interactions.add(users.getOrAdd((UUID) row[0]),
+                            movies.getOrAdd((UUID) row[1]), favoriteRating, favoriteWeight, true));
+                }
+            });
+            
+            int[] userPtr = interactions.groupByUser(users.size());
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            AlsTrainer.Factors trained;
+            try {
+                trained = new AlsTrainer(factors, regularization, iterations, 42L, pool)
+                        .train(users.size(), movies.size(), userPtr, interactions.items,
+                                interactions.values, interactions.weights);
+            } finally {
+                pool.shutdown();
+            }
+            
+            long elapsed = System.currentTimeMillis() - start;
+            publish(new Model(users, movies, trained.factors, trained.mean, trained.trainingRmse,
+                    FloatBuffer.wrap(trained.user), FloatBuffer.wrap(trained.item),
+                    IntBuffer.wrap(userPtr), IntBuffer.wrap(interactions.items), Map.of(),
+                    LocalDateTime.now(), elapsed));
+            log.info("ALS model trained: {} users, {} movies, {} interactions, rmse={} in {} ms",
+                    users.size(), movies.size(), interactions.size,
+                    String.format("%.4f", trained.trainingRmse), elapsed);
+            
+            if (snapshotPath != null) {
+                // 스냅샷 시각은 데이터를 읽기 시작한 시각이어야 학습 중의 변경도 다음 기동 때 따라잡는다
+                saveSnapshot(users, movies, trained, userPtr, interactions.items, elapsed, start);
+            }
+        } catch (Exception e) {
+            log.error("ALS training failed: {}", e.getMessage(), e);
+        } finally {
+            training.set(false);
+        }
+    }
+    
+    /**
+     * 사용자 factor 와의 내적이 큰 순으로 영화를 반환한다. 학습 시점에 이미 평가했거나
+     * 즐겨찾기한 영화는 제외한다. 모델이 없거나 학습 데이터에 없는 사용자면 빈 목록이다.
+     */
+    public List<ScoredMovie> recommend(UUID userId, int limit) {
+        Model current = slot.get();
+        if (current == null || limit <= 0) {
+            return List.of();
+        }
+        
+        float[] userVector;
+        int[] seenItems;
+        FoldedUser folded = current.folded.get(userId);
+        if (folded != null) {
+            userVector = folded.vector;
+            seenItems = folded.seenItems;
+        } else {
+            Integer user = current.users.get(userId);
+            if (user == null) {
+                return List.of();
+            }
+            userVector = new float[current.factors];
+            current.userFactors.get(user * current.factors, userVector);
+            int from = current.seenPtr.get(user);
+            seenItems = new int[current.seenPtr.get(user + 1) - from];
+            current.seenItems.get(from, seenItems);
+        }
+        
+        int itemCount = current.movies.size();
+        TopK top = new TopK(limit);
+        int seen = 0;
+        for (int item = 0; item < itemCount; item++) {
+            // seen 목록은 item 순으로 정렬되어 있으므로 함께 전진한다
+            if (seen < seenItems.length && seenItems[seen] == item) {
+                seen++;
+                continue;
+            }
+            top.offer(item, current.mean + dot(userVector, current.itemFactors, item * current.factors));
+        }
+        
+        return top.drainToScoredMovies(current.movies::get);
+    }
+    
+    public Optional<LocalDateTime> getTrainedAt() {
+        Model current = slot.get();
+        return current == null ? Optional.empty() : Optional.of(current.trainedAt);
+    }
+    
+    @Override
+    public String getModelName() {
+        return "als";
+    }
+    
+    @Override
+    public ModelSlot<?> getModelSlot() {
+        return slot;
+    }
+    
+    @Override
+    public void rebuild() {
+        train();
+    }
+    
+    private void publish(Model next) {
+        slot.publish(next, next.trainingMillis, next.footprintBytes());
+    }
+    
+    private static float dot(float[] user, FloatBuffer items, int offset) {
+        float sum = 0f;
+        for (int f = 0; f < user.length; f++) {
+            sum += user[f] * items.get(offset + f);
+        }
+        return sum;
+    }
+    
+    private void saveSnapshot(IdDictionary users, IdDictionary movies, AlsTrainer.Factors trained,
+                              int[] userPtr, int[] seenItems, long trainingMillis, long createdAtMillis) {
+        try {
+            long start = System.currentTimeMillis();
+            ModelSnapshot.writer(SNAPSHOT_KIND, SNAPSHOT_VERSION)
+                    .longs("users", uuidBits(users))
+                    .longs("movies", uuidBits(movies))
+                    .floats("userFactors", trained.user)
+                    .floats("itemFactors", trained.item)
+                    .ints("seenPtr", userPtr, userPtr.length)
+                    .ints("seenItems", seenItems, userPtr[userPtr.length - 1])
+                    .doubles("meta", trained.factors, trained.mean, trained.trainingRmse, trainingMillis)
+                    .write(snapshotPath, createdAtMillis);
+            log.info("ALS snapshot written to {} in {} ms", snapshotPath, System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            log.warn("Failed to write ALS snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+    
+    /**
+     * 스냅샷의 factor 와 seen 목록은 매핑한 그대로 쓰고, UUID 조회용 사전만 힙에 만든다.
+     * 매핑한 모델을 바로 서비스한 뒤, 스냅샷 시각 이후 리뷰나 즐겨찾기가 바뀐 사용자의 factor 를 다시 풀어
+     * 같은 버전으로 교체한다.
+     */
+    void loadSnapshot() throws IOException {
+        long start = System.currentTimeMillis();
+        ModelSnapshot snapshot = ModelSnapshot.open(snapshotPath, SNAPSHOT_KIND, SNAPSHOT_VERSION);
+        IdDictionary users = dictionaryOf(snapshot.longs("users"));
+        IdDictionary movies = dictionaryOf(snapshot.longs("movies"));
+        DoubleBuffer meta = snapshot.doubles("meta");
+        int snapshotFactors = (int) meta.get(0);
+        FloatBuffer userFactors = snapshot.floats("userFactors");
+        FloatBuffer itemFactors = snapshot.floats("itemFactors");
+        IntBuffer seenPtr = snapshot.ints("seenPtr");
+        IntBuffer seenItems = snapshot.ints("seenItems");
+        if (userFactors.remaining() != users.size() * snapshotFactors
+                || itemFactors.remaining() != movies.size() * snapshotFactors
+                || seenPtr.remaining() != users.size() + 1) {
+            throw new IOException("Inconsistent ALS snapshot sections");
+        }
+        
+        LocalDateTime snapshotTime = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(snapshot.getCreatedAtMillis()), ZoneId.systemDefault());
+        Model loaded = new Model(users, movies, snapshotFactors, (float) meta.get(1), meta.get(2),
+                userFactors, itemFactors, seenPtr, seenItems, Map.of(), snapshotTime, (long) meta.get(3));
+        publish(loaded);
+        long mappedAt = System.currentTimeMillis();
+        
+        // 따라잡기 전 모델이 롤백 대상으로 남지 않도록 같은 버전을 보강한다
+        Map<UUID, FoldedUser> folded = catchUp(loaded, snapshotTime);
+        Model caughtUp = new Model(users, movies, loaded.factors, loaded.mean, loaded.trainingRmse, userFactors,
+                itemFactors, seenPtr, seenItems, folded, snapshotTime, loaded.trainingMillis);
+        slot.amend(caughtUp, caughtUp.footprintBytes());
+        log.info("ALS snapshot {} loaded: {} users, {} movies, {} bytes mapped in {} ms, {} users caught up in {} ms",
+                snapshotPath, users.size(), movies.size(), snapshot.mappedBytes(), mappedAt - start,
+                folded.size(), System.currentTimeMillis() - mappedAt);
+    }
+    
+    private Map<UUID, FoldedUser> catchUp(Model loaded, LocalDateTime since) {
+        Set<UUID> active = new LinkedHashSet<>(reviewRepository.findUserIdsActiveSince(since));
+        active.addAll(favoriteRepository.findUserIdsActiveSince(since));
+        if (active.isEmpty()) {
+            return Map.of();
+        }
+        
+        IdDictionary users = new IdDictionary();
+        Interactions interactions = new Interactions();
+        List<UUID> pending = new ArrayList<>(active);
+        for (int from = 0; from < pending.size(); from += CATCH_UP_BATCH) {
+            List<UUID> batch = pending.subList(from, Math.min(pending.size(), from + CATCH_UP_BATCH));
+            for (Object[] row : reviewRepository.findRatingTriplesByUserIds(batch)) {
+                // 스냅샷 이후 추가된 영화는 factor 가 없으므로 다음 학습 때 반영된다
+                Integer movie = loaded.movies.get((UUID) row[1]);
+                if (movie != null) {
+                    interactions.add(users.getOrAdd((UUID) row[0]), movie, ((Number) row[2]).floatValue(), 1f, false);
+                }
+            }
+            for (Object[] row : favoriteRepository.findPairsByUserIds(batch)) {
+                Integer movie = loaded.movies.get((UUID) row[1]);
+                if (movie != null) {
+                    interactions.add(users.getOrAdd((UUID) row[0]), movie, favoriteRating, favoriteWeight, true);
+                }
+            }
+        }
+        
+        int[] ptr = interactions.groupByUser(users.size());
+        AlsTrainer trainer = new AlsTrainer(loaded.factors, regularization, 0, 42L, ForkJoinPool.commonPool());
+        Map<UUID, FoldedUser> folded = new HashMap<>();
+        for (int user = 0; user < users.size(); user++) {
+            if (ptr[user] == ptr[user + 1]) {
+                continue;
+            }
+            float[] vector = trainer.foldIn(loaded.itemFactors, loaded.mean, interactions.items,
+                    interactions.values, interactions.weights, ptr[user], ptr[user + 1]);
+            folded.put(users.get(user), new FoldedUser(vector,
+                    Arrays.copyOfRange(interactions.items, ptr[user], ptr[user + 1])));
+        }
+        return folded;
+    }
+    
+    private static long[] uuidBits(IdDictionary dictionary) {
+        long[] bits = new long[dictionary.size() * 2];
+        for (int id = 0; id < dictionary.size(); id++) {
+            UUID uuid = dictionary.get(id);
+            bits[id * 2] = uuid.getMostSignificantBits();
+            bits[id * 2 + 1] = uuid.getLeastSignificantBits();
+        }
+        return bits;
+    }
+    
+    private static IdDictionary dictionaryOf(LongBuffer bits) {
+        IdDictionary dictionary = new IdDictionary();
+        for (int i = 0; i + 1 < bits.limit(); i += 2) {
+            dictionary.getOrAdd(new UUID(bits.get(i), bits.get(i + 1)));
+        }
+        return dictionary;
+    }
+    
+    /**
+     * 학습이 끝난 뒤에는 바뀌지 않는 모델. factor 와 seen 목록은 학습 직후엔 힙 배열을 감싼 버퍼,
+     * 스냅샷에서 읽었으면 매핑된 버퍼다.
+     */
+    private static final class Model {
+        
+        final IdDictionary users;
+        final IdDictionary movies;
+        final int factors;
+        final float mean;
+        final double trainingRmse;
+        final FloatBuffer userFactors;
+        final FloatBuffer itemFactors;
+        final IntBuffer seenPtr;
+        final IntBuffer seenItems;
+        final Map<UUID, FoldedUser> folded;
+        final LocalDateTime trainedAt;
+        final long trainingMillis;
+        
+        Model(IdDictionary users, IdDictionary movies, int factors, float mean, double trainingRmse,
+              FloatBuffer userFactors, FloatBuffer itemFactors, IntBuffer seenPtr, IntBuffer seenItems,
+              Map<UUID, FoldedUser> folded, LocalDateTime trainedAt, long trainingMillis) {
+            this.users = users;
+            this.movies = movies;
+            this.factors = factors;
+            this.mean = mean;
+            this.trainingRmse = trainingRmse;
+            this.userFactors = userFactors;
+            this.itemFactors = itemFactors;
+            this.seenPtr = seenPtr;
+            this.seenItems = seenItems;
+            this.folded = folded;
+            this.trainedAt = trainedAt;
+            this.trainingMillis = trainingMillis;
+        }
+        
+        /**
+         * factor·seen 버퍼(매핑된 경우 페이지 캐시)와 UUID 사전, 다시 푼 사용자를 합친 대략적인 크기.
+         */
+        long footprintBytes() {
+            long bytes = (long) Float.BYTES * (userFactors.capacity() + itemFactors.capacity())
+                    + (long) Integer.BYTES * (seenPtr.capacity() + seenItems.capacity())
+                    + (long) ID_ENTRY_BYTES * (users.size() + movies.size());
+            for (FoldedUser user : folded.values()) {
+                bytes += ID_ENTRY_BYTES + (long) Float.BYTES * user.vector.length
+                        + (long) Integer.BYTES * user.seenItems.length;
+            }
+            return bytes;
+        }
+    }
+    
+    /**
+     * 스냅샷 이후 활동해 영화 factor 를 고정한 채 다시 푼 사용자.
+     */
+    private static final class FoldedUser {
+        
+        final float[] vector;
+        final int[] seenItems;
+        
+        FoldedUser(float[] vector, int[] seenItems) {
+            this.vector = vector;
+            this.seenItems = seenItems;
+        }
+    }
+    
+    /**
+     * 리뷰와 즐겨찾기 관측값. {@link #groupByUser(int)} 이후에는 사용자 기준 CSR 이 된다.
+     */
+    private static final class Interactions {
+        
+        int[] users = new int[1024];
+        int[] items = new int[1024];
+        float[] values = new float[1024];
+        float[] weights = new float[1024];
+        boolean[] favorites = new boolean[1024];
+        int size;
+        
+        void add(int user, int item, float value, float weight, boolean favorite) {
+            if (size == users.length) {
+                int capacity = size * 2;
+                users = Arrays.copyOf(users, capacity);
+                items = Arrays.copyOf(items, capacity);
+                values = Arrays.copyOf(values, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                favorites = Arrays.copyOf(favorites, capacity);
+            }
+            users[size] = user;
+            items[size] = item;
+            values[size] = value;
+            weights[size] = weight;
+            favorites[size] = favorite;
+            size++;
+        }
+        
+        /**
+         * 사용자별로 묶고 행 안을 item 순으로 정렬한다. 같은 (사용자, 영화)의 리뷰와 즐겨찾기는
+         * 리뷰 평점을 값으로, 두 가중치의 합을 가중치로 하는 관측 하나로 합친다.
+         */
+        int[] groupByUser(int userCount) {
+            int[] ptr = new int[userCount + 1];
+            for (int i = 0; i < size; i++) {
+                ptr[users[i] + 1]++;
+            }
+            for (int u = 0; u < userCount; u++) {
+                ptr[u + 1] += ptr[u];
+            }
+            int[] next = Arrays.copyOf(ptr, userCount);
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[next[users[i]]++] = i;
+            }
+            
+            int[] newPtr = new int[userCount + 1];
+            int[] newItems = new int[size];
+            float[] newValues = new float[size];
+            float[] newWeights = new float[size];
+            int out = 0;
+            for (int u = 0; u < userCount; u++) {
+                long[] packed = new long[ptr[u + 1] - ptr[u]];
+                for (int k = ptr[u]; k < ptr[u + 1]; k++) {
+                    packed[k - ptr[u]] = ((long) items[order[k]] << 32) | order[k];
+                }
+                Arrays.sort(packed);
+                
+                int rowStart = out;
+                for (long entry : packed) {
+                    int i = (int) entry;
+                    if (out > rowStart && newItems[out - 1] == items[i]) {
+                        if (!favorites[i]) {
+                            newValues[out - 1] = values[i];
+                        }
+                        newWeights[out - 1] += weights[i];
+                        continue;
+                    }
+                    newItems[out] = items[i];
+                    newValues[out] = values[i];
+                    newWeights[out] = weights[i];
+                    out++;
+                }
+                newPtr[u + 1] = out;
+            }
+            
+            items = Arrays.copyOf(newItems, out);
+            values = Arrays.copyOf(newValues, out);
+            weights = Arrays.copyOf(newWeights, out);
+            users = null;
+            favorites = null;
+            size = out;
+            return newPtr;
+        }
+    }
+}
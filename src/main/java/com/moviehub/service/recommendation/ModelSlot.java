@@ -0,0 +1,106 @@
+package com.moviehub.service.recommendation;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 불변 모델 하나를 담는 슬롯. 읽기는 참조 하나를 읽을 뿐이라 락이 없고,
+ * 새 모델은 다른 스레드에서 다 만든 뒤 {@link #publish} 로 한 번에 교체한다.
+ * 직전 모델은 롤백용으로 하나만 남겨 둔다.
+ */
+public final class ModelSlot<T> {
+
+    private final AtomicReference<Version<T>> active = new AtomicReference<>();
+    private final boolean keepPrevious;
+    private Version<T> previous;
+    private long lastVersion;
+
+    public ModelSlot() {
+        this(true);
+    }
+
+    private ModelSlot(boolean keepPrevious) {
+        this.keepPrevious = keepPrevious;
+    }
+
+    /**
+     * 직전 모델을 남기지 않는 슬롯. 이벤트로 계속 갱신되는 모델은 되돌리면 그 사이 변경을 잃으므로
+     * 롤백 대신 재구축만 하고, 큰 모델 두 벌을 메모리에 들고 있지 않는다.
+     */
+    public static <T> ModelSlot<T> withoutRollback() {
+        return new ModelSlot<>(false);
+    }
+
+    /**
+     * 현재 모델. 아직 만들어지지 않았으면 null 이다.
+     */
+    public T get() {
+        Version<T> current = active.get();
+        return current == null ? null : current.model;
+    }
+
+    public Optional<Version<T>> getActive() {
+        return Optional.ofNullable(active.get());
+    }
+
+    public synchronized Optional<Version<T>> getPrevious() {
+        return Optional.ofNullable(previous);
+    }
+
+    public synchronized Version<T> publish(T model, long buildMillis, long footprintBytes) {
+        Version<T> version = new Version<>(++lastVersion, model, LocalDateTime.now(), buildMillis, footprintBytes);
+        Version<T> replaced = active.getAndSet(version);
+        if (keepPrevious) {
+            previous = replaced;
+        }
+        return version;
+    }
+
+    /**
+     * 활성 모델을 같은 버전을 보강한 모델로 바꾼다. 버전 번호와 롤백 대상은 그대로다.
+     * 스냅샷을 먼저 서비스하다가 이후 변경을 따라잡은 모델로 바꿀 때처럼, 같은 모델의 두 단계가
+     * 롤백 대상으로 남지 않게 할 때 쓴다.
+     */
+    public synchronized Version<T> amend(T model, long footprintBytes) {
+        Version<T> current = active.get();
+        if (current == null) {
+            throw new IllegalStateException("보강할 활성 모델이 없습니다.");
+        }
+        Version<T> amended = new Version<>(current.number, model, current.builtAt, current.buildMillis, footprintBytes);
+        active.set(amended);
+        return amended;
+    }
+    
+    /**
+     * 직전 모델로 되돌린다. 되돌려진 모델이 직전 모델 자리로 가므로 다시 호출하면 원래대로 돌아온다.
+     */
+    public synchronized Version<T> rollback() {
+        if (previous == null) {
+            throw new IllegalStateException("롤백할 이전 모델이 없습니다.");
+        }
+        Version<T> restored = previous;
+        previous = active.getAndSet(restored);
+        return restored;
+    }
+
+    @Getter
+    public static final class Version<T> {
+
+        private final long number;
+        private final T model;
+        private final LocalDateTime builtAt;
+        private final long buildMillis;
+        private final long footprintBytes;
+
+        Version(long number, T model, LocalDateTime builtAt, long buildMillis, long footprintBytes) {
+            this.number = number;
+            this.model = model;
+            this.builtAt = builtAt;
+            this.buildMillis = buildMillis;
+            this.footprintBytes = footprintBytes;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.moviehub.service.recommendation;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 추천 모델 상태를 담는 버전 있는 바이너리 스냅샷 파일.
+ * <p>
+ * 헤더(매직, 포맷 버전, 모델 종류, 모델 버전, 생성 시각, 섹션 목록) 뒤에 이름 붙은 primitive 배열
+ * 섹션이 8바이트 경계로 이어진다. 섹션 데이터는 little-endian 이다. 읽을 때는 섹션마다
+ * {@link FileChannel#map} 으로 매핑한 버퍼를 그대로 돌려주므로 힙으로 복사하지 않고,
+ * 페이지 캐시에 올라와 있으면 기동 직후 바로 쓸 수 있다. 쓰기는 임시 파일에 쓴 뒤 원자적으로 교체한다.
+ */
+public final class ModelSnapshot {
+
+    private static final int MAGIC = 0x4D48534E; // "MHSN"
+    private static final int FORMAT_VERSION = 1;
+    private static final int ALIGNMENT = Long.BYTES;
+
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_FLOAT = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_DOUBLE = 4;
+    private static final byte TYPE_BYTE = 5;
+
+    private final long createdAtMillis;
+    private final Map<String, Section> sections;
+
+    private ModelSnapshot(long createdAtMillis, Map<String, Section> sections) {
+        this.createdAtMillis = createdAtMillis;
+        this.sections = sections;
+    }
+
+    public static Writer writer(String kind, int modelVersion) {
+        return new Writer(kind, modelVersion);
+    }
+
+    /**
+     * 스냅샷을 열어 섹션을 매핑한다. 매직, 포맷 버전, 모델 종류, 모델 버전 중 하나라도 다르거나
+     * 파일이 잘려 있으면 IOException 이다. 매핑은 채널을 닫은 뒤에도 유지된다.
+     */
+    public static ModelSnapshot open(Path path, String kind, int modelVersion) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            DataInputStream header = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            if (header.readInt() != MAGIC) {
+                throw new IOException("Not a model snapshot: " + path);
+            }
+            int format = header.readInt();
+            String actualKind = header.readUTF();
+            int actualVersion = header.readInt();
+            if (format != FORMAT_VERSION || !actualKind.equals(kind) || actualVersion != modelVersion) {
+                throw new IOException("Incompatible snapshot " + path + ": format " + format + ", "
+                        + actualKind + " v" + actualVersion + " (expected " + kind + " v" + modelVersion + ")");
+            }
+            long createdAt = header.readLong();
+            int count = header.readInt();
+
+            Map<String, Section> sections = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = header.readUTF();
+                byte type = header.readByte();
+                long offset = header.readLong();
+                long bytes = header.readLong();
+                if (offset < 0 || bytes < 0 || offset + bytes > channel.size()) {
+                    throw new IOException("Truncated snapshot section " + name + ": " + path);
+                }
+                ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, offset, bytes);
+                sections.put(name, new Section(name, type, data));
+            }
+            return new ModelSnapshot(createdAt, sections);
+        }
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    public IntBuffer ints(String name) {
+        return section(name, TYPE_INT).asIntBuffer();
+    }
+
+    public FloatBuffer floats(String name) {
+        return section(name, TYPE_FLOAT).asFloatBuffer();
+    }
+
+    public LongBuffer longs(String name) {
+        return section(name, TYPE_LONG).asLongBuffer();
+    }
+
+    public DoubleBuffer doubles(String name) {
+        return section(name, TYPE_DOUBLE).asDoubleBuffer();
+    }
+
+    public ByteBuffer bytes(String name) {
+        return section(name, TYPE_BYTE);
+    }
+
+    /**
+     * 매핑된 섹션 바이트 합계.
+     */
+    public long mappedBytes() {
+        long total = 0;
+        for (Section section : sections.values()) {
+            total += section.data.capacity();
+        }
+        return total;
+    }
+
+    private ByteBuffer section(String name, byte type) {
+        Section section = sections.get(name);
+        if (section == null || section.type != type) {
+            throw new IllegalArgumentException("Snapshot has no section " + name + " of type " + type);
+        }
+        return section.data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * 섹션을 모아 두었다가 {@link #write(Path, long)} 로 한 번에 쓴다. 섹션 크기는 2GB 미만이어야 한다.
+     */
+    public static final class Writer {
+
+        private final String kind;
+        private final int modelVersion;
+        private final List<Section> sections = new ArrayList<>();
+
+        private Writer(String kind, int modelVersion) {
+            this.kind = kind;
+            this.modelVersion = modelVersion;
+        }
+
+        public Writer ints(String name, int[] values, int length) {
+            ByteBuffer buffer = allocate((long) length * Integer.BYTES);
+            buffer.asIntBuffer().put(values, 0, length);
+            return add(name, TYPE_INT, buffer);
+        }
+
+        public Writer floats(String name, float[] values) {
+            ByteBuffer buffer = allocate((long) values.length * Float.BYTES);
+            buffer.asFloatBuffer().put(values);
+            return add(name, TYPE_FLOAT, buffer);
+        }
+
+        public Writer longs(String name, long[] values) {
+            ByteBuffer buffer = allocate((long) values.length * Long.BYTES);
+            buffer.asLongBuffer().put(values);
+            return add(name, TYPE_LONG, buffer);
+        }
+
+        public Writer doubles(String name, double... values) {
+            ByteBuffer buffer = allocate((long) values.length * Double.BYTES);
+            buffer.asDoubleBuffer().put(values);
+            return add(name, TYPE_DOUBLE, buffer);
+        }
+
+        public Writer bytes(String name, byte[] values) {
+            ByteBuffer buffer = allocate(values.length);
+            buffer.put(values);
+            return add(name, TYPE_BYTE, buffer);
+        }
+
+        public void write(Path path, long createdAtMillis) throws IOException {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            // 헤더 길이는 오프셋 값과 무관하므로 한 번 재어 본 뒤 실제 오프셋으로 다시 쓴다
+            long[] offsets = new long[sections.size()];
+            long offset = align(header(createdAtMillis, offsets).length);
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = offset;
+                offset = align(offset + sections.get(i).data.capacity());
+            }
+            byte[] header = header(createdAtMillis, offsets);
+
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(channel, ByteBuffer.wrap(header), 0);
+                for (int i = 0; i < offsets.length; i++) {
+                    writeFully(channel, sections.get(i).data.duplicate().clear(), offsets[i]);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private byte[] header(long createdAtMillis, long[] offsets) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(kind);
+            out.writeInt(modelVersion);
+            out.writeLong(createdAtMillis);
+            out.writeInt(sections.size());
+            for (int i = 0; i < offsets.length; i++) {
+                Section section = sections.get(i);
+                out.writeUTF(section.name);
+                out.writeByte(section.type);
+                out.writeLong(offsets[i]);
+                out.writeLong(section.data.capacity());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        private Writer add(String name, byte type, ByteBuffer data) {
+            sections.add(new Section(name, type, data));
+            return this;
+        }
+
+        private static ByteBuffer allocate(long bytes) {
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Snapshot section too large: " + bytes + " bytes");
+            }
+            return ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private static long align(long offset) {
+            return (offset + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+        }
+
+        private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+    }
+
+    private static final class Section {
+
+        final String name;
+        final byte type;
+        final ByteBuffer data;
+
+        Section(String name, byte type, ByteBuffer data) {
+            this.name = name;
+            this.type = type;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.repository.MovieRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 기분별로 미리 정렬해 둔 영화 목록.
+ * <p>
+ * 기분마다 장르 일치 비율 순(동률이면 인기도 순) 전체 순위를 int 배열로 들고 있고, 요청은
+ * 배열을 잘라서만 응답하므로 카탈로그 크기와 무관하다. 영화가 바뀌면 표시만 해 두고
+ * 백그라운드에서 주기적으로 통째로 다시 만든 뒤 {@link ModelSlot} 의 스냅샷 참조를 교체한다. 성인물은 만들 때 뺀다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MoodIndex implements ManagedModel {
+
+    private static final Map<String, List<String>> MOOD_GENRES = Map.of(
+            "happy", List.of("Comedy", "Animation", "Family", "Music"),
+            "sad", List.of("Drama", "Romance", "Music"),
+            "excited", List.of("Action", "Adventure", "Thriller", "Science Fiction"),
+            "relaxed", List.of("Drama", "Romance", "Documentary", "Music"),
+            "romantic", List.of("Romance", "Drama", "Comedy"),
+            "scared", List.of("Horror", "Thriller", "Mystery"),
+            "adventurous", List.of("Adventure", "Action", "Fantasy", "Science Fiction"),
+            "thoughtful", List.of("Drama", "Documentary", "History", "Biography"));
+
+    private final MovieRepository movieRepository;
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final ModelSlot<Snapshot> slot = new ModelSlot<>();
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${recommendation.mood.refresh-delay-ms:60000}")
+    public void refreshIfDirty() {
+        if (slot.get() != null && dirty.getAndSet(false)) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        dirty.set(false);
+        List<Object[]> rows = movieRepository.findGenreIndexRows();
+
+        UUID[] movieIds = new UUID[rows.size()];
+        List<Set<String>> genres = new ArrayList<>(rows.size());
+        double[] popularity = new double[rows.size()];
+        int count = 0;
+        for (Object[] row : rows) {
+            if (Boolean.TRUE.equals(row[3])) {
+                continue;
+            }
+            movieIds[count] = (UUID) row[0];
+            genres.add(new HashSet<>(GenreIndex.parseGenres((String) row[1])));
+            popularity[count] = row[2] != null ? ((BigDecimal) row[2]).doubleValue() : 0.0;
+            count++;
+        }
+
+        Map<String, Ranking> rankings = new HashMap<>();
+        for (Map.Entry<String, List<String>> mood : MOOD_GENRES.entrySet()) {
+            rankings.put(mood.getKey(), rank(mood.getValue(), genres, popularity, count));
+        }
+        Snapshot built = new Snapshot(Arrays.copyOf(movieIds, count), rankings);
+        slot.publish(built, System.currentTimeMillis() - start, built.footprintBytes());
+
+        log.info("Mood index built: {} moods over {} movies in {} ms",
+                rankings.size(), count, System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public String getModelName() {
+        return "mood";
+    }
+
+    @Override
+    public ModelSlot<?> getModelSlot() {
+        return slot;
+    }
+
+    public boolean isKnown(String mood) {
+        return mood != null && MOOD_GENRES.containsKey(mood.toLowerCase());
+    }
+
+    /**
+     * 기분 순위의 [offset, offset + limit) 구간. 점수는 장르 일치 비율이다.
+     * 모르는 기분이거나 범위를 벗어나면 빈 목록이다.
+     */
+    public List<ScoredMovie> page(String mood, int offset, int limit) {
+        if (!isKnown(mood) || offset < 0 || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = ensureBuilt();
+        Ranking ranking = current.rankings.get(mood.toLowerCase());
+        int end = (int) Math.min((long) offset + limit, ranking.slots.length);
+        if (offset >= end) {
+            return List.of();
+        }
+
+        ScoredMovie[] result = new ScoredMovie[end - offset];
+        for (int i = offset; i < end; i++) {
+            result[i - offset] = new ScoredMovie(current.movieIds[ranking.slots[i]], ranking.scores[i]);
+        }
+        return Arrays.asList(result);
+    }
+
+    private static Ranking rank(List<String> moodGenres, List<Set<String>> genres, double[] popularity, int count) {
+        double denominator = moodGenres.size();
+        int[] matched = new int[count];
+        int matchedMovies = 0;
+        for (int slot = 0; slot < count; slot++) {
+            for (String genre : moodGenres) {
+                if (genres.get(slot).contains(genre)) {
+                    matched[slot]++;
+                }
+            }
+            if (matched[slot] > 0) {
+                matchedMovies++;
+            }
+        }
+
+        TopK top = new TopK(matchedMovies);
+        for (int slot = 0; slot < count; slot++) {
+            if (matched[slot] > 0) {
+                top.offer(slot, matched[slot] / denominator, popularity[slot]);
+            }
+        }
+        int[] slots = new int[matchedMovies];
+        double[] scores = new double[matchedMovies];
+        top.drain(slots, scores);
+        return new Ranking(slots, scores);
+    }
+
+    private Snapshot ensureBuilt() {
+        Snapshot current = slot.get();
+        if (current == null) {
+            synchronized (this) {
+                if (slot.get() == null) {
+                    rebuild();
+                }
+                current = slot.get();
+            }
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+
+        final UUID[] movieIds;
+        final Map<String, Ranking> rankings;
+
+        Snapshot(UUID[] movieIds, Map<String, Ranking> rankings) {
+            this.movieIds = movieIds;
+            this.rankings = rankings;
+        }
+
+        /**
+         * UUID 객체와 순위 배열의 대략적인 크기.
+         */
+        long footprintBytes() {
+            long bytes = (long) movieIds.length * (Integer.BYTES + 32);
+            for (Ranking ranking : rankings.values()) {
+                bytes += (long) ranking.slots.length * (Integer.BYTES + Double.BYTES);
+            }
+            return bytes;
+        }
+    }
+
+    private static final class Ranking {
+
+        final int[] slots;
+        final double[] scores;
+
+        Ranking(int[] slots, double[] scores) {
+            this.slots = slots;
+            this.scores = scores;
+        }
+    }
+}
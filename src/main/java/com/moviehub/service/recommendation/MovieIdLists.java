@@ -0,0 +1,27 @@
+package com.moviehub.service.recommendation;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 점수가 매겨진 추천 영화 목록을 영화 ID 만 남겨 {@link UuidLists} 형식의 바이트 배열로 변환한다.
+ */
+public final class MovieIdLists {
+    
+    private MovieIdLists() {
+    }
+    
+    public static byte[] pack(List<ScoredMovie> movies) {
+        ByteBuffer buffer = ByteBuffer.allocate(movies.size() * UuidLists.UUID_BYTES);
+        for (ScoredMovie movie : movies) {
+            buffer.putLong(movie.getMovieId().getMostSignificantBits());
+            buffer.putLong(movie.getMovieId().getLeastSignificantBits());
+        }
+        return buffer.array();
+    }
+    
+    public static List<UUID> unpack(byte[] packed) {
+        return UuidLists.unpack(packed);
+    }
+}
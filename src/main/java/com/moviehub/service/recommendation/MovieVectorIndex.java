@@ -0,0 +1,391 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.repository.MovieRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 영화 벡터(장르 one-hot + 인기도)에 대한 HNSW 근사 최근접 이웃 인덱스.
+ * <p>
+ * 카탈로그가 minCatalogSize 이상이면 콘텐츠 기반 추천이 장르 posting list 를 전부 훑는 대신
+ * 이 그래프에서 후보를 찾는다. 장르 사전과 노드-영화 매핑을 그래프와 함께 파일로 저장하므로
+ * 재시작 시 다시 만들지 않고 불러온 뒤, DB 와 비교해 빠진 영화만 추가하고 사라진 영화는 삭제 표시한다.
+ * TMDb 동기화 등으로 영화가 저장되면 MovieChangedEvent 로 바로 추가되고, 벡터가 사실상 그대로면 건너뛴다.
+ * 삭제 표시된 노드가 maxDeletedRatio 를 넘으면 저장 주기에 살아있는 노드만으로 그래프를 다시 만든다.
+ */
+@Component
+@Slf4j
+public class MovieVectorIndex {
+    
+    private static final int MAX_GENRES = Long.SIZE;
+    private static final int DIMENSION = MAX_GENRES + 1;
+    private static final float POPULARITY_WEIGHT = 0.3f;
+    private static final double POPULARITY_LOG_SCALE = Math.log1p(1000.0);
+    private static final long SEED = 42L;
+    // 코사인 거리가 이보다 작으면 같은 벡터로 보고 노드를 바꾸지 않는다(인기도의 작은 변동 등)
+    private static final float UNCHANGED_DISTANCE = 1e-5f;
+    
+    private final MovieRepository movieRepository;
+    private final Path path;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final int minCatalogSize;
+    private final double maxDeletedRatio;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private HnswIndex index;
+    private final List<String> genres = new ArrayList<>();
+    private final Map<String, Integer> genreBits = new HashMap<>();
+    private List<UUID> nodeMovies = new ArrayList<>();
+    private Map<UUID, Integer> movieNodes = new HashMap<>();
+    private Set<UUID> changedDuringCompaction; // compact 중에 바뀐 영화. 쓰기 락 아래에서만 접근
+    private volatile boolean loaded;
+    private volatile boolean dirty;
+    
+    public MovieVectorIndex(MovieRepository movieRepository,
+                            @Value("${recommendation.hnsw.path:data/movie-vectors.hnsw}") String path,
+                            @Value("${recommendation.hnsw.m:16}") int m,
+                            @Value("${recommendation.hnsw.ef-construction:200}") int efConstruction,
+                            @Value("${recommendation.hnsw.ef-search:100}") int efSearch,
+                            @Value("${recommendation.hnsw.min-catalog-size:100000}") int minCatalogSize,
+                            @Value("${recommendation.hnsw.max-deleted-ratio:0.2}") double maxDeletedRatio) {
+        this.movieRepository = movieRepository;
+        this.path = Paths.get(path);
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.minCatalogSize = minCatalogSize;
+        this.maxDeletedRatio = maxDeletedRatio;
+        this.index = new HnswIndex(DIMENSION, m, efConstruction, SEED);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = movieRepository.findGenreIndexRows();
+        
+        lock.writeLock().lock();
+        try {
+            if (!load()) {
+                reset();
+            }
+            
+            Set<UUID> present = new HashSet<>();
+            int added = 0;
+            for (Object[] row : rows) {
+                UUID movieId = (UUID) row[0];
+                present.add(movieId);
+                if (!movieNodes.containsKey(movieId)) {
+                    insert(movieId, toVector((String) row[1], (BigDecimal) row[2]));
+                    added++;
+                }
+            }
+            int removed = 0;
+            for (UUID movieId : new ArrayList<>(movieNodes.keySet())) {
+                if (!present.contains(movieId)) {
+                    remove(movieId);
+                    removed++;
+                }
+            }
+            dirty |= added > 0 || removed > 0;
+            loaded = true;
+            
+            log.info("Movie vector index ready: {} movies ({} added, {} removed) in {} ms",
+                    movieNodes.size(), added, removed, System.currentTimeMillis() - start);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        compactIfNeeded();
+        save();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            UUID movieId = event.getMovieId();
+            if (event.isDeleted()) {
+                remove(movieId);
+            } else {
+                float[] vector = toVector(event.getMovie().getGenres(), event.getMovie().getPopularity());
+                Integer node = movieNodes.get(movieId);
+                if (node != null && 1f - index.similarity(vector, node) < UNCHANGED_DISTANCE) {
+                    return; // 내용이 같은 재동기화
+                }
+                // HNSW 노드는 벡터를 바꿀 수 없으므로 기존 노드를 지우고 새로 넣는다
+                remove(movieId);
+                insert(movieId, vector);
+            }
+            if (changedDuringCompaction != null) {
+                changedDuringCompaction.add(movieId);
+            }
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 카탈로그가 충분히 커서 genre posting list 전수 스캔보다 HNSW 탐색이 유리한지 여부.
+     */
+    public boolean isPreferred() {
+        return loaded && movieNodes.size() >= minCatalogSize;
+    }
+    
+    public List<ScoredMovie> findSimilar(UUID movieId, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer node = movieNodes.get(movieId);
+            if (node == null || limit <= 0) {
+                return Collections.emptyList();
+            }
+            
+            float[] query = index.vector(node);
+            int[] neighbours = index.search(query, limit + 1, Math.max(efSearch, limit + 1));
+            List<ScoredMovie> result = new ArrayList<>(neighbours.length);
+            for (int neighbour : neighbours) {
+                if (neighbour != node && result.size() < limit) {
+                    result.add(new ScoredMovie(nodeMovies.get(neighbour), index.similarity(query, neighbour)));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return movieNodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 삭제 표시된 노드를 포함한 그래프의 노드 수.
+     */
+    int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Scheduled(cron = "${recommendation.hnsw.save-cron:0 */10 * * * *}")
+    public void compactAndSave() {
+        compactIfNeeded();
+        save();
+    }
+    
+    /**
+     * 삭제 표시된 노드 비율이 maxDeletedRatio 를 넘으면 살아있는 노드만으로 그래프를 다시 만든다.
+     * 그래프는 락 밖에서 만들고, 그동안 바뀐 영화는 교체 직전에 쓰기 락 아래에서 새 그래프에 다시 반영한다.
+     */
+    void compactIfNeeded() {
+        long start = System.currentTimeMillis();
+        List<UUID> liveMovies = new ArrayList<>();
+        List<float[]> liveVectors = new ArrayList<>();
+        int deleted;
+        lock.writeLock().lock();
+        try {
+            deleted = index.deletedCount();
+            if (!loaded || changedDuringCompaction != null || deleted <= index.size() * maxDeletedRatio) {
+                return;
+            }
+            movieNodes.forEach((movieId, node) -> {
+                liveMovies.add(movieId);
+                liveVectors.add(index.vector(node));
+            });
+            changedDuringCompaction = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        HnswIndex compacted = new HnswIndex(DIMENSION, m, efConstruction, SEED);
+        List<UUID> compactedNodeMovies = new ArrayList<>(liveMovies.size());
+        Map<UUID, Integer> compactedMovieNodes = new HashMap<>(liveMovies.size() * 2);
+        try {
+            for (int i = 0; i < liveMovies.size(); i++) {
+                compactedMovieNodes.put(liveMovies.get(i), compacted.add(liveVectors.get(i)));
+                compactedNodeMovies.add(liveMovies.get(i));
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringCompaction = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            for (UUID movieId : changedDuringCompaction) {
+                Integer stale = compactedMovieNodes.remove(movieId);
+                if (stale != null) {
+                    compacted.markDeleted(stale);
+                }
+                Integer current = movieNodes.get(movieId);
+                if (current != null) {
+                    compactedMovieNodes.put(movieId, compacted.add(index.vector(current)));
+                    compactedNodeMovies.add(movieId);
+                }
+            }
+            index = compacted;
+            nodeMovies = compactedNodeMovies;
+            movieNodes = compactedMovieNodes;
+            changedDuringCompaction = null;
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Movie vector index compacted: {} deleted nodes dropped, {} movies in {} ms",
+                deleted, liveMovies.size(), System.currentTimeMillis() - start);
+    }
+    
+    @PreDestroy
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        
+        lock.readLock().lock();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(genres.size());
+                for (String genre : genres) {
+                    out.writeUTF(genre);
+                }
+                out.writeInt(nodeMovies.size());
+                for (UUID movieId : nodeMovies) {
+                    out.writeLong(movieId.getMostSignificantBits());
+                    out.writeLong(movieId.getLeastSignificantBits());
+                }
+                index.writeTo(out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+            log.debug("Movie vector index saved to {}", path);
+        } catch (IOException e) {
+            log.warn("Failed to save movie vector index to {}", path, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private boolean load() {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            reset();
+            int genreCount = in.readInt();
+            for (int i = 0; i < genreCount; i++) {
+                String genre = in.readUTF();
+                genreBits.put(genre, genres.size());
+                genres.add(genre);
+            }
+            int nodeCount = in.readInt();
+            for (int node = 0; node < nodeCount; node++) {
+                nodeMovies.add(new UUID(in.readLong(), in.readLong()));
+            }
+            index = HnswIndex.readFrom(in, SEED);
+            for (int node = 0; node < nodeCount; node++) {
+                if (!index.isDeleted(node)) {
+                    movieNodes.put(nodeMovies.get(node), node);
+                }
+            }
+            log.info("Movie vector index loaded from {}: {} nodes", path, nodeCount);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to load movie vector index from {}, rebuilding", path, e);
+            return false;
+        }
+    }
+    
+    private void reset() {
+        index = new HnswIndex(DIMENSION, m, efConstruction, SEED);
+        genres.clear();
+        genreBits.clear();
+        nodeMovies.clear();
+        movieNodes.clear();
+    }
+    
+    private void insert(UUID movieId, float[] vector) {
+        int node = index.add(vector);
+        nodeMovies.add(movieId);
+        movieNodes.put(movieId, node);
+    }
+    
+    private void remove(UUID movieId) {
+        Integer node = movieNodes.remove(movieId);
+        if (node != null) {
+            index.markDeleted(node);
+        }
+    }
+    
+    private float[] toVector(String genresJson, BigDecimal popularity) {
+        float[] vector = new float[DIMENSION];
+        List<String> movieGenres = GenreIndex.parseGenres(genresJson);
+        int genreCount = 0;
+        for (String genre : movieGenres) {
+            Integer bit = genreBits.get(genre);
+            if (bit == null) {
+                if (genres.size() >= MAX_GENRES) {
+                    continue;
+                }
+                bit = genres.size();
+                genreBits.put(genre, bit);
+                genres.add(genre);
+            }
+            if (vector[bit] == 0f) {
+                vector[bit] = 1f;
+                genreCount++;
+            }
+        }
+        if (genreCount > 0) {
+            float scale = (float) (1.0 / Math.sqrt(genreCount));
+            for (int i = 0; i < MAX_GENRES; i++) {
+                vector[i] *= scale;
+            }
+        }
+        double value = popularity != null ? Math.max(0.0, popularity.doubleValue()) : 0.0;
+        vector[MAX_GENRES] = POPULARITY_WEIGHT * (float) Math.min(1.0, Math.log1p(value) / POPULARITY_LOG_SCALE);
+        return vector;
+    }
+}
@@ -0,0 +1,466 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.repository.MovieRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 줄거리(overview) TF-IDF 벡터의 cosine 유사도로 영화별 이웃 상위 N 개를 미리 계산해 두는 인덱스.
+ * <p>
+ * 영화마다 단어 id 와 가중치를 primitive 배열로 보관하고(L2 정규화), 단어별 posting list 로 같은 단어를
+ * 가진 영화끼리만 내적을 누적한다. 전체 재구축은 코어 수만큼 나눠 병렬로 이웃을 계산하고,
+ * 조회는 미리 계산된 목록을 읽기만 하므로 요청당 비용이 카탈로그 크기와 무관하다.
+ * <p>
+ * TMDb 동기화 등으로 영화가 저장되면 그 영화의 벡터와 이웃 목록을 다시 계산하고, 단어를 공유하는 다른 영화의
+ * 목록에도 끼워 넣는다. IDF 는 재구축 시점 값을 그대로 쓰고 새 단어만 현재 문서 수로 계산하므로,
+ * 문서 빈도 변화는 다음 재구축 때 반영된다. 문서 비율이 maxDocumentRatio 를 넘는 단어는 불용어로 보고 버린다.
+ */
+@Component
+@Slf4j
+public class OverviewSimilarityIndex {
+
+    private static final int[] NO_TERMS = new int[0];
+    private static final float[] NO_WEIGHTS = new float[0];
+    private static final float UNKNOWN_IDF = -1f;
+
+    private final MovieRepository movieRepository;
+    private final int neighbourCount;
+    private final double maxDocumentRatio;
+    private final int parallelism;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    private volatile boolean loaded;
+
+    public OverviewSimilarityIndex(MovieRepository movieRepository,
+                                   @Value("${recommendation.overview.neighbours:50}") int neighbourCount,
+                                   @Value("${recommendation.overview.max-document-ratio:0.5}") double maxDocumentRatio,
+                                   @Value("${recommendation.overview.parallelism:0}") int parallelism) {
+        this.movieRepository = movieRepository;
+        this.neighbourCount = neighbourCount;
+        this.maxDocumentRatio = maxDocumentRatio;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${recommendation.overview.rebuild-cron:0 20 4 * * *}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = movieRepository.findOverviewIndexRows();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        State built;
+        try {
+            built = build(rows, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        lock.writeLock().lock();
+        try {
+            state = built;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Overview TF-IDF index built: {} movies, {} documents, {} terms in {} ms",
+                built.movies.size(), built.documentCount, built.vocabulary.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (!loaded) {
+            return; // 최초 빌드 시 DB 에서 함께 읽힌다
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted()) {
+                Integer movie = state.movies.get(event.getMovieId());
+                if (movie != null) {
+                    state.update(movie, Map.of(), 0);
+                }
+            } else {
+                String overview = event.getMovie().getOverview();
+                Integer existing = state.movies.get(event.getMovieId());
+                if (existing != null && state.overviewHashes[existing] == Objects.hashCode(overview)) {
+                    return; // 줄거리가 그대로면 벡터도 그대로다
+                }
+                int movie = existing != null ? existing : state.movie(event.getMovieId());
+                state.update(movie, OverviewTokenizer.termCounts(overview), Objects.hashCode(overview));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 줄거리가 가장 비슷한 영화 최대 limit 개를 cosine 유사도 순으로 반환한다.
+     */
+    public List<ScoredMovie> findSimilar(UUID movieId, int limit) {
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            Integer movie = state.movies.get(movieId);
+            if (movie == null) {
+                return List.of();
+            }
+            Neighbours neighbours = state.neighbours[movie];
+            List<ScoredMovie> result = new ArrayList<>(Math.min(limit, neighbours.movies.length));
+            for (int i = 0; i < neighbours.movies.length && result.size() < limit; i++) {
+                result.add(new ScoredMovie(state.movies.get(neighbours.movies[i]), neighbours.scores[i]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private State build(List<Object[]> rows, ForkJoinPool pool) {
+        List<Map<String, Integer>> documents = pool.submit(() -> rows.parallelStream()
+                .map(row -> OverviewTokenizer.termCounts((String) row[1]))
+                .collect(Collectors.toList())).join();
+
+        State built = new State();
+        int[] slots = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            slots[i] = built.movie((UUID) rows.get(i)[0]);
+            built.overviewHashes[slots[i]] = Objects.hashCode(rows.get(i)[1]);
+            built.countTerms(documents.get(i));
+        }
+        for (int term = 0; term < built.vocabulary.size(); term++) {
+            built.idf[term] = built.idfOf(built.documentFrequency[term]);
+        }
+        for (int i = 0; i < slots.length; i++) {
+            built.setVector(slots[i], documents.get(i));
+        }
+
+        int movieCount = built.movies.size();
+        ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(movieCount));
+        pool.submit(() -> IntStream.range(0, movieCount).parallel().forEach(movie -> {
+            Scratch local = scratch.get();
+            int count = built.accumulate(movie, local);
+            built.neighbours[movie] = built.topNeighbours(local, count);
+        })).join();
+        return built;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * 유사도 내림차순 이웃 목록. 바뀔 때마다 새로 만들어 교체한다.
+     */
+    private static final class Neighbours {
+
+        static final Neighbours EMPTY = new Neighbours(new int[0], new float[0]);
+
+        final int[] movies;
+        final float[] scores;
+
+        Neighbours(int[] movies, float[] scores) {
+            this.movies = movies;
+            this.scores = scores;
+        }
+
+        Neighbours without(int movie) {
+            for (int i = 0; i < movies.length; i++) {
+                if (movies[i] == movie) {
+                    int[] newMovies = new int[movies.length - 1];
+                    float[] newScores = new float[scores.length - 1];
+                    System.arraycopy(movies, 0, newMovies, 0, i);
+                    System.arraycopy(scores, 0, newScores, 0, i);
+                    System.arraycopy(movies, i + 1, newMovies, i, newMovies.length - i);
+                    System.arraycopy(scores, i + 1, newScores, i, newScores.length - i);
+                    return new Neighbours(newMovies, newScores);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 목록이 가득 찼고 score 가 마지막 이웃보다 낮으면 그대로 둔다.
+         */
+        Neighbours with(int movie, float score, int limit) {
+            int insert = 0;
+            while (insert < scores.length && scores[insert] >= score) {
+                insert++;
+            }
+            if (insert >= limit) {
+                return this;
+            }
+            int length = Math.min(movies.length + 1, limit);
+            int[] newMovies = new int[length];
+            float[] newScores = new float[length];
+            System.arraycopy(movies, 0, newMovies, 0, insert);
+            System.arraycopy(scores, 0, newScores, 0, insert);
+            newMovies[insert] = movie;
+            newScores[insert] = score;
+            System.arraycopy(movies, insert, newMovies, insert + 1, length - insert - 1);
+            System.arraycopy(scores, insert, newScores, insert + 1, length - insert - 1);
+            return new Neighbours(newMovies, newScores);
+        }
+    }
+
+    /**
+     * 한 단어를 가진 영화와 그 영화 벡터에서의 가중치. 순서는 의미가 없어 지울 때 마지막 칸으로 메운다.
+     */
+    private static final class Posting {
+
+        int[] movies = new int[2];
+        float[] weights = new float[2];
+        int size;
+
+        void add(int movie, float weight) {
+            if (size == movies.length) {
+                movies = Arrays.copyOf(movies, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            movies[size] = movie;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int movie) {
+            for (int i = 0; i < size; i++) {
+                if (movies[i] == movie) {
+                    size--;
+                    movies[i] = movies[size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 내적 누적용 작업 공간. 스레드마다 하나씩 쓰고, 쓴 칸만 0 으로 되돌린다.
+     */
+    private static final class Scratch {
+
+        final float[] scores;
+        final int[] touched;
+
+        Scratch(int movieCount) {
+            this.scores = new float[movieCount];
+            this.touched = new int[movieCount];
+        }
+    }
+
+    /**
+     * 사전, 벡터, posting list, 이웃 목록 전체. 재구축은 새 State 를 만들어 통째로 교체한다.
+     */
+    private final class State {
+
+        final IdDictionary movies = new IdDictionary();
+        final Map<String, Integer> vocabulary = new HashMap<>();
+        int[] documentFrequency = new int[1024];
+        float[] idf = new float[1024];
+        Posting[] postings = new Posting[1024];
+        int[][] terms = new int[1024][];
+        float[][] weights = new float[1024][];
+        int[] overviewHashes = new int[1024];
+        Neighbours[] neighbours = new Neighbours[1024];
+        int documentCount;
+
+        {
+            Arrays.fill(terms, NO_TERMS);
+            Arrays.fill(weights, NO_WEIGHTS);
+            Arrays.fill(neighbours, Neighbours.EMPTY);
+        }
+
+        /**
+         * 한 영화의 줄거리를 바꾼다(삭제는 빈 단어 집합). 이 영화를 담고 있던 이웃 목록에서 먼저 빼고,
+         * 새 벡터로 자신의 목록을 다시 만든 뒤 단어를 공유하는 영화들의 목록에 끼워 넣는다.
+         */
+        void update(int movie, Map<String, Integer> counts, int overviewHash) {
+            Scratch scratch = new Scratch(movies.size());
+            int count = accumulate(movie, scratch);
+            for (int i = 0; i < count; i++) {
+                int other = scratch.touched[i];
+                neighbours[other] = neighbours[other].without(movie);
+                scratch.scores[other] = 0f;
+            }
+
+            for (int i = 0; i < terms[movie].length; i++) {
+                if (weights[movie][i] > 0f) {
+                    postings[terms[movie][i]].remove(movie);
+                }
+            }
+            if (terms[movie].length > 0) {
+                documentCount--;
+                for (int term : terms[movie]) {
+                    documentFrequency[term]--;
+                }
+            }
+
+            countTerms(counts);
+            setVector(movie, counts);
+            overviewHashes[movie] = overviewHash;
+
+            count = accumulate(movie, scratch);
+            for (int i = 0; i < count; i++) {
+                int other = scratch.touched[i];
+                neighbours[other] = neighbours[other].with(movie, scratch.scores[other], neighbourCount);
+            }
+            neighbours[movie] = topNeighbours(scratch, count);
+        }
+
+        /**
+         * movie 와 단어를 하나라도 공유하는 영화의 내적을 scratch 에 누적하고 그 영화 수를 돌려준다.
+         */
+        int accumulate(int movie, Scratch scratch) {
+            int count = 0;
+            int[] movieTerms = terms[movie];
+            float[] movieWeights = weights[movie];
+            for (int i = 0; i < movieTerms.length; i++) {
+                if (movieWeights[i] == 0f) {
+                    continue; // 불용어는 posting list 가 없다
+                }
+                Posting posting = postings[movieTerms[i]];
+                for (int p = 0; p < posting.size; p++) {
+                    int other = posting.movies[p];
+                    if (other == movie) {
+                        continue;
+                    }
+                    if (scratch.scores[other] == 0f) {
+                        scratch.touched[count++] = other;
+                    }
+                    scratch.scores[other] += movieWeights[i] * posting.weights[p];
+                }
+            }
+            return count;
+        }
+
+        /**
+         * 누적된 내적 중 상위 neighbourCount 개를 고르고 scratch 를 비운다.
+         */
+        Neighbours topNeighbours(Scratch scratch, int count) {
+            if (count == 0) {
+                return Neighbours.EMPTY;
+            }
+            TopK top = new TopK(neighbourCount);
+            for (int i = 0; i < count; i++) {
+                int other = scratch.touched[i];
+                top.offer(other, scratch.scores[other]);
+                scratch.scores[other] = 0f;
+            }
+
+            int[] topMovies = new int[top.size()];
+            double[] topScores = new double[top.size()];
+            top.drain(topMovies, topScores);
+            float[] neighbourScores = new float[topScores.length];
+            for (int i = 0; i < topScores.length; i++) {
+                neighbourScores[i] = (float) topScores[i];
+            }
+            return new Neighbours(topMovies, neighbourScores);
+        }
+
+        void countTerms(Map<String, Integer> counts) {
+            if (counts.isEmpty()) {
+                return;
+            }
+            documentCount++;
+            for (String word : counts.keySet()) {
+                documentFrequency[term(word)]++;
+            }
+        }
+
+        /**
+         * (1 + log tf) × idf 가중치를 L2 정규화해 저장하고 posting list 에 넣는다.
+         * 불용어로 본 단어는 가중치 0 으로 남겨 문서 빈도를 되돌릴 때 쓴다.
+         */
+        void setVector(int movie, Map<String, Integer> counts) {
+            int[] movieTerms = new int[counts.size()];
+            float[] movieWeights = new float[counts.size()];
+            double norm = 0;
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                int term = term(entry.getKey());
+                if (idf[term] == UNKNOWN_IDF) {
+                    idf[term] = idfOf(documentFrequency[term]);
+                }
+                double weight = (1 + Math.log(entry.getValue())) * idf[term];
+                movieTerms[i] = term;
+                movieWeights[i] = (float) weight;
+                norm += weight * weight;
+                i++;
+            }
+
+            double scale = norm > 0 ? 1 / Math.sqrt(norm) : 0;
+            for (i = 0; i < movieTerms.length; i++) {
+                movieWeights[i] *= (float) scale;
+                if (movieWeights[i] > 0f) {
+                    postings[movieTerms[i]].add(movie, movieWeights[i]);
+                }
+            }
+            terms[movie] = movieTerms;
+            weights[movie] = movieWeights;
+        }
+
+        float idfOf(int frequency) {
+            if (frequency > maxDocumentRatio * documentCount) {
+                return 0f;
+            }
+            return (float) (Math.log((1.0 + documentCount) / (1.0 + frequency)) + 1);
+        }
+
+        int movie(UUID movieId) {
+            int movie = movies.getOrAdd(movieId);
+            if (movie >= neighbours.length) {
+                int capacity = Math.max(movie + 1, neighbours.length * 2);
+                int oldLength = neighbours.length;
+                terms = Arrays.copyOf(terms, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                overviewHashes = Arrays.copyOf(overviewHashes, capacity);
+                neighbours = Arrays.copyOf(neighbours, capacity);
+                Arrays.fill(terms, oldLength, capacity, NO_TERMS);
+                Arrays.fill(weights, oldLength, capacity, NO_WEIGHTS);
+                Arrays.fill(neighbours, oldLength, capacity, Neighbours.EMPTY);
+            }
+            return movie;
+        }
+
+        private int term(String word) {
+            Integer existing = vocabulary.get(word);
+            if (existing != null) {
+                return existing;
+            }
+            int term = vocabulary.size();
+            vocabulary.put(word, term);
+            if (term >= postings.length) {
+                int capacity = postings.length * 2;
+                int oldLength = postings.length;
+                documentFrequency = Arrays.copyOf(documentFrequency, capacity);
+                idf = Arrays.copyOf(idf, capacity);
+                postings = Arrays.copyOf(postings, capacity);
+                Arrays.fill(idf, oldLength, capacity, UNKNOWN_IDF);
+            }
+            idf[term] = UNKNOWN_IDF;
+            postings[term] = new Posting();
+            return term;
+        }
+    }
+}
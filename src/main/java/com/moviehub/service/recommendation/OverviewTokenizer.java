@@ -0,0 +1,36 @@
+package com.moviehub.service.recommendation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 줄거리 텍스트를 TF-IDF 용 단어로 나눈다.
+ * <p>
+ * 한글 bigram 과 라틴 단어 분리는 {@link BigramTokenizer} 를 따르고, 여기서는 두 글자 미만이거나
+ * 불용어인 라틴 단어를 버린다. 한 음절짜리 한글 어절은 그대로 둔다.
+ */
+final class OverviewTokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "been", "but", "by", "for", "from", "had", "has",
+            "have", "he", "her", "his", "in", "into", "is", "it", "its", "of", "on", "or", "she", "that",
+            "the", "their", "them", "they", "this", "to", "was", "were", "when", "who", "will", "with");
+
+    private OverviewTokenizer() {
+    }
+
+    /**
+     * 단어별 출현 횟수. 텍스트가 비어 있으면 빈 맵이다.
+     */
+    static Map<String, Integer> termCounts(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        BigramTokenizer.tokenize(text, false, token -> {
+            if (BigramTokenizer.isHangul(token.charAt(0))
+                    || (token.length() >= 2 && !STOP_WORDS.contains(token))) {
+                counts.merge(token, 1, Integer::sum);
+            }
+        });
+        return counts;
+    }
+}
@@ -0,0 +1,621 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.event.ReviewChangedEvent;
+import com.moviehub.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * reviews 테이블 전체를 담는 희소 평점 행렬.
+ * <p>
+ * 사용자/영화 UUID 를 0부터 시작하는 dense int id 로 바꾸고, 평점을 사용자 기준 CSR 과
+ * 영화 기준 CSC 두 벌의 primitive 배열에 보관한다. 리뷰 이벤트는 바뀐 행/열만 새 배열로
+ * 만들어 override 맵에 두고, override 가 일정량을 넘으면 주기 작업이 CSR/CSC 를 다시 만든다.
+ * <p>
+ * 읽기는 {@link ModelSlot} 의 현재 {@link State} 를 읽고 락을 잡지 않는다. 재구성(DB 전체 스캔, 압축)은
+ * 요청 경로 밖에서 새 State 를 만든 뒤, 그동안 들어온 변경을 다시 적용하고 슬롯에 올린다.
+ * 기본 CSR/CSC 배열은 바뀌지 않고, 이벤트는 행/열 override 를 하나씩 원자적으로 교체한다.
+ * 그래서 한 이벤트의 행과 열 사이를 읽는 요청은 한쪽만 볼 수 있다.
+ * 이벤트로 계속 갱신되므로 롤백은 두지 않는다(되돌리면 그 사이 리뷰를 잃는다).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingMatrix implements ManagedModel {
+    
+    private static final int MIN_COMPACTION_THRESHOLD = 1024;
+    
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DenseIds denseIds;
+    
+    private final ModelSlot<State> slot = ModelSlot.withoutRollback();
+    private List<Consumer<State>> changedDuringRebuild; // 재구성 중 들어온 변경. this 로 동기화해서만 접근
+    
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${recommendation.rating-matrix.rebuild-cron:0 30 4 * * *}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        if (!beginRebuild()) {
+            return;
+        }
+        
+        State built;
+        try {
+            DenseIdDictionary users = denseIds.getUsers();
+            DenseIdDictionary movies = denseIds.getMovies();
+            Coo coo = new Coo();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = reviewRepository.streamAllRatingTriples()) {
+                    rows.forEach(row -> coo.add(
+                            users.getOrAdd((UUID) row[0]),
+                            movies.getOrAdd((UUID) row[1]),
+                            ((Number) row[2]).intValue()));
+                }
+            });
+            built = State.build(coo, users.size(), movies.size());
+        } catch (RuntimeException e) {
+            abortRebuild();
+            throw e;
+        }
+        
+        finishRebuild(built, System.currentTimeMillis() - start, false);
+        log.info("Rating matrix built: {} users, {} movies, {} ratings in {} ms",
+                built.byUser.rows(), built.byMovie.rows(), built.ratingCount, System.currentTimeMillis() - start);
+    }
+    
+    /**
+     * 바뀐 행/열이 전체의 10% 를 넘으면 현재 상태로 CSR/CSC 를 다시 만든다. id 는 그대로 유지된다.
+     * 이벤트 리스너가 아니라 주기 작업에서 돌리므로 리뷰를 커밋한 요청도, 추천 요청도 기다리지 않는다.
+     */
+    @Scheduled(fixedDelayString = "${recommendation.rating-matrix.compaction-interval-ms:10000}")
+    public void compactIfNeeded() {
+        State current = slot.get();
+        int userCount = denseIds.getUsers().size();
+        int movieCount = denseIds.getMovies().size();
+        int threshold = Math.max(MIN_COMPACTION_THRESHOLD, (userCount + movieCount) / 10);
+        if (current != null && current.overrideCount() > threshold) {
+            compact();
+        }
+    }
+    
+    void compact() {
+        long start = System.currentTimeMillis();
+        if (slot.get() == null || !beginRebuild()) {
+            return;
+        }
+        
+        State compacted;
+        try {
+            // 재구성은 한 번에 하나뿐이므로 시작한 뒤 슬롯의 State 는 바뀌지 않는다
+            compacted = slot.get().compact(denseIds.getUsers().size(), denseIds.getMovies().size());
+        } catch (RuntimeException e) {
+            abortRebuild();
+            throw e;
+        }
+        
+        // 압축은 배치만 바꾼 같은 모델이므로 버전을 올리지 않는다
+        finishRebuild(compacted, System.currentTimeMillis() - start, true);
+        log.debug("Rating matrix compacted: {} ratings in {} ms",
+                compacted.ratingCount, System.currentTimeMillis() - start);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        int user = denseIds.getUsers().getOrAdd(event.getUserId());
+        int movie = denseIds.getMovies().getOrAdd(event.getMovieId());
+        if (event.isDeleted()) {
+            apply(state -> state.removeRating(user, movie));
+        } else {
+            byte rating = (byte) event.getRating().intValue();
+            apply(state -> state.putRating(user, movie, rating));
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (!event.isDeleted()) {
+            return;
+        }
+        int movie = denseIds.getMovies().idOf(event.getMovieId());
+        if (movie >= 0) {
+            apply(state -> state.removeMovie(movie));
+        }
+    }
+    
+    /**
+     * 사용자가 minRating 이상을 준 영화가 하나라도 있는지 확인한다.
+     */
+    public boolean hasRatingsAtLeast(UUID userId, int minRating) {
+        State current = current();
+        int user = denseIds.getUsers().idOf(userId);
+        if (user < 0) {
+            return false;
+        }
+        Row row = current.userRow(user);
+        for (int i = 0; i < row.size(); i++) {
+            if (row.rating(i) >= minRating) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 사용자가 평가한 영화를 평점 내림차순으로 반환한다. 점수는 평점이다.
+     */
+    public List<ScoredMovie> ratingsOf(UUID userId) {
+        State current = current();
+        int user = denseIds.getUsers().idOf(userId);
+        if (user < 0) {
+            return List.of();
+        }
+        Row row = current.userRow(user);
+        List<ScoredMovie> ratings = new ArrayList<>(row.size());
+        for (int i = 0; i < row.size(); i++) {
+            ratings.add(new ScoredMovie(denseIds.getMovies().uuidOf(row.index(i)), row.rating(i)));
+        }
+        ratings.sort(Comparator.comparingDouble(ScoredMovie::getScore).reversed());
+        return ratings;
+    }
+    
+    /**
+     * 사용자가 minRating 이상을 준 영화를 평가한 이웃 사용자들이 minRating 이상을 준 영화를,
+     * 그렇게 평가한 이웃 수가 많은 순으로 반환한다. 사용자가 이미 평가한 영화는 제외한다.
+     * 방문 표시와 점수는 닿은 사용자/영화 수만큼만 커지는 희소 맵에 둔다.
+     */
+    public List<ScoredMovie> recommendFromNeighbours(UUID userId, int minRating, int limit) {
+        State current = current();
+        int user = denseIds.getUsers().idOf(userId);
+        if (user < 0 || limit <= 0) {
+            return List.of();
+        }
+        
+        Row mine = current.userRow(user);
+        IntIntHashMap isNeighbour = new IntIntHashMap();
+        int[] neighbours = new int[16];
+        int neighbourCount = 0;
+        for (int i = 0; i < mine.size(); i++) {
+            if (mine.rating(i) < minRating) {
+                continue;
+            }
+            Row column = current.movieColumn(mine.index(i));
+            for (int j = 0; j < column.size(); j++) {
+                int other = column.index(j);
+                if (other != user && isNeighbour.addTo(other, 1) == 1) {
+                    if (neighbourCount == neighbours.length) {
+                        neighbours = Arrays.copyOf(neighbours, neighbourCount * 2);
+                    }
+                    neighbours[neighbourCount++] = other;
+                }
+            }
+        }
+        
+        IntIntHashMap scores = new IntIntHashMap();
+        for (int n = 0; n < neighbourCount; n++) {
+            Row row = current.userRow(neighbours[n]);
+            for (int i = 0; i < row.size(); i++) {
+                int movie = row.index(i);
+                if (row.rating(i) >= minRating && !mine.contains(movie)) {
+                    scores.addTo(movie, 1);
+                }
+            }
+        }
+        
+        TopK top = new TopK(limit);
+        for (int slot = 0; slot < scores.capacity(); slot++) {
+            if (scores.keyAt(slot) >= 0) {
+                top.offer(scores.keyAt(slot), scores.valueAt(slot));
+            }
+        }
+        return top.drainToScoredMovies(denseIds.getMovies()::uuidOf);
+    }
+    
+    /**
+     * 주어진 이웃들이 minRating 이상을 준 영화를, 그렇게 평가한 이웃의 유사도 합이 큰 순으로 반환한다.
+     * 사용자가 이미 평가한 영화는 제외한다.
+     */
+    public List<ScoredMovie> recommendFromUsers(UUID userId, UserNeighbourIndex.Neighbours neighbours,
+                                                int minRating, int limit) {
+        State current = current();
+        int user = denseIds.getUsers().idOf(userId);
+        if (user < 0 || limit <= 0 || neighbours.isEmpty()) {
+            return List.of();
+        }
+        
+        // 영화마다 점수 칸 번호(+1)를 희소 맵에 두고 점수는 닿은 영화 수만큼의 배열에 더한다
+        Row mine = current.userRow(user);
+        IntIntHashMap slots = new IntIntHashMap();
+        int[] touched = new int[16];
+        double[] scores = new double[16];
+        int touchedCount = 0;
+        for (int n = 0; n < neighbours.size(); n++) {
+            Row row = current.userRow(neighbours.user(n));
+            for (int i = 0; i < row.size(); i++) {
+                int movie = row.index(i);
+                if (row.rating(i) < minRating || mine.contains(movie)) {
+                    continue;
+                }
+                int slot = slots.get(movie) - 1;
+                if (slot < 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                        scores = Arrays.copyOf(scores, touchedCount * 2);
+                    }
+                    slot = touchedCount++;
+                    touched[slot] = movie;
+                    slots.addTo(movie, slot + 1);
+                }
+                scores[slot] += neighbours.similarity(n);
+            }
+        }
+        
+        TopK top = new TopK(limit);
+        for (int i = 0; i < touchedCount; i++) {
+            top.offer(touched[i], scores[i]);
+        }
+        return top.drainToScoredMovies(denseIds.getMovies()::uuidOf);
+    }
+    
+    public int ratingCount() {
+        State current = slot.get();
+        return current == null ? 0 : current.ratingCount;
+    }
+    
+    @Override
+    public String getModelName() {
+        return "rating-matrix";
+    }
+    
+    @Override
+    public ModelSlot<?> getModelSlot() {
+        return slot;
+    }
+    
+    private State current() {
+        ensureLoaded();
+        return slot.get();
+    }
+    
+    private synchronized void apply(Consumer<State> change) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(change);
+        }
+        State current = slot.get();
+        if (current != null) {
+            change.accept(current);
+        }
+    }
+    
+    private synchronized boolean beginRebuild() {
+        if (changedDuringRebuild != null) {
+            return false; // 다른 재구성이 진행 중이다
+        }
+        changedDuringRebuild = new ArrayList<>();
+        return true;
+    }
+    
+    private synchronized void abortRebuild() {
+        changedDuringRebuild = null;
+        notifyAll();
+    }
+    
+    /**
+     * 재구성 중에 들어온 변경을 새 State 에 다시 적용하고 교체한다.
+     * 스캔이 이미 본 변경일 수도 있지만 평점 쓰기/지우기는 멱등이라 상관없다.
+     */
+    private synchronized void finishRebuild(State built, long buildMillis, boolean compaction) {
+        for (Consumer<State> change : changedDuringRebuild) {
+            change.accept(built);
+        }
+        changedDuringRebuild = null;
+        if (compaction) {
+            slot.amend(built, built.footprintBytes());
+        } else {
+            slot.publish(built, buildMillis, built.footprintBytes());
+        }
+        notifyAll();
+    }
+    
+    private void ensureLoaded() {
+        if (slot.get() == null) {
+            synchronized (this) {
+                while (slot.get() == null) {
+                    if (changedDuringRebuild == null) {
+                        rebuild();
+                    } else {
+                        awaitRebuild();
+                    }
+                }
+            }
+        }
+    }
+    
+    private void awaitRebuild() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("평점 행렬 로딩을 기다리다 중단되었습니다", e);
+        }
+    }
+    
+    /**
+     * 기본 CSR/CSC 와 그 위에 얹은 override 행/열. 기본 배열은 바뀌지 않고,
+     * override 는 쓰기 스레드 하나(RatingMatrix 모니터 아래)가 행 단위로 교체한다.
+     */
+    private static final class State {
+        
+        final Csr byUser;
+        final Csr byMovie;
+        final Map<Integer, Row> userOverrides = new ConcurrentHashMap<>();
+        final Map<Integer, Row> movieOverrides = new ConcurrentHashMap<>();
+        volatile int ratingCount;
+        
+        State(Csr byUser, Csr byMovie, int ratingCount) {
+            this.byUser = byUser;
+            this.byMovie = byMovie;
+            this.ratingCount = ratingCount;
+        }
+        
+        static State build(Coo coo, int userCount, int movieCount) {
+            Csr byMovie = coo.toCsc(userCount, movieCount);
+            Csr byUser = byMovie.transpose(userCount);
+            return new State(byUser, byUser.transpose(movieCount), coo.size);
+        }
+        
+        Row userRow(int user) {
+            Row override = userOverrides.get(user);
+            return override != null ? override : byUser.row(user);
+        }
+        
+        Row movieColumn(int movie) {
+            Row override = movieOverrides.get(movie);
+            return override != null ? override : byMovie.row(movie);
+        }
+        
+        int overrideCount() {
+            return userOverrides.size() + movieOverrides.size();
+        }
+        
+        /**
+         * 기본 배열 크기. override 는 압축 주기마다 비워지므로 세지 않는다.
+         */
+        long footprintBytes() {
+            return byUser.footprintBytes() + byMovie.footprintBytes();
+        }
+        
+        void putRating(int user, int movie, byte rating) {
+            int before = userRow(user).size();
+            userOverrides.put(user, userRow(user).with(movie, rating));
+            movieOverrides.put(movie, movieColumn(movie).with(user, rating));
+            ratingCount += userRow(user).size() - before;
+        }
+        
+        void removeRating(int user, int movie) {
+            int before = userRow(user).size();
+            userOverrides.put(user, userRow(user).without(movie));
+            movieOverrides.put(movie, movieColumn(movie).without(user));
+            ratingCount += userRow(user).size() - before;
+        }
+        
+        void removeMovie(int movie) {
+            Row column = movieColumn(movie);
+            for (int i = 0; i < column.size(); i++) {
+                int user = column.index(i);
+                userOverrides.put(user, userRow(user).without(movie));
+            }
+            movieOverrides.put(movie, Row.EMPTY);
+            ratingCount -= column.size();
+        }
+        
+        /**
+         * override 를 합친 새 State. 읽는 동안 이 State 에 쓰기가 들어와도 행 단위로는 일관되고,
+         * 그 변경은 호출한 쪽이 새 State 에 다시 적용한다.
+         */
+        State compact(int userCount, int movieCount) {
+            Coo coo = new Coo();
+            for (int user = 0; user < userCount; user++) {
+                Row row = userRow(user);
+                for (int i = 0; i < row.size(); i++) {
+                    coo.add(user, row.index(i), row.rating(i));
+                }
+            }
+            return build(coo, userCount, movieCount);
+        }
+    }
+    
+    /**
+     * 한 행(또는 열)의 정렬된 (index, rating) 목록. 기본 CSR/CSC 배열의 구간을 가리키거나
+     * 이벤트로 새로 만든 독립 배열을 가진다.
+     */
+    public static final class Row {
+        
+        static final Row EMPTY = new Row(new int[0], new byte[0], 0, 0);
+        
+        private final int[] idx;
+        private final byte[] val;
+        private final int from;
+        private final int to;
+        
+        Row(int[] idx, byte[] val, int from, int to) {
+            this.idx = idx;
+            this.val = val;
+            this.from = from;
+            this.to = to;
+        }
+        
+        public int size() {
+            return to - from;
+        }
+        
+        public int index(int i) {
+            return idx[from + i];
+        }
+        
+        public int rating(int i) {
+            return val[from + i];
+        }
+        
+        Row with(int key, byte rating) {
+            int pos = Arrays.binarySearch(idx, from, to, key);
+            if (pos >= 0) {
+                int[] newIdx = Arrays.copyOfRange(idx, from, to);
+                byte[] newVal = Arrays.copyOfRange(val, from, to);
+                newVal[pos - from] = rating;
+                return new Row(newIdx, newVal, 0, newIdx.length);
+            }
+            
+            int insert = -pos - 1 - from;
+            int size = size();
+            int[] newIdx = new int[size + 1];
+            byte[] newVal = new byte[size + 1];
+            System.arraycopy(idx, from, newIdx, 0, insert);
+            System.arraycopy(val, from, newVal, 0, insert);
+            newIdx[insert] = key;
+            newVal[insert] = rating;
+            System.arraycopy(idx, from + insert, newIdx, insert + 1, size - insert);
+            System.arraycopy(val, from + insert, newVal, insert + 1, size - insert);
+            return new Row(newIdx, newVal, 0, newIdx.length);
+        }
+        
+        boolean contains(int key) {
+            return Arrays.binarySearch(idx, from, to, key) >= 0;
+        }
+        
+        Row without(int key) {
+            int pos = Arrays.binarySearch(idx, from, to, key);
+            if (pos < 0) {
+                return this;
+            }
+            
+            int remove = pos - from;
+            int size = size();
+            int[] newIdx = new int[size - 1];
+            byte[] newVal = new byte[size - 1];
+            System.arraycopy(idx, from, newIdx, 0, remove);
+            System.arraycopy(val, from, newVal, 0, remove);
+            System.arraycopy(idx, pos + 1, newIdx, remove, size - remove - 1);
+            System.arraycopy(val, pos + 1, newVal, remove, size - remove - 1);
+            return new Row(newIdx, newVal, 0, newIdx.length);
+        }
+    }
+    
+    /**
+     * 압축 희소 행렬(행 기준). 열 기준(CSC)도 같은 구조를 전치해서 쓴다.
+     */
+    private static final class Csr {
+        
+        static final Csr EMPTY = new Csr(new int[]{0}, new int[0], new byte[0]);
+        
+        final int[] ptr;
+        final int[] idx;
+        final byte[] val;
+        
+        Csr(int[] ptr, int[] idx, byte[] val) {
+            this.ptr = ptr;
+            this.idx = idx;
+            this.val = val;
+        }
+        
+        int rows() {
+            return ptr.length - 1;
+        }
+        
+        long footprintBytes() {
+            return (long) ptr.length * Integer.BYTES + (long) idx.length * Integer.BYTES + val.length;
+        }
+        
+        Row row(int r) {
+            if (r >= rows()) {
+                return Row.EMPTY;
+            }
+            return new Row(idx, val, ptr[r], ptr[r + 1]);
+        }
+        
+        /**
+         * 카운팅 정렬로 전치한다. 행을 순서대로 훑으므로 결과의 각 행은 index 순으로 정렬된다.
+         */
+        Csr transpose(int columns) {
+            int[] newPtr = new int[columns + 1];
+            for (int i = 0; i < idx.length; i++) {
+                newPtr[idx[i] + 1]++;
+            }
+            for (int c = 0; c < columns; c++) {
+                newPtr[c + 1] += newPtr[c];
+            }
+            
+            int[] next = Arrays.copyOf(newPtr, columns);
+            int[] newIdx = new int[idx.length];
+            byte[] newVal = new byte[idx.length];
+            for (int r = 0; r < rows(); r++) {
+                for (int k = ptr[r]; k < ptr[r + 1]; k++) {
+                    int pos = next[idx[k]]++;
+                    newIdx[pos] = r;
+                    newVal[pos] = val[k];
+                }
+            }
+            return new Csr(newPtr, newIdx, newVal);
+        }
+    }
+    
+    /**
+     * 빌드 중에 (user, movie, rating) 을 모으는 좌표 목록.
+     */
+    private static final class Coo {
+        
+        int[] userIdx = new int[1024];
+        int[] movieIdx = new int[1024];
+        byte[] ratings = new byte[1024];
+        int size;
+        
+        void add(int user, int movie, int rating) {
+            if (size == userIdx.length) {
+                int capacity = size * 2;
+                userIdx = Arrays.copyOf(userIdx, capacity);
+                movieIdx = Arrays.copyOf(movieIdx, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+            }
+            userIdx[size] = user;
+            movieIdx[size] = movie;
+            ratings[size] = (byte) rating;
+            size++;
+        }
+        
+        /**
+         * 영화 기준으로 묶는다. 열 내부의 사용자 순서는 정렬되지 않으므로 두 번 전치해서 정렬한다.
+         */
+        Csr toCsc(int userCount, int movieCount) {
+            int[] ptr = new int[movieCount + 1];
+            for (int i = 0; i < size; i++) {
+                ptr[movieIdx[i] + 1]++;
+            }
+            for (int m = 0; m < movieCount; m++) {
+                ptr[m + 1] += ptr[m];
+            }
+            
+            int[] next = Arrays.copyOf(ptr, movieCount);
+            int[] idx = new int[size];
+            byte[] val = new byte[size];
+            for (int i = 0; i < size; i++) {
+                int pos = next[movieIdx[i]]++;
+                idx[pos] = userIdx[i];
+                val[pos] = ratings[i];
+            }
+            return new Csr(ptr, idx, val);
+        }
+    }
+}
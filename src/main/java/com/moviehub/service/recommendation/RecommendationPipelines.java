@@ -0,0 +1,176 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.service.recommendation.pipeline.CandidateFilter;
+import com.moviehub.service.recommendation.pipeline.PipelineMetrics;
+import com.moviehub.service.recommendation.pipeline.PipelineRequest;
+import com.moviehub.service.recommendation.pipeline.RecommendationPipeline;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * 추천 유형별 파이프라인 구성. 단계를 바꾸거나 추가할 때는 여기만 고친다.
+ */
+@Component
+public class RecommendationPipelines {
+    
+    private static final int LIKED_MIN_RATING = 7;
+    private static final int CONTENT_SEED_MOVIES = 5;
+    private static final int SOCIAL_NEIGHBOURS = 50;
+    private static final String DEFAULT_TIME_RANGE = "day";
+    
+    private final GenreIndex genreIndex;
+    private final MovieVectorIndex movieVectorIndex;
+    private final OverviewSimilarityIndex overviewSimilarityIndex;
+    private final ItemSimilarityIndex itemSimilarityIndex;
+    private final RatingMatrix ratingMatrix;
+    private final UserNeighbourIndex userNeighbourIndex;
+    private final SeenIndex seenIndex;
+    
+    @Getter
+    private final RecommendationPipeline contentBased;
+    @Getter
+    private final RecommendationPipeline alsoLiked;
+    @Getter
+    private final RecommendationPipeline social;
+    @Getter
+    private final RecommendationPipeline personalized;
+    @Getter
+    private final RecommendationPipeline userContent;
+    @Getter
+    private final RecommendationPipeline mood;
+    @Getter
+    private final RecommendationPipeline trending;
+    @Getter
+    private final RecommendationPipeline popular;
+    
+    public RecommendationPipelines(GenreIndex genreIndex,
+                                   MovieVectorIndex movieVectorIndex,
+                                   OverviewSimilarityIndex overviewSimilarityIndex,
+                                   ItemSimilarityIndex itemSimilarityIndex,
+                                   RatingMatrix ratingMatrix,
+                                   UserNeighbourIndex userNeighbourIndex,
+                                   MoodIndex moodIndex,
+                                   TrendingIndex trendingIndex,
+                                   MatrixFactorizationRecommender matrixFactorizationRecommender,
+                                   SeenIndex seenIndex,
+                                   PipelineMetrics metrics) {
+        this.genreIndex = genreIndex;
+        this.movieVectorIndex = movieVectorIndex;
+        this.overviewSimilarityIndex = overviewSimilarityIndex;
+        this.itemSimilarityIndex = itemSimilarityIndex;
+        this.ratingMatrix = ratingMatrix;
+        this.userNeighbourIndex = userNeighbourIndex;
+        this.seenIndex = seenIndex;
+        
+        CandidateFilter notAdult = request -> movieId -> !genreIndex.isAdult(movieId);
+        // 사용자가 없는 요청(영화 기준 추천 등)에서는 모두 통과한다
+        CandidateFilter notSeen = request -> seenIndex.notSeenBy(request.getUserId());
+        
+        this.contentBased = RecommendationPipeline.builder("content_based", metrics)
+                .generator("genre", request -> findGenreCandidates(request.getMovieId(), request.getCandidateLimit()))
+                .generator("overview_tfidf", request ->
+                        overviewSimilarityIndex.findSimilar(request.getMovieId(), request.getCandidateLimit()))
+                .generator("item_neighbours", request ->
+                        itemSimilarityIndex.findNeighbours(request.getMovieId(), request.getCandidateLimit()))
+                .filter("adult", notAdult)
+                .build();
+        
+        this.alsoLiked = RecommendationPipeline.builder("item_based", metrics)
+                .generator("item_neighbours", request ->
+                        itemSimilarityIndex.findNeighbours(request.getMovieId(), request.getCandidateLimit()))
+                .filter("adult", notAdult)
+                .build();
+        
+        this.social = RecommendationPipeline.builder("social_based", metrics)
+                .generator("user_neighbours", this::findNeighbourFavourites)
+                .filter("already_seen", notSeen)
+                .filter("adult", notAdult)
+                .build();
+        
+        this.personalized = RecommendationPipeline.builder("matrix_factorization", metrics)
+                .generator("als", request ->
+                        matrixFactorizationRecommender.recommend(request.getUserId(), request.getCandidateLimit()))
+                .filter("already_seen", notSeen)
+                .filter("adult", notAdult)
+                .build();
+        
+        this.userContent = RecommendationPipeline.builder("user_content_based", metrics)
+                .generator("liked_movie_neighbours", this::findLikedMovieNeighbours)
+                .filter("already_seen", notSeen)
+                .filter("adult", notAdult)
+                .build();
+        
+        this.mood = RecommendationPipeline.builder("mood_based", metrics)
+                .generator("mood_ranking", request ->
+                        moodIndex.page(request.getMood(), 0, request.getCandidateLimit()))
+                .filter("already_seen", notSeen)
+                .filter("adult", notAdult)
+                .build();
+        
+        this.trending = RecommendationPipeline.builder("trending", metrics)
+                .generator("decayed_activity", request -> trendingIndex.findTop(
+                        request.getTimeRange() != null ? request.getTimeRange() : DEFAULT_TIME_RANGE,
+                        request.getCandidateLimit()))
+                .filter("already_seen", notSeen)
+                .filter("adult", notAdult)
+                .build();
+        
+        this.popular = RecommendationPipeline.builder("popular", metrics)
+                .generator("popularity", request -> genreIndex.findMostPopular(request.getCandidateLimit()))
+                .filter("adult", notAdult)
+                .build();
+    }
+    
+    /**
+     * 파이프라인 밖에서 만든 목록(배치 사전 계산 등)을 내보내기 전에 거르는 조건.
+     * 파이프라인의 already_seen, adult 필터와 같다.
+     */
+    public Predicate<UUID> servableTo(UUID userId) {
+        return seenIndex.notSeenBy(userId).and(movieId -> !genreIndex.isAdult(movieId));
+    }
+    
+    /**
+     * 장르 후보. 대형 카탈로그는 HNSW, 그 외는 비트마스크 인덱스에서 찾는다.
+     */
+    private List<ScoredMovie> findGenreCandidates(UUID movieId, int limit) {
+        return movieVectorIndex.isPreferred()
+                ? movieVectorIndex.findSimilar(movieId, limit)
+                : genreIndex.findSimilar(movieId, limit);
+    }
+    
+    /**
+     * LSH 로 찾은 비슷한 사용자들이 좋아한 영화. 버킷이 겹치는 사용자가 없으면(취향이 드문 사용자)
+     * 같은 영화를 좋아한 사용자 전체를 잇는 정확한 방식으로 찾는다.
+     */
+    private List<ScoredMovie> findNeighbourFavourites(PipelineRequest request) {
+        UserNeighbourIndex.Neighbours neighbours =
+                userNeighbourIndex.findNeighbours(request.getUserId(), SOCIAL_NEIGHBOURS);
+        if (!neighbours.isEmpty()) {
+            return ratingMatrix.recommendFromUsers(request.getUserId(), neighbours, LIKED_MIN_RATING,
+                    request.getCandidateLimit());
+        }
+        return ratingMatrix.hasRatingsAtLeast(request.getUserId(), LIKED_MIN_RATING)
+                ? ratingMatrix.recommendFromNeighbours(request.getUserId(), LIKED_MIN_RATING,
+                        request.getCandidateLimit())
+                : List.of();
+    }
+    
+    /**
+     * 사용자가 높게 평가한 영화 몇 편을 씨앗으로 장르/줄거리/item-item 이웃을 모은다.
+     */
+    private List<ScoredMovie> findLikedMovieNeighbours(PipelineRequest request) {
+        List<ScoredMovie> candidates = new ArrayList<>();
+        ratingMatrix.ratingsOf(request.getUserId()).stream()
+                .filter(rating -> rating.getScore() >= LIKED_MIN_RATING)
+                .limit(CONTENT_SEED_MOVIES)
+                .forEach(seed -> {
+                    candidates.addAll(findGenreCandidates(seed.getMovieId(), request.getCandidateLimit()));
+                    candidates.addAll(overviewSimilarityIndex.findSimilar(seed.getMovieId(), request.getCandidateLimit()));
+                    candidates.addAll(itemSimilarityIndex.findNeighbours(seed.getMovieId(), request.getCandidateLimit()));
+                });
+        return candidates;
+    }
+}
@@ -0,0 +1,14 @@
+package com.moviehub.service.recommendation;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * 인메모리 추천 엔진이 돌려주는 (영화 ID, 점수) 쌍.
+ */
+@Value
+public class ScoredMovie {
+    UUID movieId;
+    double score;
+}
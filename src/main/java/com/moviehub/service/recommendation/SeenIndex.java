@@ -0,0 +1,228 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.event.FavoriteChangedEvent;
+import com.moviehub.event.ReviewChangedEvent;
+import com.moviehub.repository.FavoriteRepository;
+import com.moviehub.repository.ReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * 사용자별로 리뷰했거나 즐겨찾기한 영화의 비트맵. 모든 추천 파이프라인이 이미 본 영화를 빼는 데 쓴다.
+ * <p>
+ * 영화는 {@link DenseIds} 의 dense id 로, 사용자마다 리뷰/즐겨찾기 {@link CompactBitmap} 을 하나씩 둔다.
+ * 둘을 따로 두므로 리뷰한 영화의 즐겨찾기를 해제해도 계속 본 영화로 남는다.
+ * 쓰기는 해당 사용자의 비트맵만 새로 만들어 배열 칸을 교체하고, 읽기는 락 없이 칸을 읽는다.
+ * 재구성 중에 들어온 변경은 따로 모아 두었다가 새 배열에 다시 적용한 뒤 교체한다.
+ */
+@Component
+@Slf4j
+public class SeenIndex {
+
+    private static final Seen NONE = new Seen(CompactBitmap.EMPTY, CompactBitmap.EMPTY);
+    private static final Predicate<UUID> ALL = movieId -> true;
+
+    private final ReviewRepository reviewRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DenseIds denseIds;
+
+    private volatile Seen[] byUser = new Seen[0];
+    private volatile boolean loaded;
+    private List<Change> changedDuringRebuild; // 재구성 중 들어온 변경. this 로 동기화해서만 접근
+
+    public SeenIndex(ReviewRepository reviewRepository,
+                     FavoriteRepository favoriteRepository,
+                     TransactionTemplate transactionTemplate,
+                     DenseIds denseIds) {
+        this.reviewRepository = reviewRepository;
+        this.favoriteRepository = favoriteRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.denseIds = denseIds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${recommendation.seen.rebuild-cron:0 45 4 * * *}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            if (changedDuringRebuild != null) {
+                return; // 다른 재구성이 진행 중이다
+            }
+            changedDuringRebuild = new ArrayList<>();
+        }
+        UserMoviePairs reviewed = new UserMoviePairs();
+        UserMoviePairs favorited = new UserMoviePairs();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = reviewRepository.streamAllRatingTriples()) {
+                    rows.forEach(row -> reviewed.add(userId(row[0]), movieId(row[1])));
+                }
+                try (Stream<Object[]> rows = favoriteRepository.streamAllFavoritePairs()) {
+                    rows.forEach(row -> favorited.add(userId(row[0]), movieId(row[1])));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringRebuild = null;
+                notifyAll();
+            }
+            throw e;
+        }
+
+        int userCount = denseIds.getUsers().size();
+        CompactBitmap[] reviewedBitmaps = reviewed.toBitmaps(userCount);
+        CompactBitmap[] favoritedBitmaps = favorited.toBitmaps(userCount);
+        Seen[] built = new Seen[userCount];
+        long bytes = 0;
+        for (int user = 0; user < userCount; user++) {
+            built[user] = new Seen(reviewedBitmaps[user], favoritedBitmaps[user]);
+            bytes += reviewedBitmaps[user].sizeInBytes() + favoritedBitmaps[user].sizeInBytes();
+        }
+
+        synchronized (this) {
+            // 스캔 도중 커밋된 변경은 스캔 결과에 있을 수도 없을 수도 있다. with/without 은 멱등이므로 다시 적용한다
+            for (Change change : changedDuringRebuild) {
+                built = apply(built, change.user, change.operator);
+            }
+            changedDuringRebuild = null;
+            byUser = built;
+            loaded = true;
+            notifyAll();
+        }
+        log.info("Seen index built: {} users, {} reviews, {} favorites, ~{} KB in {} ms",
+                userCount, reviewed.size(), favorited.size(), bytes / 1024, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (event.getType() == ReviewChangedEvent.ChangeType.UPDATED) {
+            return;
+        }
+        int user = denseIds.getUsers().getOrAdd(event.getUserId());
+        int movie = denseIds.getMovies().getOrAdd(event.getMovieId());
+        update(user, seen -> new Seen(event.isDeleted() ? seen.reviewed.without(movie) : seen.reviewed.with(movie),
+                seen.favorited));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        int user = denseIds.getUsers().getOrAdd(event.getUserId());
+        int movie = denseIds.getMovies().getOrAdd(event.getMovieId());
+        update(user, seen -> new Seen(seen.reviewed,
+                event.isAdded() ? seen.favorited.with(movie) : seen.favorited.without(movie)));
+    }
+
+    /**
+     * 사용자가 리뷰하지도 즐겨찾기하지도 않은 영화에 true 인 조건. 사용자가 없으면 모두 통과시킨다.
+     * 조건은 호출 시점의 비트맵을 붙잡으므로 요청 하나 안에서는 결과가 바뀌지 않는다.
+     */
+    public Predicate<UUID> notSeenBy(UUID userId) {
+        if (userId == null) {
+            return ALL;
+        }
+        ensureLoaded();
+        Seen seen = seenOf(denseIds.getUsers().idOf(userId));
+        if (seen.isEmpty()) {
+            return ALL;
+        }
+        DenseIdDictionary movies = denseIds.getMovies();
+        return movieId -> !seen.contains(movies.idOf(movieId));
+    }
+
+    private Seen seenOf(int user) {
+        Seen[] current = byUser;
+        return user >= 0 && user < current.length && current[user] != null ? current[user] : NONE;
+    }
+
+    private synchronized void update(int user, UnaryOperator<Seen> change) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(new Change(user, change));
+        }
+        if (loaded) {
+            byUser = apply(byUser, user, change); // volatile 쓰기로 칸 교체를 읽는 쪽에 공개한다
+        }
+    }
+
+    private static Seen[] apply(Seen[] current, int user, UnaryOperator<Seen> change) {
+        if (user >= current.length) {
+            current = Arrays.copyOf(current, Math.max(user + 1, current.length * 2));
+        }
+        current[user] = change.apply(current[user] != null ? current[user] : NONE);
+        return current;
+    }
+
+    private int userId(Object value) {
+        return denseIds.getUsers().getOrAdd((UUID) value);
+    }
+
+    private int movieId(Object value) {
+        return denseIds.getMovies().getOrAdd((UUID) value);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                while (!loaded) {
+                    if (changedDuringRebuild == null) {
+                        rebuild();
+                    } else {
+                        awaitRebuild();
+                    }
+                }
+            }
+        }
+    }
+
+    private void awaitRebuild() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("본 영화 인덱스 로딩을 기다리다 중단되었습니다", e);
+        }
+    }
+
+    private static final class Change {
+
+        final int user;
+        final UnaryOperator<Seen> operator;
+
+        Change(int user, UnaryOperator<Seen> operator) {
+            this.user = user;
+            this.operator = operator;
+        }
+    }
+
+    private static final class Seen {
+
+        final CompactBitmap reviewed;
+        final CompactBitmap favorited;
+
+        Seen(CompactBitmap reviewed, CompactBitmap favorited) {
+            this.reviewed = reviewed;
+            this.favorited = favorited;
+        }
+
+        boolean contains(int movie) {
+            return reviewed.contains(movie) || favorited.contains(movie);
+        }
+
+        boolean isEmpty() {
+            return reviewed.isEmpty() && favorited.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.moviehub.service.recommendation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+/**
+ * 점수 상위 k 개의 int id 를 고르는 primitive 최소 힙.
+ * <p>
+ * 전체 정렬 대신 O(n log k) 로 고르며 박싱이 없다. 순서는 점수 내림차순, 같으면 보조 점수
+ * 내림차순, 그래도 같으면 id 오름차순이라 결과가 항상 결정적이다. 재사용하려면 {@link #clear()} 한다.
+ * 스레드 안전하지 않다.
+ */
+public final class TopK {
+    
+    private final int capacity;
+    private final int[] ids;
+    private final double[] scores;
+    private final double[] ties;
+    private int size;
+    
+    public TopK(int k) {
+        this.capacity = Math.max(0, k);
+        this.ids = new int[capacity];
+        this.scores = new double[capacity];
+        this.ties = new double[capacity];
+    }
+    
+    public void offer(int id, double score) {
+        offer(id, score, 0.0);
+    }
+    
+    public void offer(int id, double score, double tieBreak) {
+        if (size < capacity) {
+            ids[size] = id;
+            scores[size] = score;
+            ties[size] = tieBreak;
+            siftUp(size++);
+        } else if (capacity > 0 && isWorse(ids[0], scores[0], ties[0], id, score, tieBreak)) {
+            ids[0] = id;
+            scores[0] = score;
+            ties[0] = tieBreak;
+            siftDown(0);
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public void clear() {
+        size = 0;
+    }
+    
+    /**
+     * 좋은 순으로 id 와 점수를 채우고 비운다. scoresOut 은 null 이어도 된다. 꺼낸 개수를 반환한다.
+     */
+    public int drain(int[] idsOut, double[] scoresOut) {
+        int count = size;
+        for (int i = count - 1; i >= 0; i--) {
+            idsOut[i] = ids[0];
+            if (scoresOut != null) {
+                scoresOut[i] = scores[0];
+            }
+            removeRoot();
+        }
+        return count;
+    }
+    
+    /**
+     * 좋은 순으로 ScoredMovie 목록을 만들고 비운다. 점수는 offer 에 준 주 점수다.
+     */
+    public List<ScoredMovie> drainToScoredMovies(IntFunction<UUID> movieIds) {
+        int[] topIds = new int[size];
+        double[] topScores = new double[size];
+        int count = drain(topIds, topScores);
+        ScoredMovie[] result = new ScoredMovie[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new ScoredMovie(movieIds.apply(topIds[i]), topScores[i]);
+        }
+        return Arrays.asList(result);
+    }
+    
+    private void removeRoot() {
+        size--;
+        if (size > 0) {
+            ids[0] = ids[size];
+            scores[0] = scores[size];
+            ties[0] = ties[size];
+            siftDown(0);
+        }
+    }
+    
+    private void siftUp(int index) {
+        int id = ids[index];
+        double score = scores[index];
+        double tie = ties[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isWorse(id, score, tie, ids[parent], scores[parent], ties[parent])) {
+                break;
+            }
+            move(parent, index);
+            index = parent;
+        }
+        ids[index] = id;
+        scores[index] = score;
+        ties[index] = tie;
+    }
+    
+    private void siftDown(int index) {
+        int id = ids[index];
+        double score = scores[index];
+        double tie = ties[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && isWorse(ids[right], scores[right], ties[right], ids[child], scores[child], ties[child])) {
+                child = right;
+            }
+            if (!isWorse(ids[child], scores[child], ties[child], id, score, tie)) {
+                break;
+            }
+            move(child, index);
+            index = child;
+        }
+        ids[index] = id;
+        scores[index] = score;
+        ties[index] = tie;
+    }
+    
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        scores[to] = scores[from];
+        ties[to] = ties[from];
+    }
+    
+    /**
+     * a 가 b 보다 순위가 낮은지 (힙의 루트에는 가장 낮은 항목이 온다).
+     */
+    private static boolean isWorse(int idA, double scoreA, double tieA, int idB, double scoreB, double tieB) {
+        if (scoreA != scoreB) {
+            return scoreA < scoreB;
+        }
+        if (tieA != tieB) {
+            return tieA < tieB;
+        }
+        return idA > idB;
+    }
+}
@@ -0,0 +1,361 @@
+package com.moviehub.service.recommendation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviehub.entity.Trend;
+import com.moviehub.event.FavoriteChangedEvent;
+import com.moviehub.event.ReviewChangedEvent;
+import com.moviehub.event.TrendRecordedEvent;
+import com.moviehub.repository.FavoriteRepository;
+import com.moviehub.repository.MovieRepository;
+import com.moviehub.repository.ReviewRepository;
+import com.moviehub.repository.TrendRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 시간 감쇠 카운터로 계산하는 트렌딩 순위.
+ * <p>
+ * 리뷰 작성, 즐겨찾기 추가, TMDb 트렌드 기록을 영화별 지수 감쇠 카운터에 더한다. 시간 범위(day/week/month)마다
+ * 반감기가 다른 카운터를 따로 두고, 각각 상위 N 개를 정렬된 배열로 유지한다.
+ * 카운터는 기준 시각 대비 exp(λ·(t − 기준)) 로 키워서 더하므로 모든 영화가 같은 비율로 감쇠하고,
+ * 이벤트가 오면 해당 영화 하나의 값만 커진다. 그래서 상위 N 은 이벤트마다 삽입 한 번으로 정확히 유지되고
+ * 조회는 배열 복사뿐이다. 지수가 너무 커지면 기준 시각을 옮겨 전체를 한 번 줄인다.
+ */
+@Component
+@Slf4j
+public class TrendingIndex {
+
+    private static final double MAX_EXPONENT = 500.0;
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+    private static final int HISTORY_HALF_LIVES = 10;
+
+    private final ReviewRepository reviewRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final TrendRepository trendRepository;
+    private final MovieRepository movieRepository;
+    private final ObjectMapper objectMapper;
+    private final DenseIds denseIds;
+    private final Map<String, Double> halfLifeHours;
+    private final double reviewWeight;
+    private final double favoriteWeight;
+    private final double trendWeight;
+    private final int topSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Profile> profiles = Map.of();
+    private long anchorMillis;
+    private volatile boolean loaded;
+    private List<Activity> recordedDuringRebuild; // 재구성 중 들어온 활동. this 로 동기화해서만 접근
+
+    public TrendingIndex(ReviewRepository reviewRepository,
+                         FavoriteRepository favoriteRepository,
+                         TrendRepository trendRepository,
+                         MovieRepository movieRepository,
+                         ObjectMapper objectMapper,
+                         DenseIds denseIds,
+                         @Value("${recommendation.trending.half-life-hours.day:6}") double dayHalfLife,
+                         @Value("${recommendation.trending.half-life-hours.week:36}") double weekHalfLife,
+                         @Value("${recommendation.trending.half-life-hours.month:168}") double monthHalfLife,
+                         @Value("${recommendation.trending.weights.review:1.0}") double reviewWeight,
+                         @Value("${recommendation.trending.weights.favorite:2.0}") double favoriteWeight,
+                         @Value("${recommendation.trending.weights.trend:5.0}") double trendWeight,
+                         @Value("${recommendation.trending.top-size:200}") int topSize) {
+        this.reviewRepository = reviewRepository;
+        this.favoriteRepository = favoriteRepository;
+        this.trendRepository = trendRepository;
+        this.movieRepository = movieRepository;
+        this.objectMapper = objectMapper;
+        this.denseIds = denseIds;
+        Map<String, Double> halfLives = new LinkedHashMap<>();
+        halfLives.put("day", dayHalfLife);
+        halfLives.put("week", weekHalfLife);
+        halfLives.put("month", monthHalfLife);
+        this.halfLifeHours = Collections.unmodifiableMap(halfLives);
+        this.reviewWeight = reviewWeight;
+        this.favoriteWeight = favoriteWeight;
+        this.trendWeight = trendWeight;
+        this.topSize = topSize;
+    }
+
+    /**
+     * 가장 긴 반감기의 몇 배만큼 지난 활동을 DB 에서 다시 읽어 카운터를 만든다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${recommendation.trending.rebuild-cron:0 15 4 * * *}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            if (recordedDuringRebuild != null) {
+                return; // 다른 재구성이 진행 중이다
+            }
+            recordedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            rebuildFrom(start);
+        } finally {
+            synchronized (this) {
+                recordedDuringRebuild = null;
+                notifyAll();
+            }
+        }
+    }
+
+    private void rebuildFrom(long start) {
+        double longestHalfLife = Collections.max(halfLifeHours.values());
+        LocalDateTime since = LocalDateTime.now().minusHours((long) Math.ceil(longestHalfLife * HISTORY_HALF_LIVES));
+
+        List<Object[]> reviews = reviewRepository.findMovieActivitySince(since);
+        List<Object[]> favorites = favoriteRepository.findMovieActivitySince(since);
+        List<Trend> trends = trendRepository.findRecentTrends(since);
+        Map<Integer, UUID> tmdbMovies = new HashMap<>();
+        Set<Integer> tmdbIds = new HashSet<>();
+        for (Trend trend : trends) {
+            Integer tmdbId = tmdbIdOf(trend);
+            if (tmdbId != null) {
+                tmdbIds.add(tmdbId);
+            }
+        }
+        if (!tmdbIds.isEmpty()) {
+            for (Object[] row : movieRepository.findIdsByTmdbIds(tmdbIds)) {
+                tmdbMovies.put((Integer) row[0], (UUID) row[1]);
+            }
+        }
+
+        // 활동 이벤트(recordNow)와 같은 순서로 this → 쓰기 락을 잡는다
+        synchronized (this) {
+            lock.writeLock().lock();
+            try {
+                profiles = new LinkedHashMap<>();
+                halfLifeHours.forEach((range, hours) -> profiles.put(range, new Profile(hours, topSize)));
+                anchorMillis = start;
+
+                for (Object[] row : reviews) {
+                    record((UUID) row[0], reviewWeight, toMillis((LocalDateTime) row[1]));
+                }
+                for (Object[] row : favorites) {
+                    record((UUID) row[0], favoriteWeight, toMillis((LocalDateTime) row[1]));
+                }
+                for (Trend trend : trends) {
+                    UUID movieId = tmdbMovies.get(tmdbIdOf(trend));
+                    if (movieId != null) {
+                        record(movieId, trendWeight, toMillis(trend.getCreatedAt()));
+                    }
+                }
+                // 조회하는 동안 들어온 활동은 조회 결과에 없을 수 있으므로 다시 더한다.
+                // 커밋 직후 리스너가 돌기 전의 아주 짧은 틈에 든 활동은 두 번 셀 수 있지만 순위에는 무시할 만하다
+                for (Activity activity : recordedDuringRebuild) {
+                    record(activity.movieId, activity.weight, activity.atMillis);
+                }
+                recordedDuringRebuild.clear();
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        log.info("Trending index built: {} reviews, {} favorites, {} trends in {} ms",
+                reviews.size(), favorites.size(), trends.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (event.getType() == ReviewChangedEvent.ChangeType.CREATED) {
+            recordNow(event.getMovieId(), reviewWeight);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        if (event.isAdded()) {
+            recordNow(event.getMovieId(), favoriteWeight);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrendRecorded(TrendRecordedEvent event) {
+        Integer tmdbId = tmdbIdOf(event.getTrend());
+        if (tmdbId != null) {
+            movieRepository.findByTmdbId(tmdbId).ifPresent(movie -> recordNow(movie.getId(), trendWeight));
+        }
+    }
+
+    public boolean supports(String timeRange) {
+        return timeRange != null && halfLifeHours.containsKey(timeRange.toLowerCase());
+    }
+
+    /**
+     * 현재 시각 기준 감쇠된 활동량 순 상위 limit 개. 점수는 감쇠된 가중 이벤트 수다.
+     */
+    public List<ScoredMovie> findTop(String timeRange, int limit) {
+        if (!supports(timeRange)) {
+            throw new IllegalArgumentException("지원하지 않는 시간 범위입니다: " + timeRange);
+        }
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            Profile profile = profiles.get(timeRange.toLowerCase());
+            double decay = Math.exp(-profile.lambda * (System.currentTimeMillis() - anchorMillis));
+            int count = Math.min(Math.max(limit, 0), profile.topCount);
+            ScoredMovie[] result = new ScoredMovie[count];
+            for (int i = 0; i < count; i++) {
+                int movie = profile.top[i];
+                result[i] = new ScoredMovie(denseIds.getMovies().uuidOf(movie), profile.scores[movie] * decay);
+            }
+            return Arrays.asList(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void record(UUID movieId, double weight, long atMillis) {
+        lock.writeLock().lock();
+        try {
+            int movie = denseIds.getMovies().getOrAdd(movieId);
+            for (Profile profile : profiles.values()) {
+                if (profile.lambda * (atMillis - anchorMillis) > MAX_EXPONENT) {
+                    reanchor(atMillis);
+                    break;
+                }
+            }
+            for (Profile profile : profiles.values()) {
+                profile.add(movie, weight * Math.exp(profile.lambda * (atMillis - anchorMillis)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private synchronized void recordNow(UUID movieId, double weight) {
+        long now = System.currentTimeMillis();
+        if (recordedDuringRebuild != null) {
+            recordedDuringRebuild.add(new Activity(movieId, weight, now));
+        }
+        if (loaded) {
+            record(movieId, weight, now);
+        }
+    }
+
+    private void reanchor(long atMillis) {
+        for (Profile profile : profiles.values()) {
+            profile.scale(Math.exp(-profile.lambda * (atMillis - anchorMillis)));
+        }
+        anchorMillis = atMillis;
+    }
+
+    private Integer tmdbIdOf(Trend trend) {
+        if (trend.getMetadata() == null || trend.getMetadata().isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode movieId = objectMapper.readTree(trend.getMetadata()).get("movie_id");
+            return movieId != null && movieId.canConvertToInt() ? movieId.intValue() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? System.currentTimeMillis() : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                while (!loaded) {
+                    if (recordedDuringRebuild == null) {
+                        rebuild();
+                    } else {
+                        awaitRebuild();
+                    }
+                }
+            }
+        }
+    }
+
+    private void awaitRebuild() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("트렌딩 인덱스 로딩을 기다리다 중단되었습니다", e);
+        }
+    }
+
+    private static final class Activity {
+
+        final UUID movieId;
+        final double weight;
+        final long atMillis;
+
+        Activity(UUID movieId, double weight, long atMillis) {
+            this.movieId = movieId;
+            this.weight = weight;
+            this.atMillis = atMillis;
+        }
+    }
+
+    /**
+     * 반감기 하나의 카운터와 상위 N 배열. 점수는 기준 시각 값으로 키운 상태로 보관한다.
+     */
+    private static final class Profile {
+
+        final double lambda;
+        double[] scores = new double[1024];
+        final int[] top;
+        int topCount;
+
+        Profile(double halfLifeHours, int topSize) {
+            this.lambda = Math.log(2) / (halfLifeHours * MILLIS_PER_HOUR);
+            this.top = new int[Math.max(1, topSize)];
+        }
+
+        void add(int movie, double delta) {
+            if (movie >= scores.length) {
+                scores = Arrays.copyOf(scores, Math.max(movie + 1, scores.length * 2));
+            }
+            scores[movie] += delta;
+
+            // 점수는 커지기만 하므로 해당 영화 자리에서 앞으로만 옮기면 된다
+            int position = -1;
+            for (int i = 0; i < topCount; i++) {
+                if (top[i] == movie) {
+                    position = i;
+                    break;
+                }
+            }
+            if (position < 0) {
+                if (topCount < top.length) {
+                    position = topCount++;
+                } else if (scores[movie] > scores[top[topCount - 1]]) {
+                    position = topCount - 1;
+                } else {
+                    return;
+                }
+                top[position] = movie;
+            }
+            while (position > 0 && scores[top[position - 1]] < scores[movie]) {
+                top[position] = top[position - 1];
+                position--;
+            }
+            top[position] = movie;
+        }
+
+        void scale(double factor) {
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] *= factor;
+            }
+        }
+    }
+}
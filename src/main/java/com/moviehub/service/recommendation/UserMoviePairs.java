@@ -0,0 +1,50 @@
+package com.moviehub.service.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * 인덱스 빌드 중에 모으는 dense id (사용자, 영화) 쌍. 다 모은 뒤 사용자별 비트맵으로 묶는다.
+ */
+final class UserMoviePairs {
+
+    private int[] users = new int[1024];
+    private int[] movies = new int[1024];
+    private int size;
+
+    void add(int user, int movie) {
+        if (size == users.length) {
+            users = Arrays.copyOf(users, size * 2);
+            movies = Arrays.copyOf(movies, size * 2);
+        }
+        users[size] = user;
+        movies[size] = movie;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    CompactBitmap[] toBitmaps(int userCount) {
+        int[] ptr = new int[userCount + 1];
+        for (int i = 0; i < size; i++) {
+            ptr[users[i] + 1]++;
+        }
+        for (int user = 0; user < userCount; user++) {
+            ptr[user + 1] += ptr[user];
+        }
+        int[] next = Arrays.copyOf(ptr, userCount);
+        int[] grouped = new int[size];
+        for (int i = 0; i < size; i++) {
+            grouped[next[users[i]]++] = movies[i];
+        }
+
+        CompactBitmap[] bitmaps = new CompactBitmap[userCount];
+        for (int user = 0; user < userCount; user++) {
+            bitmaps[user] = ptr[user] == ptr[user + 1] ? CompactBitmap.EMPTY
+                    : CompactBitmap.of(Arrays.copyOfRange(grouped, ptr[user], ptr[user + 1]),
+                            ptr[user + 1] - ptr[user]);
+        }
+        return bitmaps;
+    }
+}
@@ -0,0 +1,396 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.event.ReviewChangedEvent;
+import com.moviehub.repository.ReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 좋아한 영화 집합이 비슷한 사용자를 찾는 MinHash LSH 인덱스.
+ * <p>
+ * 사용자마다 minRating 이상으로 평가한 영화 집합의 MinHash 서명(bands × rowsPerBand 개)을 두고,
+ * 서명을 band 단위로 해시한 버킷에 사용자를 넣는다. 이웃 후보는 같은 버킷에 한 번이라도 들어간 사용자뿐이라
+ * 인기 영화를 함께 본 사용자 전체를 훑지 않는다. 후보의 유사도는 서명이 일치하는 비율(Jaccard 추정치)이다.
+ * <p>
+ * 좋아요가 늘면 서명의 각 칸을 최솟값으로 갱신하고, 줄면 그 사용자의 영화 집합에서 서명을 다시 계산한다.
+ * 서명이 바뀐 band 의 버킷만 옮긴다. 후보는 maxCandidates 명까지만 보므로 아주 큰 버킷은 먼저 들어온
+ * 사용자 쪽으로 치우친다.
+ */
+@Component
+@Slf4j
+public class UserNeighbourIndex {
+
+    private static final long SEED = 42L;
+
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DenseIds denseIds;
+    private final int minRating;
+    private final int bands;
+    private final int rowsPerBand;
+    private final int hashCount;
+    private final int maxCandidates;
+    private final long[] multipliers;
+    private final long[] offsets;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    private volatile boolean loaded;
+    private List<Consumer<State>> changedDuringRebuild; // 재구성 중 들어온 변경. this 로 동기화해서만 접근
+
+    public UserNeighbourIndex(ReviewRepository reviewRepository,
+                              TransactionTemplate transactionTemplate,
+                              DenseIds denseIds,
+                              @Value("${recommendation.user-neighbours.min-rating:7}") int minRating,
+                              @Value("${recommendation.user-neighbours.bands:32}") int bands,
+                              @Value("${recommendation.user-neighbours.rows-per-band:2}") int rowsPerBand,
+                              @Value("${recommendation.user-neighbours.max-candidates:2000}") int maxCandidates) {
+        this.reviewRepository = reviewRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.denseIds = denseIds;
+        this.minRating = minRating;
+        this.bands = bands;
+        this.rowsPerBand = rowsPerBand;
+        this.hashCount = bands * rowsPerBand;
+        this.maxCandidates = maxCandidates;
+
+        Random random = new Random(SEED);
+        this.multipliers = new long[hashCount];
+        this.offsets = new long[hashCount];
+        for (int h = 0; h < hashCount; h++) {
+            multipliers[h] = random.nextLong() | 1L;
+            offsets[h] = random.nextLong();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${recommendation.user-neighbours.rebuild-cron:0 50 4 * * *}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        if (!beginRebuild()) {
+            return;
+        }
+
+        UserMoviePairs pairs = new UserMoviePairs();
+        State built = new State();
+        int userCount;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = reviewRepository.streamLikedPairs(minRating)) {
+                    rows.forEach(row -> pairs.add(denseIds.getUsers().getOrAdd((UUID) row[0]),
+                            denseIds.getMovies().getOrAdd((UUID) row[1])));
+                }
+            });
+
+            userCount = denseIds.getUsers().size();
+            built.ensureCapacity(userCount);
+            CompactBitmap[] liked = pairs.toBitmaps(userCount);
+            for (int user = 0; user < userCount; user++) {
+                built.liked[user] = liked[user];
+                built.setSignature(user, signatureOf(liked[user]));
+            }
+        } catch (RuntimeException e) {
+            abortRebuild();
+            throw e;
+        }
+
+        finishRebuild(built);
+        log.info("User neighbour index built: {} users, {} likes, {} buckets in {} ms",
+                userCount, pairs.size(), built.buckets.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        boolean wasLiked = event.getPreviousRating() != null && event.getPreviousRating() >= minRating;
+        boolean isLiked = event.getRating() != null && event.getRating() >= minRating;
+        if (wasLiked == isLiked) {
+            return;
+        }
+
+        int user = denseIds.getUsers().getOrAdd(event.getUserId());
+        int movie = denseIds.getMovies().getOrAdd(event.getMovieId());
+        apply(state -> state.setLiked(user, movie, isLiked));
+    }
+
+    /**
+     * 좋아한 영화 집합이 가장 비슷한 사용자 최대 limit 명을 추정 Jaccard 유사도 순으로 반환한다.
+     * 좋아한 영화가 없거나 같은 버킷에 든 사용자가 없으면 비어 있다.
+     */
+    public Neighbours findNeighbours(UUID userId, int limit) {
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            int user = denseIds.getUsers().idOf(userId);
+            if (user < 0 || user >= state.liked.length || state.liked[user].isEmpty() || limit <= 0) {
+                return Neighbours.EMPTY;
+            }
+
+            int base = user * hashCount;
+            IntIntHashMap visited = new IntIntHashMap(64);
+            TopK top = new TopK(limit);
+            int examined = 0;
+            for (int band = 0; band < bands && examined < maxCandidates; band++) {
+                Bucket bucket = state.buckets.get(bandKey(state.signatures, base, band));
+                for (int i = 0; bucket != null && i < bucket.size && examined < maxCandidates; i++) {
+                    int other = bucket.users[i];
+                    if (other == user || visited.addTo(other, 1) > 1) {
+                        continue;
+                    }
+                    examined++;
+                    top.offer(other, similarity(state.signatures, base, other * hashCount));
+                }
+            }
+
+            int[] users = new int[top.size()];
+            double[] similarities = new double[top.size()];
+            int count = top.drain(users, similarities);
+            return new Neighbours(users, similarities, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double similarity(int[] signatures, int a, int b) {
+        int agreements = 0;
+        for (int h = 0; h < hashCount; h++) {
+            if (signatures[a + h] == signatures[b + h]) {
+                agreements++;
+            }
+        }
+        return (double) agreements / hashCount;
+    }
+
+    private int[] signatureOf(CompactBitmap movies) {
+        int[] signature = new int[hashCount];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int movie : movies.toArray()) {
+            for (int h = 0; h < hashCount; h++) {
+                signature[h] = Math.min(signature[h], hash(h, movie));
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * multiply-shift 해시. 상위 30비트만 써서 빈 서명 표시인 Integer.MAX_VALUE 와 겹치지 않는다.
+     */
+    private int hash(int h, int movie) {
+        return (int) ((multipliers[h] * movie + offsets[h]) >>> 34);
+    }
+
+    private long bandKey(int[] signatures, int base, int band) {
+        int key = band;
+        for (int r = 0; r < rowsPerBand; r++) {
+            key = key * 0x9E3779B1 + signatures[base + band * rowsPerBand + r];
+        }
+        return ((long) band << 32) | (key & 0xFFFFFFFFL);
+    }
+
+    private synchronized void apply(Consumer<State> change) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(change);
+        }
+        if (loaded) {
+            lock.writeLock().lock();
+            try {
+                change.accept(state);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private synchronized boolean beginRebuild() {
+        if (changedDuringRebuild != null) {
+            return false; // 다른 재구성이 진행 중이다
+        }
+        changedDuringRebuild = new ArrayList<>();
+        return true;
+    }
+
+    private synchronized void abortRebuild() {
+        changedDuringRebuild = null;
+        notifyAll();
+    }
+
+    /**
+     * 스캔 중에 들어온 좋아요 변경을 새 상태에 다시 적용하고 교체한다. with/without 이라 멱등이다.
+     */
+    private synchronized void finishRebuild(State built) {
+        for (Consumer<State> change : changedDuringRebuild) {
+            change.accept(built);
+        }
+        changedDuringRebuild = null;
+        lock.writeLock().lock();
+        try {
+            state = built;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        notifyAll();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                while (!loaded) {
+                    if (changedDuringRebuild == null) {
+                        rebuild();
+                    } else {
+                        awaitRebuild();
+                    }
+                }
+            }
+        }
+    }
+
+    private void awaitRebuild() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("사용자 이웃 인덱스 로딩을 기다리다 중단되었습니다", e);
+        }
+    }
+
+    /**
+     * 쓰기 락 안에서만 바꾸는 인덱스 상태(재구성 중인 새 상태는 만드는 스레드만 본다). 서명은 사용자 순서대로 이어 붙인 한 배열에 둔다.
+     */
+    private final class State {
+
+        CompactBitmap[] liked = new CompactBitmap[0];
+        int[] signatures = new int[0];
+        final Map<Long, Bucket> buckets = new HashMap<>();
+
+        void setLiked(int user, int movie, boolean isLiked) {
+            ensureCapacity(user + 1);
+            CompactBitmap before = liked[user];
+            CompactBitmap after = isLiked ? before.with(movie) : before.without(movie);
+            if (after == before) {
+                return;
+            }
+            liked[user] = after;
+            if (isLiked) {
+                // 원소가 늘면 각 칸의 최솟값만 새 영화와 비교하면 된다
+                int[] signature = Arrays.copyOfRange(signatures, user * hashCount, (user + 1) * hashCount);
+                for (int h = 0; h < hashCount; h++) {
+                    signature[h] = Math.min(signature[h], hash(h, movie));
+                }
+                setSignature(user, signature);
+            } else {
+                setSignature(user, signatureOf(after));
+            }
+        }
+
+        void ensureCapacity(int userCount) {
+            if (userCount <= liked.length) {
+                return;
+            }
+            int capacity = Math.max(userCount, liked.length * 2);
+            int oldLength = liked.length;
+            liked = Arrays.copyOf(liked, capacity);
+            Arrays.fill(liked, oldLength, capacity, CompactBitmap.EMPTY);
+            signatures = Arrays.copyOf(signatures, capacity * hashCount);
+            Arrays.fill(signatures, oldLength * hashCount, signatures.length, Integer.MAX_VALUE);
+        }
+
+        /**
+         * 서명을 바꾸고 band 키가 달라진 버킷만 옮긴다. 좋아한 영화가 없는 사용자는 어느 버킷에도 두지 않는다.
+         */
+        void setSignature(int user, int[] signature) {
+            int base = user * hashCount;
+            boolean wasIndexed = signatures[base] != Integer.MAX_VALUE;
+            boolean indexed = !liked[user].isEmpty();
+            for (int band = 0; band < bands; band++) {
+                long oldKey = bandKey(signatures, base, band);
+                long newKey = bandKey(signature, 0, band);
+                if (wasIndexed && indexed && oldKey == newKey) {
+                    continue;
+                }
+                if (wasIndexed) {
+                    Bucket bucket = buckets.get(oldKey);
+                    if (bucket != null && bucket.remove(user) == 0) {
+                        buckets.remove(oldKey);
+                    }
+                }
+                if (indexed) {
+                    buckets.computeIfAbsent(newKey, key -> new Bucket()).add(user);
+                }
+            }
+            System.arraycopy(signature, 0, signatures, base, hashCount);
+        }
+    }
+
+    /**
+     * 한 band 키에 든 사용자. 순서는 의미가 없어 지울 때 마지막 칸으로 메운다.
+     */
+    private static final class Bucket {
+
+        int[] users = new int[2];
+        int size;
+
+        void add(int user) {
+            if (size == users.length) {
+                users = Arrays.copyOf(users, size * 2);
+            }
+            users[size++] = user;
+        }
+
+        int remove(int user) {
+            for (int i = 0; i < size; i++) {
+                if (users[i] == user) {
+                    users[i] = users[--size];
+                    break;
+                }
+            }
+            return size;
+        }
+    }
+
+    /**
+     * 유사도 내림차순 이웃 목록. 사용자는 {@link DenseIds} 의 dense id 다.
+     */
+    public static final class Neighbours {
+
+        static final Neighbours EMPTY = new Neighbours(new int[0], new double[0], 0);
+
+        private final int[] users;
+        private final double[] similarities;
+        private final int size;
+
+        Neighbours(int[] users, double[] similarities, int size) {
+            this.users = users;
+            this.similarities = similarities;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int user(int i) {
+            return users[i];
+        }
+
+        public double similarity(int i) {
+            return similarities[i];
+        }
+    }
+}
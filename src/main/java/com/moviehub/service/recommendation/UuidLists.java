@@ -0,0 +1,39 @@
+package com.moviehub.service.recommendation;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * UUID 목록을 UUID 당 16바이트로 이어 붙인 바이트 배열로 변환한다. BYTEA 컬럼에 ID 목록을 저장할 때 쓴다.
+ */
+public final class UuidLists {
+    
+    static final int UUID_BYTES = 16;
+    
+    private UuidLists() {
+    }
+    
+    public static byte[] pack(List<UUID> ids) {
+        ByteBuffer buffer = ByteBuffer.allocate(ids.size() * UUID_BYTES);
+        for (UUID id : ids) {
+            buffer.putLong(id.getMostSignificantBits());
+            buffer.putLong(id.getLeastSignificantBits());
+        }
+        return buffer.array();
+    }
+    
+    public static List<UUID> unpack(byte[] packed) {
+        if (packed == null || packed.length == 0) {
+            return Collections.emptyList();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(packed);
+        List<UUID> ids = new ArrayList<>(packed.length / UUID_BYTES);
+        while (buffer.remaining() >= UUID_BYTES) {
+            ids.add(new UUID(buffer.getLong(), buffer.getLong()));
+        }
+        return ids;
+    }
+}
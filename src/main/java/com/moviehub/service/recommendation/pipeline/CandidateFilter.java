@@ -0,0 +1,14 @@
+package com.moviehub.service.recommendation.pipeline;
+
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * 후보에서 제외할 영화를 고른다. 요청마다 한 번 prepare 를 호출해 필요한 집합을 읽어 두고,
+ * 반환된 조건으로 후보를 하나씩 검사한다. 조건이 true 인 영화만 남는다.
+ */
+@FunctionalInterface
+public interface CandidateFilter {
+    
+    Predicate<UUID> prepare(PipelineRequest request);
+}
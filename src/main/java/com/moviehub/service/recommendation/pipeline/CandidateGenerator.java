@@ -0,0 +1,14 @@
+package com.moviehub.service.recommendation.pipeline;
+
+import com.moviehub.service.recommendation.ScoredMovie;
+
+import java.util.List;
+
+/**
+ * 후보 영화와 초기 점수를 만든다. 여러 생성기의 점수는 영화별로 더해진다.
+ */
+@FunctionalInterface
+public interface CandidateGenerator {
+    
+    List<ScoredMovie> generate(PipelineRequest request);
+}
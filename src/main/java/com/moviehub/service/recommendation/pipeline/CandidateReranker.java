@@ -0,0 +1,14 @@
+package com.moviehub.service.recommendation.pipeline;
+
+import com.moviehub.service.recommendation.ScoredMovie;
+
+import java.util.List;
+
+/**
+ * 점수 순으로 정렬된 후보의 순서를 조정한다 (다양성, 비즈니스 규칙 등).
+ */
+@FunctionalInterface
+public interface CandidateReranker {
+    
+    List<ScoredMovie> rerank(PipelineRequest request, List<ScoredMovie> rankedCandidates);
+}
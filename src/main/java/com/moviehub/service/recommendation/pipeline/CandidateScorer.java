@@ -0,0 +1,14 @@
+package com.moviehub.service.recommendation.pipeline;
+
+import com.moviehub.service.recommendation.ScoredMovie;
+
+import java.util.List;
+
+/**
+ * 후보 목록의 점수를 다시 매긴다. 순서는 바꾸지 않아도 되며, 정렬은 파이프라인이 한다.
+ */
+@FunctionalInterface
+public interface CandidateScorer {
+    
+    List<ScoredMovie> score(PipelineRequest request, List<ScoredMovie> candidates);
+}
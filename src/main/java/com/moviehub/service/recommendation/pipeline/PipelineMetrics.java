@@ -0,0 +1,31 @@
+package com.moviehub.service.recommendation.pipeline;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 모든 추천 파이프라인의 단계별 통계 저장소. 단계는 등록된 순서대로 조회된다.
+ */
+@Component
+public class PipelineMetrics {
+    
+    private final Map<String, StageStats> stats = new ConcurrentHashMap<>();
+    private final List<StageStats> ordered = new CopyOnWriteArrayList<>();
+    
+    StageStats stage(String pipeline, String stage, String kind) {
+        return stats.computeIfAbsent(pipeline + "/" + stage, key -> {
+            StageStats created = new StageStats(pipeline, stage, kind);
+            ordered.add(created);
+            return created;
+        });
+    }
+    
+    public List<StageStats> snapshot() {
+        return new ArrayList<>(ordered);
+    }
+}
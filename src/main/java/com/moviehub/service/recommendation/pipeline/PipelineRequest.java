@@ -0,0 +1,24 @@
+package com.moviehub.service.recommendation.pipeline;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * 파이프라인 한 번 실행의 입력. 단계마다 필요한 값만 읽는다.
+ */
+@Value
+@Builder
+public class PipelineRequest {
+    UUID userId;
+    UUID movieId;
+    String mood;
+    String timeRange;
+    int limit;
+    
+    /**
+     * 필터에서 빠질 몫을 고려해 후보 생성기가 가져올 개수.
+     */
+    int candidateLimit;
+}
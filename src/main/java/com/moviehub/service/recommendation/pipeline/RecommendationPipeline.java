@@ -0,0 +1,173 @@
+package com.moviehub.service.recommendation.pipeline;
+
+import com.moviehub.service.recommendation.ScoredMovie;
+import com.moviehub.service.recommendation.TopK;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.Predicate;
+
+/**
+ * 후보 생성 → 필터 → 점수 → 정렬 → 재정렬 → 상위 limit 개 순으로 실행되는 추천 파이프라인.
+ * <p>
+ * 각 단계의 실행 시간과 입출력 후보 수를 {@link PipelineMetrics} 에 기록하므로
+ * 요청 시간이 어느 단계에서 쓰이는지 볼 수 있다. 파이프라인 객체는 불변이라 여러 스레드가 공유한다.
+ */
+public final class RecommendationPipeline {
+    
+    private final String name;
+    private final List<Stage<CandidateGenerator>> generators;
+    private final double[] generatorWeights;
+    private final List<Stage<CandidateFilter>> filters;
+    private final List<Stage<CandidateScorer>> scorers;
+    private final List<Stage<CandidateReranker>> rerankers;
+    private final StageStats rankStats;
+    private final StageStats totalStats;
+    
+    private RecommendationPipeline(Builder builder) {
+        this.name = builder.name;
+        this.generators = List.copyOf(builder.generators);
+        this.generatorWeights = builder.generatorWeights.stream().mapToDouble(Double::doubleValue).toArray();
+        this.filters = List.copyOf(builder.filters);
+        this.scorers = List.copyOf(builder.scorers);
+        this.rerankers = List.copyOf(builder.rerankers);
+        this.rankStats = builder.metrics.stage(name, "rank", "rank");
+        this.totalStats = builder.metrics.stage(name, "total", "total");
+    }
+    
+    public static Builder builder(String name, PipelineMetrics metrics) {
+        return new Builder(name, metrics);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public List<ScoredMovie> run(PipelineRequest request) {
+        long pipelineStart = System.nanoTime();
+        
+        Map<UUID, Double> merged = new LinkedHashMap<>();
+        for (int i = 0; i < generators.size(); i++) {
+            Stage<CandidateGenerator> generator = generators.get(i);
+            double weight = generatorWeights[i];
+            long start = System.nanoTime();
+            List<ScoredMovie> generated = generator.step.generate(request);
+            generated.forEach(c -> merged.merge(c.getMovieId(), c.getScore() * weight, Double::sum));
+            generator.stats.record(System.nanoTime() - start, 0, generated.size());
+        }
+        List<ScoredMovie> candidates = new ArrayList<>(merged.size());
+        merged.forEach((movieId, score) -> candidates.add(new ScoredMovie(movieId, score)));
+        
+        if (Thread.currentThread().isInterrupted()) {
+            // 기다리던 쪽이 이미 포기한 실행(하이브리드 전략 마감 초과)은 남은 단계를 건너뛴다
+            throw new CancellationException("Pipeline " + name + " cancelled after candidate generation");
+        }
+        
+        List<ScoredMovie> current = candidates;
+        for (Stage<CandidateFilter> filter : filters) {
+            long start = System.nanoTime();
+            Predicate<UUID> keep = filter.step.prepare(request);
+            List<ScoredMovie> kept = new ArrayList<>(current.size());
+            for (ScoredMovie candidate : current) {
+                if (keep.test(candidate.getMovieId())) {
+                    kept.add(candidate);
+                }
+            }
+            filter.stats.record(System.nanoTime() - start, current.size(), kept.size());
+            current = kept;
+        }
+        
+        for (Stage<CandidateScorer> scorer : scorers) {
+            long start = System.nanoTime();
+            int in = current.size();
+            current = scorer.step.score(request, current);
+            scorer.stats.record(System.nanoTime() - start, in, current.size());
+        }
+        
+        // 재정렬 단계가 없으면 상위 limit 개만 고른다. 위치를 id 로 주므로 동점이면 생성기가 낸 순서를 유지한다
+        long rankStart = System.nanoTime();
+        TopK top = new TopK(rerankers.isEmpty() ? Math.min(request.getLimit(), current.size()) : current.size());
+        for (int i = 0; i < current.size(); i++) {
+            top.offer(i, current.get(i).getScore());
+        }
+        int[] positions = new int[top.size()];
+        top.drain(positions, null);
+        List<ScoredMovie> ranked = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            ranked.add(current.get(position));
+        }
+        rankStats.record(System.nanoTime() - rankStart, current.size(), ranked.size());
+        
+        for (Stage<CandidateReranker> reranker : rerankers) {
+            long start = System.nanoTime();
+            int in = ranked.size();
+            ranked = reranker.step.rerank(request, ranked);
+            reranker.stats.record(System.nanoTime() - start, in, ranked.size());
+        }
+        
+        List<ScoredMovie> result = ranked.size() > request.getLimit()
+                ? new ArrayList<>(ranked.subList(0, request.getLimit()))
+                : ranked;
+        totalStats.record(System.nanoTime() - pipelineStart, 0, result.size());
+        return result;
+    }
+    
+    private static final class Stage<T> {
+        
+        private final T step;
+        private final StageStats stats;
+        
+        private Stage(T step, StageStats stats) {
+            this.step = step;
+            this.stats = stats;
+        }
+    }
+    
+    public static final class Builder {
+        
+        private final String name;
+        private final PipelineMetrics metrics;
+        private final List<Stage<CandidateGenerator>> generators = new ArrayList<>();
+        private final List<Double> generatorWeights = new ArrayList<>();
+        private final List<Stage<CandidateFilter>> filters = new ArrayList<>();
+        private final List<Stage<CandidateScorer>> scorers = new ArrayList<>();
+        private final List<Stage<CandidateReranker>> rerankers = new ArrayList<>();
+        
+        private Builder(String name, PipelineMetrics metrics) {
+            this.name = name;
+            this.metrics = metrics;
+        }
+        
+        public Builder generator(String stage, CandidateGenerator generator) {
+            return generator(stage, generator, 1.0);
+        }
+        
+        public Builder generator(String stage, CandidateGenerator generator, double weight) {
+            generators.add(new Stage<>(generator, metrics.stage(name, stage, "generator")));
+            generatorWeights.add(weight);
+            return this;
+        }
+        
+        public Builder filter(String stage, CandidateFilter filter) {
+            filters.add(new Stage<>(filter, metrics.stage(name, stage, "filter")));
+            return this;
+        }
+        
+        public Builder scorer(String stage, CandidateScorer scorer) {
+            scorers.add(new Stage<>(scorer, metrics.stage(name, stage, "scorer")));
+            return this;
+        }
+        
+        public Builder reranker(String stage, CandidateReranker reranker) {
+            rerankers.add(new Stage<>(reranker, metrics.stage(name, stage, "reranker")));
+            return this;
+        }
+        
+        public RecommendationPipeline build() {
+            if (generators.isEmpty()) {
+                throw new IllegalStateException("Pipeline " + name + " has no candidate generator");
+            }
+            return new RecommendationPipeline(this);
+        }
+    }
+}
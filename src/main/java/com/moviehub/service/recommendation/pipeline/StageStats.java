@@ -0,0 +1,100 @@
+package com.moviehub.service.recommendation.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 한 단계의 지연 시간 히스토그램과 후보 수 누계.
+ * <p>
+ * 히스토그램은 마이크로초 단위의 2의 거듭제곱 버킷이라 백분위는 버킷 상한으로 근사한다.
+ */
+public final class StageStats {
+    
+    private static final int BUCKETS = 32;
+    
+    private final String pipeline;
+    private final String stage;
+    private final String kind;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+    private final LongAdder candidatesIn = new LongAdder();
+    private final LongAdder candidatesOut = new LongAdder();
+    
+    StageStats(String pipeline, String stage, String kind) {
+        this.pipeline = pipeline;
+        this.stage = stage;
+        this.kind = kind;
+    }
+    
+    void record(long nanos, int in, int out) {
+        calls.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        long micros = Math.max(1L, nanos / 1000L);
+        histogram.incrementAndGet(Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros)));
+        candidatesIn.add(in);
+        candidatesOut.add(out);
+    }
+    
+    public String getPipeline() {
+        return pipeline;
+    }
+    
+    public String getStage() {
+        return stage;
+    }
+    
+    public String getKind() {
+        return kind;
+    }
+    
+    public long getCalls() {
+        return calls.sum();
+    }
+    
+    public double getAverageMicros() {
+        long count = calls.sum();
+        return count == 0 ? 0.0 : totalNanos.sum() / 1000.0 / count;
+    }
+    
+    public double getMaxMicros() {
+        return maxNanos.get() / 1000.0;
+    }
+    
+    public double getAverageCandidatesIn() {
+        long count = calls.sum();
+        return count == 0 ? 0.0 : (double) candidatesIn.sum() / count;
+    }
+    
+    public double getAverageCandidatesOut() {
+        long count = calls.sum();
+        return count == 0 ? 0.0 : (double) candidatesOut.sum() / count;
+    }
+    
+    /**
+     * quantile(0~1) 에 해당하는 버킷의 상한(마이크로초).
+     */
+    public long percentileMicros(double quantile) {
+        long count = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = histogram.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return 1L << (i + 1);
+            }
+        }
+        return 1L << BUCKETS;
+    }
+}
@@ -0,0 +1,125 @@
+package com.moviehub.service.search;
+
+import java.util.Arrays;
+
+/**
+ * Levenshtein 거리 기준 BK-tree.
+ * <p>
+ * 자식은 부모와의 거리로 구분되므로, 검색어와 노드의 거리가 d 이면 거리 k 이내의 단어는
+ * 간선 거리가 [d - k, d + k] 인 자식 아래에만 있다(삼각 부등식). 노드는 삽입 순서대로 번호가 붙고
+ * 자식 목록은 first-child / next-sibling 배열로 보관한다. 스레드 안전하지 않으므로 다 만든 뒤 읽기만 한다.
+ */
+final class BkTree {
+
+    /**
+     * 검색 결과 한 건. node 는 {@link #add(String)} 가 돌려준 번호다.
+     */
+    @FunctionalInterface
+    interface Match {
+        void accept(int node, int distance);
+    }
+
+    private String[] terms = new String[64];
+    private int[] firstChild = new int[64];
+    private int[] nextSibling = new int[64];
+    private int[] edgeDistance = new int[64];
+    private int size;
+
+    /**
+     * 단어를 넣고 노드 번호를 돌려준다. 이미 있는 단어면 그 노드 번호다.
+     */
+    int add(String term) {
+        if (size == 0) {
+            return newNode(term, 0);
+        }
+        int node = 0;
+        while (true) {
+            int distance = distance(term, terms[node]);
+            if (distance == 0) {
+                return node;
+            }
+            int child = firstChild[node];
+            while (child >= 0 && edgeDistance[child] != distance) {
+                child = nextSibling[child];
+            }
+            if (child < 0) {
+                int added = newNode(term, distance);
+                nextSibling[added] = firstChild[node];
+                firstChild[node] = added;
+                return added;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * query 와의 거리가 maxDistance 이하인 모든 단어에 대해 match 를 부른다. 순서는 정해져 있지 않다.
+     */
+    void search(String query, int maxDistance, Match match) {
+        if (size == 0) {
+            return;
+        }
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int distance = distance(query, terms[node]);
+            if (distance <= maxDistance) {
+                match.accept(node, distance);
+            }
+            for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                if (Math.abs(edgeDistance[child] - distance) <= maxDistance) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = child;
+                }
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    static int distance(String a, String b) {
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private int newNode(String term, int distance) {
+        if (size == terms.length) {
+            int capacity = size * 2;
+            terms = Arrays.copyOf(terms, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            edgeDistance = Arrays.copyOf(edgeDistance, capacity);
+        }
+        terms[size] = term;
+        firstChild[size] = -1;
+        nextSibling[size] = -1;
+        edgeDistance[size] = distance;
+        return size++;
+    }
+}
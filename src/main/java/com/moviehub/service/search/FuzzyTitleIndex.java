@@ -0,0 +1,160 @@
+package com.moviehub.service.search;
+
+import com.moviehub.service.recommendation.TopK;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 오타를 허용하는 제목 검색 인덱스.
+ * <p>
+ * 제목/원제 전체와 그 안의 단어를 자모 형태({@link HangulJamo#decompose})로 바꿔 하나의 {@link BkTree} 에 넣는다.
+ * 한글 한 글자 오타가 자모 한두 개 차이가 되므로 영문과 같은 편집 거리로 다룰 수 있다.
+ * 검색어 전체와 거리 안에 드는 제목·단어를 찾고, 여러 단어로 된 검색어는 단어마다 찾은 영화의 교집합도
+ * (거리 합 + 1 로) 더한다. 허용 거리는 maxDistance 와 키 길이 / 3 중 작은 값이라 짧은 검색어는 거의 정확히 맞아야 한다.
+ * 결과는 거리 순, 같으면 인기도 순이다.
+ * <p>
+ * {@link TitleCatalog} 가 새 제목 스냅샷을 넘길 때마다 다시 만든다.
+ */
+@Component
+@Slf4j
+public class FuzzyTitleIndex {
+
+    private static final int MIN_WORD_LENGTH = 2;
+
+    private final TitleCatalog titleCatalog;
+    private final int maxDistance;
+
+    private volatile Snapshot snapshot;
+
+    public FuzzyTitleIndex(TitleCatalog titleCatalog,
+                           @Value("${search.fuzzy.max-distance:2}") int maxDistance) {
+        this.titleCatalog = titleCatalog;
+        this.maxDistance = maxDistance;
+        titleCatalog.subscribe(this::rebuild);
+    }
+
+    synchronized void rebuild(TitleCatalog.Titles titles) {
+        if (snapshot != null && snapshot.titles.version >= titles.version) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        BkTree tree = new BkTree();
+        List<Set<Integer>> postings = new ArrayList<>();
+        for (int movie = 0; movie < titles.size(); movie++) {
+            for (String column : new String[]{titles.titles[movie], titles.originalTitles[movie]}) {
+                String title = TitleTokenizer.normalize(column);
+                List<String> keys = new ArrayList<>(words(title));
+                keys.add(HangulJamo.decompose(title));
+                for (String key : keys) {
+                    if (key.length() < MIN_WORD_LENGTH) {
+                        continue;
+                    }
+                    int node = tree.add(key);
+                    if (node == postings.size()) {
+                        postings.add(new HashSet<>(2));
+                    }
+                    postings.get(node).add(movie);
+                }
+            }
+        }
+
+        int[][] movies = new int[postings.size()][];
+        for (int node = 0; node < movies.length; node++) {
+            movies[node] = postings.get(node).stream().mapToInt(Integer::intValue).toArray();
+        }
+        snapshot = new Snapshot(tree, movies, titles);
+        log.info("Fuzzy title index built: {} movies, {} terms in {} ms",
+                titles.size(), tree.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 편집 거리 안에 드는 제목의 영화를 거리, 인기도 순으로 offset 부터 limit 편 반환한다.
+     */
+    public MovieSearchIndex.Hits search(String query, int offset, int limit) {
+        MovieSearchIndex.checkResultWindow(offset, limit);
+        String normalized = TitleTokenizer.normalize(query);
+        String full = HangulJamo.decompose(normalized);
+        if (full.length() < MIN_WORD_LENGTH || limit <= 0) {
+            return MovieSearchIndex.Hits.EMPTY;
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild(titleCatalog.current());
+            current = snapshot;
+        }
+
+        Map<Integer, Integer> best = find(current, full);
+        List<String> words = words(normalized);
+        if (words.size() > 1) {
+            Map<Integer, Integer> combined = null;
+            for (String word : words) {
+                Map<Integer, Integer> matched = word.length() < MIN_WORD_LENGTH ? Map.of() : find(current, word);
+                if (combined == null) {
+                    combined = new HashMap<>(matched);
+                } else {
+                    combined.keySet().retainAll(matched.keySet());
+                    combined.replaceAll((movie, distance) -> distance + matched.get(movie));
+                }
+            }
+            // 단어별로만 맞은 영화는 제목에 다른 단어가 더 있을 수 있으므로 한 단계 뒤로 둔다
+            combined.forEach((movie, distance) -> best.merge(movie, distance + 1, Math::min));
+        }
+        if (best.isEmpty()) {
+            return MovieSearchIndex.Hits.EMPTY;
+        }
+
+        TopK top = new TopK(offset + limit);
+        double[] popularity = current.titles.popularity;
+        best.forEach((movie, distance) -> top.offer(movie, -distance, popularity[movie]));
+        int[] movies = new int[top.size()];
+        int count = top.drain(movies, null);
+        List<UUID> movieIds = new ArrayList<>(Math.max(0, count - offset));
+        for (int i = offset; i < count; i++) {
+            movieIds.add(current.titles.movieIds[movies[i]]);
+        }
+        return new MovieSearchIndex.Hits(movieIds, best.size());
+    }
+
+    /**
+     * key 와 허용 거리 안에 드는 단어를 가진 영화별 최소 거리.
+     */
+    private Map<Integer, Integer> find(Snapshot current, String key) {
+        Map<Integer, Integer> matched = new HashMap<>();
+        current.tree.search(key, Math.min(maxDistance, key.length() / 3), (node, distance) -> {
+            for (int movie : current.movies[node]) {
+                matched.merge(movie, distance, Math::min);
+            }
+        });
+        return matched;
+    }
+
+    /**
+     * 정규화한 제목의 단어들을 자모 형태로.
+     */
+    private static List<String> words(String normalized) {
+        List<String> words = new ArrayList<>();
+        for (String word : normalized.split("[^\\p{L}\\p{N}]+")) {
+            String key = HangulJamo.decompose(word);
+            if (!key.isEmpty()) {
+                words.add(key);
+            }
+        }
+        return words;
+    }
+
+    private static final class Snapshot {
+
+        final BkTree tree;
+        final int[][] movies; // BK-tree 노드 → 영화 번호
+        final TitleCatalog.Titles titles;
+
+        Snapshot(BkTree tree, int[][] movies, TitleCatalog.Titles titles) {
+            this.tree = tree;
+            this.movies = movies;
+            this.titles = titles;
+        }
+    }
+}
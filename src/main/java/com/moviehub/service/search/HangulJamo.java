@@ -0,0 +1,102 @@
+package com.moviehub.service.search;
+
+import java.util.Locale;
+
+/**
+ * 한글 음절을 자모로 풀어 쓰거나 초성만 뽑는다.
+ * <p>
+ * 겹모음과 겹받침도 기본 자모로 나누므로("과" → ㄱㅗㅏ, "닭" → ㄷㅏㄹㄱ) 입력 도중의 글자("고", "달")가
+ * 완성된 글자의 자모 앞부분과 맞는다. 두 형태 모두 공백과 문장 부호를 없애고 한글이 아닌 글자는 소문자로 남긴다.
+ */
+final class HangulJamo {
+
+    private static final char SYLLABLE_BASE = '가';
+    private static final char SYLLABLE_LAST = '힣';
+    private static final int JUNG_COUNT = 21;
+    private static final int JONG_COUNT = 28;
+
+    private static final String CHOSUNG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+    private static final String[] JUNGSUNG = {
+            "ㅏ", "ㅐ", "ㅑ", "ㅒ", "ㅓ", "ㅔ", "ㅕ", "ㅖ", "ㅗ", "ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅛ", "ㅜ", "ㅜㅓ", "ㅜㅔ",
+            "ㅜㅣ", "ㅠ", "ㅡ", "ㅡㅣ", "ㅣ"};
+    private static final String[] JONGSUNG = {
+            "", "ㄱ", "ㄲ", "ㄱㅅ", "ㄴ", "ㄴㅈ", "ㄴㅎ", "ㄷ", "ㄹ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ",
+            "ㅁ", "ㅂ", "ㅂㅅ", "ㅅ", "ㅆ", "ㅇ", "ㅈ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"};
+    // 호환 자모 영역(ㄱ U+3131 ~ ㅣ U+3163)의 겹자모를 기본 자모로. 나머지는 그대로 둔다
+    private static final String COMPOUND_JAMO = "ㄳㄵㄶㄺㄻㄼㄽㄾㄿㅀㅄㅘㅙㅚㅝㅞㅟㅢ";
+    private static final String[] COMPOUND_PARTS = {
+            "ㄱㅅ", "ㄴㅈ", "ㄴㅎ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ", "ㅂㅅ",
+            "ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅡㅣ"};
+
+    private HangulJamo() {
+    }
+
+    /**
+     * "기생충" → "ㄱㅣㅅㅐㅇㅊㅜㅇ".
+     */
+    static String decompose(String text) {
+        StringBuilder jamo = new StringBuilder(text.length() * 3);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isSyllable(c)) {
+                int code = c - SYLLABLE_BASE;
+                jamo.append(CHOSUNG.charAt(code / (JUNG_COUNT * JONG_COUNT)))
+                        .append(JUNGSUNG[code % (JUNG_COUNT * JONG_COUNT) / JONG_COUNT])
+                        .append(JONGSUNG[code % JONG_COUNT]);
+            } else {
+                appendOther(jamo, c);
+            }
+        }
+        return jamo.toString();
+    }
+
+    /**
+     * "기생충" → "ㄱㅅㅊ". 이미 자음으로 입력된 글자는 그대로 둔다.
+     */
+    static String chosung(String text) {
+        StringBuilder initials = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isSyllable(c)) {
+                initials.append(CHOSUNG.charAt((c - SYLLABLE_BASE) / (JUNG_COUNT * JONG_COUNT)));
+            } else if (Character.isLetterOrDigit(c)) {
+                initials.append(Character.toLowerCase(c));
+            }
+        }
+        return initials.toString();
+    }
+
+    /**
+     * 공백을 뺀 모든 글자가 자음 자모인지. "ㅇㅂㅈㅅ" 같은 초성 검색어를 알아본다.
+     */
+    static boolean isChosungOnly(String text) {
+        boolean any = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            if (c < 'ㄱ' || c > 'ㅎ') {
+                return false;
+            }
+            any = true;
+        }
+        return any;
+    }
+
+    private static void appendOther(StringBuilder jamo, char c) {
+        if (!Character.isLetterOrDigit(c)) {
+            return;
+        }
+        int compound = COMPOUND_JAMO.indexOf(c);
+        if (compound >= 0) {
+            jamo.append(COMPOUND_PARTS[compound]);
+        } else {
+            jamo.append(String.valueOf(c).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static boolean isSyllable(char c) {
+        return c >= SYLLABLE_BASE && c <= SYLLABLE_LAST;
+    }
+}
@@ -0,0 +1,208 @@
+package com.moviehub.service.search;
+
+import com.moviehub.service.recommendation.TopK;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * 초성/자모 형태의 제목 부분 문자열 검색 인덱스.
+ * <p>
+ * 제목과 원제를 {@link HangulJamo} 로 초성 형태와 자모 형태로 바꾸고, 형태마다 두 글자 n-gram 의
+ * posting list 를 둔다. 검색어도 같은 형태로 바꿔 n-gram 교집합으로 후보를 좁힌 뒤 포함 여부를 확인하므로
+ * DB 에 정규식을 보내지 않는다. 제목 앞부분에서 맞은 영화를 먼저, 같으면 인기도 순으로 돌려준다.
+ * <p>
+ * {@link TitleCatalog} 가 새 제목 스냅샷을 넘길 때마다 다시 만든다.
+ */
+@Component
+@Slf4j
+public class HangulSearchIndex {
+
+    private final TitleCatalog titleCatalog;
+
+    private volatile Snapshot snapshot;
+
+    public HangulSearchIndex(TitleCatalog titleCatalog) {
+        this.titleCatalog = titleCatalog;
+        titleCatalog.subscribe(this::rebuild);
+    }
+
+    synchronized void rebuild(TitleCatalog.Titles source) {
+        if (snapshot != null && snapshot.titles.version >= source.version) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<String> titles = new ArrayList<>(source.size() * 2);
+        List<Integer> titleMovies = new ArrayList<>(source.size() * 2);
+        for (int movie = 0; movie < source.size(); movie++) {
+            String title = source.titles[movie];
+            String originalTitle = source.originalTitles[movie];
+            if (title != null && !title.isBlank()) {
+                titles.add(title);
+                titleMovies.add(movie);
+            }
+            if (originalTitle != null && !originalTitle.isBlank() && !originalTitle.equals(title)) {
+                titles.add(originalTitle);
+                titleMovies.add(movie);
+            }
+        }
+
+        int[] keyMovies = titleMovies.stream().mapToInt(Integer::intValue).toArray();
+        snapshot = new Snapshot(source,
+                new GramIndex(transform(titles, HangulJamo::chosung), keyMovies),
+                new GramIndex(transform(titles, HangulJamo::decompose), keyMovies));
+        log.info("Hangul search index built: {} movies, {} titles in {} ms",
+                source.size(), titles.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 제목의 초성에 검색어의 초성이 들어 있는 영화. 완성된 글자는 초성으로 바꿔 비교한다.
+     */
+    public MovieSearchIndex.Hits searchChosung(String query, int offset, int limit) {
+        Snapshot current = current();
+        return search(current, current.chosung, HangulJamo.chosung(query), offset, limit);
+    }
+
+    /**
+     * 제목의 자모 형태에 검색어의 자모 형태가 들어 있는 영화.
+     */
+    public MovieSearchIndex.Hits searchJamo(String query, int offset, int limit) {
+        Snapshot current = current();
+        return search(current, current.jamo, HangulJamo.decompose(query), offset, limit);
+    }
+
+    private MovieSearchIndex.Hits search(Snapshot current, GramIndex index, String form, int offset, int limit) {
+        MovieSearchIndex.checkResultWindow(offset, limit);
+        if (form.isEmpty() || limit <= 0) {
+            return MovieSearchIndex.Hits.EMPTY;
+        }
+
+        // 영화마다 가장 좋은 위치(앞부분 일치 = 1)만 남긴다
+        Map<Integer, Integer> matched = new HashMap<>();
+        index.forEachMatch(form, key -> matched.merge(index.keyMovies[key],
+                index.keys[key].startsWith(form) ? 1 : 0, Math::max));
+        if (matched.isEmpty()) {
+            return MovieSearchIndex.Hits.EMPTY;
+        }
+
+        TopK top = new TopK(offset + limit);
+        matched.forEach((movie, prefix) -> top.offer(movie, prefix, current.titles.popularity[movie]));
+        int[] movies = new int[top.size()];
+        int count = top.drain(movies, null);
+        List<UUID> movieIds = new ArrayList<>(Math.max(0, count - offset));
+        for (int i = offset; i < count; i++) {
+            movieIds.add(current.titles.movieIds[movies[i]]);
+        }
+        return new MovieSearchIndex.Hits(movieIds, matched.size());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild(titleCatalog.current());
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private static String[] transform(List<String> titles, UnaryOperator<String> form) {
+        String[] keys = new String[titles.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = form.apply(titles.get(i));
+        }
+        return keys;
+    }
+
+    private static final class Snapshot {
+
+        final TitleCatalog.Titles titles;
+        final GramIndex chosung;
+        final GramIndex jamo;
+
+        Snapshot(TitleCatalog.Titles titles, GramIndex chosung, GramIndex jamo) {
+            this.titles = titles;
+            this.chosung = chosung;
+            this.jamo = jamo;
+        }
+    }
+
+    /**
+     * 한 형태의 키와 두 글자 n-gram → 키 번호(오름차순) posting list.
+     */
+    private static final class GramIndex {
+
+        private static final int[] NONE = new int[0];
+
+        final String[] keys;
+        final int[] keyMovies;
+        private final Map<Integer, int[]> postings = new HashMap<>();
+
+        GramIndex(String[] keys, int[] keyMovies) {
+            this.keys = keys;
+            this.keyMovies = keyMovies;
+
+            Map<Integer, int[]> building = new HashMap<>();
+            Map<Integer, Integer> sizes = new HashMap<>();
+            Set<Integer> grams = new HashSet<>();
+            for (int key = 0; key < keys.length; key++) {
+                grams.clear();
+                for (int i = 0; i + 1 < keys[key].length(); i++) {
+                    grams.add(gram(keys[key], i));
+                }
+                for (int gram : grams) {
+                    int size = sizes.merge(gram, 1, Integer::sum);
+                    int[] posting = building.computeIfAbsent(gram, g -> new int[4]);
+                    if (size > posting.length) {
+                        posting = Arrays.copyOf(posting, posting.length * 2);
+                        building.put(gram, posting);
+                    }
+                    posting[size - 1] = key;
+                }
+            }
+            building.forEach((gram, posting) -> postings.put(gram, Arrays.copyOf(posting, sizes.get(gram))));
+        }
+
+        /**
+         * form 을 부분 문자열로 가진 키마다 action 을 부른다. 한 글자 검색어는 모든 키를 훑는다.
+         */
+        void forEachMatch(String form, IntConsumer action) {
+            if (form.length() == 1) {
+                for (int key = 0; key < keys.length; key++) {
+                    if (keys[key].indexOf(form.charAt(0)) >= 0) {
+                        action.accept(key);
+                    }
+                }
+                return;
+            }
+
+            List<int[]> lists = new ArrayList<>();
+            for (int i = 0; i + 1 < form.length(); i++) {
+                int[] posting = postings.getOrDefault(gram(form, i), NONE);
+                if (posting.length == 0) {
+                    return;
+                }
+                lists.add(posting);
+            }
+            lists.sort(Comparator.comparingInt(posting -> posting.length));
+
+            candidates:
+            for (int key : lists.get(0)) {
+                for (int i = 1; i < lists.size(); i++) {
+                    if (Arrays.binarySearch(lists.get(i), key) < 0) {
+                        continue candidates;
+                    }
+                }
+                if (keys[key].contains(form)) {
+                    action.accept(key);
+                }
+            }
+        }
+
+        private static int gram(String key, int i) {
+            return (key.charAt(i) << 16) | key.charAt(i + 1);
+        }
+    }
+}
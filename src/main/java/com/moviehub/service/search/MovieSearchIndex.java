@@ -0,0 +1,312 @@
+package com.moviehub.service.search;
+
+import com.moviehub.entity.Movie;
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.repository.MovieRepository;
+import com.moviehub.service.recommendation.TopK;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 제목/원제 검색용 인메모리 역색인.
+ * <p>
+ * {@link TitleTokenizer} 로 자른 색인어마다 영화 슬롯을 오름차순으로 담은 posting list 를 두고,
+ * 검색어의 모든 색인어를 가진 영화만(AND) 가장 짧은 posting list 부터 교집합으로 찾는다.
+ * 점수는 BM25 에 log(1 + 인기도) 비례 가중치를 곱한 값이다. 원제가 제목과 같으면 한 번만 센다.
+ * <p>
+ * 영화 저장/삭제 이벤트로 해당 영화의 색인어만 갱신하므로 DB 를 다시 읽지 않는다.
+ */
+@Component
+@Slf4j
+public class MovieSearchIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // 한 번에 점수 순으로 골라 둘 수 있는 최대 순위. 이보다 깊은 페이지는 검색어를 좁혀 찾게 한다
+    static final int MAX_RESULT_WINDOW = 1000;
+
+    private final MovieRepository movieRepository;
+    private final double k1;
+    private final double b;
+    private final double popularityBoost;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    private volatile boolean loaded;
+
+    public MovieSearchIndex(MovieRepository movieRepository,
+                            @Value("${search.bm25.k1:1.2}") double k1,
+                            @Value("${search.bm25.b:0.75}") double b,
+                            @Value("${search.popularity-boost:0.1}") double popularityBoost) {
+        this.movieRepository = movieRepository;
+        this.k1 = k1;
+        this.b = b;
+        this.popularityBoost = popularityBoost;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = movieRepository.findTitleIndexRows();
+
+        State built = new State();
+        for (Object[] row : rows) {
+            built.put((UUID) row[0], (String) row[1], (String) row[2], (BigDecimal) row[3]);
+        }
+
+        lock.writeLock().lock();
+        try {
+            state = built;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Movie search index built: {} movies, {} terms in {} ms",
+                built.documentCount, built.postings.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (!loaded) {
+            return; // 최초 빌드 시 DB 에서 함께 읽힌다
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted()) {
+                state.remove(event.getMovieId());
+            } else {
+                Movie movie = event.getMovie();
+                state.put(movie.getId(), movie.getTitle(), movie.getOriginalTitle(), movie.getPopularity());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 검색어의 색인어를 모두 가진 영화를 점수 순으로 offset 부터 limit 개 반환한다.
+     * 검색어에서 색인어가 나오지 않으면 비어 있다.
+     *
+     * @throws IllegalArgumentException offset + limit 이 {@link #MAX_RESULT_WINDOW} 를 넘을 때
+     */
+    public Hits search(String query, int offset, int limit) {
+        checkResultWindow(offset, limit);
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TitleTokenizer.tokens(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return Hits.EMPTY;
+        }
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            Posting[] lists = new Posting[terms.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = state.postings.get(terms.get(i));
+                if (lists[i] == null || lists[i].size == 0) {
+                    return Hits.EMPTY;
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(posting -> posting.size));
+
+            double averageLength = (double) state.totalLength / state.documentCount;
+            double[] idf = new double[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                idf[i] = Math.log(1 + (state.documentCount - lists[i].size + 0.5) / (lists[i].size + 0.5));
+            }
+
+            TopK top = new TopK(offset + limit);
+            int total = 0;
+            Posting shortest = lists[0];
+            candidates:
+            for (int p = 0; p < shortest.size; p++) {
+                int slot = shortest.slots[p];
+                double lengthNorm = k1 * (1 - b + b * state.lengths[slot] / averageLength);
+                double score = idf[0] * bm25(shortest.frequencies[p], lengthNorm);
+                for (int i = 1; i < lists.length; i++) {
+                    int position = Arrays.binarySearch(lists[i].slots, 0, lists[i].size, slot);
+                    if (position < 0) {
+                        continue candidates;
+                    }
+                    score += idf[i] * bm25(lists[i].frequencies[position], lengthNorm);
+                }
+                total++;
+                double popularity = state.popularity[slot];
+                top.offer(slot, score * (1 + popularityBoost * Math.log1p(popularity)), popularity);
+            }
+
+            int[] slots = new int[top.size()];
+            int count = top.drain(slots, null);
+            List<UUID> movieIds = new ArrayList<>(Math.max(0, count - offset));
+            for (int i = offset; i < count; i++) {
+                movieIds.add(state.movieIds[slots[i]]);
+            }
+            return new Hits(movieIds, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 힙 크기가 offset + limit 이므로 페이지 번호를 그대로 받으면 요청 하나로 큰 힙을 만들 수 있다.
+     */
+    static void checkResultWindow(int offset, int limit) {
+        if (offset < 0 || (long) offset + limit > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("검색 결과는 " + MAX_RESULT_WINDOW + "번째까지만 조회할 수 있습니다.");
+        }
+    }
+
+    private double bm25(int frequency, double lengthNorm) {
+        return frequency * (k1 + 1) / (frequency + lengthNorm);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * 검색 결과 한 페이지와 조건에 맞는 전체 영화 수.
+     */
+    public static final class Hits {
+
+        static final Hits EMPTY = new Hits(List.of(), 0);
+
+        private final List<UUID> movieIds;
+        private final long total;
+
+        Hits(List<UUID> movieIds, long total) {
+            this.movieIds = movieIds;
+            this.total = total;
+        }
+
+        public List<UUID> getMovieIds() {
+            return movieIds;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public boolean isEmpty() {
+            return total == 0;
+        }
+    }
+
+    /**
+     * 한 색인어를 가진 영화 슬롯(오름차순)과 그 영화에서의 출현 횟수.
+     */
+    private static final class Posting {
+
+        int[] slots = new int[2];
+        int[] frequencies = new int[2];
+        int size;
+
+        void add(int slot, int frequency) {
+            int position = Arrays.binarySearch(slots, 0, size, slot);
+            if (position >= 0) {
+                frequencies[position] = frequency;
+                return;
+            }
+            int insert = -position - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(slots, insert, slots, insert + 1, size - insert);
+            System.arraycopy(frequencies, insert, frequencies, insert + 1, size - insert);
+            slots[insert] = slot;
+            frequencies[insert] = frequency;
+            size++;
+        }
+
+        void remove(int slot) {
+            int position = Arrays.binarySearch(slots, 0, size, slot);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(slots, position + 1, slots, position, size - position - 1);
+            System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+            size--;
+        }
+    }
+
+    /**
+     * 색인 전체. 재구축은 새 State 를 만들어 통째로 교체한다. 삭제된 영화의 슬롯은 재사용하지 않는다.
+     */
+    private static final class State {
+
+        final Map<UUID, Integer> slots = new HashMap<>();
+        final Map<String, Posting> postings = new HashMap<>();
+        UUID[] movieIds = new UUID[INITIAL_CAPACITY];
+        String[][] terms = new String[INITIAL_CAPACITY][];
+        int[] lengths = new int[INITIAL_CAPACITY];
+        double[] popularity = new double[INITIAL_CAPACITY];
+        int documentCount;
+        long totalLength;
+
+        void put(UUID movieId, String title, String originalTitle, BigDecimal moviePopularity) {
+            remove(movieId);
+
+            List<String> tokens = TitleTokenizer.tokens(title);
+            if (originalTitle != null && !originalTitle.equalsIgnoreCase(title)) {
+                tokens.addAll(TitleTokenizer.tokens(originalTitle));
+            }
+            Map<String, Integer> frequencies = new HashMap<>();
+            tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+
+            int slot = slots.computeIfAbsent(movieId, id -> slots.size());
+            ensureCapacity(slot + 1);
+            movieIds[slot] = movieId;
+            terms[slot] = frequencies.keySet().toArray(new String[0]);
+            lengths[slot] = tokens.size();
+            popularity[slot] = moviePopularity != null ? moviePopularity.doubleValue() : 0.0;
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new Posting()).add(slot, frequency));
+            documentCount++;
+            totalLength += tokens.size();
+        }
+
+        void remove(UUID movieId) {
+            Integer slot = slots.get(movieId);
+            if (slot == null || terms[slot] == null) {
+                return;
+            }
+            for (String term : terms[slot]) {
+                Posting posting = postings.get(term);
+                posting.remove(slot);
+                if (posting.size == 0) {
+                    postings.remove(term);
+                }
+            }
+            terms[slot] = null;
+            documentCount--;
+            totalLength -= lengths[slot];
+            lengths[slot] = 0;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= movieIds.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, movieIds.length * 2);
+            movieIds = Arrays.copyOf(movieIds, newCapacity);
+            terms = Arrays.copyOf(terms, newCapacity);
+            lengths = Arrays.copyOf(lengths, newCapacity);
+            popularity = Arrays.copyOf(popularity, newCapacity);
+        }
+    }
+}
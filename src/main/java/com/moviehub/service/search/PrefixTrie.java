@@ -0,0 +1,192 @@
+package com.moviehub.service.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * 문자열 키 → int 값의 불변 압축(radix) 트라이. 노드마다 그 아래 값 중 점수 상위 topN 개를 미리 담아 두어
+ * 접두어 조회가 접두어 길이에만 비례한다.
+ * <p>
+ * 분기점에만 노드를 두므로 노드 수는 키 수의 두 배를 넘지 않는다. 간선 라벨은 따로 복사하지 않고
+ * 정렬된 키 배열의 구간(키 번호, 시작, 끝)으로 가리키며, 노드 정보와 상위 목록은 모두 primitive 배열이다.
+ * 같은 값이 여러 키로 들어오면(제목과 원제 등) 상위 목록에는 한 번만 들어간다.
+ */
+final class PrefixTrie {
+
+    private static final int[] NONE = new int[0];
+
+    private final String[] keys;
+    private int[] labelKey;
+    private int[] labelStart;
+    private int[] labelEnd;
+    private int[] firstChild;
+    private int[] childCount;
+    private int[] topStart;
+    private int[] topCount;
+    private int[] tops;
+    private int nodeCount;
+    private int topSize;
+
+    private PrefixTrie(String[] keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * scores 는 값으로 색인한다. 점수가 같으면 값이 작은 쪽이 먼저다.
+     */
+    static PrefixTrie build(String[] keys, int[] values, double[] scores, int topN) {
+        Integer[] order = IntStream.range(0, keys.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparing((Integer i) -> keys[i]).thenComparingInt(i -> values[i]));
+        String[] sortedKeys = new String[keys.length];
+        int[] sortedValues = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys[order[i]];
+            sortedValues[i] = values[order[i]];
+        }
+
+        PrefixTrie trie = new PrefixTrie(sortedKeys);
+        int capacity = Math.max(1, sortedKeys.length * 2);
+        trie.labelKey = new int[capacity];
+        trie.labelStart = new int[capacity];
+        trie.labelEnd = new int[capacity];
+        trie.firstChild = new int[capacity];
+        trie.childCount = new int[capacity];
+        trie.topStart = new int[capacity];
+        trie.topCount = new int[capacity];
+        trie.tops = new int[Math.max(1, sortedKeys.length)];
+        trie.nodeCount = 1;
+        trie.buildNode(0, 0, sortedKeys.length, 0, sortedValues, scores, topN);
+        return trie;
+    }
+
+    /**
+     * prefix 로 시작하는 키들의 값을 점수 순으로 최대 topN 개 반환한다.
+     */
+    int[] top(String prefix) {
+        int node = 0;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            int child = findChild(node, prefix.charAt(depth));
+            if (child < 0) {
+                return NONE;
+            }
+            String label = keys[labelKey[child]];
+            int end = Math.min(labelEnd[child], prefix.length());
+            for (int i = depth; i < end; i++) {
+                if (label.charAt(i) != prefix.charAt(i)) {
+                    return NONE;
+                }
+            }
+            node = child;
+            depth = end;
+        }
+        return Arrays.copyOfRange(tops, topStart[node], topStart[node] + topCount[node]);
+    }
+
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    private int findChild(int node, char c) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = keys[labelKey[mid]].charAt(labelStart[mid]);
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * [lo, hi) 의 키는 모두 앞 depth 글자가 같다. 자식 노드를 연속된 번호로 먼저 잡고 재귀로 채운 뒤,
+     * 이 노드에서 끝나는 키와 자식들의 상위 목록을 합쳐 이 노드의 상위 목록을 만든다.
+     */
+    private void buildNode(int node, int lo, int hi, int depth, int[] values, double[] scores, int topN) {
+        int terminalEnd = lo;
+        while (terminalEnd < hi && keys[terminalEnd].length() == depth) {
+            terminalEnd++;
+        }
+
+        int groups = 0;
+        for (int i = terminalEnd; i < hi; i++) {
+            if (i == terminalEnd || keys[i].charAt(depth) != keys[i - 1].charAt(depth)) {
+                groups++;
+            }
+        }
+        int first = nodeCount;
+        nodeCount += groups;
+        firstChild[node] = first;
+        childCount[node] = groups;
+
+        int child = first;
+        int groupStart = terminalEnd;
+        for (int i = terminalEnd + 1; i <= hi; i++) {
+            if (i == hi || keys[i].charAt(depth) != keys[groupStart].charAt(depth)) {
+                labelKey[child] = groupStart;
+                labelStart[child] = depth;
+                labelEnd[child] = depth + commonPrefix(keys[groupStart], keys[i - 1], depth);
+                buildNode(child, groupStart, i, labelEnd[child], values, scores, topN);
+                child++;
+                groupStart = i;
+            }
+        }
+
+        int[] selected = new int[topN];
+        int count = 0;
+        for (int i = lo; i < terminalEnd; i++) {
+            count = insert(selected, count, values[i], scores);
+        }
+        for (int c = first; c < first + groups; c++) {
+            for (int t = topStart[c]; t < topStart[c] + topCount[c]; t++) {
+                count = insert(selected, count, tops[t], scores);
+            }
+        }
+        if (topSize + count > tops.length) {
+            tops = Arrays.copyOf(tops, Math.max(topSize + count, tops.length * 2));
+        }
+        System.arraycopy(selected, 0, tops, topSize, count);
+        topStart[node] = topSize;
+        topCount[node] = count;
+        topSize += count;
+    }
+
+    /**
+     * 점수 내림차순으로 정렬된 selected 에 value 를 끼워 넣고 새 개수를 돌려준다. 이미 있으면 그대로다.
+     */
+    private static int insert(int[] selected, int count, int value, double[] scores) {
+        int position = count;
+        for (int i = 0; i < count; i++) {
+            if (selected[i] == value) {
+                return count;
+            }
+            if (position == count && (scores[value] > scores[selected[i]]
+                    || (scores[value] == scores[selected[i]] && value < selected[i]))) {
+                position = i;
+            }
+        }
+        if (position >= selected.length) {
+            return count;
+        }
+        int newCount = Math.min(count + 1, selected.length);
+        System.arraycopy(selected, position, selected, position + 1, newCount - position - 1);
+        selected[position] = value;
+        return newCount;
+    }
+
+    private static int commonPrefix(String a, String b, int from) {
+        int length = Math.min(a.length(), b.length());
+        int i = from;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i - from;
+    }
+}
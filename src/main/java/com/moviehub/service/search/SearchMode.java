@@ -0,0 +1,47 @@
+package com.moviehub.service.search;
+
+import java.util.Locale;
+
+/**
+ * 영화 제목 검색 방식.
+ */
+public enum SearchMode {
+
+    /**
+     * 색인어(BM25) 검색. 초성만으로 된 검색어는 {@link #CHOSUNG} 으로 처리한다.
+     */
+    TEXT,
+
+    /**
+     * 초성 부분 문자열 검색 ("ㅇㅂㅈㅅ", "기ㅅㅊ").
+     */
+    CHOSUNG,
+
+    /**
+     * 자모 단위 부분 문자열 검색. 입력 중인 글자("기새" → 기생충)도 찾는다.
+     */
+    JAMO,
+
+    /**
+     * 편집 거리 안의 오타를 허용하는 검색 ("dark knigth", "기생츙").
+     */
+    FUZZY;
+
+    /**
+     * 검색어에 맞는 실제 방식. 초성만 입력한 검색어는 색인어 검색으로 찾을 수 없으므로 초성 검색으로 돌린다.
+     */
+    public SearchMode resolve(String query) {
+        return this == TEXT && query != null && HangulJamo.isChosungOnly(query) ? CHOSUNG : this;
+    }
+    
+    public static SearchMode from(String mode) {
+        if (mode == null || mode.isBlank()) {
+            return TEXT;
+        }
+        try {
+            return valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("지원하지 않는 검색 모드입니다: " + mode);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.moviehub.service.search;
+
+import com.moviehub.dto.MovieDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 제목 접두어 자동완성 인덱스.
+ * <p>
+ * 정규화한 제목과 원제를 키로 {@link PrefixTrie} 를 만들고 노드마다 인기도 상위 topN 편을 미리 골라 두므로,
+ * 키 입력 한 번의 비용은 접두어 길이에 비례하고 DB 나 캐시를 거치지 않는다.
+ * 트라이는 불변이라 {@link TitleCatalog} 가 새 제목 스냅샷을 넘길 때마다 다시 만든다.
+ */
+@Component
+@Slf4j
+public class TitleAutocompleteIndex {
+
+    private final TitleCatalog titleCatalog;
+    private final int topN;
+
+    private volatile Snapshot snapshot;
+
+    public TitleAutocompleteIndex(TitleCatalog titleCatalog,
+                                  @Value("${search.autocomplete.top-n:10}") int topN) {
+        this.titleCatalog = titleCatalog;
+        this.topN = topN;
+        titleCatalog.subscribe(this::rebuild);
+    }
+
+    synchronized void rebuild(TitleCatalog.Titles titles) {
+        if (snapshot != null && snapshot.titles.version >= titles.version) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<String> keys = new ArrayList<>(titles.size() * 2);
+        List<Integer> values = new ArrayList<>(titles.size() * 2);
+        for (int movie = 0; movie < titles.size(); movie++) {
+            String title = TitleTokenizer.normalize(titles.titles[movie]);
+            String originalTitle = TitleTokenizer.normalize(titles.originalTitles[movie]);
+            if (!title.isEmpty()) {
+                keys.add(title);
+                values.add(movie);
+            }
+            if (!originalTitle.isEmpty() && !originalTitle.equals(title)) {
+                keys.add(originalTitle);
+                values.add(movie);
+            }
+        }
+
+        PrefixTrie trie = PrefixTrie.build(keys.toArray(new String[0]),
+                values.stream().mapToInt(Integer::intValue).toArray(), titles.popularity, topN);
+        snapshot = new Snapshot(trie, titles);
+        log.info("Title autocomplete index built: {} movies, {} keys, {} nodes in {} ms",
+                titles.size(), keys.size(), trie.nodeCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 제목 또는 원제가 prefix 로 시작하는 영화를 인기도 순으로 최대 limit(topN 이하) 편 반환한다.
+     */
+    public List<MovieDto.Suggestion> suggest(String prefix, int limit) {
+        String normalized = TitleTokenizer.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild(titleCatalog.current());
+            current = snapshot;
+        }
+
+        int[] movies = current.trie.top(normalized);
+        List<MovieDto.Suggestion> suggestions = new ArrayList<>(Math.min(limit, movies.length));
+        for (int i = 0; i < movies.length && i < limit; i++) {
+            int movie = movies[i];
+            suggestions.add(MovieDto.Suggestion.builder()
+                    .id(current.titles.movieIds[movie])
+                    .title(current.titles.titles[movie])
+                    .originalTitle(current.titles.originalTitles[movie])
+                    .build());
+        }
+        return suggestions;
+    }
+
+    private static final class Snapshot {
+
+        final PrefixTrie trie;
+        final TitleCatalog.Titles titles;
+
+        Snapshot(PrefixTrie trie, TitleCatalog.Titles titles) {
+            this.trie = trie;
+            this.titles = titles;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.moviehub.service.search;
+
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.repository.MovieRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 자동완성, 초성/자모, 오타 허용 검색이 함께 쓰는 영화 제목 스냅샷.
+ * <p>
+ * 세 인덱스는 모두 불변 구조라 영화가 바뀌면 통째로 다시 만든다. 영화가 바뀌면 표시만 해 두고
+ * refresh-delay-ms 주기로 DB 에서 제목을 한 번만 읽어 새 {@link Titles} 를 만든 뒤, 구독한 인덱스에 차례로 넘긴다.
+ */
+@Component
+@Slf4j
+public class TitleCatalog {
+
+    private final MovieRepository movieRepository;
+
+    private final List<Consumer<Titles>> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile Titles titles;
+    private long version;
+
+    public TitleCatalog(MovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    /**
+     * 새 스냅샷을 만들 때마다 subscriber 를 부른다. 인덱스 생성자에서 등록한다.
+     */
+    void subscribe(Consumer<Titles> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Titles built = load();
+        for (Consumer<Titles> subscriber : subscribers) {
+            try {
+                subscriber.accept(built);
+            } catch (RuntimeException e) {
+                // 한 인덱스가 실패해도 나머지는 새 제목으로 바꾼다. 실패한 인덱스는 이전 구조로 계속 답한다
+                log.error("Failed to rebuild title index from snapshot v{}", built.version, e);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${search.titles.refresh-delay-ms:60000}")
+    public void refreshIfDirty() {
+        if (titles != null && dirty.getAndSet(false)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 가장 최근 스냅샷. 아직 없으면 이 자리에서 만든다.
+     */
+    Titles current() {
+        Titles current = titles;
+        if (current == null) {
+            synchronized (this) {
+                current = titles;
+                if (current == null) {
+                    current = load();
+                }
+            }
+        }
+        return current;
+    }
+
+    private synchronized Titles load() {
+        long start = System.currentTimeMillis();
+        dirty.set(false);
+        List<Object[]> rows = movieRepository.findTitleIndexRows();
+
+        UUID[] movieIds = new UUID[rows.size()];
+        String[] titleColumn = new String[rows.size()];
+        String[] originalTitles = new String[rows.size()];
+        double[] popularity = new double[rows.size()];
+        for (int movie = 0; movie < rows.size(); movie++) {
+            Object[] row = rows.get(movie);
+            movieIds[movie] = (UUID) row[0];
+            titleColumn[movie] = (String) row[1];
+            originalTitles[movie] = (String) row[2];
+            popularity[movie] = row[3] != null ? ((BigDecimal) row[3]).doubleValue() : 0.0;
+        }
+
+        Titles built = new Titles(++version, movieIds, titleColumn, originalTitles, popularity);
+        titles = built;
+        log.info("Title snapshot v{} loaded: {} movies in {} ms",
+                built.version, rows.size(), System.currentTimeMillis() - start);
+        return built;
+    }
+
+    /**
+     * 영화 번호(0부터) → 영화 ID, 제목, 원제, 인기도. 배열은 만든 뒤 바꾸지 않는다.
+     */
+    static final class Titles {
+
+        final long version;
+        final UUID[] movieIds;
+        final String[] titles;
+        final String[] originalTitles; // 없으면 null
+        final double[] popularity;
+
+        Titles(long version, UUID[] movieIds, String[] titles, String[] originalTitles, double[] popularity) {
+            this.version = version;
+            this.movieIds = movieIds;
+            this.titles = titles;
+            this.originalTitles = originalTitles;
+            this.popularity = popularity;
+        }
+
+        int size() {
+            return movieIds.length;
+        }
+    }
+}
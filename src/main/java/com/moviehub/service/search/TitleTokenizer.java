@@ -0,0 +1,37 @@
+package com.moviehub.service.search;
+
+import com.moviehub.service.recommendation.BigramTokenizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 영화 제목과 검색어를 같은 방식으로 색인어로 나눈다.
+ * <p>
+ * {@link BigramTokenizer} 로 한글을 두 글자씩 겹쳐 자르고("기생충" → 기생, 생충) 라틴 문자는 소문자 단어로 자른다.
+ * 줄거리와 달리 공백만 사이에 둔 한글 어절도 이어서 bigram 을 하나 더 만들어("다크 나이트" → …, 크나, …)
+ * 띄어쓰기를 다르게 입력해도 찾는다.
+ * 제목은 짧아 "the" 같은 단어도 의미가 있으므로 불용어는 두지 않고 BM25 의 IDF 에 맡긴다.
+ */
+final class TitleTokenizer {
+
+    private TitleTokenizer() {
+    }
+
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        BigramTokenizer.tokenize(text, true, tokens::add);
+        return tokens;
+    }
+
+    /**
+     * 접두어 비교용 형태. 소문자로 바꾸고 연속된 공백을 하나로 줄이며 앞뒤 공백을 없앤다.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,151 @@
+package com.moviehub.benchmark;
+
+import com.moviehub.entity.Movie;
+import com.moviehub.service.recommendation.ScoredMovie;
+import com.moviehub.service.recommendation.TopK;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 추천기들이 쓰던 상위 K 선택 방식과 {@link TopK} 비교.
+ * <ul>
+ *   <li>originalSort: 기존 콘텐츠 기반 추천 그대로 Movie 엔티티 스트림을 비교자로 정렬한 뒤 limit 개.
+ *       비교할 때마다 장르 JSON 을 풀어 Jaccard 를 계산하고, 동점이면 BigDecimal 인기도를 compareTo 로 비교한다</li>
+ *   <li>boxedHeap: 비교자를 가진 PriorityQueue&lt;Integer&gt; (GenreIndex, RatingMatrix, ALS, item-item)</li>
+ *   <li>primitiveTopK: int id / double 점수 최소 힙</li>
+ * </ul>
+ * {@code mvn test-compile} 후 테스트 클래스패스로 main 을 실행한다. 테스트 이름 패턴이 아니므로 mvn test 에는 포함되지 않는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopKBenchmark {
+
+    @Param({"10000", "100000"})
+    private int candidates;
+
+    @Param({"20", "100"})
+    private int limit;
+
+    private static final String[] GENRES = {"Action", "Drama", "Comedy", "Thriller", "Romance", "Horror", "Animation", "Crime"};
+    private static final List<String> TARGET_GENRES = List.of("Action", "Drama", "Thriller");
+
+    private List<Movie> movies;
+    private double[] scores;
+    private double[] popularity;
+    private UUID[] movieIds;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42L);
+        movies = new ArrayList<>(candidates);
+        scores = new double[candidates];
+        popularity = new double[candidates];
+        movieIds = new UUID[candidates];
+        for (int i = 0; i < candidates; i++) {
+            // 장르 1~3개. 장르 Jaccard 라 동점이 많다
+            Set<String> genres = new LinkedHashSet<>();
+            int count = 1 + random.nextInt(3);
+            while (genres.size() < count) {
+                genres.add(GENRES[random.nextInt(GENRES.length)]);
+            }
+            String genresJson = genres.stream().map(g -> "\"" + g + "\"").collect(Collectors.joining(",", "[", "]"));
+            BigDecimal moviePopularity = BigDecimal.valueOf(random.nextInt(1_000_000), 3);
+            movieIds[i] = new UUID(random.nextLong(), random.nextLong());
+            movies.add(Movie.builder().id(movieIds[i]).genres(genresJson).popularity(moviePopularity).build());
+            scores[i] = genreSimilarity(TARGET_GENRES, parseGenres(genresJson));
+            popularity[i] = moviePopularity.doubleValue();
+        }
+    }
+
+    @Benchmark
+    public List<ScoredMovie> originalSort() {
+        return movies.stream()
+                .sorted((m1, m2) -> {
+                    double similarity1 = genreSimilarity(TARGET_GENRES, parseGenres(m1.getGenres()));
+                    double similarity2 = genreSimilarity(TARGET_GENRES, parseGenres(m2.getGenres()));
+                    if (Double.compare(similarity1, similarity2) != 0) {
+                        return Double.compare(similarity2, similarity1);
+                    }
+                    return m2.getPopularity().compareTo(m1.getPopularity());
+                })
+                .limit(limit)
+                .map(m -> new ScoredMovie(m.getId(), genreSimilarity(TARGET_GENRES, parseGenres(m.getGenres()))))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ScoredMovie> boxedHeap() {
+        Comparator<Integer> order = (a, b) -> {
+            int cmp = Double.compare(scores[a], scores[b]);
+            if (cmp != 0) {
+                return cmp;
+            }
+            cmp = Double.compare(popularity[a], popularity[b]);
+            return cmp != 0 ? cmp : Integer.compare(b, a);
+        };
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, order);
+        for (int i = 0; i < candidates; i++) {
+            if (heap.size() < limit) {
+                heap.add(i);
+            } else if (order.compare(i, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        ScoredMovie[] result = new ScoredMovie[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            int slot = heap.poll();
+            result[i] = new ScoredMovie(movieIds[slot], scores[slot]);
+        }
+        return Arrays.asList(result);
+    }
+
+    @Benchmark
+    public List<ScoredMovie> primitiveTopK() {
+        TopK top = new TopK(limit);
+        for (int i = 0; i < candidates; i++) {
+            top.offer(i, scores[i], popularity[i]);
+        }
+        return top.drainToScoredMovies(slot -> movieIds[slot]);
+    }
+
+    // 기존 RecommendationService 의 장르 파싱과 유사도 계산
+    private static List<String> parseGenres(String genresJson) {
+        if (genresJson == null || genresJson.equals("[]")) {
+            return List.of();
+        }
+        String cleanJson = genresJson.replaceAll("[\\[\\]\"]", "");
+        if (cleanJson.isEmpty()) {
+            return List.of();
+        }
+        return List.of(cleanJson.split(","));
+    }
+
+    private static double genreSimilarity(List<String> genres1, List<String> genres2) {
+        if (genres1.isEmpty() || genres2.isEmpty()) {
+            return 0.0;
+        }
+        Set<String> intersection = new HashSet<>(genres1);
+        intersection.retainAll(new HashSet<>(genres2));
+        Set<String> union = new HashSet<>(genres1);
+        union.addAll(genres2);
+        return (double) intersection.size() / union.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TopKBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.moviehub.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescingCacheTest {
+
+    @Test
+    void get_WithConcurrentMisses_ShouldRunLoaderOnce() throws Exception {
+        CoalescingCache cache = new CoalescingCache(new ConcurrentMapCache("test"), null, 1.0, null, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            release.await();
+            return "value";
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get("key", loader)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get("key").get()).isEqualTo("value");
+    }
+
+    @Test
+    void get_NearExpiry_ShouldRefreshEarlyAndPropagateLoaderErrors() {
+        Cache target = new ConcurrentMapCache("test");
+        // 계산에 1분 걸린 값이 1초 뒤 만료된다면 거의 항상 미리 다시 계산한다
+        target.put("hot", new CoalescingCache.Entry("stale", 60_000, System.currentTimeMillis() + 1000));
+        target.put("cold", new CoalescingCache.Entry("fresh", 1, System.currentTimeMillis() + 3_600_000));
+        CoalescingCache cache = new CoalescingCache(target, Duration.ofHours(1), 1.0, null, Duration.ZERO);
+
+        assertThat(cache.get("hot", () -> "recomputed")).isEqualTo("recomputed");
+        assertThat(cache.get("cold", () -> "recomputed")).isEqualTo("fresh");
+        assertThatThrownBy(() -> cache.get("missing", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(Cache.ValueRetrievalException.class).hasRootCauseMessage("boom");
+    }
+
+    @Test
+    void evictByPrefix_ShouldRemoveOnlyMatchingKeys() {
+        CoalescingCache cache = new CoalescingCache(new ConcurrentMapCache("test"), null, 1.0, null, Duration.ZERO);
+        cache.put("user-a_10", "a10");
+        cache.put("user-a_20", "a20");
+        cache.put("user-b_10", "b10");
+
+        cache.evictByPrefix("user-a_");
+
+        assertThat(cache.get("user-a_10")).isNull();
+        assertThat(cache.get("user-a_20")).isNull();
+        assertThat(cache.get("user-b_10").get()).isEqualTo("b10");
+    }
+}
@@ -0,0 +1,132 @@
+package com.moviehub.evaluation;
+
+import com.moviehub.service.importer.MovieLensFormat;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * 평가용으로 메모리에 읽은 MovieLens 평점. 평점은 리뷰 평점 1-10 으로 바꿔 둔다.
+ * 학습용 평점만 원래 형식으로 다시 써서 {@link com.moviehub.service.importer.MovieLensImporter} 로 넣는다.
+ */
+final class MovieLensDataset {
+
+    final MovieLensFormat.Layout layout;
+    final Path directory;
+    final BitSet movies = new BitSet();
+    int[] users = new int[1024];
+    int[] items = new int[1024];
+    byte[] ratings = new byte[1024];
+    int[] timestamps = new int[1024];
+    int size;
+
+    private MovieLensDataset(MovieLensFormat.Layout layout, Path directory) {
+        this.layout = layout;
+        this.directory = directory;
+    }
+
+    static MovieLensDataset read(Path directory) throws IOException {
+        MovieLensFormat.Layout layout = MovieLensFormat.detect(directory);
+        MovieLensDataset dataset = new MovieLensDataset(layout, directory);
+
+        try (BufferedReader reader = open(layout, layout.movies(directory))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                List<String> fields = layout.split(line);
+                if (fields.size() >= 3) {
+                    dataset.movies.set(Integer.parseInt(fields.get(0)));
+                }
+            }
+        }
+        try (BufferedReader reader = open(layout, layout.ratings(directory))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = layout.splitPlain(line);
+                if (fields.length >= 4 && dataset.movies.get(Integer.parseInt(fields[1]))) {
+                    dataset.add(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]),
+                            MovieLensFormat.toRating(Double.parseDouble(fields[2])), Integer.parseInt(fields[3]));
+                }
+            }
+        }
+        return dataset;
+    }
+
+    /**
+     * 평점이 minRatings 개 이상인 사용자마다 가장 최근 holdoutFraction 만큼을 평가용으로 떼어 낸다.
+     * 반환값의 i 번째가 true 면 i 번째 평점은 평가용이고 DB 에는 넣지 않는다.
+     */
+    boolean[] holdout(double holdoutFraction, int minRatings) {
+        Map<Integer, List<Integer>> byUser = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            byUser.computeIfAbsent(users[i], user -> new ArrayList<>()).add(i);
+        }
+        boolean[] holdout = new boolean[size];
+        for (List<Integer> rows : byUser.values()) {
+            if (rows.size() < minRatings) {
+                continue;
+            }
+            rows.sort(Comparator.comparingInt((Integer row) -> timestamps[row]).thenComparingInt(row -> row));
+            int held = (int) Math.ceil(rows.size() * holdoutFraction);
+            for (int k = rows.size() - held; k < rows.size(); k++) {
+                holdout[rows.get(k)] = true;
+            }
+        }
+        return holdout;
+    }
+
+    /**
+     * 평가용이 아닌 평점을 target 에 같은 형식으로 쓴다. 학습용 평점 중 가장 늦은 것이 now 가 되도록
+     * 모든 시각을 옮겨 트렌딩의 시간 감쇠가 실제처럼 동작하게 한다.
+     */
+    void writeTraining(Path target, boolean[] holdout, long nowEpochSecond) throws IOException {
+        int latest = 0;
+        for (int i = 0; i < size; i++) {
+            if (!holdout[i]) {
+                latest = Math.max(latest, timestamps[i]);
+            }
+        }
+        long shift = nowEpochSecond - latest;
+
+        Files.copy(layout.movies(directory), layout.movies(target), StandardCopyOption.REPLACE_EXISTING);
+        String separator = layout.getSeparator();
+        try (BufferedWriter writer = Files.newBufferedWriter(layout.ratings(target), layout.getCharset())) {
+            if (layout.hasHeader()) {
+                writer.write("userId,movieId,rating,timestamp");
+                writer.newLine();
+            }
+            for (int i = 0; i < size; i++) {
+                if (!holdout[i]) {
+                    writer.write(users[i] + separator + items[i] + separator + ratings[i] / 2.0
+                            + separator + (timestamps[i] + shift));
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    private void add(int user, int item, int rating, int timestamp) {
+        if (size == users.length) {
+            int capacity = size * 2;
+            users = Arrays.copyOf(users, capacity);
+            items = Arrays.copyOf(items, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+        }
+        users[size] = user;
+        items[size] = item;
+        ratings[size] = (byte) rating;
+        timestamps[size] = timestamp;
+        size++;
+    }
+
+    private static BufferedReader open(MovieLensFormat.Layout layout, Path path) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(path, layout.getCharset());
+        if (layout.hasHeader()) {
+            reader.readLine();
+        }
+        return reader;
+    }
+}
@@ -0,0 +1,53 @@
+package com.moviehub.evaluation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MovieLensDatasetTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void holdout_ShouldHoldOutLatestRatingsOfActiveUsersOnly() throws Exception {
+        StringBuilder movies = new StringBuilder();
+        StringBuilder ratings = new StringBuilder();
+        for (int movie = 1; movie <= 5; movie++) {
+            movies.append(movie).append("::Movie ").append(movie).append(" (1995)::Drama\n");
+            ratings.append("1::").append(movie).append("::4::").append(1000 - movie).append('\n');
+        }
+        ratings.append("2::1::3::500\n");
+        Files.writeString(directory.resolve("movies.dat"), movies.toString());
+        Files.writeString(directory.resolve("ratings.dat"), ratings.toString());
+
+        MovieLensDataset dataset = MovieLensDataset.read(directory);
+        boolean[] holdout = dataset.holdout(0.2, 5);
+
+        // 사용자 1 의 가장 최근 평점은 타임스탬프가 가장 큰 movie 1, 평점이 하나뿐인 사용자 2 는 모두 학습용
+        assertThat(holdout).containsExactly(true, false, false, false, false, false);
+    }
+
+    @Test
+    void writeTraining_ShouldDropHeldOutRatingsAndShiftTimestampsToNow() throws Exception {
+        Path source = Files.createDirectory(directory.resolve("source"));
+        Path target = Files.createDirectory(directory.resolve("target"));
+        Files.writeString(source.resolve("movies.csv"), "movieId,title,genres\n"
+                + "1,Toy Story (1995),Animation\n"
+                + "2,Heat (1995),Action\n");
+        Files.writeString(source.resolve("ratings.csv"), "userId,movieId,rating,timestamp\n"
+                + "1,1,4.5,100\n"
+                + "1,2,3.0,200\n");
+
+        MovieLensDataset dataset = MovieLensDataset.read(source);
+        dataset.writeTraining(target, new boolean[]{false, true}, 1000);
+
+        assertThat(target.resolve("movies.csv")).hasSameTextualContentAs(source.resolve("movies.csv"));
+        assertThat(Files.readAllLines(target.resolve("ratings.csv")))
+                .containsExactly("userId,movieId,rating,timestamp", "1,1,4.5,1000");
+    }
+}
@@ -0,0 +1,358 @@
+package com.moviehub.evaluation;
+
+import com.moviehub.MovieHubApplication;
+import com.moviehub.service.RecommendationService;
+import com.moviehub.service.importer.MovieLensFormat;
+import com.moviehub.service.importer.MovieLensImporter;
+import com.moviehub.service.recommendation.*;
+import com.moviehub.service.recommendation.pipeline.PipelineRequest;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.CommandLinePropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * MovieLens 형식 데이터로 추천 모드별 품질과 속도를 재는 오프라인 평가.
+ * <p>
+ * 사용자마다 가장 최근 평점 일부를 떼어 두고 나머지를 DB 에 넣은 뒤 인덱스와 모델을 다시 만들고,
+ * 평가 사용자마다 각 모드의 상위 K 를 구해 떼어 둔 평점 중 relevant-rating 이상인 영화와 비교한다.
+ * 모드별로 precision@K, recall@K, 카탈로그 coverage, 호출 지연 p50/p99, 호출당 할당 바이트를 출력한다.
+ * <p>
+ * 평점 시각은 마지막 평점이 지금이 되도록 옮겨 넣으므로 트렌딩의 시간 감쇠도 실제처럼 동작한다.
+ * 하이브리드/트렌딩/인기 모드는 캐시를 거치지 않도록 추천기와 파이프라인을 직접 호출한다.
+ * 할당은 호출한 스레드의 것만 세므로 하이브리드처럼 다른 스레드에서 도는 전략의 할당은 빠진다.
+ * <p>
+ * TMDb 없이 로컬 PostgreSQL(평가 전용 DB)과 local 프로필(메모리 캐시)로 돈다. {@code mvn test-compile} 후
+ * 테스트 클래스패스로 main 을 실행한다.
+ * <pre>
+ * --evaluation.dataset=/data/ml-latest-small  (필수, movies/ratings 의 .csv 또는 .dat)
+ * --evaluation.k=10 --evaluation.users=1000 --evaluation.holdout=0.2 --evaluation.min-ratings=5
+ * --evaluation.relevant-rating=7 --evaluation.warmup=50
+ * --evaluation.truncate=true                  (비어 있지 않은 DB 의 사용자/영화/리뷰를 지우고 넣는다)
+ * --spring.datasource.url=jdbc:postgresql://localhost:5432/moviehub_eval
+ * </pre>
+ */
+public final class RecommendationEvaluation {
+
+    private static final int CANDIDATE_OVERFETCH = 2;
+    private static final String TRENDING_RANGE = "week";
+    // 사용자의 대표 장르 → 그 장르를 가장 앞에 둔 MoodIndex 의 기분. 범죄/전쟁/서부극처럼 기분이 없는 장르는 건너뛴다
+    private static final Map<String, String> GENRE_MOODS = Map.ofEntries(
+            Map.entry("Comedy", "happy"), Map.entry("Animation", "happy"), Map.entry("Family", "happy"),
+            Map.entry("Music", "happy"), Map.entry("Drama", "sad"), Map.entry("Romance", "romantic"),
+            Map.entry("Action", "excited"), Map.entry("Thriller", "excited"),
+            Map.entry("Science Fiction", "excited"), Map.entry("Adventure", "adventurous"),
+            Map.entry("Fantasy", "adventurous"), Map.entry("Horror", "scared"), Map.entry("Mystery", "scared"),
+            Map.entry("Documentary", "thoughtful"), Map.entry("History", "thoughtful"));
+
+    private final ConfigurableApplicationContext context;
+    private final MovieLensDataset dataset;
+    private final boolean[] holdout;
+    private final int k;
+    private final int warmup;
+    private final int relevantRating;
+
+    private RecommendationEvaluation(ConfigurableApplicationContext context, MovieLensDataset dataset,
+                                     boolean[] holdout, int k, int warmup, int relevantRating) {
+        this.context = context;
+        this.dataset = dataset;
+        this.holdout = holdout;
+        this.k = k;
+        this.warmup = warmup;
+        this.relevantRating = relevantRating;
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        String datasetOption = options.getProperty("evaluation.dataset");
+        if (datasetOption == null) {
+            throw new IllegalArgumentException("--evaluation.dataset=<MovieLens 디렉터리> 가 필요합니다");
+        }
+        int k = Integer.parseInt(option(options, "evaluation.k", "10"));
+        int userLimit = Integer.parseInt(option(options, "evaluation.users", "1000"));
+        double holdoutFraction = Double.parseDouble(option(options, "evaluation.holdout", "0.2"));
+        int minRatings = Integer.parseInt(option(options, "evaluation.min-ratings", "5"));
+        int relevantRating = Integer.parseInt(option(options, "evaluation.relevant-rating", "7"));
+        int warmup = Integer.parseInt(option(options, "evaluation.warmup", "50"));
+        boolean truncate = Boolean.parseBoolean(option(options, "evaluation.truncate", "false"));
+
+        long start = System.currentTimeMillis();
+        MovieLensDataset dataset = MovieLensDataset.read(Paths.get(datasetOption));
+        boolean[] holdout = dataset.holdout(holdoutFraction, minRatings);
+        System.out.printf("Read %d movies, %d ratings in %d ms%n",
+                dataset.movies.cardinality(), dataset.size, System.currentTimeMillis() - start);
+
+        Path vectorIndex = Files.createTempFile("evaluation-vectors", ".hnsw");
+        Files.delete(vectorIndex);
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("server.port", "0"); // 보안 설정이 웹 컨텍스트를 요구하므로 임의 포트로 띄운다
+        defaults.put("spring.jpa.show-sql", "false");
+        defaults.put("recommendation.dense-ids.dir", "");
+        defaults.put("recommendation.als.snapshot-path", "");
+        defaults.put("recommendation.hnsw.path", vectorIndex.toString());
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MovieHubApplication.class)
+                .profiles("local")
+                .initializers(application -> {
+                    // application.yml 보다 앞서고 명령행 인자보다는 뒤에 오도록 끼운다
+                    MutablePropertySources sources = application.getEnvironment().getPropertySources();
+                    MapPropertySource evaluation = new MapPropertySource("evaluation", defaults);
+                    if (sources.contains(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME)) {
+                        sources.addAfter(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME, evaluation);
+                    } else {
+                        sources.addFirst(evaluation);
+                    }
+                })
+                .run(args);
+        try {
+            RecommendationEvaluation evaluation =
+                    new RecommendationEvaluation(context, dataset, holdout, k, warmup, relevantRating);
+            evaluation.load(truncate);
+            evaluation.rebuildModels();
+            evaluation.evaluate(userLimit);
+        } finally {
+            context.close();
+            Files.deleteIfExists(vectorIndex);
+        }
+    }
+
+    private static String option(SimpleCommandLinePropertySource options, String name, String defaultValue) {
+        String value = options.getProperty(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private void load(boolean truncate) throws IOException, SQLException {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Integer existing = jdbc.queryForObject("SELECT COUNT(*) FROM movies", Integer.class);
+        if (existing != null && existing > 0) {
+            if (!truncate) {
+                throw new IllegalStateException("movies 테이블이 비어 있지 않습니다. 평가 전용 DB 를 쓰거나 "
+                        + "--evaluation.truncate=true 로 실행하세요");
+            }
+            jdbc.execute("TRUNCATE TABLE reviews, movies, users CASCADE");
+        }
+
+        Path training = Files.createTempDirectory("evaluation-training");
+        try {
+            dataset.writeTraining(training, holdout, Instant.now().getEpochSecond());
+            MovieLensImporter.ImportResult result =
+                    context.getBean(MovieLensImporter.class).importDirectory(training);
+            System.out.printf("Loaded %d movies, %d users, %d training reviews in %d ms (%d rows/s)%n",
+                    result.getMovies(), result.getUsers(), result.getReviews(), result.getMillis(),
+                    Math.round(result.getRowsPerSecond()));
+        } finally {
+            Files.deleteIfExists(dataset.layout.ratings(training));
+            Files.deleteIfExists(dataset.layout.movies(training));
+            Files.delete(training);
+        }
+    }
+
+    private void rebuildModels() throws InterruptedException {
+        long start = System.currentTimeMillis();
+        LocalDateTime loadedAt = LocalDateTime.now();
+        context.getBean(GenreIndex.class).rebuild();
+        context.getBean(OverviewSimilarityIndex.class).rebuild();
+        context.getBean(MovieVectorIndex.class).initialize();
+        context.getBean(RatingMatrix.class).rebuild();
+        context.getBean(ItemSimilarityIndex.class).rebuild();
+        context.getBean(SeenIndex.class).rebuild();
+        context.getBean(UserNeighbourIndex.class).rebuild();
+        context.getBean(TrendingIndex.class).rebuild();
+        context.getBean(MoodIndex.class).rebuild();
+
+        // 기동 시 학습이 아직 돌고 있으면 train() 은 건너뛰므로 적재 이후 학습된 모델이 나올 때까지 다시 부른다
+        MatrixFactorizationRecommender als = context.getBean(MatrixFactorizationRecommender.class);
+        while (als.getTrainedAt().map(trainedAt -> trainedAt.isBefore(loadedAt)).orElse(true)) {
+            als.train();
+            if (als.getTrainedAt().map(trainedAt -> trainedAt.isBefore(loadedAt)).orElse(true)) {
+                Thread.sleep(1000);
+            }
+        }
+        System.out.printf("Rebuilt indexes and models in %d ms%n", System.currentTimeMillis() - start);
+    }
+
+    private void evaluate(int userLimit) {
+        Map<UUID, Set<UUID>> relevant = new HashMap<>();
+        for (int i = 0; i < dataset.size; i++) {
+            if (holdout[i] && dataset.ratings[i] >= relevantRating) {
+                relevant.computeIfAbsent(MovieLensFormat.userId(dataset.users[i]), user -> new HashSet<>())
+                        .add(MovieLensFormat.movieId(dataset.items[i]));
+            }
+        }
+        List<UUID> users = relevant.keySet().stream().sorted().collect(Collectors.toList());
+        Collections.shuffle(users, new Random(42L));
+        if (userLimit > 0 && users.size() > userLimit) {
+            users = users.subList(0, userLimit);
+        }
+
+        System.out.printf("%nEvaluating %d users, K=%d, relevant rating >= %d%n", users.size(), k, relevantRating);
+        System.out.printf("%-14s %8s %8s %9s %9s %9s %12s %7s%n",
+                "mode", "P@K", "R@K", "coverage", "p50 ms", "p99 ms", "alloc KB", "empty");
+        for (Map.Entry<String, Function<UUID, List<UUID>>> mode : modes().entrySet()) {
+            Result result = measure(mode.getValue(), users, relevant);
+            System.out.printf("%-14s %8.4f %8.4f %9.4f %9.3f %9.3f %12.1f %7d%n", mode.getKey(),
+                    result.precision, result.recall, (double) result.recommended / dataset.movies.cardinality(),
+                    result.p50Nanos / 1e6, result.p99Nanos / 1e6, result.allocatedBytes / 1024.0, result.empty);
+        }
+    }
+
+    /**
+     * 사용자 기반 모드들. 영화 기반 모드(콘텐츠, 함께 좋아한)는 기준 영화가 필요해 사용자 holdout 으로는 재지 않는다.
+     * 기분 모드는 학습 평점에서 고른 사용자의 대표 장르를 기분으로 바꿔 쓰고, 기분이 없으면 서비스처럼 인기 영화로 대신한다.
+     */
+    private Map<String, Function<UUID, List<UUID>>> modes() {
+        RecommendationService service = context.getBean(RecommendationService.class);
+        HybridRecommender hybrid = context.getBean(HybridRecommender.class);
+        RecommendationPipelines pipelines = context.getBean(RecommendationPipelines.class);
+
+        Map<String, Function<UUID, List<UUID>>> modes = new LinkedHashMap<>();
+        modes.put("social", userId -> ids(service.scoreSocial(userId, k)));
+        modes.put("personalized", userId -> ids(service.scorePersonalized(userId, k)));
+        modes.put("user-content", userId -> ids(service.scoreContentForUser(userId, k)));
+        modes.put("hybrid", userId -> hybrid.recommend(userId, null, k).getMovies().stream()
+                .map(HybridRecommender.BlendedMovie::getMovieId)
+                .collect(Collectors.toList()));
+        modes.put("trending", userId -> ids(pipelines.getTrending().run(request(userId, TRENDING_RANGE))));
+        modes.put("popular", userId -> ids(pipelines.getPopular().run(request(userId, null))));
+        Map<UUID, String> moods = userMoods();
+        modes.put("mood", userId -> {
+            String mood = moods.get(userId);
+            if (mood == null) {
+                return ids(pipelines.getPopular().run(request(userId, null)));
+            }
+            return ids(pipelines.getMood().run(PipelineRequest.builder()
+                    .userId(userId)
+                    .mood(mood)
+                    .limit(k)
+                    .candidateLimit(k * CANDIDATE_OVERFETCH)
+                    .build()));
+        });
+        return modes;
+    }
+
+    /**
+     * 사용자마다 relevant-rating 이상으로 평가한 학습 영화에서 가장 많이 나온, 기분이 있는 장르의 기분.
+     * 개수가 같으면 장르 이름 순으로 골라 실행마다 같은 기분이 나오게 한다.
+     */
+    private Map<UUID, String> userMoods() {
+        Map<UUID, Map<String, Integer>> genreCounts = new HashMap<>();
+        context.getBean(JdbcTemplate.class).query(
+                "SELECT r.user_id, m.genres::text FROM reviews r JOIN movies m ON m.id = r.movie_id WHERE r.rating >= ?",
+                row -> {
+                    Map<String, Integer> counts = genreCounts.computeIfAbsent(
+                            row.getObject(1, UUID.class), user -> new TreeMap<>());
+                    for (String genre : GenreIndex.parseGenres(row.getString(2))) {
+                        if (GENRE_MOODS.containsKey(genre)) {
+                            counts.merge(genre, 1, Integer::sum);
+                        }
+                    }
+                }, relevantRating);
+
+        Map<UUID, String> moods = new HashMap<>();
+        genreCounts.forEach((userId, counts) -> counts.entrySet().stream()
+                .max(Map.Entry.<String, Integer>comparingByValue()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .ifPresent(top -> moods.put(userId, GENRE_MOODS.get(top.getKey()))));
+        System.out.printf("Mood mode: %d users mapped to a mood from their top genre%n", moods.size());
+        return moods;
+    }
+
+    private PipelineRequest request(UUID userId, String timeRange) {
+        return PipelineRequest.builder()
+                .userId(userId)
+                .timeRange(timeRange)
+                .limit(k)
+                .candidateLimit(k * CANDIDATE_OVERFETCH)
+                .build();
+    }
+
+    private static List<UUID> ids(List<ScoredMovie> movies) {
+        return movies.stream().map(ScoredMovie::getMovieId).collect(Collectors.toList());
+    }
+
+    private Result measure(Function<UUID, List<UUID>> mode, List<UUID> users, Map<UUID, Set<UUID>> relevant) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < Math.min(warmup, users.size()); i++) {
+            mode.apply(users.get(i));
+        }
+
+        long[] latencies = new long[users.size()];
+        double precision = 0.0;
+        double recall = 0.0;
+        long allocated = 0;
+        int empty = 0;
+        Set<UUID> recommended = new HashSet<>();
+        for (int i = 0; i < users.size(); i++) {
+            UUID userId = users.get(i);
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            List<UUID> movies = mode.apply(userId);
+            latencies[i] = System.nanoTime() - start;
+            allocated += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+            Set<UUID> expected = relevant.get(userId);
+            int hits = 0;
+            for (UUID movieId : movies.subList(0, Math.min(k, movies.size()))) {
+                recommended.add(movieId);
+                if (expected.contains(movieId)) {
+                    hits++;
+                }
+            }
+            precision += (double) hits / k;
+            recall += (double) hits / expected.size();
+            if (movies.isEmpty()) {
+                empty++;
+            }
+        }
+
+        Arrays.sort(latencies);
+        int count = Math.max(1, users.size());
+        return new Result(precision / count, recall / count, recommended.size(),
+                percentile(latencies, 0.50), percentile(latencies, 0.99), allocated / count, empty);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.max(0, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static final class Result {
+
+        final double precision;
+        final double recall;
+        final int recommended;
+        final long p50Nanos;
+        final long p99Nanos;
+        final long allocatedBytes;
+        final int empty;
+
+        Result(double precision, double recall, int recommended, long p50Nanos, long p99Nanos,
+               long allocatedBytes, int empty) {
+            this.precision = precision;
+            this.recall = recall;
+            this.recommended = recommended;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.empty = empty;
+        }
+    }
+}
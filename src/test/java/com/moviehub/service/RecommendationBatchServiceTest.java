@@ -0,0 +1,178 @@
+package com.moviehub.service;
+
+import com.moviehub.entity.RecommendationBatchRun;
+import com.moviehub.entity.UserRecommendation;
+import com.moviehub.repository.RecommendationBatchRunRepository;
+import com.moviehub.repository.UserRecommendationRepository;
+import com.moviehub.repository.UserRepository;
+import com.moviehub.service.recommendation.MovieIdLists;
+import com.moviehub.service.recommendation.ScoredMovie;
+import com.moviehub.service.recommendation.UuidLists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RecommendationBatchServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserRecommendationRepository userRecommendationRepository = mock(UserRecommendationRepository.class);
+    private final RecommendationBatchRunRepository batchRunRepository = mock(RecommendationBatchRunRepository.class);
+    private final RecommendationService recommendationService = mock(RecommendationService.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    private RecommendationBatchService batchService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(batchRunRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(recommendationService.scoreSocial(any(), anyInt()))
+                .thenReturn(List.of(new ScoredMovie(UUID.randomUUID(), 3)));
+        when(recommendationService.scorePersonalized(any(), anyInt())).thenReturn(List.of());
+        when(recommendationService.scoreContentForUser(any(), anyInt())).thenReturn(List.of());
+
+        batchService = new RecommendationBatchService(userRepository, userRecommendationRepository,
+                batchRunRepository, recommendationService, transactionTemplate, 2, 2, 10, 20);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_ShouldResumeInterruptedRunAfterCheckpoint() {
+        UUID checkpoint = UUID.randomUUID();
+        UUID next = UUID.randomUUID();
+        RecommendationBatchRun interrupted = RecommendationBatchRun.builder()
+                .id(UUID.randomUUID())
+                .status(RecommendationBatchRun.BatchStatus.RUNNING)
+                .startedAt(LocalDateTime.now().minusHours(1))
+                .lastUserId(checkpoint)
+                .totalUsers(3L)
+                .processedUsers(2L)
+                .build();
+        when(batchRunRepository.findTopByOrderByStartedAtDesc()).thenReturn(Optional.of(interrupted));
+        when(userRepository.count()).thenReturn(4L);
+        when(userRepository.findIdsAfter(eq(checkpoint), any(Pageable.class))).thenReturn(List.of(next));
+        when(userRepository.findIdsAfter(eq(next), any(Pageable.class))).thenReturn(List.of());
+
+        batchService.run();
+
+        verify(userRepository, never()).findIdsOrderById(any());
+        ArgumentCaptor<List<UserRecommendation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userRecommendationRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(UserRecommendation::getUserId).containsExactly(next);
+        assertThat(MovieIdLists.unpack(saved.getValue().get(0).getSocialMovieIds())).hasSize(1);
+        assertThat(interrupted.getStatus()).isEqualTo(RecommendationBatchRun.BatchStatus.COMPLETED);
+        assertThat(interrupted.getProcessedUsers()).isEqualTo(3L);
+        assertThat(interrupted.getLastUserId()).isEqualTo(next);
+        assertThat(interrupted.getTotalUsers()).isEqualTo(4L);
+    }
+
+    @Test
+    void run_WhenUnfinishedRunIsTooOld_ShouldCloseItAndStartOver() {
+        RecommendationBatchRun stale = RecommendationBatchRun.builder()
+                .id(UUID.randomUUID())
+                .status(RecommendationBatchRun.BatchStatus.FAILED)
+                .startedAt(LocalDateTime.now().minusDays(2))
+                .finishedAt(LocalDateTime.now().minusDays(2))
+                .lastUserId(UUID.randomUUID())
+                .processedUsers(2L)
+                .build();
+        UUID user = UUID.randomUUID();
+        when(batchRunRepository.findTopByOrderByStartedAtDesc()).thenReturn(Optional.of(stale));
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.findIdsOrderById(any())).thenReturn(List.of(user));
+        when(userRepository.findIdsAfter(eq(user), any(Pageable.class))).thenReturn(List.of());
+
+        batchService.run();
+
+        verify(userRepository, never()).findIdsAfter(eq(stale.getLastUserId()), any(Pageable.class));
+        assertThat(stale.getStatus()).isEqualTo(RecommendationBatchRun.BatchStatus.FAILED);
+        assertThat(stale.getProcessedUsers()).isEqualTo(2L);
+        ArgumentCaptor<RecommendationBatchRun> run = ArgumentCaptor.forClass(RecommendationBatchRun.class);
+        verify(batchRunRepository, atLeastOnce()).save(run.capture());
+        RecommendationBatchRun last = run.getValue();
+        assertThat(last).isNotSameAs(stale);
+        assertThat(last.getStatus()).isEqualTo(RecommendationBatchRun.BatchStatus.COMPLETED);
+        assertThat(last.getProcessedUsers()).isEqualTo(1L);
+        assertThat(last.getTotalUsers()).isEqualTo(1L);
+    }
+
+    @Test
+    void run_ShouldRecordUsersThatStillFailAfterRetry() {
+        UUID failing = UUID.randomUUID();
+        UUID ok = UUID.randomUUID();
+        when(batchRunRepository.findTopByOrderByStartedAtDesc()).thenReturn(Optional.empty());
+        when(userRepository.count()).thenReturn(2L);
+        when(userRepository.findIdsOrderById(any())).thenReturn(List.of(failing, ok));
+        when(userRepository.findIdsAfter(eq(ok), any(Pageable.class))).thenReturn(List.of());
+        when(recommendationService.scoreSocial(eq(failing), anyInt())).thenThrow(new IllegalStateException("boom"));
+
+        batchService.run();
+
+        ArgumentCaptor<RecommendationBatchRun> run = ArgumentCaptor.forClass(RecommendationBatchRun.class);
+        verify(batchRunRepository, atLeastOnce()).save(run.capture());
+        RecommendationBatchRun last = run.getValue();
+        assertThat(last.getStatus()).isEqualTo(RecommendationBatchRun.BatchStatus.COMPLETED);
+        assertThat(last.getProcessedUsers()).isEqualTo(2L);
+        assertThat(last.getFailedUsers()).isEqualTo(1L);
+        assertThat(UuidLists.unpack(last.getFailedUserIds())).containsExactly(failing);
+        verify(recommendationService, times(2)).scoreSocial(eq(failing), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_ShouldRetryFailedUsersOnceAtTheEnd() {
+        UUID flaky = UUID.randomUUID();
+        when(batchRunRepository.findTopByOrderByStartedAtDesc()).thenReturn(Optional.empty());
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.findIdsOrderById(any())).thenReturn(List.of(flaky));
+        when(userRepository.findIdsAfter(eq(flaky), any(Pageable.class))).thenReturn(List.of());
+        when(recommendationService.scoreSocial(eq(flaky), anyInt()))
+                .thenThrow(new IllegalStateException("timeout"))
+                .thenReturn(List.of());
+
+        batchService.run();
+
+        ArgumentCaptor<List<UserRecommendation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userRecommendationRepository, times(2)).saveAll(saved.capture());
+        assertThat(saved.getAllValues().get(1)).extracting(UserRecommendation::getUserId).containsExactly(flaky);
+        ArgumentCaptor<RecommendationBatchRun> run = ArgumentCaptor.forClass(RecommendationBatchRun.class);
+        verify(batchRunRepository, atLeastOnce()).save(run.capture());
+        assertThat(run.getValue().getFailedUsers()).isZero();
+        assertThat(UuidLists.unpack(run.getValue().getFailedUserIds())).isEmpty();
+    }
+
+    @Test
+    void run_WhenChunkCannotBeRead_ShouldMarkRunFailedAndResumeItNextTime() {
+        RecommendationBatchRun[] latest = new RecommendationBatchRun[1];
+        when(batchRunRepository.findTopByOrderByStartedAtDesc()).thenAnswer(invocation -> Optional.ofNullable(latest[0]));
+        when(batchRunRepository.save(any())).thenAnswer(invocation -> latest[0] = invocation.getArgument(0));
+        when(userRepository.findIdsOrderById(any())).thenThrow(new IllegalStateException("db down"));
+
+        batchService.run();
+
+        assertThat(latest[0].getStatus()).isEqualTo(RecommendationBatchRun.BatchStatus.FAILED);
+        assertThat(latest[0].getFinishedAt()).isNotNull();
+
+        reset(userRepository);
+        when(userRepository.findIdsOrderById(any())).thenReturn(List.of());
+        RecommendationBatchRun failed = latest[0];
+        batchService.run();
+
+        assertThat(latest[0]).isSameAs(failed);
+        assertThat(failed.getStatus()).isEqualTo(RecommendationBatchRun.BatchStatus.COMPLETED);
+    }
+}
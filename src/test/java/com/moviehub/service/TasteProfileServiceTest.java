@@ -0,0 +1,169 @@
+package com.moviehub.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviehub.dto.RecommendationDto;
+import com.moviehub.entity.Movie;
+import com.moviehub.entity.Review;
+import com.moviehub.entity.User;
+import com.moviehub.entity.UserPreferences;
+import com.moviehub.event.FavoriteChangedEvent;
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.event.ReviewChangedEvent;
+import com.moviehub.repository.FavoriteRepository;
+import com.moviehub.repository.MovieRepository;
+import com.moviehub.repository.ReviewRepository;
+import com.moviehub.repository.UserPreferencesRepository;
+import com.moviehub.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TasteProfileServiceTest {
+
+    private final UserPreferencesRepository userPreferencesRepository = mock(UserPreferencesRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ReviewRepository reviewRepository = mock(ReviewRepository.class);
+    private final FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+
+    private final User user = User.builder().id(UUID.randomUUID()).username("tester").build();
+    private final Movie actionDrama = Movie.builder().id(UUID.randomUUID()).genres("[\"Action\", \"Drama\"]").build();
+    private final Movie comedy = Movie.builder().id(UUID.randomUUID()).genres("[\"Comedy\"]").build();
+
+    private TasteProfileService tasteProfileService;
+    private UserPreferences stored;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(movieRepository.findById(actionDrama.getId())).thenReturn(Optional.of(actionDrama));
+        when(movieRepository.findById(comedy.getId())).thenReturn(Optional.of(comedy));
+        when(userPreferencesRepository.save(any())).thenAnswer(invocation -> {
+            stored = invocation.getArgument(0);
+            return stored;
+        });
+        when(userPreferencesRepository.findByUserIdForUpdate(user.getId()))
+                .thenAnswer(invocation -> Optional.ofNullable(stored));
+        when(userPreferencesRepository.findWithUserByUserId(user.getId()))
+                .thenAnswer(invocation -> Optional.ofNullable(stored));
+        when(userPreferencesRepository.insertIfAbsent(any(), eq(user.getId()))).thenAnswer(invocation -> {
+            if (stored != null) {
+                return 0;
+            }
+            stored = UserPreferences.builder().id(invocation.getArgument(0)).build();
+            return 1;
+        });
+
+        tasteProfileService = new TasteProfileService(userPreferencesRepository, userRepository, reviewRepository,
+                favoriteRepository, movieRepository, new ObjectMapper(), mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void onReviewChanged_WithoutProfile_ShouldRebuildFromReviews() {
+        when(reviewRepository.findGenreRatingsByUserId(user.getId())).thenReturn(List.of(
+                new Object[]{actionDrama.getGenres(), 8},
+                new Object[]{comedy.getGenres(), 4}));
+        when(favoriteRepository.countByUserId(user.getId())).thenReturn(3L);
+
+        tasteProfileService.onReviewChanged(ReviewChangedEvent.created(review(comedy, 4)));
+
+        assertThat(stored.getTotalReviews()).isEqualTo(2);
+        assertThat(stored.getRatingSum()).isEqualTo(12L);
+        assertThat(stored.getTotalFavorites()).isEqualTo(3);
+    }
+
+    @Test
+    void onReviewChanged_WhenAnotherTransactionCreatedProfileFirst_ShouldApplyIncrementally() {
+        UserPreferences createdConcurrently = UserPreferences.builder().user(user).build();
+        when(userPreferencesRepository.findByUserIdForUpdate(user.getId()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(createdConcurrently));
+        when(userPreferencesRepository.insertIfAbsent(any(), eq(user.getId()))).thenReturn(0);
+
+        tasteProfileService.onReviewChanged(ReviewChangedEvent.created(review(comedy, 4)));
+
+        assertThat(stored).isSameAs(createdConcurrently);
+        assertThat(stored.getTotalReviews()).isEqualTo(1);
+        assertThat(stored.getRatingSum()).isEqualTo(4L);
+        verify(reviewRepository, never()).findGenreRatingsByUserId(any());
+    }
+
+    @Test
+    void onReviewChanged_ShouldApplyIncrementalUpdates() {
+        stored = UserPreferences.builder().user(user).build();
+
+        tasteProfileService.onReviewChanged(ReviewChangedEvent.created(review(actionDrama, 8)));
+        tasteProfileService.onReviewChanged(ReviewChangedEvent.created(review(comedy, 4)));
+        tasteProfileService.onReviewChanged(ReviewChangedEvent.updated(review(comedy, 6), 4));
+        Review deleted = review(actionDrama, 8);
+        tasteProfileService.onReviewChanged(ReviewChangedEvent.deleted(deleted));
+        tasteProfileService.onFavoriteChanged(FavoriteChangedEvent.added(user.getId(), comedy.getId()));
+
+        RecommendationDto.UserProfileResponse profile = tasteProfileService.getUserProfile(user.getId());
+
+        assertThat(profile.getUsername()).isEqualTo("tester");
+        assertThat(profile.getTotalReviews()).isEqualTo(1);
+        assertThat(profile.getTotalFavorites()).isEqualTo(1);
+        assertThat(profile.getAverageRating()).isEqualTo(6.0);
+        assertThat(profile.getGenrePreferences()).extracting(RecommendationDto.GenrePreference::getGenre)
+                .containsExactly("Comedy");
+        assertThat(profile.getRatingPattern().getDistribution())
+                .extracting(RecommendationDto.RatingDistribution::getRating)
+                .containsExactly(6);
+        verify(reviewRepository, never()).findGenreRatingsByUserId(any());
+    }
+
+    @Test
+    void onMovieChanged_WhenGenresChanged_ShouldRebuildProfilesOfReviewers() {
+        stored = UserPreferences.builder().user(user).build();
+        tasteProfileService.onReviewChanged(ReviewChangedEvent.created(review(comedy, 4)));
+        String previousGenres = comedy.getGenres();
+        comedy.setGenres("[\"Romance\"]");
+        when(reviewRepository.findUserIdsByMovieId(comedy.getId())).thenReturn(List.of(user.getId()));
+        when(reviewRepository.findGenreRatingsByUserId(user.getId()))
+                .thenReturn(List.<Object[]>of(new Object[]{comedy.getGenres(), 4}));
+
+        tasteProfileService.onMovieChanged(MovieChangedEvent.saved(comedy, previousGenres));
+
+        assertThat(tasteProfileService.getUserProfile(user.getId()).getGenrePreferences())
+                .extracting(RecommendationDto.GenrePreference::getGenre)
+                .containsExactly("Romance");
+    }
+
+    @Test
+    void onMovieChanged_WhenGenresUnchanged_ShouldNotRebuild() {
+        tasteProfileService.onMovieChanged(MovieChangedEvent.saved(comedy, comedy.getGenres()));
+
+        verify(reviewRepository, never()).findUserIdsByMovieId(any());
+    }
+
+    @Test
+    void rebuildAll_ShouldRecomputeEveryProfileFromReviews() {
+        // 삭제된 영화의 리뷰가 cascade 로 사라져 프로필에만 남아 있는 상태
+        stored = UserPreferences.builder().user(user).build();
+        tasteProfileService.onReviewChanged(ReviewChangedEvent.created(review(actionDrama, 8)));
+        tasteProfileService.onReviewChanged(ReviewChangedEvent.created(review(comedy, 4)));
+        when(reviewRepository.findGenreRatingsByUserId(user.getId()))
+                .thenReturn(List.<Object[]>of(new Object[]{comedy.getGenres(), 4}));
+        when(userPreferencesRepository.findUserIdsOrderByUserId(any())).thenReturn(List.of(user.getId()));
+        when(userPreferencesRepository.findUserIdsAfter(eq(user.getId()), any())).thenReturn(List.of());
+
+        tasteProfileService.rebuildAll();
+
+        assertThat(stored.getTotalReviews()).isEqualTo(1);
+        assertThat(stored.getRatingSum()).isEqualTo(4L);
+    }
+
+    private Review review(Movie movie, int rating) {
+        return Review.builder().user(user).movie(movie).rating(rating).build();
+    }
+}
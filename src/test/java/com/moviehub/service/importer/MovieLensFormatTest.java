@@ -0,0 +1,34 @@
+package com.moviehub.service.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MovieLensFormatTest {
+
+    @Test
+    void parseTitle_ShouldSplitYearIntoReleaseDate() {
+        MovieLensFormat.Title title = MovieLensFormat.parseTitle("American President, The (1995) ");
+        MovieLensFormat.Title untitled = MovieLensFormat.parseTitle("Untitled");
+
+        assertThat(title.getName()).isEqualTo("American President, The");
+        assertThat(title.getReleaseDate()).isEqualTo(LocalDate.of(1995, 1, 1));
+        assertThat(untitled.getName()).isEqualTo("Untitled");
+        assertThat(untitled.getReleaseDate()).isNull();
+    }
+
+    @Test
+    void toGenresJsonAndSplit_ShouldMapMovieLensRowsToSchemaValues() {
+        assertThat(MovieLensFormat.toGenresJson("Adventure|Children|Sci-Fi|IMAX"))
+                .isEqualTo("[\"Adventure\",\"Family\",\"Science Fiction\"]");
+        assertThat(MovieLensFormat.toGenresJson("(no genres listed)")).isEqualTo("[]");
+        assertThat(MovieLensFormat.Layout.CSV.split("11,\"American President, The (1995)\",Comedy|Drama"))
+                .containsExactly("11", "American President, The (1995)", "Comedy|Drama");
+        assertThat(MovieLensFormat.Layout.DAT.splitPlain("1::1193::5::978300760"))
+                .containsExactly("1", "1193", "5", "978300760");
+        assertThat(MovieLensFormat.toRating(0.5)).isEqualTo(1);
+        assertThat(MovieLensFormat.toRating(4.5)).isEqualTo(9);
+    }
+}
@@ -0,0 +1,73 @@
+package com.moviehub.service.importer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MovieLensImporterTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbc;
+    private MovieLensImporter importer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE users (id UUID PRIMARY KEY, email VARCHAR(255) UNIQUE NOT NULL, "
+                + "password VARCHAR(255) NOT NULL, username VARCHAR(255) UNIQUE NOT NULL, role VARCHAR(20), "
+                + "created_at TIMESTAMP, updated_at TIMESTAMP)");
+        jdbc.execute("CREATE TABLE movies (id UUID PRIMARY KEY, title VARCHAR(500) NOT NULL, release_date DATE, "
+                + "genres TEXT, vote_average DECIMAL(3,1), vote_count INT, popularity DECIMAL(10,2), adult BOOLEAN, "
+                + "created_at TIMESTAMP, updated_at TIMESTAMP)");
+        jdbc.execute("CREATE TABLE reviews (id UUID PRIMARY KEY, user_id UUID NOT NULL REFERENCES users(id), "
+                + "movie_id UUID NOT NULL REFERENCES movies(id), rating INT NOT NULL, "
+                + "created_at TIMESTAMP, updated_at TIMESTAMP)");
+        importer = new MovieLensImporter(dataSource, "", 2);
+
+        Files.writeString(directory.resolve("movies.csv"), "movieId,title,genres\n"
+                + "1,Toy Story (1995),Adventure|Animation|Children\n"
+                + "2,\"American President, The (1995)\",Comedy|Drama|Romance\n");
+        Files.writeString(directory.resolve("ratings.csv"), "userId,movieId,rating,timestamp\n"
+                + "1,1,4.5,964982703\n"
+                + "1,2,3.0,964981247\n"
+                + "2,1,3.5,964982224\n"
+                + "2,99,5.0,964982931\n");
+    }
+
+    @Test
+    void importDirectory_ShouldWriteMoviesUsersAndReviewsWithRatingStats() throws Exception {
+        MovieLensImporter.ImportResult result = importer.importDirectory(directory);
+
+        assertThat(result.getMovies()).isEqualTo(2);
+        assertThat(result.getUsers()).isEqualTo(2);
+        assertThat(result.getReviews()).isEqualTo(3);
+        assertThat(result.getSkippedRatings()).isEqualTo(1); // 목록에 없는 영화 99
+        assertThat(jdbc.queryForObject("SELECT genres FROM movies WHERE id = ?", String.class,
+                MovieLensFormat.movieId(1))).isEqualTo("[\"Adventure\",\"Animation\",\"Family\"]");
+        assertThat(jdbc.queryForObject("SELECT vote_average FROM movies WHERE id = ?", Double.class,
+                MovieLensFormat.movieId(1))).isEqualTo(8.0);
+        assertThat(jdbc.queryForObject("SELECT rating FROM reviews WHERE user_id = ? AND movie_id = ?",
+                Integer.class, MovieLensFormat.userId(1), MovieLensFormat.movieId(1))).isEqualTo(9);
+    }
+
+    @Test
+    void importDirectory_Twice_ShouldRejectSecondImport() throws Exception {
+        importer.importDirectory(directory);
+
+        assertThatThrownBy(() -> importer.importDirectory(directory)).isInstanceOf(IllegalStateException.class);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM reviews", Integer.class)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,43 @@
+package com.moviehub.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AlsTrainerTest {
+
+    @Test
+    void choleskySolve_ShouldSolveSymmetricSystem() {
+        // [[4, 2], [2, 3]] x = [2, 5]  ->  x = [-0.5, 2]
+        double[] a = {4, 0, 2, 3};
+        double[] b = {2, 5};
+
+        AlsTrainer.choleskySolve(a, b, 2);
+
+        assertThat(b[0]).isCloseTo(-0.5, within(1e-9));
+        assertThat(b[1]).isCloseTo(2.0, within(1e-9));
+    }
+
+    @Test
+    void train_ShouldSeparateTasteGroups() {
+        // 사용자 0,1 은 영화 0,1,2 를, 사용자 2,3 은 영화 3,4,5 를 좋아하고 반대쪽은 싫어한다.
+        // 사용자 0 은 영화 2 와 5 를 아직 보지 않았다.
+        int[] ptr = {0, 4, 10, 16, 22};
+        int[] items = {0, 1, 3, 4, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5};
+        float[] values = {10, 9, 2, 1, 9, 10, 9, 1, 2, 1, 1, 2, 1, 9, 10, 9, 2, 1, 2, 10, 9, 10};
+        float[] weights = new float[values.length];
+        Arrays.fill(weights, 1f);
+
+        AlsTrainer.Factors factors = new AlsTrainer(4, 0.01, 15, 7L, ForkJoinPool.commonPool())
+                .train(4, 6, ptr, items, values, weights);
+
+        float liked = AlsTrainer.dot(factors.user, 0, factors.item, 2, factors.factors);
+        float disliked = AlsTrainer.dot(factors.user, 0, factors.item, 5, factors.factors);
+        assertThat(liked).isGreaterThan(disliked);
+        assertThat(factors.trainingRmse).isLessThan(1.0);
+    }
+}
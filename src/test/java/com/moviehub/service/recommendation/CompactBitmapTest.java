@@ -0,0 +1,42 @@
+package com.moviehub.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactBitmapTest {
+
+    @Test
+    void with_ShouldSwitchToBitsetAndBackWithoutLosingValues() {
+        CompactBitmap bitmap = CompactBitmap.EMPTY;
+        for (int value = 0; value < 10_000; value += 2) {
+            bitmap = bitmap.with(value);
+        }
+        bitmap = bitmap.with(70_000);
+
+        assertThat(bitmap.cardinality()).isEqualTo(5_001);
+        assertThat(bitmap.contains(9_998)).isTrue();
+        assertThat(bitmap.contains(9_999)).isFalse();
+        assertThat(bitmap.contains(70_000)).isTrue();
+
+        for (int value = 0; value < 6_000; value += 2) {
+            bitmap = bitmap.without(value);
+        }
+        assertThat(bitmap.cardinality()).isEqualTo(2_001);
+        assertThat(bitmap.contains(4)).isFalse();
+        assertThat(bitmap.contains(6_000)).isTrue();
+        assertThat(bitmap.without(70_000).contains(70_000)).isFalse();
+        assertThat(bitmap.contains(70_000)).isTrue();
+    }
+
+    @Test
+    void of_ShouldIgnoreOrderAndDuplicates() {
+        CompactBitmap bitmap = CompactBitmap.of(new int[]{131_072, 5, 3, 5, 99}, 4);
+
+        assertThat(bitmap.cardinality()).isEqualTo(3);
+        assertThat(bitmap.contains(131_072)).isTrue();
+        assertThat(bitmap.contains(5)).isTrue();
+        assertThat(bitmap.contains(99)).isFalse();
+        assertThat(bitmap.contains(-1)).isFalse();
+    }
+}
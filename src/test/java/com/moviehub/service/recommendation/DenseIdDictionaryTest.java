@@ -0,0 +1,54 @@
+package com.moviehub.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DenseIdDictionaryTest {
+
+    @Test
+    void getOrAdd_ShouldAssignStableDenseIdsAcrossGrowth() {
+        DenseIdDictionary dictionary = DenseIdDictionary.inMemory();
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID uuid = UUID.randomUUID();
+            uuids.add(uuid);
+            assertThat(dictionary.getOrAdd(uuid)).isEqualTo(i);
+        }
+
+        assertThat(dictionary.size()).isEqualTo(10_000);
+        assertThat(dictionary.getOrAdd(uuids.get(1234))).isEqualTo(1234);
+        assertThat(dictionary.idOf(uuids.get(9999))).isEqualTo(9999);
+        assertThat(dictionary.uuidOf(4321)).isEqualTo(uuids.get(4321));
+        assertThat(dictionary.idOf(UUID.randomUUID())).isEqualTo(-1);
+    }
+
+    @Test
+    void open_ShouldReplayAppendLogAndDropTornRecord(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("movies.ids");
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        try (DenseIdDictionary dictionary = DenseIdDictionary.open(file)) {
+            dictionary.getOrAdd(first);
+            dictionary.getOrAdd(second);
+        }
+        Files.write(file, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (DenseIdDictionary reopened = DenseIdDictionary.open(file)) {
+            assertThat(reopened.size()).isEqualTo(2);
+            assertThat(reopened.idOf(second)).isEqualTo(1);
+            UUID third = UUID.randomUUID();
+            assertThat(reopened.getOrAdd(third)).isEqualTo(2);
+        }
+        assertThat(Files.size(file)).isEqualTo(3 * 16);
+    }
+}
@@ -0,0 +1,128 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.entity.Movie;
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GenreIndexTest {
+
+    private final UUID actionDrama = UUID.randomUUID();
+    private final UUID action = UUID.randomUUID();
+    private final UUID actionDramaPopular = UUID.randomUUID();
+    private final UUID comedy = UUID.randomUUID();
+
+    private GenreIndex genreIndex;
+
+    @BeforeEach
+    void setUp() {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findGenreIndexRows()).thenReturn(List.of(
+                new Object[]{actionDrama, "[\"Action\", \"Drama\"]", BigDecimal.valueOf(10), false},
+                new Object[]{action, "[\"Action\"]", BigDecimal.valueOf(500), false},
+                new Object[]{actionDramaPopular, "[\"Drama\",\"Action\"]", BigDecimal.valueOf(50), false},
+                new Object[]{comedy, "[\"Comedy\"]", BigDecimal.valueOf(900), true}
+        ));
+
+        genreIndex = new GenreIndex(movieRepository, null);
+        genreIndex.rebuild();
+    }
+
+    @Test
+    void findSimilar_ShouldRankByJaccardThenPopularity() {
+        List<ScoredMovie> similar = genreIndex.findSimilar(actionDrama, 10);
+
+        assertThat(similar).extracting(ScoredMovie::getMovieId)
+                .containsExactly(actionDramaPopular, action);
+        assertThat(similar.get(0).getScore()).isEqualTo(1.0);
+        assertThat(similar.get(1).getScore()).isEqualTo(0.5);
+    }
+
+    @Test
+    void loadSnapshot_ShouldRestoreGenresMasksAndPopularity(@TempDir Path dir) throws IOException {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findGenreIndexRows()).thenReturn(List.of(
+                new Object[]{actionDrama, "[\"Action\", \"Drama\"]", BigDecimal.valueOf(10), false},
+                new Object[]{action, "[\"Action\"]", BigDecimal.valueOf(500), false},
+                new Object[]{comedy, "[\"Comedy\"]", BigDecimal.valueOf(900), true}
+        ));
+        Path file = dir.resolve("genre-index.snap");
+        new GenreIndex(movieRepository, file.toString()).rebuild();
+
+        GenreIndex loaded = new GenreIndex(mock(MovieRepository.class), file.toString());
+        loaded.loadSnapshot();
+
+        assertThat(loaded.size()).isEqualTo(3);
+        assertThat(loaded.findSimilar(actionDrama, 10)).extracting(ScoredMovie::getMovieId).containsExactly(action);
+        assertThat(loaded.findByGenres(List.of("Comedy"), 10)).extracting(ScoredMovie::getMovieId)
+                .containsExactly(comedy);
+        assertThat(loaded.findMostPopular(1)).extracting(ScoredMovie::getMovieId).containsExactly(comedy);
+        assertThat(loaded.isAdult(comedy)).isTrue();
+    }
+
+    @Test
+    void findSimilar_WithLimit_ShouldKeepOnlyTopK() {
+        assertThat(genreIndex.findSimilar(actionDrama, 1))
+                .extracting(ScoredMovie::getMovieId)
+                .containsExactly(actionDramaPopular);
+    }
+
+    @Test
+    void findByGenres_ShouldRankByMatchedShareThenPopularity() {
+        List<ScoredMovie> matches = genreIndex.findByGenres(List.of("Action", "Drama", "Unknown"), 10);
+
+        assertThat(matches).extracting(ScoredMovie::getMovieId)
+                .containsExactly(actionDramaPopular, actionDrama, action);
+        assertThat(matches.get(0).getScore()).isEqualTo(2.0 / 3);
+    }
+
+    @Test
+    void findMostPopular_ShouldTrackAdultFlag() {
+        assertThat(genreIndex.findMostPopular(2)).extracting(ScoredMovie::getMovieId)
+                .containsExactly(comedy, action);
+        assertThat(genreIndex.isAdult(comedy)).isTrue();
+        assertThat(genreIndex.isAdult(action)).isFalse();
+    }
+
+    @Test
+    void onMovieChanged_ShouldApplyUpdatesAndDeletes() {
+        Movie updated = Movie.builder()
+                .id(comedy)
+                .genres("[\"Comedy\",\"Drama\"]")
+                .popularity(BigDecimal.valueOf(900))
+                .build();
+        genreIndex.onMovieChanged(MovieChangedEvent.saved(updated));
+        genreIndex.onMovieChanged(MovieChangedEvent.deleted(actionDramaPopular));
+
+        assertThat(genreIndex.findSimilar(actionDrama, 10))
+                .extracting(ScoredMovie::getMovieId)
+                .containsExactly(action, comedy);
+        assertThat(genreIndex.size()).isEqualTo(3);
+    }
+
+    @Test
+    void onMovieChanged_WhenGenreRemovedAndReAdded_ShouldNotDuplicateMovie() {
+        Movie.MovieBuilder movie = Movie.builder().id(action).popularity(BigDecimal.valueOf(500));
+        genreIndex.onMovieChanged(MovieChangedEvent.saved(movie.genres("[\"Drama\"]").build()));
+        genreIndex.onMovieChanged(MovieChangedEvent.saved(movie.genres("[\"Action\",\"Drama\"]").build()));
+
+        assertThat(genreIndex.findSimilar(actionDrama, 10))
+                .extracting(ScoredMovie::getMovieId)
+                .containsExactly(action, actionDramaPopular);
+        assertThat(genreIndex.findByGenres(List.of("Action"), 10))
+                .extracting(ScoredMovie::getMovieId)
+                .containsExactly(action, actionDramaPopular, actionDrama);
+    }
+}
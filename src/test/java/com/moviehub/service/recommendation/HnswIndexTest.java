@@ -0,0 +1,118 @@
+package com.moviehub.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTest {
+
+    private static final int DIMENSION = 16;
+
+    @Test
+    void search_ShouldFindMostTrueNearestNeighbours() {
+        Random random = new Random(1L);
+        float[][] vectors = randomVectors(random, 2000);
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100, 7L);
+        for (float[] vector : vectors) {
+            index.add(vector);
+        }
+
+        int hits = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVectors(random, 1)[0];
+            int[] expected = bruteForce(vectors, query, 10);
+            int[] actual = index.search(query, 10, 64);
+            for (int node : actual) {
+                if (Arrays.stream(expected).anyMatch(e -> e == node)) {
+                    hits++;
+                }
+            }
+        }
+
+        assertThat(hits / (double) (queries * 10)).isGreaterThan(0.9);
+    }
+
+    @Test
+    void search_ShouldSkipDeletedNodes() {
+        HnswIndex index = new HnswIndex(2, 4, 20, 7L);
+        int target = index.add(new float[]{1f, 0f});
+        index.add(new float[]{0.9f, 0.1f});
+        index.add(new float[]{0f, 1f});
+
+        index.markDeleted(target);
+
+        assertThat(index.search(new float[]{1f, 0f}, 3, 10)).doesNotContain(target).hasSize(2);
+    }
+
+    @Test
+    void search_FromManyThreads_ShouldMatchSequentialResults() {
+        Random random = new Random(5L);
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 50, 7L);
+        for (float[] vector : randomVectors(random, 1000)) {
+            index.add(vector);
+        }
+        float[][] queries = randomVectors(random, 200);
+        int[][] expected = Arrays.stream(queries).map(query -> index.search(query, 10, 50)).toArray(int[][]::new);
+
+        int[][] actual = IntStream.range(0, queries.length).parallel()
+                .mapToObj(q -> index.search(queries[q], 10, 50))
+                .toArray(int[][]::new);
+
+        assertThat(actual).isDeepEqualTo(expected);
+    }
+
+    @Test
+    void writeTo_ShouldRoundTrip() throws IOException {
+        Random random = new Random(3L);
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 50, 7L);
+        for (float[] vector : randomVectors(random, 300)) {
+            index.add(vector);
+        }
+        index.markDeleted(5);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        HnswIndex restored = HnswIndex.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 7L);
+
+        float[] query = randomVectors(random, 1)[0];
+        assertThat(restored.size()).isEqualTo(300);
+        assertThat(restored.isDeleted(5)).isTrue();
+        assertThat(restored.search(query, 10, 50)).containsExactly(index.search(query, 10, 50));
+    }
+
+    private static float[][] randomVectors(Random random, int count) {
+        float[][] vectors = new float[count][DIMENSION];
+        for (float[] vector : vectors) {
+            for (int i = 0; i < DIMENSION; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+        }
+        return vectors;
+    }
+
+    private static int[] bruteForce(float[][] vectors, float[] query, int k) {
+        return IntStream.range(0, vectors.length).boxed()
+                .sorted(Comparator.comparingDouble(i -> -cosine(vectors[i], query)))
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0, na = 0, nb = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            na += a[i] * a[i];
+            nb += b[i] * b[i];
+        }
+        return dot / Math.sqrt(na * nb);
+    }
+}
@@ -0,0 +1,94 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.service.recommendation.pipeline.CandidateGenerator;
+import com.moviehub.service.recommendation.pipeline.PipelineMetrics;
+import com.moviehub.service.recommendation.pipeline.RecommendationPipeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HybridRecommenderTest {
+
+    private final UUID liked = UUID.randomUUID();
+    private final UUID shared = UUID.randomUUID();
+    private final UUID popular = UUID.randomUUID();
+    private final UUID slow = UUID.randomUUID();
+
+    private final RecommendationPipelines pipelines = mock(RecommendationPipelines.class);
+    private final CountDownLatch slowInterrupted = new CountDownLatch(1);
+    private HybridRecommender hybridRecommender;
+
+    @BeforeEach
+    void setUp() {
+        when(pipelines.getUserContent()).thenReturn(pipeline(request ->
+                List.of(new ScoredMovie(liked, 4.0), new ScoredMovie(shared, 2.0))));
+        when(pipelines.getSocial()).thenReturn(pipeline(request ->
+                List.of(new ScoredMovie(shared, 10.0))));
+        when(pipelines.getTrending()).thenReturn(pipeline(request ->
+                List.of(new ScoredMovie(popular, 900.0))));
+        when(pipelines.getMood()).thenReturn(pipeline(request -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                slowInterrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return List.of(new ScoredMovie(slow, 1.0));
+        }));
+
+        hybridRecommender = new HybridRecommender(pipelines, 1.0, 1.0, 0.3, 0.5,
+                1000, 1000, 1000, 50, 4, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hybridRecommender.shutdown();
+    }
+
+    @Test
+    void recommend_ShouldBlendNormalizedScoresAndDropSlowStrategy() {
+        long start = System.nanoTime();
+        HybridRecommender.Blend blend = hybridRecommender.recommend(UUID.randomUUID(), "happy", 10);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        List<HybridRecommender.BlendedMovie> result = blend.getMovies();
+
+        // shared: 0.5 (content) + 1.0 (social), liked: 1.0, popular: 0.3
+        assertThat(result).extracting(HybridRecommender.BlendedMovie::getMovieId)
+                .containsExactly(shared, liked, popular);
+        assertThat(result.get(0).getScore()).isEqualTo(1.5);
+        assertThat(result.get(0).getDominantStrategy()).isEqualTo(HybridRecommender.Strategy.SOCIAL);
+        assertThat(elapsedMillis).isLessThan(1500);
+        assertThat(blend.isDegraded()).isTrue();
+        assertThat(blend.getDropped()).containsExactly(HybridRecommender.Strategy.MOOD);
+    }
+
+    @Test
+    void recommend_ShouldNotInterruptStrategyThatMissedItsDeadline() throws InterruptedException {
+        hybridRecommender.recommend(UUID.randomUUID(), "happy", 10);
+
+        // 인덱스를 다시 만드는 중일 수 있으므로 결과만 버리고 작업은 끝까지 둔다
+        assertThat(slowInterrupted.await(300, TimeUnit.MILLISECONDS)).isFalse();
+    }
+
+    @Test
+    void recommend_WithoutMood_ShouldSkipMoodStrategy() {
+        HybridRecommender.Blend blend = hybridRecommender.recommend(UUID.randomUUID(), null, 2);
+
+        assertThat(blend.getMovies()).extracting(HybridRecommender.BlendedMovie::getMovieId)
+                .containsExactly(shared, liked);
+        assertThat(blend.isDegraded()).isFalse();
+    }
+
+    private static RecommendationPipeline pipeline(CandidateGenerator generator) {
+        return RecommendationPipeline.builder("test", new PipelineMetrics()).generator("gen", generator).build();
+    }
+}
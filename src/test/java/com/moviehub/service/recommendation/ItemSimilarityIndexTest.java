@@ -0,0 +1,142 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.entity.Movie;
+import com.moviehub.entity.Review;
+import com.moviehub.entity.User;
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.event.ReviewChangedEvent;
+import com.moviehub.repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSimilarityIndexTest {
+
+    private final UUID u1 = UUID.randomUUID();
+    private final UUID u2 = UUID.randomUUID();
+    private final UUID u3 = UUID.randomUUID();
+    private final UUID m1 = UUID.randomUUID();
+    private final UUID m2 = UUID.randomUUID();
+    private final UUID m3 = UUID.randomUUID();
+
+    private ItemSimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        when(reviewRepository.streamLikedPairs(7)).thenReturn(Stream.of(
+                new Object[]{u1, m1},
+                new Object[]{u1, m2},
+                new Object[]{u2, m1},
+                new Object[]{u2, m2},
+                new Object[]{u3, m1},
+                new Object[]{u3, m3}
+        ));
+
+        index = new ItemSimilarityIndex(reviewRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), DenseIds.inMemory(), 7, 10, 500, "cosine", null);
+        index.rebuild();
+    }
+
+    @Test
+    void findNeighbours_ShouldRankByCosineOfCoLikes() {
+        List<ScoredMovie> neighbours = index.findNeighbours(m1, 10);
+
+        assertThat(neighbours).extracting(ScoredMovie::getMovieId).containsExactly(m2, m3);
+        assertThat(neighbours.get(0).getScore()).isCloseTo(2 / Math.sqrt(6), within(1e-6));
+        assertThat(neighbours.get(1).getScore()).isCloseTo(1 / Math.sqrt(3), within(1e-6));
+    }
+
+    @Test
+    void onReviewChanged_ShouldUpdateOnlyAffectedRows() {
+        index.onReviewChanged(ReviewChangedEvent.created(review(u2, m3, 9)));
+        index.onReviewChanged(ReviewChangedEvent.updated(review(u1, m2, 4), 8));
+
+        assertThat(index.findNeighbours(m3, 10)).extracting(ScoredMovie::getMovieId)
+                .containsExactly(m1, m2);
+        assertThat(index.findNeighbours(m1, 10).get(0).getMovieId()).isEqualTo(m3);
+    }
+
+    @Test
+    void loadSnapshot_ShouldServeSavedNeighbourListsWithFreshDenseIds(@TempDir Path dir) throws IOException {
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        Path file = dir.resolve("item-similarity.snap");
+        ItemSimilarityIndex saved = new ItemSimilarityIndex(reviewRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), DenseIds.inMemory(), 7, 10, 500,
+                "cosine", file.toString());
+        when(reviewRepository.streamLikedPairs(7)).thenReturn(Stream.of(
+                new Object[]{u1, m3}, new Object[]{u1, m1}, new Object[]{u2, m1}, new Object[]{u2, m2}));
+        saved.rebuild();
+
+        DenseIds restarted = DenseIds.inMemory();
+        restarted.getMovies().getOrAdd(UUID.randomUUID()); // 다른 순서로 id 가 매겨진 사전
+        ItemSimilarityIndex loaded = new ItemSimilarityIndex(reviewRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), restarted, 7, 10, 500,
+                "cosine", file.toString());
+        loaded.loadSnapshot();
+
+        assertThat(loaded.findNeighbours(m1, 10)).extracting(ScoredMovie::getMovieId)
+                .containsExactlyElementsOf(saved.findNeighbours(m1, 10).stream().map(ScoredMovie::getMovieId).toList());
+        assertThat(loaded.findNeighbours(m1, 10).get(0).getScore())
+                .isCloseTo(saved.findNeighbours(m1, 10).get(0).getScore(), within(1e-6));
+        assertThat(loaded.getModelSlot().getActive()).isPresent();
+    }
+
+    @Test
+    void mergeNeighbours_ShouldSumScoresAndExcludeSeeds() {
+        assertThat(index.mergeNeighbours(List.of(m2), 10)).extracting(ScoredMovie::getMovieId)
+                .containsExactly(m1);
+        assertThat(index.mergeNeighbours(List.of(m2, m3), 10)).extracting(ScoredMovie::getMovieId)
+                .containsExactly(m1);
+    }
+
+    @Test
+    void onMovieChanged_WhenDeleted_ShouldDropMovieFromOtherNeighbourLists() {
+        index.onMovieChanged(MovieChangedEvent.deleted(m2));
+
+        assertThat(index.findNeighbours(m2, 10)).isEmpty();
+        assertThat(index.findNeighbours(m1, 10)).extracting(ScoredMovie::getMovieId).containsExactly(m3);
+        assertThat(index.mergeNeighbours(List.of(m1), 10)).extracting(ScoredMovie::getMovieId).containsExactly(m3);
+
+        // 지워진 영화의 좋아요 목록이 남아 있어도 새 쌍에 끼지 않는다
+        index.onReviewChanged(ReviewChangedEvent.created(review(u1, m3, 9)));
+        assertThat(index.findNeighbours(m3, 10)).extracting(ScoredMovie::getMovieId).containsExactly(m1);
+    }
+
+    @Test
+    void rebuild_ShouldKeepLikesCommittedDuringTheScan() {
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        ItemSimilarityIndex rebuilt = new ItemSimilarityIndex(reviewRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), DenseIds.inMemory(), 7, 10, 500, "cosine", null);
+        when(reviewRepository.streamLikedPairs(7)).thenReturn(Stream.<Object[]>of(new Object[]{u1, m1}));
+        rebuilt.rebuild();
+
+        // 스캔이 읽고 지나간 뒤 좋아요가 커밋된다
+        when(reviewRepository.streamLikedPairs(7)).thenReturn(Stream.<Object[]>of(new Object[]{u1, m1})
+                .peek(row -> rebuilt.onReviewChanged(ReviewChangedEvent.created(review(u1, m2, 9)))));
+        rebuilt.rebuild();
+
+        assertThat(rebuilt.findNeighbours(m1, 10)).extracting(ScoredMovie::getMovieId).containsExactly(m2);
+    }
+
+    private Review review(UUID userId, UUID movieId, int rating) {
+        return Review.builder()
+                .user(User.builder().id(userId).build())
+                .movie(Movie.builder().id(movieId).build())
+                .rating(rating)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.moviehub.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModelSlotTest {
+
+    @Test
+    void publish_ShouldSwapModelAndKeepPreviousForRollback() {
+        ModelSlot<String> slot = new ModelSlot<>();
+        assertThat(slot.get()).isNull();
+
+        slot.publish("v1", 10, 100);
+        slot.publish("v2", 20, 200);
+
+        assertThat(slot.get()).isEqualTo("v2");
+        assertThat(slot.getActive()).get().extracting(ModelSlot.Version::getNumber).isEqualTo(2L);
+        assertThat(slot.getPrevious()).get().extracting(ModelSlot.Version::getModel).isEqualTo("v1");
+
+        ModelSlot.Version<String> restored = slot.rollback();
+
+        assertThat(restored.getNumber()).isEqualTo(1L);
+        assertThat(slot.get()).isEqualTo("v1");
+        assertThat(slot.getPrevious()).get().extracting(ModelSlot.Version::getModel).isEqualTo("v2");
+    }
+
+    @Test
+    void rollback_WithoutPreviousModel_ShouldThrow() {
+        ModelSlot<String> slot = new ModelSlot<>();
+        slot.publish("v1", 10, 100);
+
+        assertThatThrownBy(slot::rollback).isInstanceOf(IllegalStateException.class);
+        assertThat(slot.get()).isEqualTo("v1");
+    }
+
+    @Test
+    void withoutRollback_ShouldNotKeepPreviousModel() {
+        ModelSlot<String> slot = ModelSlot.withoutRollback();
+        slot.publish("v1", 10, 100);
+        slot.publish("v2", 20, 200);
+
+        assertThat(slot.getPrevious()).isEmpty();
+        assertThatThrownBy(slot::rollback).isInstanceOf(IllegalStateException.class);
+        assertThat(slot.getActive()).get().extracting(ModelSlot.Version::getNumber).isEqualTo(2L);
+    }
+
+    @Test
+    void amend_ShouldReplaceActiveModelWithoutChangingRollbackTarget() {
+        ModelSlot<String> slot = new ModelSlot<>();
+        slot.publish("v1", 10, 100);
+        slot.publish("v2-snapshot", 20, 200);
+
+        slot.amend("v2-caught-up", 250);
+
+        assertThat(slot.get()).isEqualTo("v2-caught-up");
+        assertThat(slot.getActive()).get().extracting(ModelSlot.Version::getNumber).isEqualTo(2L);
+        assertThat(slot.getPrevious()).get().extracting(ModelSlot.Version::getModel).isEqualTo("v1");
+        assertThat(slot.rollback().getModel()).isEqualTo("v1");
+    }
+}
@@ -0,0 +1,54 @@
+package com.moviehub.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModelSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void open_ShouldMapSectionsWrittenByWriter() throws IOException {
+        Path file = dir.resolve("model.snap");
+        ModelSnapshot.writer("als", 1)
+                .ints("ptr", new int[]{0, 2, 3, 99}, 3)
+                .floats("factors", new float[]{0.5f, -1.25f, 3f})
+                .longs("ids", new long[]{Long.MIN_VALUE, 42L})
+                .doubles("meta", 32, 7.5)
+                .bytes("flags", new byte[]{1, 0, 1})
+                .write(file, 1_700_000_000_000L);
+
+        ModelSnapshot snapshot = ModelSnapshot.open(file, "als", 1);
+
+        assertThat(snapshot.getCreatedAtMillis()).isEqualTo(1_700_000_000_000L);
+        IntBuffer ptr = snapshot.ints("ptr");
+        assertThat(ptr.remaining()).isEqualTo(3);
+        assertThat(ptr.get(2)).isEqualTo(3);
+        FloatBuffer factors = snapshot.floats("factors");
+        assertThat(factors.get(1)).isEqualTo(-1.25f);
+        assertThat(snapshot.longs("ids").get(0)).isEqualTo(Long.MIN_VALUE);
+        assertThat(snapshot.doubles("meta").get(1)).isEqualTo(7.5);
+        assertThat(snapshot.bytes("flags").remaining()).isEqualTo(3);
+        assertThat(snapshot.bytes("flags").get(2)).isEqualTo((byte) 1);
+        assertThat(factors.isDirect()).isTrue();
+        assertThatThrownBy(() -> snapshot.floats("ids")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void open_WithOtherModelVersion_ShouldReject() throws IOException {
+        Path file = dir.resolve("model.snap");
+        ModelSnapshot.writer("als", 1).floats("factors", new float[]{1f}).write(file, 0L);
+
+        assertThatThrownBy(() -> ModelSnapshot.open(file, "als", 2)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> ModelSnapshot.open(file, "hnsw", 1)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,68 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.entity.Movie;
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class MoodIndexTest {
+
+    private final UUID comedyFamily = UUID.randomUUID();
+    private final UUID comedy = UUID.randomUUID();
+    private final UUID comedyPopular = UUID.randomUUID();
+    private final UUID adultComedy = UUID.randomUUID();
+    private final UUID horror = UUID.randomUUID();
+
+    private final List<Object[]> rows = new ArrayList<>();
+    private MovieRepository movieRepository;
+    private MoodIndex moodIndex;
+
+    @BeforeEach
+    void setUp() {
+        rows.add(new Object[]{comedyFamily, "[\"Comedy\", \"Family\"]", BigDecimal.valueOf(10), false});
+        rows.add(new Object[]{comedy, "[\"Comedy\"]", BigDecimal.valueOf(20), false});
+        rows.add(new Object[]{comedyPopular, "[\"Comedy\"]", BigDecimal.valueOf(300), false});
+        rows.add(new Object[]{adultComedy, "[\"Comedy\"]", BigDecimal.valueOf(900), true});
+        rows.add(new Object[]{horror, "[\"Horror\"]", BigDecimal.valueOf(50), false});
+
+        movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findGenreIndexRows()).thenAnswer(invocation -> List.copyOf(rows));
+        moodIndex = new MoodIndex(movieRepository);
+    }
+
+    @Test
+    void page_ShouldSliceRankingByMatchedShareThenPopularity() {
+        assertThat(moodIndex.page("Happy", 0, 10)).extracting(ScoredMovie::getMovieId)
+                .containsExactly(comedyFamily, comedyPopular, comedy);
+        assertThat(moodIndex.page("happy", 0, 1).get(0).getScore()).isEqualTo(0.5);
+        assertThat(moodIndex.page("happy", 1, 1)).extracting(ScoredMovie::getMovieId)
+                .containsExactly(comedyPopular);
+        assertThat(moodIndex.page("happy", 3, 10)).isEmpty();
+        assertThat(moodIndex.page("bored", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void refreshIfDirty_ShouldRebuildOnlyAfterCatalogChange() {
+        moodIndex.rebuild();
+        moodIndex.refreshIfDirty();
+        verify(movieRepository, times(1)).findGenreIndexRows();
+
+        UUID newHorror = UUID.randomUUID();
+        rows.add(new Object[]{newHorror, "[\"Horror\", \"Mystery\"]", BigDecimal.ONE, false});
+        moodIndex.onMovieChanged(MovieChangedEvent.saved(Movie.builder().id(newHorror).build()));
+        assertThat(moodIndex.page("scared", 0, 10)).extracting(ScoredMovie::getMovieId).containsExactly(horror);
+
+        moodIndex.refreshIfDirty();
+        assertThat(moodIndex.page("scared", 0, 10)).extracting(ScoredMovie::getMovieId)
+                .containsExactly(newHorror, horror);
+    }
+}
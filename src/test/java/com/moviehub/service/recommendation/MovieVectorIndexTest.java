@@ -0,0 +1,69 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.entity.Movie;
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovieVectorIndexTest {
+
+    private final UUID action = UUID.randomUUID();
+    private final UUID actionDrama = UUID.randomUUID();
+    private final UUID comedy = UUID.randomUUID();
+
+    @TempDir
+    Path directory;
+
+    private MovieVectorIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findGenreIndexRows()).thenReturn(List.of(
+                new Object[]{action, "[\"Action\"]", BigDecimal.valueOf(100), false},
+                new Object[]{actionDrama, "[\"Action\",\"Drama\"]", BigDecimal.valueOf(50), false},
+                new Object[]{comedy, "[\"Comedy\"]", BigDecimal.valueOf(10), false}
+        ));
+        index = new MovieVectorIndex(movieRepository, directory.resolve("vectors.hnsw").toString(),
+                8, 50, 50, 0, 0.3);
+        index.initialize();
+    }
+
+    @Test
+    void onMovieChanged_WithSameVector_ShouldKeepExistingNode() {
+        index.onMovieChanged(MovieChangedEvent.saved(movie(action, "[\"Action\"]", 100)));
+        index.onMovieChanged(MovieChangedEvent.saved(movie(action, "[\"Action\"]", 100)));
+
+        assertThat(index.nodeCount()).isEqualTo(3);
+        assertThat(index.findSimilar(actionDrama, 1)).extracting(ScoredMovie::getMovieId).containsExactly(action);
+    }
+
+    @Test
+    void compactIfNeeded_ShouldDropDeletedNodesAndKeepLiveMovies() {
+        index.onMovieChanged(MovieChangedEvent.saved(movie(action, "[\"Drama\"]", 100)));
+        index.onMovieChanged(MovieChangedEvent.saved(movie(comedy, "[\"Comedy\",\"Drama\"]", 10)));
+        assertThat(index.nodeCount()).isEqualTo(5);
+
+        index.compactIfNeeded();
+
+        assertThat(index.nodeCount()).isEqualTo(3);
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.findSimilar(actionDrama, 3)).extracting(ScoredMovie::getMovieId)
+                .containsExactlyInAnyOrder(action, comedy);
+    }
+
+    private static Movie movie(UUID id, String genres, int popularity) {
+        return Movie.builder().id(id).genres(genres).popularity(BigDecimal.valueOf(popularity)).build();
+    }
+}
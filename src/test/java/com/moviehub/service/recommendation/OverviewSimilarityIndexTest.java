@@ -0,0 +1,65 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.entity.Movie;
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OverviewSimilarityIndexTest {
+
+    private final UUID spaceRescue = UUID.randomUUID();
+    private final UUID spaceStation = UUID.randomUUID();
+    private final UUID heist = UUID.randomUUID();
+    private final UUID koreanSpace = UUID.randomUUID();
+
+    private OverviewSimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findOverviewIndexRows()).thenReturn(List.of(
+                new Object[]{spaceRescue, "An astronaut stranded on Mars waits for a rescue mission."},
+                new Object[]{spaceStation, "A rescue mission to a failing space station near Mars."},
+                new Object[]{heist, "A crew of thieves plans a casino heist in Las Vegas."},
+                new Object[]{koreanSpace, "우주 정거장에 고립된 우주비행사의 구조 작전."}
+        ));
+
+        index = new OverviewSimilarityIndex(movieRepository, 10, 1.0, 2);
+        index.rebuild();
+    }
+
+    @Test
+    void findSimilar_ShouldRankMoviesSharingOverviewTerms() {
+        List<ScoredMovie> similar = index.findSimilar(spaceRescue, 10);
+
+        assertThat(similar).extracting(ScoredMovie::getMovieId).containsExactly(spaceStation);
+        assertThat(similar.get(0).getScore()).isBetween(0.0, 1.0);
+        assertThat(index.findSimilar(heist, 10)).isEmpty();
+        assertThat(index.findSimilar(UUID.randomUUID(), 10)).isEmpty();
+    }
+
+    @Test
+    void onMovieChanged_ShouldIndexNewMoviesAndDropDeletedOnes() {
+        UUID synced = UUID.randomUUID();
+        index.onMovieChanged(MovieChangedEvent.saved(Movie.builder()
+                .id(synced)
+                .overview("우주비행사를 구하기 위한 구조 작전이 시작된다.")
+                .build()));
+
+        assertThat(index.findSimilar(synced, 10)).extracting(ScoredMovie::getMovieId).containsExactly(koreanSpace);
+        assertThat(index.findSimilar(koreanSpace, 10)).extracting(ScoredMovie::getMovieId).containsExactly(synced);
+
+        index.onMovieChanged(MovieChangedEvent.deleted(synced));
+
+        assertThat(index.findSimilar(synced, 10)).isEmpty();
+        assertThat(index.findSimilar(koreanSpace, 10)).isEmpty();
+    }
+}
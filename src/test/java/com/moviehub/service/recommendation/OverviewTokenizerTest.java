@@ -0,0 +1,30 @@
+package com.moviehub.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OverviewTokenizerTest {
+
+    @Test
+    void termCounts_ShouldSplitHangulIntoBigrams() {
+        Map<String, Integer> counts = OverviewTokenizer.termCounts("우주비행사가 우주로 간다. 꿈");
+
+        assertThat(counts).containsEntry("우주", 2)
+                .containsEntry("비행", 1)
+                .containsEntry("사가", 1)
+                .containsEntry("간다", 1)
+                .containsEntry("꿈", 1);
+    }
+
+    @Test
+    void termCounts_ShouldLowercaseWordsAndDropStopWords() {
+        Map<String, Integer> counts = OverviewTokenizer.termCounts("The Astronaut's journey to Mars, 2049: a Mars story");
+
+        assertThat(counts).containsOnlyKeys("astronaut", "journey", "mars", "2049", "story");
+        assertThat(counts).containsEntry("mars", 2);
+        assertThat(OverviewTokenizer.termCounts(null)).isEmpty();
+    }
+}
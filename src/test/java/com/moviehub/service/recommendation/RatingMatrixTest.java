@@ -0,0 +1,139 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.entity.Movie;
+import com.moviehub.entity.Review;
+import com.moviehub.entity.User;
+import com.moviehub.event.ReviewChangedEvent;
+import com.moviehub.repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RatingMatrixTest {
+
+    private final UUID u1 = UUID.randomUUID();
+    private final UUID u2 = UUID.randomUUID();
+    private final UUID u3 = UUID.randomUUID();
+    private final UUID m1 = UUID.randomUUID();
+    private final UUID m2 = UUID.randomUUID();
+    private final UUID m3 = UUID.randomUUID();
+    private final UUID m4 = UUID.randomUUID();
+
+    private DenseIds denseIds;
+    private RatingMatrix ratingMatrix;
+
+    @BeforeEach
+    void setUp() {
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        when(reviewRepository.streamAllRatingTriples()).thenReturn(Stream.of(
+                new Object[]{u1, m1, 8},
+                new Object[]{u1, m2, 3},
+                new Object[]{u2, m1, 5},
+                new Object[]{u2, m3, 9},
+                new Object[]{u2, m4, 7},
+                new Object[]{u3, m1, 9},
+                new Object[]{u3, m3, 8},
+                new Object[]{u3, m2, 10}
+        ));
+
+        denseIds = DenseIds.inMemory();
+        ratingMatrix = new RatingMatrix(reviewRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), denseIds);
+        ratingMatrix.rebuild();
+    }
+
+    @Test
+    void recommendFromNeighbours_ShouldCountLikingNeighboursAndSkipReviewedMovies() {
+        assertThat(ratingMatrix.recommendFromNeighbours(u1, 7, 10))
+                .extracting(ScoredMovie::getMovieId, ScoredMovie::getScore)
+                .containsExactly(
+                        tuple(m3, 2.0),
+                        tuple(m4, 1.0));
+        assertThat(ratingMatrix.ratingCount()).isEqualTo(8);
+    }
+
+    @Test
+    void recommendFromUsers_ShouldSumNeighbourSimilaritiesAndSkipReviewedMovies() {
+        UserNeighbourIndex.Neighbours neighbours = new UserNeighbourIndex.Neighbours(
+                new int[]{denseIds.getUsers().idOf(u3), denseIds.getUsers().idOf(u2)}, new double[]{0.5, 0.25}, 2);
+
+        assertThat(ratingMatrix.recommendFromUsers(u1, neighbours, 7, 10))
+                .extracting(ScoredMovie::getMovieId, ScoredMovie::getScore)
+                .containsExactly(
+                        tuple(m3, 0.75),
+                        tuple(m4, 0.25));
+    }
+
+    @Test
+    void onReviewChanged_ShouldApplyRatingUpdatesIncrementally() {
+        ratingMatrix.onReviewChanged(ReviewChangedEvent.updated(review(u2, m4, 2), 7));
+
+        assertThat(ratingMatrix.recommendFromNeighbours(u1, 7, 10))
+                .extracting(ScoredMovie::getMovieId)
+                .containsExactly(m3);
+    }
+
+    @Test
+    void onReviewChanged_ShouldHandleNewUsersAndDeletes() {
+        UUID u4 = UUID.randomUUID();
+        ratingMatrix.onReviewChanged(ReviewChangedEvent.created(review(u4, m3, 10)));
+        ratingMatrix.onReviewChanged(ReviewChangedEvent.deleted(review(u3, m2, 10)));
+
+        assertThat(ratingMatrix.hasRatingsAtLeast(u4, 7)).isTrue();
+        assertThat(ratingMatrix.recommendFromNeighbours(u4, 7, 10))
+                .extracting(ScoredMovie::getMovieId)
+                .containsExactly(m1, m4);
+        assertThat(ratingMatrix.ratingCount()).isEqualTo(8);
+        assertThat(ratingMatrix.recommendFromNeighbours(u1, 7, 10))
+                .extracting(ScoredMovie::getMovieId)
+                .containsExactly(m3, m4);
+    }
+
+    @Test
+    void compact_ShouldKeepIncrementalChanges() {
+        UUID u4 = UUID.randomUUID();
+        ratingMatrix.onReviewChanged(ReviewChangedEvent.created(review(u4, m3, 10)));
+        ratingMatrix.onReviewChanged(ReviewChangedEvent.deleted(review(u3, m2, 10)));
+
+        ratingMatrix.compact();
+
+        assertThat(ratingMatrix.ratingCount()).isEqualTo(8);
+        assertThat(ratingMatrix.recommendFromNeighbours(u4, 7, 10))
+                .extracting(ScoredMovie::getMovieId)
+                .containsExactly(m1, m4);
+    }
+
+    @Test
+    void rebuild_ShouldKeepReviewsCommittedDuringTheScan() {
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        RatingMatrix matrix = new RatingMatrix(reviewRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), DenseIds.inMemory());
+        when(reviewRepository.streamAllRatingTriples()).thenReturn(Stream.<Object[]>of(new Object[]{u1, m1, 8}));
+        matrix.rebuild();
+
+        // 스캔이 읽고 지나간 뒤 리뷰가 커밋된다
+        when(reviewRepository.streamAllRatingTriples()).thenReturn(Stream.<Object[]>of(new Object[]{u1, m1, 8})
+                .peek(row -> matrix.onReviewChanged(ReviewChangedEvent.created(review(u2, m1, 9)))));
+        matrix.rebuild();
+
+        assertThat(matrix.ratingCount()).isEqualTo(2);
+        assertThat(matrix.hasRatingsAtLeast(u2, 9)).isTrue();
+    }
+
+    private Review review(UUID userId, UUID movieId, int rating) {
+        return Review.builder()
+                .user(User.builder().id(userId).build())
+                .movie(Movie.builder().id(movieId).build())
+                .rating(rating)
+                .build();
+    }
+}
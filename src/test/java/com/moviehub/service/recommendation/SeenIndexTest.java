@@ -0,0 +1,99 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.entity.Movie;
+import com.moviehub.entity.Review;
+import com.moviehub.entity.User;
+import com.moviehub.event.FavoriteChangedEvent;
+import com.moviehub.event.ReviewChangedEvent;
+import com.moviehub.repository.FavoriteRepository;
+import com.moviehub.repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SeenIndexTest {
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID reviewed = UUID.randomUUID();
+    private final UUID favorited = UUID.randomUUID();
+    private final UUID fresh = UUID.randomUUID();
+
+    private SeenIndex seenIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+        when(reviewRepository.streamAllRatingTriples()).thenReturn(Stream.<Object[]>of(new Object[]{user, reviewed, 8}));
+        when(favoriteRepository.streamAllFavoritePairs()).thenReturn(Stream.<Object[]>of(new Object[]{user, favorited}));
+
+        seenIndex = new SeenIndex(reviewRepository, favoriteRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), DenseIds.inMemory());
+        seenIndex.rebuild();
+    }
+
+    @Test
+    void notSeenBy_ShouldExcludeReviewedAndFavoritedMovies() {
+        Predicate<UUID> notSeen = seenIndex.notSeenBy(user);
+
+        assertThat(notSeen.test(reviewed)).isFalse();
+        assertThat(notSeen.test(favorited)).isFalse();
+        assertThat(notSeen.test(fresh)).isTrue();
+        assertThat(seenIndex.notSeenBy(null).test(reviewed)).isTrue();
+        assertThat(seenIndex.notSeenBy(UUID.randomUUID()).test(reviewed)).isTrue();
+    }
+
+    @Test
+    void events_ShouldKeepBitmapsCurrent() {
+        seenIndex.onReviewChanged(ReviewChangedEvent.created(review(fresh)));
+        seenIndex.onFavoriteChanged(FavoriteChangedEvent.removed(user, favorited));
+        seenIndex.onFavoriteChanged(FavoriteChangedEvent.added(user, reviewed));
+        seenIndex.onFavoriteChanged(FavoriteChangedEvent.removed(user, reviewed));
+
+        Predicate<UUID> notSeen = seenIndex.notSeenBy(user);
+        assertThat(notSeen.test(fresh)).isFalse();
+        assertThat(notSeen.test(favorited)).isTrue();
+        // 즐겨찾기를 해제해도 리뷰가 남아 있으면 본 영화다
+        assertThat(notSeen.test(reviewed)).isFalse();
+
+        seenIndex.onReviewChanged(ReviewChangedEvent.deleted(review(reviewed)));
+        assertThat(seenIndex.notSeenBy(user).test(reviewed)).isTrue();
+    }
+
+    @Test
+    void rebuild_ShouldKeepChangesCommittedDuringTheScan() {
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+        SeenIndex index = new SeenIndex(reviewRepository, favoriteRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), DenseIds.inMemory());
+        when(reviewRepository.streamAllRatingTriples()).thenReturn(Stream.<Object[]>of(new Object[]{user, reviewed, 8}));
+        when(favoriteRepository.streamAllFavoritePairs()).thenReturn(Stream.empty());
+        index.rebuild();
+
+        // 스캔이 읽고 지나간 뒤 즐겨찾기가 커밋된다
+        when(reviewRepository.streamAllRatingTriples()).thenReturn(Stream.<Object[]>of(new Object[]{user, reviewed, 8})
+                .peek(row -> index.onFavoriteChanged(FavoriteChangedEvent.added(user, fresh))));
+        when(favoriteRepository.streamAllFavoritePairs()).thenReturn(Stream.empty());
+        index.rebuild();
+
+        assertThat(index.notSeenBy(user).test(fresh)).isFalse();
+        assertThat(index.notSeenBy(user).test(reviewed)).isFalse();
+    }
+
+    private Review review(UUID movieId) {
+        return Review.builder()
+                .user(User.builder().id(user).build())
+                .movie(Movie.builder().id(movieId).build())
+                .rating(8)
+                .build();
+    }
+}
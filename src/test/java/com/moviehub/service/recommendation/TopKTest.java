@@ -0,0 +1,60 @@
+package com.moviehub.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKTest {
+
+    @Test
+    void drain_ShouldMatchFullSortWithDeterministicTies() {
+        Random random = new Random(3L);
+        int n = 5000;
+        double[] scores = new double[n];
+        double[] ties = new double[n];
+        for (int i = 0; i < n; i++) {
+            scores[i] = random.nextInt(10);
+            ties[i] = random.nextInt(5);
+        }
+
+        TopK top = new TopK(50);
+        for (int i = 0; i < n; i++) {
+            top.offer(i, scores[i], ties[i]);
+        }
+        int[] ids = new int[top.size()];
+        double[] topScores = new double[top.size()];
+        top.drain(ids, topScores);
+
+        int[] expected = IntStream.range(0, n).boxed()
+                .sorted(Comparator.<Integer>comparingDouble(i -> scores[i]).reversed()
+                        .thenComparing(Comparator.<Integer>comparingDouble(i -> ties[i]).reversed())
+                        .thenComparing(Comparator.naturalOrder()))
+                .limit(50)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertThat(ids).containsExactly(expected);
+        assertThat(topScores[0]).isEqualTo(scores[expected[0]]);
+        assertThat(top.size()).isZero();
+    }
+
+    @Test
+    void drain_ShouldReturnEverythingWhenFewerThanK() {
+        TopK top = new TopK(10);
+        top.offer(7, 1.0);
+        top.offer(3, 2.0);
+        top.offer(5, 1.0);
+
+        int[] ids = new int[top.size()];
+        top.drain(ids, null);
+
+        assertThat(ids).containsExactly(3, 5, 7);
+        assertThat(new TopK(0)).satisfies(empty -> {
+            empty.offer(1, 1.0);
+            assertThat(empty.size()).isZero();
+        });
+    }
+}
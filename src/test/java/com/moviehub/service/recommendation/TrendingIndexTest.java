@@ -0,0 +1,93 @@
+package com.moviehub.service.recommendation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviehub.entity.Trend;
+import com.moviehub.event.FavoriteChangedEvent;
+import com.moviehub.repository.FavoriteRepository;
+import com.moviehub.repository.MovieRepository;
+import com.moviehub.repository.ReviewRepository;
+import com.moviehub.repository.TrendRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrendingIndexTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private final UUID oldHit = UUID.randomUUID();
+    private final UUID freshHit = UUID.randomUUID();
+    private final UUID tmdbHit = UUID.randomUUID();
+
+    private ReviewRepository reviewRepository;
+    private TrendingIndex trendingIndex;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository = mock(ReviewRepository.class);
+        FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+        TrendRepository trendRepository = mock(TrendRepository.class);
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(reviewRepository.findMovieActivitySince(any())).thenReturn(List.of());
+        when(favoriteRepository.findMovieActivitySince(any())).thenReturn(List.of());
+        when(trendRepository.findRecentTrends(any())).thenReturn(List.of(Trend.builder()
+                .keyword("Trending")
+                .source("TMDb")
+                .metadata("{\"movie_id\":42,\"poster_path\":\"/p.jpg\"}")
+                .createdAt(LocalDateTime.now())
+                .build()));
+        when(movieRepository.findIdsByTmdbIds(any())).thenReturn(List.<Object[]>of(new Object[]{42, tmdbHit}));
+
+        trendingIndex = new TrendingIndex(reviewRepository, favoriteRepository, trendRepository, movieRepository,
+                new ObjectMapper(), DenseIds.inMemory(), 6, 36, 168, 1.0, 2.0, 5.0, 2);
+        trendingIndex.rebuild();
+    }
+
+    @Test
+    void findTop_ShouldRankByActivityDecayedPerTimeRange() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            trendingIndex.record(oldHit, 1.0, now - 72 * HOUR);
+        }
+        trendingIndex.record(freshHit, 1.0, now);
+        trendingIndex.record(freshHit, 1.0, now);
+
+        // 하루 반감기 6시간: 사흘 전 10건은 거의 사라지고, 한 달 반감기 7일: 아직 7건 이상 남는다
+        assertThat(trendingIndex.findTop("day", 1)).extracting(ScoredMovie::getMovieId).containsExactly(tmdbHit);
+        assertThat(trendingIndex.findTop("day", 10)).extracting(ScoredMovie::getMovieId)
+                .containsExactly(tmdbHit, freshHit);
+        List<ScoredMovie> month = trendingIndex.findTop("MONTH", 10);
+        assertThat(month).extracting(ScoredMovie::getMovieId).containsExactly(oldHit, tmdbHit);
+        assertThat(month.get(0).getScore()).isCloseTo(10 * Math.pow(0.5, 72.0 / 168), within(0.01));
+    }
+
+    @Test
+    void findTop_WithUnknownRange_ShouldThrow() {
+        assertThat(trendingIndex.supports("year")).isFalse();
+        assertThatThrownBy(() -> trendingIndex.findTop("year", 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rebuild_ShouldKeepActivityRecordedDuringTheQueries() {
+        // 리뷰 활동을 읽은 뒤 즐겨찾기가 커밋된다
+        when(reviewRepository.findMovieActivitySince(any())).thenAnswer(invocation -> {
+            trendingIndex.onFavoriteChanged(FavoriteChangedEvent.added(UUID.randomUUID(), freshHit));
+            return List.of();
+        });
+        trendingIndex.rebuild();
+
+        assertThat(trendingIndex.findTop("day", 10)).extracting(ScoredMovie::getMovieId)
+                .containsExactly(tmdbHit, freshHit);
+        assertThat(trendingIndex.findTop("day", 10).get(1).getScore()).isCloseTo(2.0, within(0.01));
+    }
+}
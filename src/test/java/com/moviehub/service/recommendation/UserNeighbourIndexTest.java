@@ -0,0 +1,112 @@
+package com.moviehub.service.recommendation;
+
+import com.moviehub.entity.Movie;
+import com.moviehub.entity.Review;
+import com.moviehub.entity.User;
+import com.moviehub.event.ReviewChangedEvent;
+import com.moviehub.repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserNeighbourIndexTest {
+
+    private final UUID u1 = UUID.randomUUID();
+    private final UUID u2 = UUID.randomUUID();
+    private final UUID u3 = UUID.randomUUID();
+    private final UUID u4 = UUID.randomUUID();
+    private final List<UUID> action = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    private final List<UUID> drama = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+    private DenseIds denseIds;
+    private UserNeighbourIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> likes = new ArrayList<>();
+        action.forEach(movie -> likes.add(new Object[]{u1, movie}));
+        action.forEach(movie -> likes.add(new Object[]{u2, movie}));
+        drama.forEach(movie -> likes.add(new Object[]{u3, movie}));
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        when(reviewRepository.streamLikedPairs(anyInt())).thenReturn(likes.stream());
+
+        denseIds = DenseIds.inMemory();
+        index = new UserNeighbourIndex(reviewRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), denseIds, 7, 32, 2, 2000);
+        index.rebuild();
+    }
+
+    @Test
+    void findNeighbours_ShouldReturnUsersSharingLikedMovies() {
+        UserNeighbourIndex.Neighbours neighbours = index.findNeighbours(u1, 10);
+
+        assertThat(neighbourIds(neighbours)).containsExactly(u2);
+        assertThat(neighbours.similarity(0)).isEqualTo(1.0);
+        assertThat(index.findNeighbours(u3, 10).isEmpty()).isTrue();
+        assertThat(index.findNeighbours(UUID.randomUUID(), 10).isEmpty()).isTrue();
+    }
+
+    @Test
+    void onReviewChanged_ShouldMaintainSignaturesIncrementally() {
+        action.forEach(movie -> index.onReviewChanged(ReviewChangedEvent.created(review(u4, movie, 9))));
+
+        assertThat(neighbourIds(index.findNeighbours(u1, 10))).containsExactlyInAnyOrder(u2, u4);
+
+        // 낮은 평점으로 바꾸거나 지우면 좋아한 영화에서 빠진다
+        index.onReviewChanged(ReviewChangedEvent.updated(review(u4, action.get(0), 3), 9));
+        action.subList(1, 4).forEach(movie ->
+                index.onReviewChanged(ReviewChangedEvent.deleted(review(u4, movie, 9))));
+
+        assertThat(neighbourIds(index.findNeighbours(u1, 10))).containsExactly(u2);
+        assertThat(index.findNeighbours(u4, 10).isEmpty()).isTrue();
+    }
+
+    @Test
+    void rebuild_ShouldKeepLikesCommittedDuringTheScan() {
+        List<Object[]> likes = new ArrayList<>();
+        action.forEach(movie -> likes.add(new Object[]{u1, movie}));
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        UserNeighbourIndex rebuilt = new UserNeighbourIndex(reviewRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), denseIds, 7, 32, 2, 2000);
+        when(reviewRepository.streamLikedPairs(anyInt())).thenReturn(likes.stream());
+        rebuilt.rebuild();
+
+        // 스캔이 첫 행을 읽은 뒤 u4 의 좋아요가 커밋된다
+        AtomicBoolean committed = new AtomicBoolean();
+        when(reviewRepository.streamLikedPairs(anyInt())).thenReturn(likes.stream().peek(row -> {
+            if (!committed.getAndSet(true)) {
+                action.forEach(movie -> rebuilt.onReviewChanged(ReviewChangedEvent.created(review(u4, movie, 9))));
+            }
+        }));
+        rebuilt.rebuild();
+
+        assertThat(neighbourIds(rebuilt.findNeighbours(u4, 10))).containsExactly(u1);
+    }
+
+    private List<UUID> neighbourIds(UserNeighbourIndex.Neighbours neighbours) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < neighbours.size(); i++) {
+            ids.add(denseIds.getUsers().uuidOf(neighbours.user(i)));
+        }
+        return ids;
+    }
+
+    private Review review(UUID userId, UUID movieId, int rating) {
+        return Review.builder()
+                .user(User.builder().id(userId).build())
+                .movie(Movie.builder().id(movieId).build())
+                .rating(rating)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.moviehub.service.recommendation.pipeline;
+
+import com.moviehub.service.recommendation.ScoredMovie;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecommendationPipelineTest {
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID c = UUID.randomUUID();
+    private final UUID d = UUID.randomUUID();
+
+    @Test
+    void run_ShouldMergeGeneratorsFilterAndRank() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        RecommendationPipeline pipeline = RecommendationPipeline.builder("test", metrics)
+                .generator("first", request -> List.of(new ScoredMovie(a, 1.0), new ScoredMovie(b, 0.5)))
+                .generator("second", request -> List.of(new ScoredMovie(b, 1.0), new ScoredMovie(c, 0.9)), 2.0)
+                .filter("drop_c", request -> movieId -> !movieId.equals(c))
+                .build();
+
+        List<ScoredMovie> result = pipeline.run(request(10));
+
+        assertThat(result).extracting(ScoredMovie::getMovieId).containsExactly(b, a);
+        assertThat(result.get(0).getScore()).isEqualTo(2.5);
+    }
+
+    @Test
+    void run_ShouldApplyScorersRerankersAndLimit() {
+        RecommendationPipeline pipeline = RecommendationPipeline.builder("test", new PipelineMetrics())
+                .generator("all", request -> List.of(
+                        new ScoredMovie(a, 4), new ScoredMovie(b, 3), new ScoredMovie(c, 2), new ScoredMovie(d, 1)))
+                .scorer("invert", (request, candidates) -> candidates.stream()
+                        .map(m -> new ScoredMovie(m.getMovieId(), -m.getScore()))
+                        .collect(Collectors.toList()))
+                .reranker("drop_first", (request, ranked) -> ranked.subList(1, ranked.size()))
+                .build();
+
+        assertThat(pipeline.run(request(2))).extracting(ScoredMovie::getMovieId).containsExactly(c, b);
+    }
+
+    @Test
+    void run_ShouldRecordStageStats() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        RecommendationPipeline pipeline = RecommendationPipeline.builder("test", metrics)
+                .generator("gen", request -> List.of(new ScoredMovie(a, 1), new ScoredMovie(b, 1)))
+                .filter("drop_a", request -> movieId -> !movieId.equals(a))
+                .build();
+
+        pipeline.run(request(10));
+        pipeline.run(request(10));
+
+        assertThat(metrics.snapshot()).extracting(StageStats::getStage)
+                .containsExactly("gen", "drop_a", "rank", "total");
+        StageStats filter = metrics.snapshot().get(1);
+        assertThat(filter.getCalls()).isEqualTo(2);
+        assertThat(filter.getAverageCandidatesIn()).isEqualTo(2.0);
+        assertThat(filter.getAverageCandidatesOut()).isEqualTo(1.0);
+        assertThat(filter.percentileMicros(0.99)).isPositive();
+    }
+
+    private static PipelineRequest request(int limit) {
+        return PipelineRequest.builder().limit(limit).candidateLimit(limit * 2).build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.moviehub.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BkTreeTest {
+
+    @Test
+    void distance_ShouldCountInsertionsDeletionsAndSubstitutions() {
+        assertThat(BkTree.distance("knight", "knigth")).isEqualTo(2);
+        assertThat(BkTree.distance("kitten", "sitting")).isEqualTo(3);
+        assertThat(BkTree.distance("", "abc")).isEqualTo(3);
+        assertThat(BkTree.distance("same", "same")).isZero();
+    }
+
+    @Test
+    void search_ShouldFindExactlyTheTermsWithinDistance() {
+        List<String> terms = List.of("book", "books", "cake", "boo", "cape", "cart", "boon", "cook");
+        BkTree tree = new BkTree();
+        Map<Integer, String> nodes = new HashMap<>();
+        for (String term : terms) {
+            nodes.put(tree.add(term), term);
+        }
+        assertThat(tree.add("book")).isZero();
+        assertThat(tree.size()).isEqualTo(terms.size());
+
+        Map<String, Integer> found = new HashMap<>();
+        tree.search("bood", 1, (node, distance) -> found.put(nodes.get(node), distance));
+
+        Map<String, Integer> expected = new HashMap<>();
+        for (String term : terms) {
+            int distance = BkTree.distance("bood", term);
+            if (distance <= 1) {
+                expected.put(term, distance);
+            }
+        }
+        assertThat(found).isEqualTo(expected).containsKeys("book", "boo", "boon");
+    }
+}
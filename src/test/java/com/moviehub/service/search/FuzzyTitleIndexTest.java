@@ -0,0 +1,54 @@
+package com.moviehub.service.search;
+
+import com.moviehub.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FuzzyTitleIndexTest {
+
+    private final UUID parasite = UUID.randomUUID();
+    private final UUID darkKnight = UUID.randomUUID();
+    private final UUID darkKnightRises = UUID.randomUUID();
+
+    private FuzzyTitleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findTitleIndexRows()).thenReturn(List.of(
+                new Object[]{parasite, "기생충", "Parasite", BigDecimal.valueOf(80)},
+                new Object[]{darkKnight, "다크 나이트", "The Dark Knight", BigDecimal.valueOf(120)},
+                new Object[]{darkKnightRises, "다크 나이트 라이즈", "The Dark Knight Rises", BigDecimal.valueOf(300)}
+        ));
+
+        TitleCatalog catalog = new TitleCatalog(movieRepository);
+        index = new FuzzyTitleIndex(catalog, 2);
+        catalog.rebuild();
+    }
+
+    @Test
+    void search_ShouldTolerateTyposInWordsAndTitles() {
+        assertThat(index.search("parasit", 0, 10).getMovieIds()).containsExactly(parasite);
+        assertThat(index.search("기생츙", 0, 10).getMovieIds()).containsExactly(parasite);
+        // 정확히 맞는 제목이 먼저, 같은 거리면 인기도 순
+        assertThat(index.search("the dark knigth", 0, 10).getMovieIds()).containsExactly(darkKnight, darkKnightRises);
+        assertThat(index.search("dark knigth rises", 0, 10).getMovieIds()).containsExactly(darkKnightRises);
+    }
+
+    @Test
+    void search_ShouldLimitDistanceForShortQueries() {
+        assertThat(index.search("the", 0, 10).getMovieIds()).containsExactly(darkKnightRises, darkKnight);
+        assertThat(index.search("thx", 0, 10).getMovieIds()).containsExactly(darkKnightRises, darkKnight);
+        assertThat(index.search("tx", 0, 10).isEmpty()).isTrue();
+        assertThat(index.search("batman", 0, 10).isEmpty()).isTrue();
+        assertThat(index.search("x", 0, 10).isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,26 @@
+package com.moviehub.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HangulJamoTest {
+
+    @Test
+    void decompose_ShouldSplitCompoundVowelsAndFinalConsonants() {
+        assertThat(HangulJamo.decompose("기생충")).isEqualTo("ㄱㅣㅅㅐㅇㅊㅜㅇ");
+        assertThat(HangulJamo.decompose("사과 닭")).isEqualTo("ㅅㅏㄱㅗㅏㄷㅏㄹㄱ");
+        assertThat(HangulJamo.decompose("Up ㅘ")).isEqualTo("upㅗㅏ");
+        // 입력 중인 글자는 완성된 글자의 자모 앞부분이다
+        assertThat(HangulJamo.decompose("기생충")).startsWith(HangulJamo.decompose("기새"));
+    }
+
+    @Test
+    void chosung_ShouldKeepInitialsAndDetectChosungQueries() {
+        assertThat(HangulJamo.chosung("어벤져스: 엔드게임")).isEqualTo("ㅇㅂㅈㅅㅇㄷㄱㅇ");
+        assertThat(HangulJamo.chosung("기ㅅㅊ")).isEqualTo("ㄱㅅㅊ");
+        assertThat(HangulJamo.isChosungOnly("ㅇㅂㅈㅅ ㅇㄷ")).isTrue();
+        assertThat(HangulJamo.isChosungOnly("기ㅅㅊ")).isFalse();
+        assertThat(HangulJamo.isChosungOnly(" ")).isFalse();
+    }
+}
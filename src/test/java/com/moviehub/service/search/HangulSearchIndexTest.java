@@ -0,0 +1,55 @@
+package com.moviehub.service.search;
+
+import com.moviehub.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HangulSearchIndexTest {
+
+    private final UUID avengers = UUID.randomUUID();
+    private final UUID avengersDoc = UUID.randomUUID();
+    private final UUID parasite = UUID.randomUUID();
+
+    private HangulSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findTitleIndexRows()).thenReturn(List.of(
+                new Object[]{avengers, "어벤져스: 엔드게임", "Avengers: Endgame", BigDecimal.valueOf(300)},
+                new Object[]{avengersDoc, "메이킹 오브 어벤져스", null, BigDecimal.valueOf(900)},
+                new Object[]{parasite, "기생충", "Parasite", BigDecimal.valueOf(80)}
+        ));
+
+        TitleCatalog catalog = new TitleCatalog(movieRepository);
+        index = new HangulSearchIndex(catalog);
+        catalog.rebuild();
+    }
+
+    @Test
+    void searchChosung_ShouldRankTitlePrefixMatchesFirst() {
+        MovieSearchIndex.Hits hits = index.searchChosung("ㅇㅂㅈㅅ", 0, 10);
+
+        assertThat(hits.getMovieIds()).containsExactly(avengers, avengersDoc);
+        assertThat(hits.getTotal()).isEqualTo(2);
+        assertThat(index.searchChosung("ㄱㅅ ㅊ", 0, 10).getMovieIds()).containsExactly(parasite);
+        assertThat(index.searchChosung("ㅇㅂㅈㅅ", 1, 10).getMovieIds()).containsExactly(avengersDoc);
+        assertThat(index.searchChosung("ㅎㅎ", 0, 10).isEmpty()).isTrue();
+    }
+
+    @Test
+    void searchJamo_ShouldMatchPartiallyTypedSyllables() {
+        assertThat(index.searchJamo("기새", 0, 10).getMovieIds()).containsExactly(parasite);
+        assertThat(index.searchJamo("어벤져스엔", 0, 10).getMovieIds()).containsExactly(avengers);
+        assertThat(index.searchJamo("para", 0, 10).getMovieIds()).containsExactly(parasite);
+        assertThat(index.searchJamo("ㅇ", 0, 10).getMovieIds()).containsExactlyInAnyOrder(avengers, avengersDoc, parasite);
+    }
+}
@@ -0,0 +1,87 @@
+package com.moviehub.service.search;
+
+import com.moviehub.entity.Movie;
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovieSearchIndexTest {
+
+    private final UUID parasite = UUID.randomUUID();
+    private final UUID parasiteDoc = UUID.randomUUID();
+    private final UUID darkKnight = UUID.randomUUID();
+    private final UUID darkKnightRises = UUID.randomUUID();
+
+    private MovieSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findTitleIndexRows()).thenReturn(List.of(
+                new Object[]{parasite, "기생충", "Parasite", BigDecimal.valueOf(80)},
+                new Object[]{parasiteDoc, "기생충 다큐멘터리", null, BigDecimal.valueOf(5)},
+                new Object[]{darkKnight, "다크 나이트", "The Dark Knight", BigDecimal.valueOf(120)},
+                new Object[]{darkKnightRises, "다크 나이트 라이즈", "The Dark Knight Rises", BigDecimal.valueOf(300)}
+        ));
+
+        index = new MovieSearchIndex(movieRepository, 1.2, 0.75, 0.1);
+        index.rebuild();
+    }
+
+    @Test
+    void search_ShouldMatchHangulSubstringsAndWordsRankedByBm25() {
+        MovieSearchIndex.Hits hangul = index.search("기생충", 0, 10);
+        assertThat(hangul.getMovieIds()).containsExactly(parasite, parasiteDoc);
+        assertThat(hangul.getTotal()).isEqualTo(2);
+
+        // 띄어쓰기가 달라도 음절 bigram 으로 찾는다
+        assertThat(index.search("다크나이트", 0, 10).getMovieIds()).containsExactlyInAnyOrder(darkKnight, darkKnightRises);
+        assertThat(index.search("PARASITE", 0, 10).getMovieIds()).containsExactly(parasite);
+        assertThat(index.search("dark knight rises", 0, 10).getMovieIds()).containsExactly(darkKnightRises);
+        assertThat(index.search("batman", 0, 10).isEmpty()).isTrue();
+        assertThat(index.search("?!", 0, 10).isEmpty()).isTrue();
+    }
+
+    @Test
+    void search_ShouldPageByOffsetAndKeepTotal() {
+        MovieSearchIndex.Hits second = index.search("dark", 1, 1);
+
+        assertThat(second.getTotal()).isEqualTo(2);
+        assertThat(second.getMovieIds()).hasSize(1);
+        assertThat(index.search("dark", 0, 1).getMovieIds()).doesNotContainAnyElementsOf(second.getMovieIds());
+    }
+
+    @Test
+    void search_ShouldRejectPagesBeyondResultWindow() {
+        assertThat(index.search("dark", MovieSearchIndex.MAX_RESULT_WINDOW - 1, 1).getMovieIds()).isEmpty();
+        assertThatThrownBy(() -> index.search("dark", MovieSearchIndex.MAX_RESULT_WINDOW, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.search("dark", Integer.MAX_VALUE, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void onMovieChanged_ShouldReindexSavedMoviesAndDropDeletedOnes() {
+        index.onMovieChanged(MovieChangedEvent.saved(Movie.builder()
+                .id(parasiteDoc)
+                .title("살인의 추억")
+                .originalTitle("Memories of Murder")
+                .popularity(BigDecimal.valueOf(40))
+                .build()));
+        index.onMovieChanged(MovieChangedEvent.deleted(darkKnight));
+
+        assertThat(index.search("기생충", 0, 10).getMovieIds()).containsExactly(parasite);
+        assertThat(index.search("추억", 0, 10).getMovieIds()).containsExactly(parasiteDoc);
+        assertThat(index.search("dark knight", 0, 10).getMovieIds()).containsExactly(darkKnightRises);
+    }
+}
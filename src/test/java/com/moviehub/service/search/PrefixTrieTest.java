@@ -0,0 +1,36 @@
+package com.moviehub.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixTrieTest {
+
+    private final String[] keys = {"star wars", "star trek", "stardust", "star", "기생충", "기생수", "parasite", "stardust"};
+    private final int[] values = {0, 1, 2, 3, 4, 5, 4, 6};
+    private final double[] scores = {90, 70, 10, 30, 80, 20, 50};
+
+    @Test
+    void top_ShouldReturnValuesUnderPrefixByScore() {
+        PrefixTrie trie = PrefixTrie.build(keys, values, scores, 3);
+
+        assertThat(trie.top("star")).containsExactly(0, 1, 6);
+        assertThat(trie.top("star ")).containsExactly(0, 1);
+        assertThat(trie.top("stard")).containsExactly(6, 2);
+        assertThat(trie.top("star wars")).containsExactly(0);
+        assertThat(trie.top("기생")).containsExactly(4, 5);
+        assertThat(trie.top("")).containsExactly(0, 4, 1);
+        assertThat(trie.top("stars")).isEmpty();
+        assertThat(trie.top("x")).isEmpty();
+    }
+
+    @Test
+    void build_ShouldListEachValueOnceAndStayCompact() {
+        PrefixTrie trie = PrefixTrie.build(keys, values, scores, 10);
+
+        // 값 4 는 "기생충" 과 "parasite" 두 키로 들어오지만 한 번만 나온다
+        assertThat(trie.top("")).containsExactly(0, 4, 1, 6, 3, 5, 2);
+        assertThat(trie.nodeCount()).isLessThanOrEqualTo(keys.length * 2);
+        assertThat(PrefixTrie.build(new String[0], new int[0], new double[0], 3).top("a")).isEmpty();
+    }
+}
@@ -0,0 +1,66 @@
+package com.moviehub.service.search;
+
+import com.moviehub.dto.MovieDto;
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TitleAutocompleteIndexTest {
+
+    private final UUID parasite = UUID.randomUUID();
+    private final UUID darkKnight = UUID.randomUUID();
+    private final UUID darkKnightRises = UUID.randomUUID();
+
+    private final List<Object[]> rows = new ArrayList<>();
+    private TitleCatalog catalog;
+    private TitleAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        rows.add(new Object[]{parasite, "기생충", "Parasite", BigDecimal.valueOf(80)});
+        rows.add(new Object[]{darkKnight, "다크 나이트", "The Dark Knight", BigDecimal.valueOf(120)});
+        rows.add(new Object[]{darkKnightRises, "다크 나이트 라이즈", "The  Dark Knight Rises", BigDecimal.valueOf(300)});
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findTitleIndexRows()).thenAnswer(invocation -> List.copyOf(rows));
+
+        catalog = new TitleCatalog(movieRepository);
+        index = new TitleAutocompleteIndex(catalog, 5);
+        catalog.rebuild();
+    }
+
+    @Test
+    void suggest_ShouldMatchTitleOrOriginalTitlePrefixByPopularity() {
+        assertThat(index.suggest("다크", 10)).extracting(MovieDto.Suggestion::getId)
+                .containsExactly(darkKnightRises, darkKnight);
+        assertThat(index.suggest("THE DARK knight", 1)).extracting(MovieDto.Suggestion::getId)
+                .containsExactly(darkKnightRises);
+        assertThat(index.suggest("para", 10)).extracting(MovieDto.Suggestion::getTitle)
+                .containsExactly("기생충");
+        assertThat(index.suggest("  ", 10)).isEmpty();
+        assertThat(index.suggest("batman", 10)).isEmpty();
+    }
+
+    @Test
+    void refreshIfDirty_ShouldRebuildOnlyAfterMovieChanges() {
+        UUID parasiteDoc = UUID.randomUUID();
+        rows.add(new Object[]{parasiteDoc, "기생충 다큐멘터리", null, BigDecimal.valueOf(500)});
+
+        catalog.refreshIfDirty();
+        assertThat(index.suggest("기생", 10)).extracting(MovieDto.Suggestion::getId).containsExactly(parasite);
+
+        catalog.onMovieChanged(MovieChangedEvent.deleted(UUID.randomUUID()));
+        catalog.refreshIfDirty();
+        assertThat(index.suggest("기생", 10)).extracting(MovieDto.Suggestion::getId)
+                .containsExactly(parasiteDoc, parasite);
+    }
+}
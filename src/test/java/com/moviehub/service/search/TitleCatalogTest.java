@@ -0,0 +1,64 @@
+package com.moviehub.service.search;
+
+import com.moviehub.dto.MovieDto;
+import com.moviehub.event.MovieChangedEvent;
+import com.moviehub.repository.MovieRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TitleCatalogTest {
+
+    @Test
+    void refreshIfDirty_ShouldReadTitlesOnceAndRebuildEverySubscribedIndex() {
+        UUID parasite = UUID.randomUUID();
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{parasite, "기생충", "Parasite", BigDecimal.valueOf(80)});
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findTitleIndexRows()).thenAnswer(invocation -> List.copyOf(rows));
+
+        TitleCatalog catalog = new TitleCatalog(movieRepository);
+        TitleAutocompleteIndex autocomplete = new TitleAutocompleteIndex(catalog, 5);
+        HangulSearchIndex hangul = new HangulSearchIndex(catalog);
+        FuzzyTitleIndex fuzzy = new FuzzyTitleIndex(catalog, 2);
+        catalog.rebuild();
+
+        UUID parasiteDoc = UUID.randomUUID();
+        rows.add(new Object[]{parasiteDoc, "기생충 다큐멘터리", null, BigDecimal.valueOf(500)});
+        catalog.refreshIfDirty();
+        assertThat(hangul.searchChosung("ㄱㅅㅊ", 0, 10).getMovieIds()).containsExactly(parasite);
+
+        catalog.onMovieChanged(MovieChangedEvent.deleted(UUID.randomUUID()));
+        catalog.refreshIfDirty();
+        assertThat(autocomplete.suggest("기생", 10)).extracting(MovieDto.Suggestion::getId)
+                .containsExactly(parasiteDoc, parasite);
+        assertThat(hangul.searchChosung("ㄱㅅㅊ", 0, 10).getMovieIds()).containsExactlyInAnyOrder(parasiteDoc, parasite);
+        assertThat(fuzzy.search("다큐멘터리", 0, 10).getMovieIds()).containsExactly(parasiteDoc);
+        verify(movieRepository, times(2)).findTitleIndexRows();
+    }
+
+    @Test
+    void current_ShouldLoadLazilyBeforeFirstRebuild() {
+        UUID parasite = UUID.randomUUID();
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findTitleIndexRows()).thenReturn(List.<Object[]>of(
+                new Object[]{parasite, "기생충", "Parasite", BigDecimal.valueOf(80)}));
+
+        TitleCatalog catalog = new TitleCatalog(movieRepository);
+        TitleAutocompleteIndex autocomplete = new TitleAutocompleteIndex(catalog, 5);
+        FuzzyTitleIndex fuzzy = new FuzzyTitleIndex(catalog, 2);
+
+        assertThat(autocomplete.suggest("para", 10)).extracting(MovieDto.Suggestion::getId).containsExactly(parasite);
+        assertThat(fuzzy.search("parasit", 0, 10).getMovieIds()).containsExactly(parasite);
+        verify(movieRepository, times(1)).findTitleIndexRows();
+    }
+}